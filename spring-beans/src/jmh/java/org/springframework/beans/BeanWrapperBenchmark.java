@@ -0,0 +1,111 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for {@link BeanWrapperImpl#setPropertyValue}, for simple,
+ * type-converted and nested property paths.
+ *
+ * @since 5.0
+ */
+@BenchmarkMode(Mode.Throughput)
+public class BeanWrapperBenchmark {
+
+	@Benchmark
+	public Object setSimpleProperty(BenchmarkData data) {
+		data.beanWrapper.setPropertyValue("name", "Tom");
+		return data.bean;
+	}
+
+	@Benchmark
+	public Object setConvertedProperty(BenchmarkData data) {
+		data.beanWrapper.setPropertyValue("age", "42");
+		return data.bean;
+	}
+
+	@Benchmark
+	public Object setNestedProperty(BenchmarkData data) {
+		data.beanWrapper.setPropertyValue("spouse.name", "Jerry");
+		return data.bean;
+	}
+
+	@Benchmark
+	public Object newBeanWrapperAndSetProperty(BenchmarkData data) {
+		BeanWrapper beanWrapper = new BeanWrapperImpl(data.bean);
+		beanWrapper.setPropertyValue("name", "Tom");
+		return beanWrapper;
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		Person bean;
+
+		BeanWrapper beanWrapper;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.bean = new Person();
+			this.bean.setSpouse(new Person());
+			this.beanWrapper = new BeanWrapperImpl(this.bean);
+		}
+	}
+
+
+	public static class Person {
+
+		private String name;
+
+		private int age;
+
+		private Person spouse;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+
+		public Person getSpouse() {
+			return this.spouse;
+		}
+
+		public void setSpouse(Person spouse) {
+			this.spouse = spouse;
+		}
+	}
+
+}
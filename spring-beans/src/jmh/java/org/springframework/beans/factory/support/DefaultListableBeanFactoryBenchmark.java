@@ -0,0 +1,130 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+
+/**
+ * Benchmarks for {@link DefaultListableBeanFactory#getBean}, for a cached
+ * singleton as well as for prototypes with property and constructor injection.
+ *
+ * @since 5.0
+ */
+@BenchmarkMode(Mode.Throughput)
+public class DefaultListableBeanFactoryBenchmark {
+
+	@Benchmark
+	public Object getSingletonByName(BenchmarkData data) {
+		return data.beanFactory.getBean("singleton");
+	}
+
+	@Benchmark
+	public Object getSingletonByType(BenchmarkData data) {
+		return data.beanFactory.getBean(Service.class);
+	}
+
+	@Benchmark
+	public Object getPrototypeWithPropertyInjection(BenchmarkData data) {
+		return data.beanFactory.getBean("prototype");
+	}
+
+	@Benchmark
+	public Object getPrototypeWithConstructorInjection(BenchmarkData data) {
+		return data.beanFactory.getBean("constructorPrototype");
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		DefaultListableBeanFactory beanFactory;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.beanFactory = new DefaultListableBeanFactory();
+
+			RootBeanDefinition singleton = new RootBeanDefinition(Service.class);
+			this.beanFactory.registerBeanDefinition("singleton", singleton);
+
+			RootBeanDefinition prototype = new RootBeanDefinition(Client.class);
+			prototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+			prototype.getPropertyValues().add("service", new RuntimeBeanReference("singleton"));
+			prototype.getPropertyValues().add("name", "client");
+			this.beanFactory.registerBeanDefinition("prototype", prototype);
+
+			RootBeanDefinition constructorPrototype = new RootBeanDefinition(Client.class);
+			constructorPrototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+			constructorPrototype.getConstructorArgumentValues().addGenericArgumentValue(
+					new RuntimeBeanReference("singleton"));
+			this.beanFactory.registerBeanDefinition("constructorPrototype", constructorPrototype);
+
+			for (int i = 0; i < 500; i++) {
+				this.beanFactory.registerBeanDefinition("filler" + i, new RootBeanDefinition(Filler.class));
+			}
+			this.beanFactory.preInstantiateSingletons();
+		}
+	}
+
+
+	public static class Service {
+	}
+
+
+	public static class Filler {
+	}
+
+
+	public static class Client {
+
+		private Service service;
+
+		private String name;
+
+		public Client() {
+		}
+
+		public Client(Service service) {
+			this.service = service;
+		}
+
+		public Service getService() {
+			return this.service;
+		}
+
+		public void setService(Service service) {
+			this.service = service;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+
+}
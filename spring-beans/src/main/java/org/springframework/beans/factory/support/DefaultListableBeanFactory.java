@@ -25,6 +25,8 @@ import java.lang.annotation.Annotation;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
@@ -41,6 +43,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
 
 import javax.inject.Provider;
 
@@ -66,10 +70,12 @@ import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.config.DependencyDescriptor;
 import org.springframework.beans.factory.config.NamedBeanHolder;
+import org.springframework.beans.factory.config.SmartInstantiationAwareBeanPostProcessor;
 import org.springframework.core.OrderComparator;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.AnnotationUtils;
@@ -147,6 +153,9 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	/** Optional OrderComparator for dependency Lists and arrays */
 	private Comparator<Object> dependencyComparator;
 
+	/** Optional Executor for parallel pre-instantiation of singletons */
+	private Executor bootstrapExecutor;
+
 	/** Resolver to use for checking if a bean definition is an autowire candidate */
 	private AutowireCandidateResolver autowireCandidateResolver = new SimpleAutowireCandidateResolver();
 
@@ -162,6 +171,9 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	/** Map of singleton-only bean names, keyed by dependency type */
 	private final Map<Class<?>, String[]> singletonBeanNamesByType = new ConcurrentHashMap<>(64);
 
+	/** Map of singleton and non-singleton bean names, keyed by raw dependency type and generic signature */
+	private final Map<Class<?>, Map<String, String[]>> allBeanNamesByGenericType = new ConcurrentHashMap<>(64);
+
 	/** List of bean definition names, in registration order */
 	private volatile List<String> beanDefinitionNames = new ArrayList<>(256);
 
@@ -257,6 +269,32 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return this.allowEagerClassLoading;
 	}
 
+	/**
+	 * Set an {@link Executor} for pre-instantiating singletons in parallel.
+	 * <p>Default is none, pre-instantiating all singletons in registration order
+	 * on the calling thread. If specified, {@link #preInstantiateSingletons()}
+	 * determines the dependencies between the singletons from their bean definitions
+	 * and creates independent singletons concurrently on the given executor, logging
+	 * the critical path through the dependency graph once all singletons are created.
+	 * <p>Note that singletons need to be safe for creation on arbitrary threads
+	 * then, in particular with respect to dependencies that are not expressed in
+	 * their bean definitions, e.g. static state shared between bean classes.
+	 * @since 5.0
+	 * @see #preInstantiateSingletons()
+	 */
+	public void setBootstrapExecutor(@Nullable Executor bootstrapExecutor) {
+		this.bootstrapExecutor = bootstrapExecutor;
+	}
+
+	/**
+	 * Return the {@link Executor} for pre-instantiating singletons in parallel, if any.
+	 * @since 5.0
+	 */
+	@Nullable
+	public Executor getBootstrapExecutor() {
+		return this.bootstrapExecutor;
+	}
+
 	/**
 	 * Set a {@link java.util.Comparator} for dependency Lists and arrays.
 	 * @since 4.0
@@ -316,6 +354,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			this.allowBeanDefinitionOverriding = otherListableFactory.allowBeanDefinitionOverriding;
 			this.allowEagerClassLoading = otherListableFactory.allowEagerClassLoading;
 			this.dependencyComparator = otherListableFactory.dependencyComparator;
+			this.bootstrapExecutor = otherListableFactory.bootstrapExecutor;
 			// A clone of the AutowireCandidateResolver since it is potentially BeanFactoryAware...
 			setAutowireCandidateResolver(BeanUtils.instantiateClass(getAutowireCandidateResolver().getClass()));
 			// Make resolvable dependencies (e.g. ResourceLoader) available here as well...
@@ -374,7 +413,21 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
 	@Override
 	public String[] getBeanNamesForType(@Nullable ResolvableType type) {
-		return doGetBeanNamesForType(type, true, true);
+		Class<?> resolvedClass = (type != null ? type.resolve() : null);
+		if (!isConfigurationFrozen() || resolvedClass == null || !isCacheSafe(type)) {
+			return doGetBeanNamesForType(type, true, true);
+		}
+		// Fully resolved generic signature, e.g. "com.example.Repository<com.example.Foo>"
+		String signature = type.toString();
+		Map<String, String[]> cache = this.allBeanNamesByGenericType.get(resolvedClass);
+		String[] resolvedBeanNames = (cache != null ? cache.get(signature) : null);
+		if (resolvedBeanNames != null) {
+			return resolvedBeanNames;
+		}
+		resolvedBeanNames = doGetBeanNamesForType(type, true, true);
+		this.allBeanNamesByGenericType.computeIfAbsent(resolvedClass, key -> new ConcurrentHashMap<>(4))
+				.put(signature, resolvedBeanNames);
+		return resolvedBeanNames;
 	}
 
 	@Override
@@ -400,6 +453,28 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return resolvedBeanNames;
 	}
 
+	/**
+	 * Determine whether the given type may serve as a by-type cache key: that is,
+	 * whether its signature consists of concrete classes (possibly parameterized)
+	 * throughout, with all of them visible to the bean ClassLoader.
+	 */
+	private boolean isCacheSafe(ResolvableType type) {
+		Type javaType = type.getType();
+		if (!(javaType instanceof Class || javaType instanceof ParameterizedType)) {
+			return false;
+		}
+		Class<?> resolvedClass = type.resolve();
+		if (resolvedClass == null || !ClassUtils.isCacheSafe(resolvedClass, getBeanClassLoader())) {
+			return false;
+		}
+		for (ResolvableType generic : type.getGenerics()) {
+			if (!isCacheSafe(generic)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	private String[] doGetBeanNamesForType(ResolvableType type, boolean includeNonSingletons, boolean allowEagerInit) {
 		List<String> result = new ArrayList<>();
 
@@ -728,30 +803,20 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		List<String> beanNames = new ArrayList<>(this.beanDefinitionNames);
 
 		// Trigger initialization of all non-lazy singleton beans...
-		for (String beanName : beanNames) {
-			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
-			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
-				if (isFactoryBean(beanName)) {
-					final FactoryBean<?> factory = (FactoryBean<?>) getBean(FACTORY_BEAN_PREFIX + beanName);
-					boolean isEagerInit;
-					if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
-						isEagerInit = AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
-							@Override
-							public Boolean run() {
-								return ((SmartFactoryBean<?>) factory).isEagerInit();
-							}
-						}, getAccessControlContext());
-					}
-					else {
-						isEagerInit = (factory instanceof SmartFactoryBean &&
-								((SmartFactoryBean<?>) factory).isEagerInit());
-					}
-					if (isEagerInit) {
-						getBean(beanName);
-					}
-				}
-				else {
-					getBean(beanName);
+		Executor executor = this.bootstrapExecutor;
+		if (executor != null) {
+			setConcurrentSingletonCreation(true);
+			try {
+				new ParallelSingletonInstantiator(this, executor).preInstantiateSingletons(beanNames);
+			}
+			finally {
+				setConcurrentSingletonCreation(false);
+			}
+		}
+		else {
+			for (String beanName : beanNames) {
+				if (isPreInstantiable(getMergedLocalBeanDefinition(beanName))) {
+					preInstantiateSingleton(beanName);
 				}
 			}
 		}
@@ -777,6 +842,44 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		}
 	}
 
+	/**
+	 * Determine whether the given bean definition describes a singleton
+	 * to be created by {@link #preInstantiateSingletons()}.
+	 */
+	boolean isPreInstantiable(RootBeanDefinition mbd) {
+		return (!mbd.isAbstract() && mbd.isSingleton() && !mbd.isLazyInit());
+	}
+
+	/**
+	 * Create the given singleton as part of {@link #preInstantiateSingletons()},
+	 * in case of a FactoryBean only creating its object if eagerly requested.
+	 * @param beanName the name of a pre-instantiable singleton
+	 */
+	void preInstantiateSingleton(String beanName) {
+		if (isFactoryBean(beanName)) {
+			final FactoryBean<?> factory = (FactoryBean<?>) getBean(FACTORY_BEAN_PREFIX + beanName);
+			boolean isEagerInit;
+			if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
+				isEagerInit = AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
+					@Override
+					public Boolean run() {
+						return ((SmartFactoryBean<?>) factory).isEagerInit();
+					}
+				}, getAccessControlContext());
+			}
+			else {
+				isEagerInit = (factory instanceof SmartFactoryBean &&
+						((SmartFactoryBean<?>) factory).isEagerInit());
+			}
+			if (isEagerInit) {
+				getBean(beanName);
+			}
+		}
+		else {
+			getBean(beanName);
+		}
+	}
+
 
 	//---------------------------------------------------------------------
 	// Implementation of BeanDefinitionRegistry interface
@@ -860,12 +963,16 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		if (oldBeanDefinition != null || containsSingleton(beanName)) {
 			resetBeanDefinition(beanName);
 		}
+		else {
+			clearByTypeCache(beanName);
+		}
 	}
 
 	@Override
 	public void removeBeanDefinition(String beanName) throws NoSuchBeanDefinitionException {
 		Assert.hasText(beanName, "'beanName' must not be empty");
 
+		clearByTypeCache(beanName);
 		BeanDefinition bd = this.beanDefinitionMap.remove(beanName);
 		if (bd == null) {
 			if (this.logger.isTraceEnabled()) {
@@ -897,6 +1004,9 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	 * @param beanName the name of the bean to reset
 	 */
 	protected void resetBeanDefinition(String beanName) {
+		// Remove by-type mappings for the previous merged bean definition, if any.
+		clearByTypeCache(beanName);
+
 		// Remove the merged bean definition for the given bean, if already created.
 		clearMergedBeanDefinition(beanName);
 
@@ -905,6 +1015,9 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		// (e.g. the default StaticMessageSource in a StaticApplicationContext).
 		destroySingleton(beanName);
 
+		// Remove by-type mappings that the new bean definition may contribute to.
+		clearByTypeCache(beanName);
+
 		// Reset all bean definitions that have the given bean as parent (recursively).
 		for (String bdName : this.beanDefinitionNames) {
 			if (!beanName.equals(bdName)) {
@@ -926,6 +1039,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
 	@Override
 	public void registerSingleton(String beanName, Object singletonObject) throws IllegalStateException {
+		clearByTypeCache(beanName);
 		super.registerSingleton(beanName, singletonObject);
 
 		if (hasBeanCreationStarted()) {
@@ -946,14 +1060,14 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			}
 		}
 
-		clearByTypeCache();
+		clearByTypeCache(beanName);
 	}
 
 	@Override
 	public void destroySingleton(String beanName) {
+		clearByTypeCache(beanName);
 		super.destroySingleton(beanName);
 		this.manualSingletonNames.remove(beanName);
-		clearByTypeCache();
 	}
 
 	@Override
@@ -969,6 +1083,94 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	private void clearByTypeCache() {
 		this.allBeanNamesByType.clear();
 		this.singletonBeanNamesByType.clear();
+		this.allBeanNamesByGenericType.clear();
+	}
+
+	/**
+	 * Remove the by-type mappings that the given bean may contribute to,
+	 * keeping the mappings for types that its current singleton instance or
+	 * bean definition cannot match, including the type predicted for it by
+	 * {@link SmartInstantiationAwareBeanPostProcessor}s. Falls back to removing
+	 * all by-type mappings if the type of the bean cannot be determined without
+	 * further ado.
+	 * <p>To be called before and after any change of the bean's state.
+	 * @param beanName the name of the bean
+	 */
+	private void clearByTypeCache(String beanName) {
+		if (this.allBeanNamesByType.isEmpty() && this.singletonBeanNamesByType.isEmpty() &&
+				this.allBeanNamesByGenericType.isEmpty()) {
+			return;
+		}
+		if (!containsSingleton(beanName) && !containsBeanDefinition(beanName)) {
+			return;
+		}
+		Class<?> beanType;
+		Class<?> predictedType = null;
+		try {
+			beanType = getTypeForByTypeCache(beanName);
+			if (beanType != null && containsBeanDefinition(beanName) &&
+					hasSmartInstantiationAwareBeanPostProcessors()) {
+				// Mappings may be based on a predicted type unrelated to the bean class...
+				predictedType = predictBeanType(beanName, getMergedLocalBeanDefinition(beanName));
+				if (predictedType == null || FactoryBean.class.isAssignableFrom(predictedType)) {
+					beanType = null;
+				}
+			}
+		}
+		catch (BeansException ex) {
+			beanType = null;
+		}
+		if (beanType == null) {
+			clearByTypeCache();
+			return;
+		}
+		// Proxies for the bean may expose further interfaces...
+		boolean includeInterfaces = hasInstantiationAwareBeanPostProcessors();
+		Class<?> typeToMatch = beanType;
+		Class<?> predictedTypeToMatch = predictedType;
+		Predicate<Class<?>> affected = (type -> type.isAssignableFrom(typeToMatch) ||
+				(predictedTypeToMatch != null && type.isAssignableFrom(predictedTypeToMatch)) ||
+				(includeInterfaces && type.isInterface()));
+		this.allBeanNamesByType.keySet().removeIf(affected);
+		this.singletonBeanNamesByType.keySet().removeIf(affected);
+		this.allBeanNamesByGenericType.keySet().removeIf(affected);
+	}
+
+	private boolean hasSmartInstantiationAwareBeanPostProcessors() {
+		if (hasInstantiationAwareBeanPostProcessors()) {
+			for (BeanPostProcessor bp : getBeanPostProcessors()) {
+				if (bp instanceof SmartInstantiationAwareBeanPostProcessor) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Determine the type of the given bean for by-type cache invalidation,
+	 * without initializing anything.
+	 * @param beanName the name of the bean
+	 * @return the type of the bean, or {@code null} if not determinable
+	 * (in particular for FactoryBeans and not yet resolved factory methods)
+	 */
+	@Nullable
+	private Class<?> getTypeForByTypeCache(String beanName) {
+		Class<?> beanType = null;
+		Object beanInstance = getSingleton(beanName, false);
+		if (beanInstance != null) {
+			beanType = beanInstance.getClass();
+		}
+		else if (containsBeanDefinition(beanName) && !containsSingleton(beanName)) {
+			RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+			if (mbd.getFactoryMethodName() != null) {
+				beanType = mbd.resolvedTargetType;
+			}
+			else if (mbd.hasBeanClass()) {
+				beanType = mbd.getBeanClass();
+			}
+		}
+		return (beanType != null && !FactoryBean.class.isAssignableFrom(beanType) ? beanType : null);
 	}
 
 
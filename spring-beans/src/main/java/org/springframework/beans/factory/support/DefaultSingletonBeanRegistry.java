@@ -109,6 +109,15 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	/** Map between depending bean names: bean name --> Set of bean names for the bean's dependencies */
 	private final Map<String, Set<String>> dependenciesForBeanMap = new ConcurrentHashMap<>(64);
 
+	/** Flag that indicates whether singletons may currently be created by several threads at once */
+	private volatile boolean concurrentSingletonCreation = false;
+
+	/** Threads that create singletons concurrently: bean name --> creating thread */
+	private final Map<String, Thread> singletonCreationThreads = new HashMap<>(16);
+
+	/** Singletons awaited from other threads: waiting thread --> bean name */
+	private final Map<Thread, String> awaitedSingletons = new HashMap<>(16);
+
 
 	@Override
 	public void registerSingleton(String beanName, Object singletonObject) throws IllegalStateException {
@@ -179,22 +188,36 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		// 否则(194行)返回singletonObject，可能是读取到的缓存，也可能是Null
 		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName)) {
 			synchronized (this.singletonObjects) {
-				//如果从earlySingletonObjects获取到singletonObject,返回(194行)；否则继续执行
-				singletonObject = this.earlySingletonObjects.get(beanName);
-				if (singletonObject == null && allowEarlyReference) {
-					ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
-					if (singletonFactory != null) {
-						//通过FactoryBean实例化bean，并存入缓存
-						singletonObject = singletonFactory.getObject();
-						this.earlySingletonObjects.put(beanName, singletonObject);
-						this.singletonFactories.remove(beanName);
-					}
+				if (this.concurrentSingletonCreation && isSingletonCreatedByOtherThread(beanName)) {
+					// Not to be exposed before completion, see getSingleton(String, ObjectFactory)
+					return null;
 				}
+				singletonObject = getEarlySingletonReference(beanName, allowEarlyReference);
 			}
 		}
 		return (singletonObject != NULL_OBJECT ? singletonObject : null);
 	}
 
+	/**
+	 * Return the early reference to the given singleton that is currently in creation,
+	 * if available. To be called with the singleton lock held.
+	 */
+	@Nullable
+	private Object getEarlySingletonReference(String beanName, boolean allowEarlyReference) {
+		//如果从earlySingletonObjects获取到singletonObject,返回；否则继续执行
+		Object singletonObject = this.earlySingletonObjects.get(beanName);
+		if (singletonObject == null && allowEarlyReference) {
+			ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
+			if (singletonFactory != null) {
+				//通过FactoryBean实例化bean，并存入缓存
+				singletonObject = singletonFactory.getObject();
+				this.earlySingletonObjects.put(beanName, singletonObject);
+				this.singletonFactories.remove(beanName);
+			}
+		}
+		return singletonObject;
+	}
+
 	/**
 	 * Return the (raw) singleton object registered under the given name,
 	 * creating and registering a new one if none registered yet.
@@ -205,6 +228,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		Assert.notNull(beanName, "'beanName' must not be null");
+		if (this.concurrentSingletonCreation) {
+			return getSingletonConcurrently(beanName, singletonFactory);
+		}
 		synchronized (this.singletonObjects) {
 			Object singletonObject = this.singletonObjects.get(beanName);
 			if (singletonObject == null) {
@@ -257,6 +283,174 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		}
 	}
 
+	/**
+	 * Variant of {@link #getSingleton(String, ObjectFactory)} for concurrent singleton
+	 * creation, holding the singleton lock for bookkeeping only: a singleton gets created
+	 * by the first thread that requests it, with other threads waiting for its completion.
+	 * <p>If a thread would wait for a singleton whose creating thread in turn waits
+	 * for the current thread (a circular reference across threads), the circular
+	 * reference gets resolved as on a single thread: through the early reference
+	 * of the singleton that the current thread or another waiting thread requests.
+	 */
+	private Object getSingletonConcurrently(String beanName, ObjectFactory<?> singletonFactory) {
+		Thread currentThread = Thread.currentThread();
+		boolean creationThread = false;
+		synchronized (this.singletonObjects) {
+			Object singletonObject = this.singletonObjects.get(beanName);
+			while (singletonObject == null && isSingletonCreatedByOtherThread(beanName)) {
+				singletonObject = awaitSingleton(beanName, currentThread);
+			}
+			if (singletonObject != null) {
+				return (singletonObject != NULL_OBJECT ? singletonObject : null);
+			}
+			if (this.singletonsCurrentlyInDestruction) {
+				throw new BeanCreationNotAllowedException(beanName,
+						"Singleton bean creation not allowed while singletons of this factory are in destruction " +
+						"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Creating shared instance of singleton bean '" + beanName + "' on thread '" +
+						currentThread.getName() + "'");
+			}
+			// Registered as in creation under the lock, for consistent checks by other threads
+			beforeSingletonCreation(beanName);
+			creationThread = (this.singletonCreationThreads.putIfAbsent(beanName, currentThread) == null);
+		}
+		Object singletonObject = null;
+		boolean newSingleton = false;
+		try {
+			singletonObject = singletonFactory.getObject();
+			newSingleton = true;
+		}
+		catch (IllegalStateException ex) {
+			// Has the singleton object implicitly appeared in the meantime ->
+			// if yes, proceed with it since the exception indicates that state.
+			singletonObject = this.singletonObjects.get(beanName);
+			if (singletonObject == null) {
+				throw ex;
+			}
+		}
+		finally {
+			synchronized (this.singletonObjects) {
+				afterSingletonCreation(beanName);
+				if (newSingleton) {
+					addSingleton(beanName, singletonObject);
+				}
+				if (creationThread) {
+					this.singletonCreationThreads.remove(beanName);
+					this.singletonObjects.notifyAll();
+				}
+			}
+		}
+		return (singletonObject != NULL_OBJECT ? singletonObject : null);
+	}
+
+	/**
+	 * Wait for the given singleton to be created by another thread.
+	 * To be called with the singleton lock held.
+	 * @return the singleton object or its early reference, or {@code null}
+	 * if the singleton is to be created by the current thread after all
+	 */
+	@Nullable
+	private Object awaitSingleton(String beanName, Thread currentThread) {
+		this.awaitedSingletons.put(currentThread, beanName);
+		// Let waiting threads check for a circular reference to the current thread
+		this.singletonObjects.notifyAll();
+		try {
+			while (true) {
+				Object singletonObject = this.singletonObjects.get(beanName);
+				if (singletonObject != null) {
+					return singletonObject;
+				}
+				if (!this.singletonCreationThreads.containsKey(beanName)) {
+					// Creation failed on the other thread -> try again on the current thread
+					return null;
+				}
+				List<String> circularReference = getCircularReference(beanName, currentThread);
+				if (circularReference != null) {
+					singletonObject = getEarlySingletonReference(beanName, true);
+					if (singletonObject != null) {
+						return singletonObject;
+					}
+					boolean resolvable = false;
+					for (String awaitedBeanName : circularReference) {
+						if (this.earlySingletonObjects.containsKey(awaitedBeanName) ||
+								this.singletonFactories.containsKey(awaitedBeanName)) {
+							resolvable = true;
+						}
+					}
+					if (!resolvable) {
+						throw new BeanCurrentlyInCreationException(beanName, "Requested bean is currently in " +
+								"creation on another thread: Is there an unresolvable circular reference " +
+								"between " + circularReference + "?");
+					}
+				}
+				this.singletonObjects.wait();
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new BeanCreationException(beanName, "Interrupted while waiting for singleton creation", ex);
+		}
+		finally {
+			this.awaitedSingletons.remove(currentThread);
+		}
+	}
+
+	/**
+	 * Determine whether waiting for the given singleton would close a cycle of
+	 * threads waiting for each other's singletons. To be called with the
+	 * singleton lock held.
+	 * @return the names of the singletons awaited by the other threads in the
+	 * cycle, or {@code null} if there is no such cycle
+	 */
+	@Nullable
+	private List<String> getCircularReference(String beanName, Thread currentThread) {
+		List<String> awaitedBeanNames = new ArrayList<>();
+		Set<Thread> visitedThreads = new HashSet<>();
+		Thread thread = this.singletonCreationThreads.get(beanName);
+		while (thread != null && visitedThreads.add(thread)) {
+			String awaitedBeanName = this.awaitedSingletons.get(thread);
+			if (awaitedBeanName == null) {
+				return null;
+			}
+			awaitedBeanNames.add(awaitedBeanName);
+			thread = this.singletonCreationThreads.get(awaitedBeanName);
+			if (thread == currentThread) {
+				return awaitedBeanNames;
+			}
+		}
+		return null;
+	}
+
+	private boolean isSingletonCreatedByOtherThread(String beanName) {
+		Thread creationThread = this.singletonCreationThreads.get(beanName);
+		return (creationThread != null && creationThread != Thread.currentThread());
+	}
+
+	/**
+	 * Specify whether singletons may be created by several threads at once,
+	 * e.g. during parallel pre-instantiation of singletons.
+	 * <p>If enabled, the creation of a singleton does not hold the singleton lock:
+	 * threads requesting a singleton that is in creation on another thread wait
+	 * for its completion instead, with circular references between singletons
+	 * created by different threads resolved through early references.
+	 * <p>Not to be switched while singletons are in creation.
+	 * @since 5.0
+	 * @see #getSingletonMutex()
+	 */
+	protected void setConcurrentSingletonCreation(boolean concurrentSingletonCreation) {
+		this.concurrentSingletonCreation = concurrentSingletonCreation;
+	}
+
+	/**
+	 * Return whether singletons may currently be created by several threads at once.
+	 * @since 5.0
+	 */
+	protected boolean isConcurrentSingletonCreation() {
+		return this.concurrentSingletonCreation;
+	}
+
 	/**
 	 * Register an Exception that happened to get suppressed during the creation of a
 	 * singleton bean instance, e.g. a temporary circular reference resolution problem.
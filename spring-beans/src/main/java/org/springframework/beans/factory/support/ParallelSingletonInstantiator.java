@@ -0,0 +1,332 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.commons.logging.Log;
+
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.lang.Nullable;
+
+/**
+ * Helper class for {@link DefaultListableBeanFactory#preInstantiateSingletons()},
+ * creating independent singletons concurrently on a given {@link Executor}.
+ *
+ * <p>Builds a dependency graph between the pre-instantiable singletons from
+ * their merged bean definitions: "depends-on" declarations, factory bean
+ * references and bean references in constructor arguments and property values,
+ * including those of inner beans and managed collections. A singleton is
+ * scheduled once all of the singletons it depends on have been created, in
+ * registration order otherwise. Dependencies that are not expressed in the
+ * bean definitions (e.g. autowiring) are resolved on the creating thread,
+ * waiting for singletons currently in creation on other threads as necessary.
+ * Singletons within circular references between bean definitions are created
+ * on the calling thread after all other singletons.
+ *
+ * <p>Logs the critical path through the dependency graph at info level,
+ * i.e. the chain of dependent singletons with the longest creation time.
+ *
+ * @since 5.0
+ * @see DefaultListableBeanFactory#setBootstrapExecutor
+ * @see DefaultSingletonBeanRegistry#setConcurrentSingletonCreation
+ */
+class ParallelSingletonInstantiator {
+
+	private final DefaultListableBeanFactory beanFactory;
+
+	private final Executor executor;
+
+	private final Log logger;
+
+	/** Pre-instantiable singleton names --> names of the singletons they depend on */
+	private final Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+
+	/** Pre-instantiable singleton names --> names of the singletons depending on them */
+	private final Map<String, List<String>> dependents = new HashMap<>();
+
+	/** Pre-instantiable singleton names --> number of dependencies not created yet */
+	private final Map<String, Integer> pendingDependencyCounts = new HashMap<>();
+
+	private final Deque<String> readyBeanNames = new ArrayDeque<>();
+
+	/** Created singleton names, in order of completion */
+	private final List<String> createdBeanNames = new ArrayList<>();
+
+	private final Map<String, Long> creationTimes = new HashMap<>();
+
+	private int runningCount;
+
+	private Throwable failure;
+
+
+	public ParallelSingletonInstantiator(DefaultListableBeanFactory beanFactory, Executor executor) {
+		this(beanFactory, executor, beanFactory.logger);
+	}
+
+	/**
+	 * Variant of {@link #ParallelSingletonInstantiator(DefaultListableBeanFactory, Executor)}
+	 * with a specific logger for the critical path. Package-private for testing purposes.
+	 */
+	ParallelSingletonInstantiator(DefaultListableBeanFactory beanFactory, Executor executor, Log logger) {
+		this.beanFactory = beanFactory;
+		this.executor = executor;
+		this.logger = logger;
+	}
+
+
+	/**
+	 * Create all pre-instantiable singletons among the given bean names,
+	 * returning once all of them have been created.
+	 * @param beanNames the bean definition names, in registration order
+	 */
+	public void preInstantiateSingletons(List<String> beanNames) {
+		long startTime = System.nanoTime();
+		buildDependencyGraph(beanNames);
+
+		boolean interrupted = false;
+		while (true) {
+			final String beanName;
+			synchronized (this) {
+				while (this.runningCount > 0 &&
+						(this.failure != null || interrupted || this.readyBeanNames.isEmpty())) {
+					try {
+						wait();
+					}
+					catch (InterruptedException ex) {
+						// Stop scheduling but wait for running singleton creations to complete
+						interrupted = true;
+					}
+				}
+				if (this.failure != null || interrupted || this.readyBeanNames.isEmpty()) {
+					break;
+				}
+				beanName = this.readyBeanNames.poll();
+				this.runningCount++;
+			}
+			Runnable task = () -> instantiate(beanName);
+			try {
+				this.executor.execute(task);
+			}
+			catch (RejectedExecutionException ex) {
+				task.run();
+			}
+		}
+
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+			throw new BeanCreationException("Interrupted while pre-instantiating singletons in parallel");
+		}
+		if (this.failure instanceof RuntimeException) {
+			throw (RuntimeException) this.failure;
+		}
+		if (this.failure instanceof Error) {
+			throw (Error) this.failure;
+		}
+		if (this.failure != null) {
+			throw new BeanCreationException("Failed to pre-instantiate singletons in parallel", this.failure);
+		}
+
+		// Remaining singletons within circular references: one at a time, as usual.
+		for (String beanName : this.dependencies.keySet()) {
+			if (!this.creationTimes.containsKey(beanName)) {
+				this.beanFactory.preInstantiateSingleton(beanName);
+			}
+		}
+
+		if (this.logger.isInfoEnabled()) {
+			this.logger.info("Pre-instantiated " + this.dependencies.size() + " singletons in parallel within " +
+					toMillis(System.nanoTime() - startTime) + " ms; critical path of " + describeCriticalPath());
+		}
+	}
+
+	private void buildDependencyGraph(List<String> beanNames) {
+		for (String beanName : beanNames) {
+			if (this.beanFactory.isPreInstantiable(this.beanFactory.getMergedLocalBeanDefinition(beanName))) {
+				this.dependencies.put(beanName, new LinkedHashSet<>());
+			}
+		}
+		for (Map.Entry<String, Set<String>> entry : this.dependencies.entrySet()) {
+			String beanName = entry.getKey();
+			Set<String> dependencyNames = entry.getValue();
+			collectDependencies(this.beanFactory.getMergedLocalBeanDefinition(beanName), dependencyNames);
+			dependencyNames.remove(beanName);
+			dependencyNames.retainAll(this.dependencies.keySet());
+			for (String dependencyName : dependencyNames) {
+				this.dependents.computeIfAbsent(dependencyName, key -> new LinkedList<>()).add(beanName);
+			}
+			this.pendingDependencyCounts.put(beanName, dependencyNames.size());
+			if (dependencyNames.isEmpty()) {
+				this.readyBeanNames.add(beanName);
+			}
+		}
+	}
+
+	private void collectDependencies(BeanDefinition bd, Set<String> dependencyNames) {
+		String[] dependsOn = bd.getDependsOn();
+		if (dependsOn != null) {
+			for (String dependsOnBean : dependsOn) {
+				addDependency(dependsOnBean, dependencyNames);
+			}
+		}
+		if (bd.getFactoryBeanName() != null) {
+			addDependency(bd.getFactoryBeanName(), dependencyNames);
+		}
+		ConstructorArgumentValues cargs = bd.getConstructorArgumentValues();
+		for (ConstructorArgumentValues.ValueHolder valueHolder : cargs.getIndexedArgumentValues().values()) {
+			collectDependencies(valueHolder, dependencyNames);
+		}
+		for (ConstructorArgumentValues.ValueHolder valueHolder : cargs.getGenericArgumentValues()) {
+			collectDependencies(valueHolder, dependencyNames);
+		}
+		for (PropertyValue pv : bd.getPropertyValues().getPropertyValues()) {
+			collectDependencies(pv.getValue(), dependencyNames);
+		}
+	}
+
+	private void collectDependencies(@Nullable Object value, Set<String> dependencyNames) {
+		if (value instanceof RuntimeBeanReference) {
+			RuntimeBeanReference ref = (RuntimeBeanReference) value;
+			if (!ref.isToParent()) {
+				addDependency(ref.getBeanName(), dependencyNames);
+			}
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			collectDependencies(((BeanDefinitionHolder) value).getBeanDefinition(), dependencyNames);
+		}
+		else if (value instanceof BeanDefinition) {
+			collectDependencies((BeanDefinition) value, dependencyNames);
+		}
+		else if (value instanceof ConstructorArgumentValues.ValueHolder) {
+			collectDependencies(((ConstructorArgumentValues.ValueHolder) value).getValue(), dependencyNames);
+		}
+		else if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				collectDependencies(element, dependencyNames);
+			}
+		}
+		else if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				collectDependencies(entry.getKey(), dependencyNames);
+				collectDependencies(entry.getValue(), dependencyNames);
+			}
+		}
+	}
+
+	private void addDependency(String name, Set<String> dependencyNames) {
+		dependencyNames.add(this.beanFactory.transformedBeanName(name));
+	}
+
+	/**
+	 * Create the given singleton on the current thread,
+	 * scheduling its dependents once their dependencies are complete.
+	 */
+	private void instantiate(String beanName) {
+		long startTime = System.nanoTime();
+		Throwable failure = null;
+		try {
+			this.beanFactory.preInstantiateSingleton(beanName);
+		}
+		catch (Throwable ex) {
+			failure = ex;
+		}
+		finally {
+			long creationTime = System.nanoTime() - startTime;
+			synchronized (this) {
+				this.runningCount--;
+				if (failure != null) {
+					if (this.failure == null) {
+						this.failure = failure;
+					}
+				}
+				else {
+					this.createdBeanNames.add(beanName);
+					this.creationTimes.put(beanName, creationTime);
+					List<String> dependentNames = this.dependents.get(beanName);
+					if (dependentNames != null) {
+						for (String dependentName : dependentNames) {
+							int pendingCount = this.pendingDependencyCounts.get(dependentName) - 1;
+							this.pendingDependencyCounts.put(dependentName, pendingCount);
+							if (pendingCount == 0) {
+								this.readyBeanNames.add(dependentName);
+							}
+						}
+					}
+				}
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Determine the chain of dependent singletons with the longest overall
+	 * creation time, based on the completion order of the singletons
+	 * created in parallel.
+	 */
+	private synchronized String describeCriticalPath() {
+		Map<String, Long> pathTimes = new HashMap<>();
+		Map<String, String> predecessors = new HashMap<>();
+		String lastBeanName = null;
+		for (String beanName : this.createdBeanNames) {
+			long pathTime = 0;
+			for (String dependencyName : this.dependencies.get(beanName)) {
+				Long dependencyPathTime = pathTimes.get(dependencyName);
+				if (dependencyPathTime != null && dependencyPathTime > pathTime) {
+					pathTime = dependencyPathTime;
+					predecessors.put(beanName, dependencyName);
+				}
+			}
+			pathTime += this.creationTimes.get(beanName);
+			pathTimes.put(beanName, pathTime);
+			if (lastBeanName == null || pathTime > pathTimes.get(lastBeanName)) {
+				lastBeanName = beanName;
+			}
+		}
+		if (lastBeanName == null) {
+			return "0 ms";
+		}
+		List<String> path = new ArrayList<>();
+		for (String beanName = lastBeanName; beanName != null; beanName = predecessors.get(beanName)) {
+			path.add(beanName + " (" + toMillis(this.creationTimes.get(beanName)) + " ms)");
+		}
+		Collections.reverse(path);
+		return toMillis(pathTimes.get(lastBeanName)) + " ms: " + String.join(" -> ", path);
+	}
+
+	private static long toMillis(long nanos) {
+		return nanos / 1000000;
+	}
+
+}
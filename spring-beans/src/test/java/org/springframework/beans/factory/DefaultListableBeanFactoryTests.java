@@ -27,6 +27,7 @@ import java.security.PrivilegedAction;
 import java.text.NumberFormat;
 import java.text.ParseException;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
@@ -35,6 +36,10 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Priority;
 import javax.security.auth.Subject;
 
@@ -54,6 +59,8 @@ import org.springframework.beans.PropertyEditorRegistry;
 import org.springframework.beans.PropertyValue;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.TypeMismatchException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanExpressionContext;
@@ -1638,6 +1645,60 @@ public class DefaultListableBeanFactoryTests {
 		assertEquals(0, lbf.getBeanNamesForType(ResolvableType.forClassWithGenerics(FactoryBean.class, String.class)).length);
 	}
 
+	@Test
+	public void testGetBeanNamesForGenericTypeWithFrozenConfiguration() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.registerBeanDefinition("stringRepository", new RootBeanDefinition(StringRepository.class));
+		lbf.registerBeanDefinition("integerRepository", new RootBeanDefinition(IntegerRepository.class));
+		lbf.registerBeanDefinition("test", new RootBeanDefinition(TestBean.class));
+		lbf.freezeConfiguration();
+
+		ResolvableType stringRepositoryType =
+				ResolvableType.forClassWithGenerics(Repository.class, String.class, Long.class);
+		String[] beanNames = lbf.getBeanNamesForType(stringRepositoryType);
+		assertArrayEquals(new String[] {"stringRepository"}, beanNames);
+		assertSame(beanNames, lbf.getBeanNamesForType(
+				ResolvableType.forClassWithGenerics(Repository.class, String.class, Long.class)));
+		assertArrayEquals(new String[] {"integerRepository"}, lbf.getBeanNamesForType(
+				ResolvableType.forClassWithGenerics(Repository.class, Integer.class, Long.class)));
+		String[] testBeanNames = lbf.getBeanNamesForType(TestBean.class);
+
+		lbf.registerBeanDefinition("otherStringRepository", new RootBeanDefinition(StringRepository.class));
+		assertArrayEquals(new String[] {"stringRepository", "otherStringRepository"},
+				lbf.getBeanNamesForType(stringRepositoryType));
+		assertSame(testBeanNames, lbf.getBeanNamesForType(TestBean.class));
+
+		lbf.removeBeanDefinition("stringRepository");
+		assertArrayEquals(new String[] {"otherStringRepository"}, lbf.getBeanNamesForType(stringRepositoryType));
+		assertSame(testBeanNames, lbf.getBeanNamesForType(TestBean.class));
+
+		lbf.registerSingleton("manualStringRepository", new StringRepository());
+		assertArrayEquals(new String[] {"otherStringRepository", "manualStringRepository"},
+				lbf.getBeanNamesForType(stringRepositoryType));
+		assertSame(testBeanNames, lbf.getBeanNamesForType(TestBean.class));
+	}
+
+	@Test
+	public void testGetBeanNamesForPredictedTypeWithFrozenConfiguration() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.addBeanPostProcessor(new InstantiationAwareBeanPostProcessorAdapter() {
+			@Override
+			public Class<?> predictBeanType(Class<?> beanClass, String beanName) {
+				return ("predicted".equals(beanName) ? NestedTestBean.class : null);
+			}
+		});
+		lbf.registerBeanDefinition("predicted", new RootBeanDefinition(TestBean.class));
+		lbf.freezeConfiguration();
+
+		assertArrayEquals(new String[] {"predicted"}, lbf.getBeanNamesForType(NestedTestBean.class));
+		assertArrayEquals(new String[] {"predicted"},
+				lbf.getBeanNamesForType(ResolvableType.forClass(NestedTestBean.class)));
+
+		lbf.removeBeanDefinition("predicted");
+		assertArrayEquals(new String[0], lbf.getBeanNamesForType(NestedTestBean.class));
+		assertArrayEquals(new String[0], lbf.getBeanNamesForType(ResolvableType.forClass(NestedTestBean.class)));
+	}
+
 	private RootBeanDefinition createConstructorDependencyBeanDefinition(int age) {
 		RootBeanDefinition bd = new RootBeanDefinition(ConstructorDependency.class);
 		bd.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
@@ -2046,6 +2107,130 @@ public class DefaultListableBeanFactoryTests {
 		}
 	}
 
+	@Test
+	public void testParallelPreInstantiation() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		for (int i = 0; i < 100; i++) {
+			RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+			if (i % 10 != 0) {
+				bd.getPropertyValues().add("spouse", new RuntimeBeanReference("bean" + (i - 1)));
+			}
+			lbf.registerBeanDefinition("bean" + i, bd);
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			lbf.setBootstrapExecutor(executor);
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdown();
+		}
+		for (int i = 0; i < 100; i++) {
+			assertTrue(lbf.containsSingleton("bean" + i));
+			TestBean bean = (TestBean) lbf.getBean("bean" + i);
+			if (i % 10 != 0) {
+				assertSame(lbf.getBean("bean" + (i - 1)), bean.getSpouse());
+			}
+			else {
+				assertNull(bean.getSpouse());
+			}
+		}
+	}
+
+	@Test
+	public void testParallelPreInstantiationWithCircularReference() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		for (int i = 0; i < 100; i++) {
+			RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+			bd.getPropertyValues().add("spouse", new RuntimeBeanReference("bean" + (i < 99 ? i + 1 : 0)));
+			lbf.registerBeanDefinition("bean" + i, bd);
+		}
+		lbf.registerBeanDefinition("independent", new RootBeanDefinition(TestBean.class));
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			lbf.setBootstrapExecutor(executor);
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdown();
+		}
+		assertTrue(lbf.containsSingleton("independent"));
+		for (int i = 0; i < 100; i++) {
+			TestBean bean = (TestBean) lbf.getBean("bean" + i);
+			assertSame(lbf.getBean("bean" + (i < 99 ? i + 1 : 0)), bean.getSpouse());
+		}
+	}
+
+	@Test
+	public void testParallelPreInstantiationWithFailure() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.registerBeanDefinition("test", new RootBeanDefinition(TestBean.class));
+		RootBeanDefinition bd = new RootBeanDefinition(ConstructorDependencyBean.class);
+		bd.setAutowireMode(RootBeanDefinition.AUTOWIRE_CONSTRUCTOR);
+		lbf.registerBeanDefinition("failing", bd);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			lbf.setBootstrapExecutor(executor);
+			lbf.preInstantiateSingletons();
+			fail("Should have thrown UnsatisfiedDependencyException");
+		}
+		catch (UnsatisfiedDependencyException expected) {
+		}
+		finally {
+			executor.shutdown();
+		}
+		assertFalse(lbf.containsSingleton("failing"));
+	}
+
+	@Test
+	public void testParallelPreInstantiationWithCircularReferenceAcrossThreads() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		AutowiredAnnotationBeanPostProcessor bpp = new AutowiredAnnotationBeanPostProcessor();
+		bpp.setBeanFactory(lbf);
+		lbf.addBeanPostProcessor(bpp);
+		lbf.addBeanPostProcessor(new InstantiationBarrier("a", "b"));
+		lbf.registerBeanDefinition("a", new RootBeanDefinition(FieldCycleBeanA.class));
+		lbf.registerBeanDefinition("b", new RootBeanDefinition(FieldCycleBeanB.class));
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			lbf.setBootstrapExecutor(executor);
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdown();
+		}
+		FieldCycleBeanA a = lbf.getBean("a", FieldCycleBeanA.class);
+		FieldCycleBeanB b = lbf.getBean("b", FieldCycleBeanB.class);
+		assertSame(b, a.b);
+		assertSame(a, b.a);
+	}
+
+	@Test
+	public void testParallelPreInstantiationWithUnresolvableCircularReferenceAcrossThreads() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.addBeanPostProcessor(new InstantiationBarrier("a", "b"));
+		RootBeanDefinition bd = new RootBeanDefinition(ConstructorCycleBeanA.class);
+		bd.setAutowireMode(RootBeanDefinition.AUTOWIRE_CONSTRUCTOR);
+		lbf.registerBeanDefinition("a", bd);
+		bd = new RootBeanDefinition(ConstructorCycleBeanB.class);
+		bd.setAutowireMode(RootBeanDefinition.AUTOWIRE_CONSTRUCTOR);
+		lbf.registerBeanDefinition("b", bd);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			lbf.setBootstrapExecutor(executor);
+			lbf.preInstantiateSingletons();
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			assertTrue(ex.contains(BeanCurrentlyInCreationException.class));
+		}
+		finally {
+			executor.shutdown();
+		}
+		assertFalse(lbf.containsSingleton("a"));
+		assertFalse(lbf.containsSingleton("b"));
+	}
+
 	@Test
 	public void testCircularReferenceThroughAutowiring() {
 		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
@@ -2835,6 +3020,65 @@ public class DefaultListableBeanFactoryTests {
 	}
 
 
+	/**
+	 * Holds back the instantiation of the given beans until all of them are about
+	 * to be instantiated, so that they are in creation on different threads at once.
+	 */
+	private static class InstantiationBarrier extends InstantiationAwareBeanPostProcessorAdapter {
+
+		private final Set<String> beanNames;
+
+		private final CountDownLatch latch;
+
+		public InstantiationBarrier(String... beanNames) {
+			this.beanNames = new HashSet<>(Arrays.asList(beanNames));
+			this.latch = new CountDownLatch(beanNames.length);
+		}
+
+		@Override
+		public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) {
+			if (this.beanNames.contains(beanName)) {
+				this.latch.countDown();
+				try {
+					this.latch.await(10, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return null;
+		}
+	}
+
+
+	public static class FieldCycleBeanA {
+
+		@Autowired
+		FieldCycleBeanB b;
+	}
+
+
+	public static class FieldCycleBeanB {
+
+		@Autowired
+		FieldCycleBeanA a;
+	}
+
+
+	public static class ConstructorCycleBeanA {
+
+		public ConstructorCycleBeanA(ConstructorCycleBeanB b) {
+		}
+	}
+
+
+	public static class ConstructorCycleBeanB {
+
+		public ConstructorCycleBeanB(ConstructorCycleBeanA a) {
+		}
+	}
+
+
 	public static class ConstructorDependencyBean {
 
 		public ConstructorDependencyBean(ConstructorDependencyBean dependency) {
@@ -2954,6 +3198,14 @@ public class DefaultListableBeanFactoryTests {
 	}
 
 
+	public static class StringRepository implements Repository<String, Long> {
+	}
+
+
+	public static class IntegerRepository implements Repository<Integer, Long> {
+	}
+
+
 	public static abstract class RepositoryFactoryBeanSupport<T extends Repository<S, ID>, S, ID extends Serializable>
 			implements RepositoryFactoryInformation<S, ID>, FactoryBean<T> {
 	}
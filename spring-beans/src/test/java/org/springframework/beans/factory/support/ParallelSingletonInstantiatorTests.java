@@ -0,0 +1,64 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.logging.Log;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Unit tests for {@link ParallelSingletonInstantiator}.
+ */
+public class ParallelSingletonInstantiatorTests {
+
+	@Test
+	public void criticalPathLogged() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.registerBeanDefinition("first", new RootBeanDefinition(TestBean.class));
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.getPropertyValues().add("spouse", new RuntimeBeanReference("first"));
+		lbf.registerBeanDefinition("second", bd);
+
+		Log logger = mock(Log.class);
+		given(logger.isInfoEnabled()).willReturn(true);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			new ParallelSingletonInstantiator(lbf, executor, logger)
+					.preInstantiateSingletons(Arrays.asList("first", "second"));
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		ArgumentCaptor<Object> message = ArgumentCaptor.forClass(Object.class);
+		verify(logger).info(message.capture());
+		String text = message.getValue().toString();
+		assertTrue(text, text.startsWith("Pre-instantiated 2 singletons in parallel within "));
+		assertTrue(text, text.matches(".*; critical path of \\d+ ms: first \\(\\d+ ms\\) -> second \\(\\d+ ms\\)"));
+	}
+
+}
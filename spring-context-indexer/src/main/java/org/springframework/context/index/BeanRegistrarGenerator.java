@@ -0,0 +1,622 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.Completion;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Annotation {@link Processor} that generates bean registration code for
+ * {@code @Configuration} classes at build time.
+ *
+ * <p>For each configuration class listed in the {@value #REGISTRARS_OPTION}
+ * processor option (as a comma-separated list of class names), a registrar
+ * named after the configuration class with a {@value #REGISTRAR_SUFFIX}
+ * suffix gets generated in the same package. The registrar is an
+ * {@code ApplicationContextInitializer<GenericApplicationContext>} that
+ * registers the configuration class and its {@code @Bean} methods through
+ * {@code GenericApplicationContext.registerBean} with suppliers, so that
+ * {@code AnnotationConfigApplicationContext} can use it instead of parsing
+ * and enhancing the configuration class at runtime.
+ *
+ * <p>As no CGLIB subclass is involved, {@code @Bean} methods get processed in
+ * "lite" mode: calls between {@code @Bean} methods are not intercepted, so a
+ * {@code @Bean} method calling another one gets a new instance rather than the
+ * shared bean. Since this changes the runtime semantics of the listed classes,
+ * registrars only get generated if lite mode is explicitly accepted through the
+ * {@value #LITE_MODE_OPTION} processor option.
+ *
+ * <p>Only self-contained configuration classes are supported: a class with
+ * annotations such as {@code @Import}, {@code @ComponentScan} or conditions,
+ * a superclass or annotated member classes, or with {@code @Bean} methods
+ * that need qualifiers or generic type matching for their parameters or their
+ * return type, does not get a registrar generated and keeps being processed
+ * at runtime.
+ *
+ * @since 5.0
+ */
+public class BeanRegistrarGenerator implements Processor {
+
+	/**
+	 * The processor option listing the configuration classes to generate
+	 * bean registrars for. Only applied in combination with the
+	 * {@value #LITE_MODE_OPTION} option set to {@code true}: the {@code @Bean}
+	 * methods of the listed classes are processed in "lite" mode, without
+	 * interception of calls between {@code @Bean} methods.
+	 */
+	public static final String REGISTRARS_OPTION = "spring.registrars";
+
+	/**
+	 * The processor option accepting that the configuration classes listed in
+	 * the {@value #REGISTRARS_OPTION} option get processed in "lite" mode,
+	 * i.e. that none of their {@code @Bean} methods rely on calls to other
+	 * {@code @Bean} methods returning the shared bean instance.
+	 * <p>The default is "false", in which case no registrars get generated.
+	 */
+	public static final String LITE_MODE_OPTION = "spring.registrars.lite";
+
+	/**
+	 * The suffix of the class name of a generated bean registrar.
+	 */
+	public static final String REGISTRAR_SUFFIX = "__BeanDefinitions";
+
+	private static final String CONFIGURATION_ANNOTATION = "org.springframework.context.annotation.Configuration";
+
+	private static final String BEAN_ANNOTATION = "org.springframework.context.annotation.Bean";
+
+	private static final String PRIMARY_ANNOTATION = "org.springframework.context.annotation.Primary";
+
+	private static final String LAZY_ANNOTATION = "org.springframework.context.annotation.Lazy";
+
+	private static final String SCOPE_ANNOTATION = "org.springframework.context.annotation.Scope";
+
+	private static final String DEPENDS_ON_ANNOTATION = "org.springframework.context.annotation.DependsOn";
+
+	private static final String ROLE_ANNOTATION = "org.springframework.context.annotation.Role";
+
+	private static final String DESCRIPTION_ANNOTATION = "org.springframework.context.annotation.Description";
+
+	private static final Set<String> supportedBeanMethodAnnotations = new HashSet<>(8);
+
+	static {
+		supportedBeanMethodAnnotations.add(BEAN_ANNOTATION);
+		supportedBeanMethodAnnotations.add(PRIMARY_ANNOTATION);
+		supportedBeanMethodAnnotations.add(LAZY_ANNOTATION);
+		supportedBeanMethodAnnotations.add(SCOPE_ANNOTATION);
+		supportedBeanMethodAnnotations.add(DEPENDS_ON_ANNOTATION);
+		supportedBeanMethodAnnotations.add(ROLE_ANNOTATION);
+		supportedBeanMethodAnnotations.add(DESCRIPTION_ANNOTATION);
+	}
+
+	private static final String CONTEXT_TYPE = "org.springframework.context.support.GenericApplicationContext";
+
+	private static final String BEAN_DEFINITION_TYPE = "org.springframework.beans.factory.support.AbstractBeanDefinition";
+
+
+	private ProcessingEnvironment env;
+
+	private Set<String> configurationClassNames;
+
+
+	@Override
+	public Set<String> getSupportedOptions() {
+		return new HashSet<>(Arrays.asList(REGISTRARS_OPTION, LITE_MODE_OPTION));
+	}
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return Collections.singleton(CONFIGURATION_ANNOTATION);
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latest();
+	}
+
+	@Override
+	public synchronized void init(ProcessingEnvironment env) {
+		this.env = env;
+		this.configurationClassNames = new LinkedHashSet<>();
+		String option = env.getOptions().get(REGISTRARS_OPTION);
+		if (option != null) {
+			for (String className : option.split(",")) {
+				if (!className.trim().isEmpty()) {
+					this.configurationClassNames.add(className.trim());
+				}
+			}
+		}
+		if (!this.configurationClassNames.isEmpty() && !Boolean.parseBoolean(env.getOptions().get(LITE_MODE_OPTION))) {
+			env.getMessager().printMessage(Diagnostic.Kind.WARNING, "No bean registrars generated: " +
+					"calls between @Bean methods are not intercepted in generated registrars, " +
+					"set the " + LITE_MODE_OPTION + " option to true in order to accept that");
+			this.configurationClassNames.clear();
+		}
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (!this.configurationClassNames.isEmpty()) {
+			for (TypeElement annotation : annotations) {
+				for (TypeElement element : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+					if (this.configurationClassNames.contains(getClassName(element))) {
+						processConfigurationClass(element);
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public Iterable<? extends Completion> getCompletions(
+			Element element, AnnotationMirror annotation, ExecutableElement member, String userText) {
+
+		return Collections.emptyList();
+	}
+
+
+	private void processConfigurationClass(TypeElement element) {
+		String source;
+		try {
+			source = generateRegistrar(element);
+		}
+		catch (IllegalArgumentException ex) {
+			this.env.getMessager().printMessage(Diagnostic.Kind.WARNING,
+					"No bean registrar generated for configuration class: " + ex.getMessage(), element);
+			return;
+		}
+		String registrarName = getClassName(element) + REGISTRAR_SUFFIX;
+		try {
+			JavaFileObject file = this.env.getFiler().createSourceFile(registrarName, element);
+			try (Writer writer = file.openWriter()) {
+				writer.write(source);
+			}
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to write bean registrar " + registrarName, ex);
+		}
+	}
+
+	/**
+	 * Generate the source of the bean registrar for the given configuration class.
+	 * @throws IllegalArgumentException if the configuration class cannot be
+	 * registered without being processed at runtime
+	 */
+	private String generateRegistrar(TypeElement configClass) {
+		PackageElement pkg = this.env.getElementUtils().getPackageOf(configClass);
+		checkConfigurationClass(configClass, pkg);
+		String configType = getSourceName(configClass.asType(), pkg);
+		String configBeanName = getConfigurationBeanName(configClass);
+		List<ExecutableElement> beanMethods = getBeanMethods(configClass, pkg);
+
+		StringBuilder code = new StringBuilder();
+		if (!pkg.isUnnamed()) {
+			code.append("package ").append(pkg.getQualifiedName()).append(";\n\n");
+		}
+		code.append("/**\n");
+		code.append(" * Bean registrations for {@link ").append(configType).append("},\n");
+		code.append(" * generated at build time.\n");
+		code.append(" */\n");
+		code.append("public class ").append(getBinarySimpleName(configClass)).append(REGISTRAR_SUFFIX);
+		code.append("\n\t\timplements org.springframework.context.ApplicationContextInitializer<");
+		code.append(CONTEXT_TYPE).append("> {\n\n");
+		code.append("\t@Override\n");
+		code.append("\tpublic void initialize(").append(CONTEXT_TYPE).append(" context) {\n");
+		code.append("\t\tcontext.registerBean(").append(literal(configBeanName)).append(", ");
+		code.append(configType).append(".class");
+		if (hasDefaultConstructor(configClass)) {
+			code.append(", ").append(configType).append("::new");
+		}
+		code.append(");\n");
+		for (ExecutableElement beanMethod : beanMethods) {
+			writeBeanRegistration(code, beanMethod, configType, configBeanName, pkg);
+		}
+		code.append("\t}\n\n");
+		code.append("}\n");
+		return code.toString();
+	}
+
+	private void checkConfigurationClass(TypeElement configClass, PackageElement pkg) {
+		if (configClass.getKind() != ElementKind.CLASS || configClass.getModifiers().contains(Modifier.ABSTRACT)) {
+			throw new IllegalArgumentException(configClass + " is not a concrete class");
+		}
+		if (configClass.getEnclosingElement() instanceof TypeElement &&
+				!configClass.getModifiers().contains(Modifier.STATIC)) {
+			throw new IllegalArgumentException(configClass + " is an inner class");
+		}
+		if (!isAccessible(configClass, pkg) || !configClass.getTypeParameters().isEmpty()) {
+			throw new IllegalArgumentException(configClass + " cannot be referred to by generated code");
+		}
+		TypeElement superclass = asTypeElement(configClass.getSuperclass());
+		if (!superclass.getQualifiedName().contentEquals(Object.class.getName())) {
+			throw new IllegalArgumentException(configClass + " has a superclass: " + superclass);
+		}
+		checkInterfaces(configClass, configClass);
+		for (AnnotationMirror annotation : configClass.getAnnotationMirrors()) {
+			String annotationType = getAnnotationType(annotation);
+			if (!CONFIGURATION_ANNOTATION.equals(annotationType) && !isLanguageAnnotation(annotationType)) {
+				throw new IllegalArgumentException(configClass + " is annotated with @" + annotationType);
+			}
+		}
+		for (TypeElement memberClass : ElementFilter.typesIn(configClass.getEnclosedElements())) {
+			for (AnnotationMirror annotation : memberClass.getAnnotationMirrors()) {
+				if (!isLanguageAnnotation(getAnnotationType(annotation))) {
+					throw new IllegalArgumentException(configClass + " has annotated member class " + memberClass);
+				}
+			}
+		}
+	}
+
+	private void checkInterfaces(TypeElement configClass, TypeElement type) {
+		for (TypeMirror ifc : type.getInterfaces()) {
+			TypeElement ifcElement = asTypeElement(ifc);
+			for (ExecutableElement method : ElementFilter.methodsIn(ifcElement.getEnclosedElements())) {
+				if (getAnnotation(method, BEAN_ANNOTATION) != null) {
+					throw new IllegalArgumentException(configClass + " inherits @Bean method " + method +
+							" from " + ifcElement);
+				}
+			}
+			checkInterfaces(configClass, ifcElement);
+		}
+	}
+
+	private String getConfigurationBeanName(TypeElement configClass) {
+		AnnotationMirror configuration = getAnnotation(configClass, CONFIGURATION_ANNOTATION);
+		Object value = getAttribute(configuration, "value");
+		if (value instanceof String && !((String) value).isEmpty()) {
+			return (String) value;
+		}
+		// Same as AnnotationBeanNameGenerator's default bean name
+		String shortName = configClass.getSimpleName().toString();
+		Element enclosingElement = configClass.getEnclosingElement();
+		while (enclosingElement instanceof TypeElement) {
+			shortName = enclosingElement.getSimpleName() + "." + shortName;
+			enclosingElement = enclosingElement.getEnclosingElement();
+		}
+		if (shortName.length() > 1 && Character.isUpperCase(shortName.charAt(1)) &&
+				Character.isUpperCase(shortName.charAt(0))) {
+			return shortName;
+		}
+		return Character.toLowerCase(shortName.charAt(0)) + shortName.substring(1);
+	}
+
+	private boolean hasDefaultConstructor(TypeElement configClass) {
+		List<ExecutableElement> constructors = ElementFilter.constructorsIn(configClass.getEnclosedElements());
+		return (constructors.size() == 1 && constructors.get(0).getParameters().isEmpty() &&
+				!constructors.get(0).getModifiers().contains(Modifier.PRIVATE) &&
+				constructors.get(0).getAnnotationMirrors().isEmpty());
+	}
+
+	private List<ExecutableElement> getBeanMethods(TypeElement configClass, PackageElement pkg) {
+		List<ExecutableElement> beanMethods = new ArrayList<>();
+		Set<String> methodNames = new HashSet<>();
+		for (ExecutableElement method : ElementFilter.methodsIn(configClass.getEnclosedElements())) {
+			if (getAnnotation(method, BEAN_ANNOTATION) == null) {
+				continue;
+			}
+			if (!methodNames.add(method.getSimpleName().toString())) {
+				throw new IllegalArgumentException(configClass + " has overloaded @Bean method " + method);
+			}
+			checkBeanMethod(method, pkg);
+			beanMethods.add(method);
+		}
+		return beanMethods;
+	}
+
+	private void checkBeanMethod(ExecutableElement method, PackageElement pkg) {
+		String description = "@Bean method " + method;
+		if (method.getModifiers().contains(Modifier.PRIVATE) || !method.getTypeParameters().isEmpty()) {
+			throw new IllegalArgumentException(description + " cannot be invoked by generated code");
+		}
+		for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+			String annotationType = getAnnotationType(annotation);
+			if (!supportedBeanMethodAnnotations.contains(annotationType) && !isLanguageAnnotation(annotationType)) {
+				throw new IllegalArgumentException(description + " is annotated with @" + annotationType);
+			}
+		}
+		AnnotationMirror bean = getAnnotation(method, BEAN_ANNOTATION);
+		Object autowire = getAttribute(bean, "autowire");
+		if (autowire != null && !((VariableElement) autowire).getSimpleName().contentEquals("NO")) {
+			throw new IllegalArgumentException(description + " declares autowiring of its bean properties");
+		}
+		AnnotationMirror scope = getAnnotation(method, SCOPE_ANNOTATION);
+		Object proxyMode = (scope != null ? getAttribute(scope, "proxyMode") : null);
+		if (proxyMode != null && !((VariableElement) proxyMode).getSimpleName().contentEquals("DEFAULT") &&
+				!((VariableElement) proxyMode).getSimpleName().contentEquals("NO")) {
+			throw new IllegalArgumentException(description + " declares a scoped proxy");
+		}
+		if (isGeneric(method.getReturnType())) {
+			throw new IllegalArgumentException(description + " has generic return type " + method.getReturnType());
+		}
+		getSourceName(method.getReturnType(), pkg);
+		for (VariableElement parameter : method.getParameters()) {
+			for (AnnotationMirror annotation : parameter.getAnnotationMirrors()) {
+				if (!isLanguageAnnotation(getAnnotationType(annotation))) {
+					throw new IllegalArgumentException(description + " has annotated parameter " + parameter);
+				}
+			}
+			TypeMirror parameterType = parameter.asType();
+			if (parameterType.getKind() != TypeKind.DECLARED ||
+					!((DeclaredType) parameterType).getTypeArguments().isEmpty()) {
+				throw new IllegalArgumentException(description + " has parameter " + parameter +
+						" that cannot be resolved by type");
+			}
+			getSourceName(parameterType, pkg);
+		}
+	}
+
+	private boolean isGeneric(TypeMirror type) {
+		if (type.getKind() == TypeKind.ARRAY) {
+			return isGeneric(((ArrayType) type).getComponentType());
+		}
+		if (type.getKind() == TypeKind.DECLARED) {
+			return !((DeclaredType) type).getTypeArguments().isEmpty();
+		}
+		return (type.getKind() == TypeKind.TYPEVAR || type.getKind() == TypeKind.WILDCARD);
+	}
+
+	private void writeBeanRegistration(StringBuilder code, ExecutableElement method, String configType,
+			String configBeanName, PackageElement pkg) {
+
+		AnnotationMirror bean = getAnnotation(method, BEAN_ANNOTATION);
+		List<String> names = getStrings(bean, "name");
+		if (names.isEmpty()) {
+			names = getStrings(bean, "value");
+		}
+		String beanName = (!names.isEmpty() ? names.get(0) : method.getSimpleName().toString());
+
+		StringBuilder invocation = new StringBuilder();
+		if (method.getModifiers().contains(Modifier.STATIC)) {
+			invocation.append(configType);
+		}
+		else {
+			invocation.append("context.getBean(").append(literal(configBeanName)).append(", ");
+			invocation.append(configType).append(".class)");
+		}
+		invocation.append(".").append(method.getSimpleName()).append("(");
+		for (int i = 0; i < method.getParameters().size(); i++) {
+			invocation.append(i > 0 ? ", " : "").append("context.getBean(");
+			invocation.append(getSourceName(method.getParameters().get(i).asType(), pkg)).append(".class)");
+		}
+		invocation.append(")");
+
+		code.append("\t\tcontext.registerBean(").append(literal(beanName)).append(", ");
+		code.append(getSourceName(method.getReturnType(), pkg)).append(".class, ");
+		if (method.getThrownTypes().isEmpty()) {
+			code.append("() -> ").append(invocation).append(",\n");
+		}
+		else {
+			code.append("() -> {\n");
+			code.append("\t\t\ttry {\n");
+			code.append("\t\t\t\treturn ").append(invocation).append(";\n");
+			code.append("\t\t\t}\n");
+			code.append("\t\t\tcatch (Throwable ex) {\n");
+			code.append("\t\t\t\tthrow new org.springframework.beans.factory.BeanCreationException(");
+			code.append(literal(beanName)).append(",\n\t\t\t\t\t\t");
+			code.append(literal("Factory method '" + method.getSimpleName() + "' threw exception"));
+			code.append(", ex);\n");
+			code.append("\t\t\t}\n");
+			code.append("\t\t},\n");
+		}
+		code.append("\t\t\t\tbd -> {\n");
+		writeBeanDefinitionCustomizations(code, method, bean);
+		code.append("\t\t\t\t});\n");
+		for (int i = 1; i < names.size(); i++) {
+			code.append("\t\tcontext.registerAlias(").append(literal(beanName)).append(", ");
+			code.append(literal(names.get(i))).append(");\n");
+		}
+	}
+
+	private void writeBeanDefinitionCustomizations(StringBuilder code, ExecutableElement method,
+			AnnotationMirror bean) {
+
+		String prefix = "\t\t\t\t\t";
+		String beanDefinition = "((" + BEAN_DEFINITION_TYPE + ") bd)";
+		if (getAnnotation(method, PRIMARY_ANNOTATION) != null) {
+			code.append(prefix).append("bd.setPrimary(true);\n");
+		}
+		AnnotationMirror lazy = getAnnotation(method, LAZY_ANNOTATION);
+		if (lazy != null) {
+			Object value = getAttribute(lazy, "value");
+			code.append(prefix).append("bd.setLazyInit(").append(value == null || (Boolean) value).append(");\n");
+		}
+		AnnotationMirror scope = getAnnotation(method, SCOPE_ANNOTATION);
+		if (scope != null) {
+			Object scopeName = getAttribute(scope, "value");
+			if (scopeName == null || ((String) scopeName).isEmpty()) {
+				scopeName = getAttribute(scope, "scopeName");
+			}
+			if (scopeName != null && !((String) scopeName).isEmpty()) {
+				code.append(prefix).append("bd.setScope(").append(literal((String) scopeName)).append(");\n");
+			}
+		}
+		AnnotationMirror dependsOn = getAnnotation(method, DEPENDS_ON_ANNOTATION);
+		if (dependsOn != null && !getStrings(dependsOn, "value").isEmpty()) {
+			code.append(prefix).append("bd.setDependsOn(");
+			List<String> dependsOnNames = getStrings(dependsOn, "value");
+			for (int i = 0; i < dependsOnNames.size(); i++) {
+				code.append(i > 0 ? ", " : "").append(literal(dependsOnNames.get(i)));
+			}
+			code.append(");\n");
+		}
+		AnnotationMirror role = getAnnotation(method, ROLE_ANNOTATION);
+		if (role != null) {
+			code.append(prefix).append(beanDefinition).append(".setRole(");
+			code.append(getAttribute(role, "value")).append(");\n");
+		}
+		AnnotationMirror description = getAnnotation(method, DESCRIPTION_ANNOTATION);
+		if (description != null) {
+			code.append(prefix).append(beanDefinition).append(".setDescription(");
+			code.append(literal((String) getAttribute(description, "value"))).append(");\n");
+		}
+		Object initMethod = getAttribute(bean, "initMethod");
+		if (initMethod != null && !((String) initMethod).isEmpty()) {
+			code.append(prefix).append(beanDefinition).append(".setInitMethodName(");
+			code.append(literal((String) initMethod)).append(");\n");
+		}
+		// Destroy method to be inferred unless explicitly specified, as for @Bean methods at runtime
+		Object destroyMethod = getAttribute(bean, "destroyMethod");
+		code.append(prefix).append(beanDefinition).append(".setDestroyMethodName(");
+		code.append(literal(destroyMethod != null ? (String) destroyMethod : "(inferred)")).append(");\n");
+	}
+
+
+	@SuppressWarnings("unchecked")
+	private List<String> getStrings(AnnotationMirror annotation, String attributeName) {
+		Object value = getAttribute(annotation, attributeName);
+		List<String> result = new ArrayList<>();
+		if (value instanceof String) {
+			result.add((String) value);
+		}
+		else if (value instanceof List) {
+			for (AnnotationValue element : (List<? extends AnnotationValue>) value) {
+				result.add((String) element.getValue());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Return the explicitly declared value of the given annotation attribute,
+	 * or {@code null} if the attribute has its default value.
+	 */
+	private Object getAttribute(AnnotationMirror annotation, String attributeName) {
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+				annotation.getElementValues().entrySet()) {
+			if (entry.getKey().getSimpleName().contentEquals(attributeName)) {
+				return entry.getValue().getValue();
+			}
+		}
+		return null;
+	}
+
+	private AnnotationMirror getAnnotation(Element element, String annotationType) {
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			if (annotationType.equals(getAnnotationType(annotation))) {
+				return annotation;
+			}
+		}
+		return null;
+	}
+
+	private String getAnnotationType(AnnotationMirror annotation) {
+		return getClassName((TypeElement) annotation.getAnnotationType().asElement());
+	}
+
+	private boolean isLanguageAnnotation(String annotationType) {
+		return annotationType.startsWith("java.lang.");
+	}
+
+	private boolean isAccessible(TypeElement type, PackageElement pkg) {
+		Elements elements = this.env.getElementUtils();
+		Element element = type;
+		while (element instanceof TypeElement) {
+			Set<Modifier> modifiers = element.getModifiers();
+			if (modifiers.contains(Modifier.PRIVATE) ||
+					(!modifiers.contains(Modifier.PUBLIC) && !elements.getPackageOf(element).equals(pkg))) {
+				return false;
+			}
+			element = element.getEnclosingElement();
+		}
+		return true;
+	}
+
+	/**
+	 * Return the name of the erasure of the given type as used in source code.
+	 * @throws IllegalArgumentException if the type cannot be referred to from
+	 * a class in the given package
+	 */
+	private String getSourceName(TypeMirror type, PackageElement pkg) {
+		TypeMirror erasedType = this.env.getTypeUtils().erasure(type);
+		if (erasedType.getKind() == TypeKind.ARRAY) {
+			TypeMirror componentType = ((ArrayType) erasedType).getComponentType();
+			return (componentType.getKind().isPrimitive() ?
+					componentType.toString() : getSourceName(componentType, pkg)) + "[]";
+		}
+		if (erasedType.getKind() != TypeKind.DECLARED) {
+			throw new IllegalArgumentException("Unsupported type " + type);
+		}
+		TypeElement element = asTypeElement(erasedType);
+		if (!isAccessible(element, pkg)) {
+			throw new IllegalArgumentException("Inaccessible type " + type);
+		}
+		return element.getQualifiedName().toString();
+	}
+
+	private TypeElement asTypeElement(TypeMirror type) {
+		if (type.getKind() != TypeKind.DECLARED) {
+			throw new IllegalArgumentException("Unresolvable type " + type);
+		}
+		return (TypeElement) ((DeclaredType) type).asElement();
+	}
+
+	private String getClassName(TypeElement element) {
+		return this.env.getElementUtils().getBinaryName(element).toString();
+	}
+
+	private String getBinarySimpleName(TypeElement element) {
+		String className = getClassName(element);
+		return className.substring(className.lastIndexOf('.') + 1);
+	}
+
+	private static String literal(String value) {
+		StringBuilder literal = new StringBuilder(value.length() + 2).append('"');
+		for (char c : value.toCharArray()) {
+			if (c == '"' || c == '\\') {
+				literal.append('\\').append(c);
+			}
+			else if (c < 0x20 || c > 0x7e) {
+				literal.append(String.format("\\u%04x", (int) c));
+			}
+			else {
+				literal.append(c);
+			}
+		}
+		return literal.append('"').toString();
+	}
+
+}
@@ -31,11 +31,16 @@ import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
 
 /**
  * Annotation {@link Processor} that writes {@link CandidateComponentsMetadata}
  * file for spring components.
  *
+ * <p>Along with the candidate components, the class metadata of all processed
+ * classes and interfaces is written in binary form, so that it does not need to
+ * be read from the class files again at runtime.
+ *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
  * @since 5.0
@@ -48,6 +53,8 @@ public class CandidateComponentsIndexer implements Processor {
 
 	private TypeHelper typeHelper;
 
+	private ClassMetadataEncoder classMetadataEncoder;
+
 	private List<StereotypesProvider> stereotypesProviders;
 
 
@@ -70,6 +77,7 @@ public class CandidateComponentsIndexer implements Processor {
 	public synchronized void init(ProcessingEnvironment env) {
 		this.stereotypesProviders = getStereotypesProviders(env);
 		this.typeHelper = new TypeHelper(env);
+		this.classMetadataEncoder = new ClassMetadataEncoder(env);
 		this.metadataStore = new MetadataStore(env);
 		this.metadataCollector = new MetadataCollector(env, this.metadataStore.readMetadata());
 	}
@@ -107,11 +115,27 @@ public class CandidateComponentsIndexer implements Processor {
 		if (!stereotypes.isEmpty()) {
 			this.metadataCollector.add(new ItemMetadata(this.typeHelper.getType(element), stereotypes));
 		}
+		if (element instanceof TypeElement) {
+			processClassMetadata((TypeElement) element);
+		}
+	}
+
+	private void processClassMetadata(TypeElement element) {
+		if (this.classMetadataEncoder.isEncodable(element)) {
+			try {
+				this.metadataCollector.addClassMetadata(this.classMetadataEncoder.getClassName(element),
+						this.classMetadataEncoder.encode(element));
+			}
+			catch (IllegalArgumentException ex) {
+				// Unresolvable type references -> class file to be read at runtime.
+			}
+		}
+		ElementFilter.typesIn(element.getEnclosedElements()).forEach(this::processClassMetadata);
 	}
 
 	private CandidateComponentsMetadata writeMetaData() {
 		CandidateComponentsMetadata metadata = this.metadataCollector.getMetadata();
-		if (!metadata.getItems().isEmpty()) {
+		if (!metadata.getItems().isEmpty() || !metadata.getClassMetadata().isEmpty()) {
 			try {
 				this.metadataStore.writeMetadata(metadata);
 			}
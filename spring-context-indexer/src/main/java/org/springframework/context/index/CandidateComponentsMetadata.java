@@ -18,7 +18,9 @@ package org.springframework.context.index;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Meta-data for candidate components.
@@ -30,9 +32,12 @@ class CandidateComponentsMetadata {
 
 	private final List<ItemMetadata> items;
 
+	private final Map<String, byte[]> classMetadata;
+
 
 	public CandidateComponentsMetadata() {
 		this.items = new ArrayList<>();
+		this.classMetadata = new LinkedHashMap<>();
 	}
 
 
@@ -44,6 +49,18 @@ class CandidateComponentsMetadata {
 		return Collections.unmodifiableList(this.items);
 	}
 
+	public void addClassMetadata(String type, byte[] content) {
+		this.classMetadata.put(type, content);
+	}
+
+	/**
+	 * Return the encoded class metadata, keyed by class name.
+	 * @see ClassMetadataEncoder
+	 */
+	public Map<String, byte[]> getClassMetadata() {
+		return Collections.unmodifiableMap(this.classMetadata);
+	}
+
 	@Override
 	public String toString() {
 		return "CandidateComponentsMetadata{" + "items=" + this.items + '}';
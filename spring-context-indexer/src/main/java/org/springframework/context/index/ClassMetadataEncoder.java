@@ -0,0 +1,407 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Encode the class metadata of a {@link TypeElement} in the binary format
+ * that {@code org.springframework.core.type.classreading.ClassMetadataSerializer}
+ * restores metadata from, mirroring what would be read from the class file.
+ *
+ * @since 5.0
+ */
+class ClassMetadataEncoder {
+
+	private static final int ACC_PUBLIC = 0x0001;
+
+	private static final int ACC_PRIVATE = 0x0002;
+
+	private static final int ACC_PROTECTED = 0x0004;
+
+	private static final int ACC_STATIC = 0x0008;
+
+	private static final int ACC_FINAL = 0x0010;
+
+	private static final int ACC_SYNCHRONIZED = 0x0020;
+
+	private static final int ACC_VARARGS = 0x0080;
+
+	private static final int ACC_NATIVE = 0x0100;
+
+	private static final int ACC_INTERFACE = 0x0200;
+
+	private static final int ACC_ABSTRACT = 0x0400;
+
+	private static final int ACC_STRICT = 0x0800;
+
+	private static final byte TAG_STRING = 1;
+
+	private static final byte TAG_BOOLEAN = 2;
+
+	private static final byte TAG_BYTE = 3;
+
+	private static final byte TAG_CHAR = 4;
+
+	private static final byte TAG_SHORT = 5;
+
+	private static final byte TAG_INT = 6;
+
+	private static final byte TAG_LONG = 7;
+
+	private static final byte TAG_FLOAT = 8;
+
+	private static final byte TAG_DOUBLE = 9;
+
+	private static final byte TAG_TYPE = 10;
+
+	private static final byte TAG_ENUM = 11;
+
+	private static final byte TAG_ANNOTATION = 12;
+
+	private static final byte TAG_ARRAY = 13;
+
+	private static final byte TAG_PRIMITIVE_ARRAY = 14;
+
+
+	private final Elements elements;
+
+	private final Types types;
+
+
+	public ClassMetadataEncoder(ProcessingEnvironment env) {
+		this.elements = env.getElementUtils();
+		this.types = env.getTypeUtils();
+	}
+
+
+	/**
+	 * Specify if the class metadata of the specified {@link TypeElement} should
+	 * be encoded. Annotation types and enums are not, as they never need to be
+	 * read as a candidate or configuration class.
+	 */
+	public boolean isEncodable(TypeElement element) {
+		return (element.getKind() == ElementKind.CLASS || element.getKind() == ElementKind.INTERFACE);
+	}
+
+	public String getClassName(TypeElement element) {
+		return this.elements.getBinaryName(element).toString();
+	}
+
+	/**
+	 * Encode the class metadata of the specified {@link TypeElement}.
+	 * @throws IllegalArgumentException if the element refers to types
+	 * that cannot be resolved
+	 */
+	public byte[] encode(TypeElement element) {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+			DataOutputStream out = new DataOutputStream(bytes);
+			boolean isInterface = element.getKind().isInterface();
+			Set<Modifier> modifiers = element.getModifiers();
+			out.writeInt((isInterface ? ACC_INTERFACE | ACC_ABSTRACT : 0) |
+					(modifiers.contains(Modifier.ABSTRACT) ? ACC_ABSTRACT : 0) |
+					(modifiers.contains(Modifier.FINAL) ? ACC_FINAL : 0));
+			out.writeUTF(getClassName(element));
+			TypeMirror superclass = element.getSuperclass();
+			writeNullableString(out, (!isInterface && superclass.getKind() == TypeKind.DECLARED ?
+					getClassName(asTypeElement(superclass)) : null));
+			List<? extends TypeMirror> interfaces = element.getInterfaces();
+			out.writeInt(interfaces.size());
+			for (TypeMirror type : interfaces) {
+				out.writeUTF(getClassName(asTypeElement(type)));
+			}
+			Element enclosingElement = element.getEnclosingElement();
+			if (enclosingElement instanceof TypeElement) {
+				out.writeBoolean(true);
+				out.writeUTF(getClassName((TypeElement) enclosingElement));
+				out.writeBoolean(isStatic(element));
+			}
+			else {
+				out.writeBoolean(false);
+				out.writeBoolean(true);
+			}
+			List<TypeElement> memberTypes = ElementFilter.typesIn(element.getEnclosedElements());
+			out.writeInt(memberTypes.size());
+			for (TypeElement memberType : memberTypes) {
+				out.writeUTF(getClassName(memberType));
+			}
+			writeAnnotations(out, element);
+			List<ExecutableElement> annotatedMethods = new ArrayList<>();
+			for (Element enclosedElement : element.getEnclosedElements()) {
+				if ((enclosedElement.getKind() == ElementKind.METHOD ||
+						enclosedElement.getKind() == ElementKind.CONSTRUCTOR) &&
+						!getRetainedAnnotations(enclosedElement).isEmpty()) {
+					annotatedMethods.add((ExecutableElement) enclosedElement);
+				}
+			}
+			out.writeInt(annotatedMethods.size());
+			for (ExecutableElement method : annotatedMethods) {
+				boolean isConstructor = (method.getKind() == ElementKind.CONSTRUCTOR);
+				out.writeUTF(isConstructor ? "<init>" : method.getSimpleName().toString());
+				out.writeInt(getMethodAccess(method, isInterface));
+				out.writeUTF(getClassName(element));
+				out.writeUTF(isConstructor ? "void" : getTypeName(method.getReturnType()));
+				writeAnnotations(out, method);
+			}
+			out.flush();
+			return bytes.toByteArray();
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to encode class metadata for " + element, ex);
+		}
+	}
+
+	private boolean isStatic(TypeElement element) {
+		// Nested interfaces, enums and members of interfaces are implicitly static
+		return (element.getModifiers().contains(Modifier.STATIC) || element.getKind().isInterface() ||
+				element.getKind() == ElementKind.ENUM || element.getEnclosingElement().getKind().isInterface());
+	}
+
+	private int getMethodAccess(ExecutableElement method, boolean inInterface) {
+		Set<Modifier> modifiers = method.getModifiers();
+		int access = (method.isVarArgs() ? ACC_VARARGS : 0);
+		access |= (modifiers.contains(Modifier.PUBLIC) ? ACC_PUBLIC : 0);
+		access |= (modifiers.contains(Modifier.PRIVATE) ? ACC_PRIVATE : 0);
+		access |= (modifiers.contains(Modifier.PROTECTED) ? ACC_PROTECTED : 0);
+		access |= (modifiers.contains(Modifier.STATIC) ? ACC_STATIC : 0);
+		access |= (modifiers.contains(Modifier.FINAL) ? ACC_FINAL : 0);
+		access |= (modifiers.contains(Modifier.SYNCHRONIZED) ? ACC_SYNCHRONIZED : 0);
+		access |= (modifiers.contains(Modifier.NATIVE) ? ACC_NATIVE : 0);
+		access |= (modifiers.contains(Modifier.ABSTRACT) ? ACC_ABSTRACT : 0);
+		access |= (modifiers.contains(Modifier.STRICTFP) ? ACC_STRICT : 0);
+		if (inInterface) {
+			// Interface methods are implicitly public, and abstract unless they have a body
+			if (!modifiers.contains(Modifier.PRIVATE)) {
+				access |= ACC_PUBLIC;
+			}
+			if (!modifiers.contains(Modifier.DEFAULT) && !modifiers.contains(Modifier.STATIC) &&
+					!modifiers.contains(Modifier.PRIVATE)) {
+				access |= ACC_ABSTRACT;
+			}
+		}
+		return access;
+	}
+
+	private void writeAnnotations(DataOutputStream out, Element element) throws IOException {
+		List<AnnotationMirror> annotations = getRetainedAnnotations(element);
+		out.writeInt(annotations.size());
+		for (AnnotationMirror annotation : annotations) {
+			out.writeUTF(getClassName(asTypeElement(annotation.getAnnotationType())));
+			out.writeBoolean(true);
+			writeAttributes(out, annotation);
+		}
+	}
+
+	/**
+	 * Return the annotations of the specified {@link Element} that are present
+	 * in its class file, runtime-visible annotations first as in the class file.
+	 */
+	private List<AnnotationMirror> getRetainedAnnotations(Element element) {
+		List<AnnotationMirror> runtimeAnnotations = new ArrayList<>();
+		List<AnnotationMirror> classAnnotations = new ArrayList<>();
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			Retention retention = annotation.getAnnotationType().asElement().getAnnotation(Retention.class);
+			RetentionPolicy policy = (retention != null ? retention.value() : RetentionPolicy.CLASS);
+			if (policy == RetentionPolicy.RUNTIME) {
+				runtimeAnnotations.add(annotation);
+			}
+			else if (policy == RetentionPolicy.CLASS) {
+				classAnnotations.add(annotation);
+			}
+		}
+		runtimeAnnotations.addAll(classAnnotations);
+		return runtimeAnnotations;
+	}
+
+	private void writeAttributes(DataOutputStream out, AnnotationMirror annotation) throws IOException {
+		Map<? extends ExecutableElement, ? extends AnnotationValue> values = annotation.getElementValues();
+		out.writeInt(values.size());
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+			out.writeUTF(entry.getKey().getSimpleName().toString());
+			writeValue(out, entry.getValue(), entry.getKey().getReturnType());
+		}
+	}
+
+	private void writeValue(DataOutputStream out, AnnotationValue annotationValue, TypeMirror valueType)
+			throws IOException {
+
+		Object value = annotationValue.getValue();
+		if (value instanceof String) {
+			out.writeByte(TAG_STRING);
+			out.writeUTF((String) value);
+		}
+		else if (value instanceof Boolean) {
+			out.writeByte(TAG_BOOLEAN);
+			out.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Byte) {
+			out.writeByte(TAG_BYTE);
+			out.writeByte((Byte) value);
+		}
+		else if (value instanceof Character) {
+			out.writeByte(TAG_CHAR);
+			out.writeChar((Character) value);
+		}
+		else if (value instanceof Short) {
+			out.writeByte(TAG_SHORT);
+			out.writeShort((Short) value);
+		}
+		else if (value instanceof Integer) {
+			out.writeByte(TAG_INT);
+			out.writeInt((Integer) value);
+		}
+		else if (value instanceof Long) {
+			out.writeByte(TAG_LONG);
+			out.writeLong((Long) value);
+		}
+		else if (value instanceof Float) {
+			out.writeByte(TAG_FLOAT);
+			out.writeFloat((Float) value);
+		}
+		else if (value instanceof Double) {
+			out.writeByte(TAG_DOUBLE);
+			out.writeDouble((Double) value);
+		}
+		else if (value instanceof TypeMirror) {
+			out.writeByte(TAG_TYPE);
+			out.writeUTF(getDescriptor((TypeMirror) value));
+		}
+		else if (value instanceof VariableElement) {
+			VariableElement enumConstant = (VariableElement) value;
+			out.writeByte(TAG_ENUM);
+			out.writeUTF(getDescriptor(enumConstant.asType()));
+			out.writeUTF(enumConstant.getSimpleName().toString());
+		}
+		else if (value instanceof AnnotationMirror) {
+			AnnotationMirror nestedAnnotation = (AnnotationMirror) value;
+			out.writeByte(TAG_ANNOTATION);
+			out.writeUTF(getDescriptor(nestedAnnotation.getAnnotationType()));
+			writeAttributes(out, nestedAnnotation);
+		}
+		else if (value instanceof List && valueType.getKind() == TypeKind.ARRAY) {
+			List<?> elements = (List<?>) value;
+			TypeMirror componentType = ((ArrayType) valueType).getComponentType();
+			if (componentType.getKind().isPrimitive()) {
+				out.writeByte(TAG_PRIMITIVE_ARRAY);
+				out.writeUTF(getDescriptor(componentType));
+			}
+			else {
+				out.writeByte(TAG_ARRAY);
+			}
+			out.writeInt(elements.size());
+			for (Object element : elements) {
+				writeValue(out, (AnnotationValue) element, componentType);
+			}
+		}
+		else {
+			throw new IllegalArgumentException("Unsupported annotation attribute value: " + annotationValue);
+		}
+	}
+
+	private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	private TypeElement asTypeElement(TypeMirror type) {
+		if (type.getKind() != TypeKind.DECLARED) {
+			throw new IllegalArgumentException("Unresolvable type: " + type);
+		}
+		return (TypeElement) ((DeclaredType) type).asElement();
+	}
+
+	private String getTypeName(TypeMirror type) {
+		TypeMirror erasedType = this.types.erasure(type);
+		switch (erasedType.getKind()) {
+			case ARRAY:
+				return getTypeName(((ArrayType) erasedType).getComponentType()) + "[]";
+			case DECLARED:
+				return getClassName(asTypeElement(erasedType));
+			case BOOLEAN:
+			case BYTE:
+			case CHAR:
+			case SHORT:
+			case INT:
+			case LONG:
+			case FLOAT:
+			case DOUBLE:
+			case VOID:
+				return erasedType.getKind().name().toLowerCase(Locale.ENGLISH);
+			default:
+				throw new IllegalArgumentException("Unresolvable type: " + type);
+		}
+	}
+
+	private String getDescriptor(TypeMirror type) {
+		TypeMirror erasedType = this.types.erasure(type);
+		switch (erasedType.getKind()) {
+			case ARRAY:
+				return "[" + getDescriptor(((ArrayType) erasedType).getComponentType());
+			case DECLARED:
+				return "L" + getClassName(asTypeElement(erasedType)).replace('.', '/') + ";";
+			case BOOLEAN:
+				return "Z";
+			case BYTE:
+				return "B";
+			case CHAR:
+				return "C";
+			case SHORT:
+				return "S";
+			case INT:
+				return "I";
+			case LONG:
+				return "J";
+			case FLOAT:
+				return "F";
+			case DOUBLE:
+				return "D";
+			case VOID:
+				return "V";
+			default:
+				throw new IllegalArgumentException("Unresolvable type: " + type);
+		}
+	}
+
+}
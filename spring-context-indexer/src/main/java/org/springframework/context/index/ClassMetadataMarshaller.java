@@ -0,0 +1,68 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * Marshaller to write the class metadata of {@link CandidateComponentsMetadata}
+ * in binary form: a header, the number of entries, and each entry as the class
+ * name followed by the length and the content of its encoded metadata.
+ *
+ * @since 5.0
+ * @see ClassMetadataEncoder
+ */
+abstract class ClassMetadataMarshaller {
+
+	static final int MAGIC = 0x53504349;
+
+	static final int VERSION = 1;
+
+
+	public static void write(CandidateComponentsMetadata metadata, OutputStream out) throws IOException {
+		DataOutputStream dataOut = new DataOutputStream(out);
+		dataOut.writeInt(MAGIC);
+		dataOut.writeInt(VERSION);
+		dataOut.writeInt(metadata.getClassMetadata().size());
+		for (Map.Entry<String, byte[]> entry : metadata.getClassMetadata().entrySet()) {
+			dataOut.writeUTF(entry.getKey());
+			dataOut.writeInt(entry.getValue().length);
+			dataOut.write(entry.getValue());
+		}
+		dataOut.flush();
+	}
+
+	public static void read(InputStream in, CandidateComponentsMetadata metadata) throws IOException {
+		DataInputStream dataIn = new DataInputStream(in);
+		if (dataIn.readInt() != MAGIC || dataIn.readInt() != VERSION) {
+			throw new IOException("Unsupported class metadata format");
+		}
+		int count = dataIn.readInt();
+		for (int i = 0; i < count; i++) {
+			String type = dataIn.readUTF();
+			byte[] content = new byte[dataIn.readInt()];
+			dataIn.readFully(content);
+			metadata.addClassMetadata(type, content);
+		}
+	}
+
+}
@@ -18,7 +18,9 @@ package org.springframework.context.index;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.RoundEnvironment;
@@ -35,6 +37,8 @@ class MetadataCollector {
 
 	private final List<ItemMetadata> metadataItems = new ArrayList<ItemMetadata>();
 
+	private final Map<String, byte[]> classMetadata = new LinkedHashMap<>();
+
 	private final ProcessingEnvironment processingEnvironment;
 
 	private final CandidateComponentsMetadata previousMetadata;
@@ -74,11 +78,16 @@ class MetadataCollector {
 		this.metadataItems.add(metadata);
 	}
 
+	public void addClassMetadata(String type, byte[] content) {
+		this.classMetadata.put(type, content);
+	}
+
 	public CandidateComponentsMetadata getMetadata() {
 		CandidateComponentsMetadata metadata = new CandidateComponentsMetadata();
 		for (ItemMetadata item : this.metadataItems) {
 			metadata.add(item);
 		}
+		this.classMetadata.forEach(metadata::addClassMetadata);
 		if (this.previousMetadata != null) {
 			List<ItemMetadata> items = this.previousMetadata.getItems();
 			for (ItemMetadata item : items) {
@@ -86,6 +95,11 @@ class MetadataCollector {
 					metadata.add(item);
 				}
 			}
+			this.previousMetadata.getClassMetadata().forEach((type, content) -> {
+				if (shouldClassMetadataBeMerged(type)) {
+					metadata.addClassMetadata(type, content);
+				}
+			});
 		}
 		return metadata;
 	}
@@ -96,6 +110,24 @@ class MetadataCollector {
 				&& !processedInCurrentBuild(sourceType));
 	}
 
+	private boolean shouldClassMetadataBeMerged(String type) {
+		if (this.classMetadata.containsKey(type)) {
+			return false;
+		}
+		// Class metadata is also kept for member types: these are written again
+		// along with their top-level type, and only merged if it is unchanged
+		TypeElement element = this.processingEnvironment.getElementUtils()
+				.getTypeElement(type.replace('$', '.'));
+		if (element == null) {
+			return false;
+		}
+		Element topLevelElement = element;
+		while (topLevelElement.getEnclosingElement() instanceof TypeElement) {
+			topLevelElement = topLevelElement.getEnclosingElement();
+		}
+		return !processedInCurrentBuild(this.typeHelper.getType(topLevelElement));
+	}
+
 	private boolean deletedInCurrentBuild(String sourceType) {
 		return this.processingEnvironment.getElementUtils()
 				.getTypeElement(sourceType) == null;
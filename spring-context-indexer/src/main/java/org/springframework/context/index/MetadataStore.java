@@ -33,6 +33,8 @@ class MetadataStore {
 
 	static final String METADATA_PATH = "META-INF/spring.components";
 
+	static final String CLASS_METADATA_PATH = "META-INF/spring.components.metadata";
+
 	private final ProcessingEnvironment environment;
 
 
@@ -42,21 +44,39 @@ class MetadataStore {
 
 
 	public CandidateComponentsMetadata readMetadata() {
+		CandidateComponentsMetadata metadata;
 		try {
-			return readMetadata(getMetadataResource().openInputStream());
+			metadata = readMetadata(getMetadataResource(METADATA_PATH).openInputStream());
 		}
 		catch (IOException ex) {
 			// Failed to read metadata -> ignore.
-			return null;
+			metadata = null;
+		}
+		try (InputStream in = getMetadataResource(CLASS_METADATA_PATH).openInputStream()) {
+			CandidateComponentsMetadata classMetadata = new CandidateComponentsMetadata();
+			ClassMetadataMarshaller.read(in, classMetadata);
+			if (metadata == null) {
+				metadata = new CandidateComponentsMetadata();
+			}
+			classMetadata.getClassMetadata().forEach(metadata::addClassMetadata);
 		}
+		catch (IOException ex) {
+			// Failed to read class metadata -> ignore.
+		}
+		return metadata;
 	}
 
 	public void writeMetadata(CandidateComponentsMetadata metadata) throws IOException {
 		if (!metadata.getItems().isEmpty()) {
-			try (OutputStream outputStream = createMetadataResource().openOutputStream()) {
+			try (OutputStream outputStream = createMetadataResource(METADATA_PATH).openOutputStream()) {
 				PropertiesMarshaller.write(metadata, outputStream);
 			}
 		}
+		if (!metadata.getClassMetadata().isEmpty()) {
+			try (OutputStream outputStream = createMetadataResource(CLASS_METADATA_PATH).openOutputStream()) {
+				ClassMetadataMarshaller.write(metadata, outputStream);
+			}
+		}
 	}
 
 
@@ -69,12 +89,12 @@ class MetadataStore {
 		}
 	}
 
-	private FileObject getMetadataResource() throws IOException {
-		return this.environment.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", METADATA_PATH);
+	private FileObject getMetadataResource(String path) throws IOException {
+		return this.environment.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", path);
 	}
 
-	private FileObject createMetadataResource() throws IOException {
-		return this.environment.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", METADATA_PATH);
+	private FileObject createMetadataResource(String path) throws IOException {
+		return this.environment.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", path);
 	}
 
 }
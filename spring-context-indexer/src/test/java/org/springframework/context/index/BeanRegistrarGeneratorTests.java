@@ -0,0 +1,162 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.index.sample.SampleComponent;
+import org.springframework.context.index.sample.SampleRepository;
+import org.springframework.context.index.sample.SampleService;
+import org.springframework.context.index.sample.registrar.SampleBeanConfiguration;
+import org.springframework.context.index.sample.registrar.SampleGenericConfiguration;
+import org.springframework.context.index.sample.registrar.SampleImportingConfiguration;
+import org.springframework.context.index.test.TestCompiler;
+import org.springframework.context.support.GenericApplicationContext;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BeanRegistrarGenerator}.
+ */
+public class BeanRegistrarGeneratorTests {
+
+	/**
+	 * The test sources of spring-context, with a registrar for a configuration
+	 * class in the form generated by {@link BeanRegistrarGenerator}.
+	 */
+	private static final File SPRING_CONTEXT_TEST_SOURCE_FOLDER = new File("../spring-context/src/test/java");
+
+	private TestCompiler compiler;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+	@Before
+	public void createCompiler() throws IOException {
+		this.compiler = new TestCompiler(this.temporaryFolder);
+	}
+
+
+	@Test
+	public void registrarForSelfContainedConfiguration() throws Exception {
+		compile(SampleBeanConfiguration.class);
+		GenericApplicationContext context = new GenericApplicationContext();
+		loadRegistrar(SampleBeanConfiguration.class).initialize(context);
+		context.refresh();
+
+		assertSame(SampleBeanConfiguration.class, context.getBean("sampleBeanConfiguration").getClass());
+		assertNotNull(context.getBean("sampleService", SampleService.class));
+		assertSame(context.getBean(SampleRepository.class), context.getBean("sampleRepository"));
+		SampleComponent component = context.getBean("component", SampleComponent.class);
+		assertNotSame(component, context.getBean("sampleComponent"));
+		BeanDefinition beanDefinition = context.getBeanDefinition("sampleComponent");
+		assertTrue(beanDefinition.isPrimary());
+		assertTrue(beanDefinition.isLazyInit());
+		assertEquals(BeanDefinition.SCOPE_PROTOTYPE, beanDefinition.getScope());
+		assertEquals("A \"sample\" component", beanDefinition.getDescription());
+		context.close();
+	}
+
+	@Test
+	public void registrarMatchesSpringContextFixture() throws Exception {
+		File configSource = new File(SPRING_CONTEXT_TEST_SOURCE_FOLDER,
+				"org/springframework/context/annotation/registrar/RegistrarConfig.java");
+		this.compiler.getTask(getOptions("org.springframework.context.annotation.registrar.RegistrarConfig"),
+				configSource).call(new BeanRegistrarGenerator());
+		File generated = new File(this.compiler.getOutputLocation(),
+				"org/springframework/context/annotation/registrar/RegistrarConfig__BeanDefinitions.java");
+		File fixture = new File(SPRING_CONTEXT_TEST_SOURCE_FOLDER,
+				"org/springframework/context/annotation/registrar/RegistrarConfig__BeanDefinitions.java");
+
+		// The fixture only adds the license header
+		String fixtureSource = read(fixture);
+		assertEquals(read(generated), fixtureSource.substring(fixtureSource.indexOf("package ")));
+	}
+
+	@Test
+	public void noRegistrarForConfigurationWithImport() {
+		compile(SampleImportingConfiguration.class);
+		assertFalse(getRegistrarSource(SampleImportingConfiguration.class).exists());
+	}
+
+	@Test
+	public void noRegistrarForGenericReturnType() {
+		compile(SampleGenericConfiguration.class);
+		assertFalse(getRegistrarSource(SampleGenericConfiguration.class).exists());
+	}
+
+	@Test
+	public void noRegistrarWithoutLiteModeOption() {
+		this.compiler.getTask(Collections.singletonList(
+				"-A" + BeanRegistrarGenerator.REGISTRARS_OPTION + "=" + SampleBeanConfiguration.class.getName()),
+				SampleBeanConfiguration.class).call(new BeanRegistrarGenerator());
+		assertFalse(getRegistrarSource(SampleBeanConfiguration.class).exists());
+	}
+
+	@Test
+	public void noRegistrarWithoutOption() {
+		this.compiler.getTask(SampleBeanConfiguration.class).call(new BeanRegistrarGenerator());
+		assertFalse(getRegistrarSource(SampleBeanConfiguration.class).exists());
+	}
+
+
+	private void compile(Class<?> configClass) {
+		this.compiler.getTask(getOptions(configClass.getName()), configClass).call(new BeanRegistrarGenerator());
+	}
+
+	private List<String> getOptions(String configClassName) {
+		return Arrays.asList("-A" + BeanRegistrarGenerator.REGISTRARS_OPTION + "=" + configClassName,
+				"-A" + BeanRegistrarGenerator.LITE_MODE_OPTION + "=true");
+	}
+
+	private String read(File file) throws IOException {
+		return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+	}
+
+	private File getRegistrarSource(Class<?> configClass) {
+		return new File(this.compiler.getOutputLocation(),
+				(configClass.getName() + BeanRegistrarGenerator.REGISTRAR_SUFFIX).replace('.', '/') + ".java");
+	}
+
+	@SuppressWarnings("unchecked")
+	private ApplicationContextInitializer<GenericApplicationContext> loadRegistrar(Class<?> configClass)
+			throws Exception {
+
+		assertTrue(getRegistrarSource(configClass).exists());
+		ClassLoader classLoader = new URLClassLoader(
+				new URL[] {this.compiler.getOutputLocation().toURI().toURL()}, getClass().getClassLoader());
+		Class<?> registrarClass = classLoader.loadClass(configClass.getName() + BeanRegistrarGenerator.REGISTRAR_SUFFIX);
+		return (ApplicationContextInitializer<GenericApplicationContext>) registrarClass.newInstance();
+	}
+
+}
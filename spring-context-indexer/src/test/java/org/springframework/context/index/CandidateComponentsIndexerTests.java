@@ -19,6 +19,13 @@ package org.springframework.context.index;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
 import javax.annotation.ManagedBean;
 import javax.inject.Named;
 import javax.persistence.Converter;
@@ -43,6 +50,7 @@ import org.springframework.context.index.sample.SampleRepository;
 import org.springframework.context.index.sample.SampleService;
 import org.springframework.context.index.sample.cdi.SampleManagedBean;
 import org.springframework.context.index.sample.cdi.SampleNamed;
+import org.springframework.context.index.sample.config.SampleConfiguration;
 import org.springframework.context.index.sample.jpa.SampleConverter;
 import org.springframework.context.index.sample.jpa.SampleEmbeddable;
 import org.springframework.context.index.sample.jpa.SampleEntity;
@@ -54,6 +62,12 @@ import org.springframework.context.index.sample.type.SampleSpecializedRepo;
 import org.springframework.context.index.sample.type.SmartRepo;
 import org.springframework.context.index.sample.type.SpecializedRepo;
 import org.springframework.context.index.test.TestCompiler;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.core.type.classreading.ClassMetadataSerializer;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
 import org.springframework.stereotype.Component;
 
 import static org.hamcrest.Matchers.*;
@@ -199,6 +213,36 @@ public class CandidateComponentsIndexerTests {
 	}
 
 
+	@Test
+	public void classMetadata() throws IOException {
+		compile(SampleConfiguration.class);
+		CandidateComponentsMetadata metadata = readGeneratedClassMetadata(this.compiler.getOutputLocation());
+		assertThat(metadata.getClassMetadata().keySet(), containsInAnyOrder(
+				SampleConfiguration.class.getName(),
+				SampleConfiguration.class.getName() + "$NestedConfiguration",
+				SampleConfiguration.class.getName() + "$SampleConfigurer",
+				SampleConfiguration.class.getName() + "$Inner"));
+		SimpleMetadataReaderFactory metadataReaderFactory = new SimpleMetadataReaderFactory();
+		for (Map.Entry<String, byte[]> entry : metadata.getClassMetadata().entrySet()) {
+			FileSystemResource classFile = new FileSystemResource(new File(this.compiler.getOutputLocation(),
+					entry.getKey().replace('.', '/') + ".class"));
+			MetadataReader expected = metadataReaderFactory.getMetadataReader(classFile);
+			MetadataReader actual = ClassMetadataSerializer.deserialize(
+					entry.getValue(), classFile, getClass().getClassLoader());
+			assertSameMetadata(expected.getAnnotationMetadata(), actual.getAnnotationMetadata());
+		}
+	}
+
+	@Test
+	public void classMetadataMergedWithPreviousBuild() throws IOException {
+		compile(SampleConfiguration.class);
+		compile(SampleComponent.class);
+		CandidateComponentsMetadata metadata = readGeneratedClassMetadata(this.compiler.getOutputLocation());
+		assertThat(metadata.getClassMetadata().keySet(), hasItems(SampleComponent.class.getName(),
+				SampleConfiguration.class.getName(), SampleConfiguration.class.getName() + "$NestedConfiguration"));
+	}
+
+
 	private void testComponent(Class<?>... classes) throws IOException {
 		CandidateComponentsMetadata metadata = compile(classes);
 		for (Class<?> c : classes) {
@@ -241,4 +285,84 @@ public class CandidateComponentsIndexerTests {
 		}
 	}
 
+	private CandidateComponentsMetadata readGeneratedClassMetadata(File outputLocation) throws IOException {
+		CandidateComponentsMetadata metadata = new CandidateComponentsMetadata();
+		File metadataFile = new File(outputLocation, MetadataStore.CLASS_METADATA_PATH);
+		try (InputStream in = new FileInputStream(metadataFile)) {
+			ClassMetadataMarshaller.read(in, metadata);
+		}
+		return metadata;
+	}
+
+	private void assertSameMetadata(AnnotationMetadata expected, AnnotationMetadata actual) {
+		String className = expected.getClassName();
+		assertEquals(className, actual.getClassName());
+		assertEquals(className, expected.isInterface(), actual.isInterface());
+		assertEquals(className, expected.isAnnotation(), actual.isAnnotation());
+		assertEquals(className, expected.isAbstract(), actual.isAbstract());
+		assertEquals(className, expected.isFinal(), actual.isFinal());
+		assertEquals(className, expected.isIndependent(), actual.isIndependent());
+		assertEquals(className, expected.getEnclosingClassName(), actual.getEnclosingClassName());
+		assertEquals(className, expected.getSuperClassName(), actual.getSuperClassName());
+		assertArrayEquals(className, expected.getInterfaceNames(), actual.getInterfaceNames());
+		assertEquals(className, new HashSet<>(Arrays.asList(expected.getMemberClassNames())),
+				new HashSet<>(Arrays.asList(actual.getMemberClassNames())));
+		assertEquals(className, expected.getAnnotationTypes(), actual.getAnnotationTypes());
+		for (String annotationType : expected.getAnnotationTypes()) {
+			assertEquals(annotationType, expected.getMetaAnnotationTypes(annotationType),
+					actual.getMetaAnnotationTypes(annotationType));
+			assertSameValue(annotationType, expected.getAnnotationAttributes(annotationType, true),
+					actual.getAnnotationAttributes(annotationType, true));
+			assertSameMethods(expected.getAnnotatedMethods(annotationType),
+					actual.getAnnotatedMethods(annotationType), annotationType);
+		}
+		assertSameMethods(expected.getAnnotatedMethods("org.springframework.context.annotation.Bean"),
+				actual.getAnnotatedMethods("org.springframework.context.annotation.Bean"),
+				"org.springframework.context.annotation.Bean");
+		assertSameMethods(expected.getAnnotatedMethods(SampleConfiguration.class.getName() + "$Weights"),
+				actual.getAnnotatedMethods(SampleConfiguration.class.getName() + "$Weights"),
+				SampleConfiguration.class.getName() + "$Weights");
+		assertSameMethods(expected.getAnnotatedMethods("org.springframework.beans.factory.annotation.Autowired"),
+				actual.getAnnotatedMethods("org.springframework.beans.factory.annotation.Autowired"),
+				"org.springframework.beans.factory.annotation.Autowired");
+	}
+
+	private void assertSameMethods(Set<MethodMetadata> expected, Set<MethodMetadata> actual, String annotationType) {
+		assertEquals(annotationType, expected.size(), actual.size());
+		Iterator<MethodMetadata> actualMethods = actual.iterator();
+		for (MethodMetadata expectedMethod : expected) {
+			MethodMetadata actualMethod = actualMethods.next();
+			String methodName = expectedMethod.getMethodName();
+			assertEquals(methodName, actualMethod.getMethodName());
+			assertEquals(methodName, expectedMethod.getDeclaringClassName(), actualMethod.getDeclaringClassName());
+			assertEquals(methodName, expectedMethod.getReturnTypeName(), actualMethod.getReturnTypeName());
+			assertEquals(methodName, expectedMethod.isAbstract(), actualMethod.isAbstract());
+			assertEquals(methodName, expectedMethod.isStatic(), actualMethod.isStatic());
+			assertEquals(methodName, expectedMethod.isFinal(), actualMethod.isFinal());
+			assertEquals(methodName, expectedMethod.isOverridable(), actualMethod.isOverridable());
+			assertSameValue(methodName, expectedMethod.getAnnotationAttributes(annotationType, true),
+					actualMethod.getAnnotationAttributes(annotationType, true));
+		}
+	}
+
+	private void assertSameValue(String message, Object expected, Object actual) {
+		if (expected instanceof Map) {
+			assertThat(message, actual, instanceOf(Map.class));
+			assertEquals(message, ((Map<?, ?>) expected).keySet(), ((Map<?, ?>) actual).keySet());
+			for (Object key : ((Map<?, ?>) expected).keySet()) {
+				assertSameValue(message + "." + key, ((Map<?, ?>) expected).get(key), ((Map<?, ?>) actual).get(key));
+			}
+		}
+		else if (expected != null && expected.getClass().isArray()) {
+			assertEquals(message, expected.getClass(), actual.getClass());
+			assertEquals(message, Array.getLength(expected), Array.getLength(actual));
+			for (int i = 0; i < Array.getLength(expected); i++) {
+				assertSameValue(message + "[" + i + "]", Array.get(expected, i), Array.get(actual, i));
+			}
+		}
+		else {
+			assertEquals(message, expected, actual);
+		}
+	}
+
 }
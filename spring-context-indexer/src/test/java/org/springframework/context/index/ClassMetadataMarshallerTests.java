@@ -0,0 +1,95 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ClassMetadataMarshaller}.
+ */
+public class ClassMetadataMarshallerTests {
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+	@Test
+	public void formatMatchesLoader() {
+		assertEquals(CandidateComponentsIndexLoader.CLASS_METADATA_MAGIC, ClassMetadataMarshaller.MAGIC);
+		assertEquals(CandidateComponentsIndexLoader.CLASS_METADATA_VERSION, ClassMetadataMarshaller.VERSION);
+	}
+
+	@Test
+	public void readWrite() throws IOException {
+		CandidateComponentsMetadata metadata = createMetadata();
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		ClassMetadataMarshaller.write(metadata, outputStream);
+
+		CandidateComponentsMetadata readMetadata = new CandidateComponentsMetadata();
+		ClassMetadataMarshaller.read(new ByteArrayInputStream(outputStream.toByteArray()), readMetadata);
+		assertEquals(2, readMetadata.getClassMetadata().size());
+		assertArrayEquals(new byte[] {1, 2, 3}, readMetadata.getClassMetadata().get("com.foo"));
+		assertArrayEquals(new byte[] {4, 5}, readMetadata.getClassMetadata().get("com.bar"));
+	}
+
+	@Test
+	public void writeReadByLoader() throws IOException {
+		File file = this.temporaryFolder.newFile();
+		try (OutputStream out = new FileOutputStream(file)) {
+			ClassMetadataMarshaller.write(createMetadata(), out);
+		}
+		URL url = file.toURI().toURL();
+		ClassLoader classLoader = new ClassLoader(getClass().getClassLoader()) {
+			@Override
+			public Enumeration<URL> getResources(String name) throws IOException {
+				if (CandidateComponentsIndexLoader.CLASS_METADATA_RESOURCE_LOCATION.equals(name)) {
+					return Collections.enumeration(Collections.singletonList(url));
+				}
+				return super.getResources(name);
+			}
+		};
+
+		Map<String, byte[]> classMetadata = CandidateComponentsIndexLoader.loadClassMetadata(classLoader);
+		assertEquals(2, classMetadata.size());
+		assertArrayEquals(new byte[] {1, 2, 3}, classMetadata.get("com.foo"));
+		assertArrayEquals(new byte[] {4, 5}, classMetadata.get("com.bar"));
+	}
+
+
+	private static CandidateComponentsMetadata createMetadata() {
+		CandidateComponentsMetadata metadata = new CandidateComponentsMetadata();
+		metadata.addClassMetadata("com.foo", new byte[] {1, 2, 3});
+		metadata.addClassMetadata("com.bar", new byte[] {4, 5});
+		return metadata;
+	}
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.sample.config;
+
+import java.io.Serializable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.annotation.ScopedProxyMode;
+import org.springframework.context.index.sample.AbstractController;
+import org.springframework.context.index.sample.SampleComponent;
+import org.springframework.context.index.sample.SampleRepository;
+import org.springframework.context.index.sample.SampleService;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Controller;
+
+/**
+ * Test configuration class with a variety of class and method metadata.
+ */
+@Configuration
+@ComponentScan(basePackageClasses = SampleComponent.class,
+		excludeFilters = @ComponentScan.Filter(type = FilterType.ANNOTATION, classes = Controller.class))
+@Import(SampleConfiguration.NestedConfiguration.class)
+@Profile({"dev", "test"})
+@Order(5)
+@SampleConfiguration.Marker
+public class SampleConfiguration {
+
+	@Bean
+	@Scope(proxyMode = ScopedProxyMode.TARGET_CLASS)
+	public SampleComponent sampleComponent() {
+		return new SampleComponent();
+	}
+
+	@Bean(name = {"names", "aliases"}, initMethod = "init")
+	@Weights(value = {1, 2}, separator = ';', timeout = 10L, ratio = 0.5, types = {int.class, String[].class})
+	static String[] names() {
+		return new String[0];
+	}
+
+	@Bean
+	@SuppressWarnings("unchecked")
+	protected final List<String> list() {
+		return null;
+	}
+
+	public void notAnnotated() {
+	}
+
+
+	@Configuration
+	static class NestedConfiguration implements SampleConfigurer, Serializable {
+
+		@Autowired
+		NestedConfiguration(SampleService sampleService) {
+		}
+
+		@Override
+		public SampleRepository repository() {
+			return null;
+		}
+	}
+
+
+	interface SampleConfigurer {
+
+		@Bean
+		SampleRepository repository();
+
+		@Bean
+		default SampleService sampleService() {
+			return null;
+		}
+	}
+
+
+	abstract class Inner extends AbstractController {
+	}
+
+
+	@interface Marker {
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface Weights {
+
+		int[] value() default {};
+
+		char separator() default ',';
+
+		long timeout() default 0;
+
+		double ratio() default 1;
+
+		Class<?>[] types() default {};
+	}
+
+}
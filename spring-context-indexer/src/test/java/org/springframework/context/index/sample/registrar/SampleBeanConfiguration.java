@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.sample.registrar;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.index.sample.SampleComponent;
+import org.springframework.context.index.sample.SampleRepository;
+import org.springframework.context.index.sample.SampleService;
+
+/**
+ * Test configuration class that can be registered through a generated registrar.
+ */
+@Configuration
+public class SampleBeanConfiguration {
+
+	@Bean
+	public SampleService sampleService() {
+		return new SampleService();
+	}
+
+	@Bean(name = {"sampleComponent", "component"})
+	@Primary
+	@Lazy
+	@Scope("prototype")
+	@Description("A \"sample\" component")
+	public SampleComponent sampleComponent(SampleService sampleService) throws Exception {
+		return new SampleComponent();
+	}
+
+	@Bean
+	public static SampleRepository sampleRepository() {
+		return new SampleRepository();
+	}
+
+}
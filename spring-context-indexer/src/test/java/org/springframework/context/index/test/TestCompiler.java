@@ -69,13 +69,23 @@ public class TestCompiler {
 
 	public TestCompilationTask getTask(String... types) {
 		Iterable<? extends JavaFileObject> javaFileObjects = getJavaFileObjects(types);
-		return getTask(javaFileObjects);
+		return getTask(null, javaFileObjects);
 	}
 
-	private TestCompilationTask getTask(
+	public TestCompilationTask getTask(List<String> options, Class<?>... types) {
+		List<String> names = Arrays.stream(types).map(Class::getName)
+				.collect(Collectors.toList());
+		return getTask(options, getJavaFileObjects(names.toArray(new String[names.size()])));
+	}
+
+	public TestCompilationTask getTask(List<String> options, File... sourceFiles) {
+		return getTask(options, this.fileManager.getJavaFileObjects(sourceFiles));
+	}
+
+	private TestCompilationTask getTask(List<String> options,
 			Iterable<? extends JavaFileObject> javaFileObjects) {
 		return new TestCompilationTask(this.compiler.getTask(null, this.fileManager, null,
-				null, null, javaFileObjects));
+				options, null, javaFileObjects));
 	}
 
 	public File getOutputLocation() {
@@ -16,16 +16,23 @@
 
 package org.springframework.context.annotation;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.function.Supplier;
 
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinitionCustomizer;
 import org.springframework.beans.factory.support.BeanNameGenerator;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.ApplicationContextInitializer;
 import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.SpringProperties;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.lang.NonNullApi;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 
 /**
  * Standalone application context, accepting annotated classes as input - in particular
@@ -42,6 +49,13 @@ import org.springframework.util.Assert;
  *
  * <p>See @{@link Configuration}'s javadoc for usage examples.
  *
+ * <p>A registered class that comes with a bean registrar generated at build time,
+ * named after the class with a {@value #BEAN_REGISTRAR_SUFFIX} suffix, gets its
+ * beans registered by that registrar instead of being parsed and enhanced as a
+ * configuration class at runtime. Such a class is processed in "lite" mode, as
+ * explicitly accepted when generating the registrar: calls between its
+ * {@code @Bean} methods are not intercepted.
+ *
  * @author Juergen Hoeller
  * @author Chris Beams
  * @since 3.0
@@ -54,6 +68,27 @@ import org.springframework.util.Assert;
 @NonNullApi
 public class AnnotationConfigApplicationContext extends GenericApplicationContext implements AnnotationConfigRegistry {
 
+	/**
+	 * The suffix of the class name of a bean registrar generated at build time
+	 * for an annotated class: an {@link ApplicationContextInitializer} for a
+	 * {@link GenericApplicationContext} which registers the beans declared by
+	 * the annotated class, in the same package as the annotated class.
+	 * @since 5.0
+	 * @see #register(Class...)
+	 */
+	public static final String BEAN_REGISTRAR_SUFFIX = "__BeanDefinitions";
+
+	/**
+	 * System property that instructs Spring to ignore generated bean registrars,
+	 * i.e. to always process registered annotated classes at runtime.
+	 * <p>The default is "false", applying bean registrars where available.
+	 * @since 5.0
+	 */
+	public static final String IGNORE_BEAN_REGISTRARS = "spring.registrars.ignore";
+
+
+	private static final boolean shouldIgnoreBeanRegistrars = SpringProperties.getFlag(IGNORE_BEAN_REGISTRARS);
+
 	private final AnnotatedBeanDefinitionReader reader;
 
 	private final ClassPathBeanDefinitionScanner scanner;
@@ -150,14 +185,63 @@ public class AnnotationConfigApplicationContext extends GenericApplicationContex
 	 * Register one or more annotated classes to be processed.
 	 * <p>Note that {@link #refresh()} must be called in order for the context
 	 * to fully process the new classes.
+	 * <p>A class with a generated bean registrar gets registered through that
+	 * registrar, with its bean definitions marked as processed already.
 	 * @param annotatedClasses one or more annotated classes,
 	 * e.g. {@link Configuration @Configuration} classes
 	 * @see #scan(String...)
 	 * @see #refresh()
+	 * @see #BEAN_REGISTRAR_SUFFIX
 	 */
 	public void register(Class<?>... annotatedClasses) {
 		Assert.notEmpty(annotatedClasses, "At least one annotated class must be specified");
-		this.reader.register(annotatedClasses);
+		for (Class<?> annotatedClass : annotatedClasses) {
+			ApplicationContextInitializer<GenericApplicationContext> registrar = getBeanRegistrar(annotatedClass);
+			if (registrar != null) {
+				applyBeanRegistrar(registrar);
+			}
+			else {
+				this.reader.registerBean(annotatedClass);
+			}
+		}
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private ApplicationContextInitializer<GenericApplicationContext> getBeanRegistrar(Class<?> annotatedClass) {
+		if (shouldIgnoreBeanRegistrars) {
+			return null;
+		}
+		Class<?> registrarClass;
+		try {
+			registrarClass = ClassUtils.forName(annotatedClass.getName() + BEAN_REGISTRAR_SUFFIX,
+					annotatedClass.getClassLoader());
+		}
+		catch (ClassNotFoundException | LinkageError ex) {
+			return null;
+		}
+		if (!ApplicationContextInitializer.class.isAssignableFrom(registrarClass)) {
+			return null;
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Registering beans of " + annotatedClass.getName() + " through " + registrarClass.getName());
+		}
+		return (ApplicationContextInitializer<GenericApplicationContext>) BeanUtils.instantiateClass(registrarClass);
+	}
+
+	private void applyBeanRegistrar(ApplicationContextInitializer<GenericApplicationContext> registrar) {
+		Map<String, BeanDefinition> existingBeanDefinitions = new HashMap<>();
+		for (String beanName : getBeanDefinitionNames()) {
+			existingBeanDefinitions.put(beanName, getBeanDefinition(beanName));
+		}
+		registrar.initialize(this);
+		// Registered beans are complete already: no configuration class processing necessary
+		for (String beanName : getBeanDefinitionNames()) {
+			BeanDefinition beanDefinition = getBeanDefinition(beanName);
+			if (beanDefinition != existingBeanDefinitions.get(beanName)) {
+				ConfigurationClassUtils.markAsLiteConfigurationClass(beanDefinition);
+			}
+		}
 	}
 
 	/**
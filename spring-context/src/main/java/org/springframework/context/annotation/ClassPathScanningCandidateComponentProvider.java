@@ -23,6 +23,9 @@ import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -36,12 +39,14 @@ import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.index.CandidateComponentsIndex;
 import org.springframework.context.index.CandidateComponentsIndexLoader;
+import org.springframework.context.index.IndexedMetadataReaderFactory;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.EnvironmentCapable;
 import org.springframework.core.env.StandardEnvironment;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternUtils;
 import org.springframework.core.type.AnnotationMetadata;
@@ -109,6 +114,8 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 
 	private CandidateComponentsIndex componentsIndex;
 
+	private ForkJoinPool forkJoinPool;
+
 
 	/**
 	 * Protected constructor for flexible subclass initialization.
@@ -256,8 +263,10 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	@Override
 	public void setResourceLoader(@Nullable ResourceLoader resourceLoader) {
 		this.resourcePatternResolver = ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
-		this.metadataReaderFactory = new CachingMetadataReaderFactory(resourceLoader);
 		this.componentsIndex = CandidateComponentsIndexLoader.loadIndex(this.resourcePatternResolver.getClassLoader());
+		this.metadataReaderFactory = (this.componentsIndex != null && this.componentsIndex.hasClassMetadata() ?
+				new IndexedMetadataReaderFactory(this.componentsIndex, resourceLoader) :
+				new CachingMetadataReaderFactory(resourceLoader));
 	}
 
 	/**
@@ -285,6 +294,30 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		return this.metadataReaderFactory;
 	}
 
+	/**
+	 * Set the {@link ForkJoinPool} to scan the class path with.
+	 * <p>If specified, the jar files and class path directories that contain a
+	 * base package are searched in parallel, and the class files found are read
+	 * in parallel as well, with candidate components still being determined and
+	 * returned in class path order. The {@link MetadataReaderFactory} in use
+	 * needs to be thread-safe then, as the default factory is.
+	 * <p>Default is none, scanning in the calling thread only.
+	 * @since 5.0
+	 * @see org.springframework.core.io.support.PathMatchingResourcePatternResolver
+	 */
+	public void setForkJoinPool(@Nullable ForkJoinPool forkJoinPool) {
+		this.forkJoinPool = forkJoinPool;
+	}
+
+	/**
+	 * Return the ForkJoinPool used for class path scanning, if any.
+	 * @since 5.0
+	 */
+	@Nullable
+	public final ForkJoinPool getForkJoinPool() {
+		return this.forkJoinPool;
+	}
+
 
 	/**
 	 * Scan the class path for candidate components.
@@ -404,16 +437,26 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		try {
 			String packageSearchPath = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
 					resolveBasePackage(basePackage) + '/' + this.resourcePattern;
-			Resource[] resources = this.resourcePatternResolver.getResources(packageSearchPath);
+			Resource[] resources;
+			MetadataReader[] metadataReaders = null;
+			if (this.forkJoinPool != null) {
+				resources = getResourcesInParallel(packageSearchPath);
+				metadataReaders = getMetadataReadersInParallel(resources);
+			}
+			else {
+				resources = this.resourcePatternResolver.getResources(packageSearchPath);
+			}
 			boolean traceEnabled = logger.isTraceEnabled();
 			boolean debugEnabled = logger.isDebugEnabled();
-			for (Resource resource : resources) {
+			for (int i = 0; i < resources.length; i++) {
+				Resource resource = resources[i];
 				if (traceEnabled) {
 					logger.trace("Scanning " + resource);
 				}
-				if (resource.isReadable()) {
+				if (metadataReaders != null ? metadataReaders[i] != null : resource.isReadable()) {
 					try {
-						MetadataReader metadataReader = this.metadataReaderFactory.getMetadataReader(resource);
+						MetadataReader metadataReader = (metadataReaders != null ? metadataReaders[i] :
+								this.metadataReaderFactory.getMetadataReader(resource));
 						if (isCandidateComponent(metadataReader)) {
 							ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
 							sbd.setResource(resource);
@@ -454,6 +497,33 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		return candidates;
 	}
 
+	private Resource[] getResourcesInParallel(String packageSearchPath) throws IOException {
+		// Search the root directories of the package in parallel, as tasks in our pool
+		PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(this.resourcePatternResolver);
+		if (this.resourcePatternResolver instanceof PathMatchingResourcePatternResolver) {
+			resolver.setPathMatcher(((PathMatchingResourcePatternResolver) this.resourcePatternResolver).getPathMatcher());
+		}
+		resolver.setForkJoinPool(this.forkJoinPool);
+		return resolver.getResources(packageSearchPath);
+	}
+
+	private MetadataReader[] getMetadataReadersInParallel(Resource[] resources) {
+		MetadataReader[] metadataReaders = new MetadataReader[resources.length];
+		this.forkJoinPool.invoke(ForkJoinTask.adapt(() -> IntStream.range(0, resources.length).parallel().forEach(i -> {
+			Resource resource = resources[i];
+			if (resource.isReadable()) {
+				try {
+					metadataReaders[i] = this.metadataReaderFactory.getMetadataReader(resource);
+				}
+				catch (Throwable ex) {
+					throw new BeanDefinitionStoreException(
+							"Failed to read candidate component class: " + resource, ex);
+				}
+			}
+		})));
+		return metadataReaders;
+	}
+
 
 	/**
 	 * Resolve the specified base package into a pattern specification for
@@ -53,6 +53,9 @@ import org.springframework.beans.factory.support.BeanNameGenerator;
 import org.springframework.context.EnvironmentAware;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.annotation.ConfigurationClassEnhancer.EnhancedConfiguration;
+import org.springframework.context.index.CandidateComponentsIndex;
+import org.springframework.context.index.CandidateComponentsIndexLoader;
+import org.springframework.context.index.IndexedMetadataReaderFactory;
 import org.springframework.core.Ordered;
 import org.springframework.core.PriorityOrdered;
 import org.springframework.core.env.Environment;
@@ -156,7 +159,9 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 	/**
 	 * Set the {@link MetadataReaderFactory} to use.
 	 * <p>Default is a {@link CachingMetadataReaderFactory} for the specified
-	 * {@linkplain #setBeanClassLoader bean class loader}.
+	 * {@linkplain #setBeanClassLoader bean class loader}, or an
+	 * {@link IndexedMetadataReaderFactory} if the candidate components index
+	 * holds class metadata.
 	 */
 	public void setMetadataReaderFactory(MetadataReaderFactory metadataReaderFactory) {
 		Assert.notNull(metadataReaderFactory, "MetadataReaderFactory must not be null");
@@ -199,7 +204,10 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		Assert.notNull(resourceLoader, "ResourceLoader must not be null");
 		this.resourceLoader = resourceLoader;
 		if (!this.setMetadataReaderFactoryCalled) {
-			this.metadataReaderFactory = new CachingMetadataReaderFactory(resourceLoader);
+			CandidateComponentsIndex index = CandidateComponentsIndexLoader.loadIndex(resourceLoader.getClassLoader());
+			this.metadataReaderFactory = (index != null && index.hasClassMetadata() ?
+					new IndexedMetadataReaderFactory(index, resourceLoader) :
+					new CachingMetadataReaderFactory(resourceLoader));
 		}
 	}
 
@@ -207,7 +215,10 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 	public void setBeanClassLoader(@Nullable ClassLoader beanClassLoader) {
 		this.beanClassLoader = beanClassLoader;
 		if (!this.setMetadataReaderFactoryCalled) {
-			this.metadataReaderFactory = new CachingMetadataReaderFactory(beanClassLoader);
+			CandidateComponentsIndex index = CandidateComponentsIndexLoader.loadIndex(beanClassLoader);
+			this.metadataReaderFactory = (index != null && index.hasClassMetadata() ?
+					new IndexedMetadataReaderFactory(index, beanClassLoader) :
+					new CachingMetadataReaderFactory(beanClassLoader));
 		}
 	}
 
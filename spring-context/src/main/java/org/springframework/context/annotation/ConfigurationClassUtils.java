@@ -200,6 +200,16 @@ abstract class ConfigurationClassUtils {
 		return CONFIGURATION_CLASS_LITE.equals(beanDef.getAttribute(CONFIGURATION_CLASS_ATTRIBUTE));
 	}
 
+	/**
+	 * Mark the given bean definition as a lite {@code @Configuration} class,
+	 * i.e. as already processed and not to be enhanced, with no need to check
+	 * it through {@link #checkConfigurationClassCandidate} again.
+	 * @since 5.0
+	 */
+	public static void markAsLiteConfigurationClass(BeanDefinition beanDef) {
+		beanDef.setAttribute(CONFIGURATION_CLASS_ATTRIBUTE, CONFIGURATION_CLASS_LITE);
+	}
+
 	/**
 	 * Determine the order for the given configuration class metadata.
 	 * @param metadata the metadata of the annotated class
@@ -23,6 +23,7 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.lang.Nullable;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
@@ -42,6 +43,9 @@ import org.springframework.util.MultiValueMap;
  * not a rule. Similarly, the {@code stereotype} is usually the fully qualified name of
  * a target type but it can be any marker really.
  *
+ * <p>The index may also hold the binary class metadata of indexed classes, as found in
+ * {@code META-INF/spring.components.metadata}; see {@link IndexedMetadataReaderFactory}.
+ *
  * @author Stephane Nicoll
  * @since 5.0
  */
@@ -49,9 +53,16 @@ public class CandidateComponentsIndex {
 
 	private final MultiValueMap<String, String> index;
 
+	private final Map<String, byte[]> classMetadata;
+
 
 	CandidateComponentsIndex(List<Properties> content) {
+		this(content, Collections.emptyMap());
+	}
+
+	CandidateComponentsIndex(List<Properties> content, Map<String, byte[]> classMetadata) {
 		this.index = parseIndex(content);
+		this.classMetadata = classMetadata;
 	}
 
 
@@ -72,6 +83,22 @@ public class CandidateComponentsIndex {
 		return Collections.emptySet();
 	}
 
+	/**
+	 * Specify whether this index holds class metadata for any indexed class.
+	 */
+	public boolean hasClassMetadata() {
+		return !this.classMetadata.isEmpty();
+	}
+
+	/**
+	 * Return the binary class metadata for the specified class, if any.
+	 * @param className the fully qualified name of the class
+	 */
+	@Nullable
+	byte[] getClassMetadata(String className) {
+		return this.classMetadata.get(className);
+	}
+
 	private static MultiValueMap<String, String> parseIndex(List<Properties> content) {
 		MultiValueMap<String, String> index = new LinkedMultiValueMap<>();
 		for (Properties entry : content) {
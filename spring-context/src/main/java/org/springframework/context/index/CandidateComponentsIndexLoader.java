@@ -16,11 +16,15 @@
 
 package org.springframework.context.index;
 
+import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentMap;
 
@@ -47,6 +51,14 @@ public class CandidateComponentsIndexLoader {
 	 */
 	public static final String COMPONENTS_RESOURCE_LOCATION = "META-INF/spring.components";
 
+	/**
+	 * The location to look for the binary class metadata of indexed classes,
+	 * as written by the {@code spring-context-indexer} along with the components.
+	 * <p>Can be present in multiple JAR files.
+	 * @see IndexedMetadataReaderFactory
+	 */
+	public static final String CLASS_METADATA_RESOURCE_LOCATION = "META-INF/spring.components.metadata";
+
 	/**
 	 * System property that instructs Spring to ignore the index, i.e.
 	 * to always return {@code null} from {@link #loadIndex(ClassLoader)}.
@@ -59,6 +71,15 @@ public class CandidateComponentsIndexLoader {
 	public static final String IGNORE_INDEX = "spring.index.ignore";
 
 
+	/**
+	 * Header of the {@value #CLASS_METADATA_RESOURCE_LOCATION} format, as written
+	 * by the {@code ClassMetadataMarshaller} of {@code spring-context-indexer}.
+	 */
+	static final int CLASS_METADATA_MAGIC = 0x53504349;
+
+	static final int CLASS_METADATA_VERSION = 1;
+
+
 	private static final boolean shouldIgnoreIndex = SpringProperties.getFlag(IGNORE_INDEX);
 
 	private static final Log logger = LogFactory.getLog(CandidateComponentsIndexLoader.class);
@@ -106,7 +127,7 @@ public class CandidateComponentsIndexLoader {
 				logger.debug("Loaded " + result.size() + "] index(es)");
 			}
 			int totalCount = result.stream().mapToInt(Properties::size).sum();
-			return (totalCount > 0 ? new CandidateComponentsIndex(result) : null);
+			return (totalCount > 0 ? new CandidateComponentsIndex(result, loadClassMetadata(classLoader)) : null);
 		}
 		catch (IOException ex) {
 			throw new IllegalStateException("Unable to load indexes from location [" +
@@ -114,4 +135,42 @@ public class CandidateComponentsIndexLoader {
 		}
 	}
 
+	static Map<String, byte[]> loadClassMetadata(ClassLoader classLoader) throws IOException {
+		Map<String, byte[]> result = new HashMap<>();
+		Enumeration<URL> urls = classLoader.getResources(CLASS_METADATA_RESOURCE_LOCATION);
+		while (urls.hasMoreElements()) {
+			URL url = urls.nextElement();
+			Map<String, byte[]> classMetadata = new HashMap<>();
+			try (InputStream in = new UrlResource(url).getInputStream()) {
+				DataInputStream dataIn = new DataInputStream(in);
+				if (dataIn.readInt() != CLASS_METADATA_MAGIC || dataIn.readInt() != CLASS_METADATA_VERSION) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Ignoring class metadata index of unsupported format [" + url + "]");
+					}
+					continue;
+				}
+				int count = dataIn.readInt();
+				for (int i = 0; i < count; i++) {
+					String type = dataIn.readUTF();
+					byte[] content = new byte[dataIn.readInt()];
+					dataIn.readFully(content);
+					classMetadata.put(type, content);
+				}
+			}
+			catch (IOException ex) {
+				// The metadata is an optimization only: fall back to reading the class files
+				if (logger.isWarnEnabled()) {
+					logger.warn("Ignoring unreadable class metadata index [" + url + "]: " + ex);
+				}
+				continue;
+			}
+			// First occurrence on the class path wins, as for the classes themselves
+			classMetadata.forEach(result::putIfAbsent);
+		}
+		if (logger.isDebugEnabled() && !result.isEmpty()) {
+			logger.debug("Loaded class metadata for " + result.size() + " indexed classes");
+		}
+		return result;
+	}
+
 }
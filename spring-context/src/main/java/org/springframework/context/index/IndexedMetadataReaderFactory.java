@@ -0,0 +1,129 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.ClassMetadataSerializer;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Extension of {@link CachingMetadataReaderFactory} that restores the metadata
+ * of indexed classes from the class metadata in a {@link CandidateComponentsIndex},
+ * as written to {@code META-INF/spring.components.metadata} at build time,
+ * instead of reading their class files.
+ *
+ * <p>This allows for candidate components as well as the configuration classes,
+ * superclasses and imports that they refer to to be processed without any class
+ * file parsing. Classes without indexed metadata are read as usual.
+ *
+ * @since 5.0
+ * @see CandidateComponentsIndexLoader#CLASS_METADATA_RESOURCE_LOCATION
+ * @see ClassMetadataSerializer
+ */
+public class IndexedMetadataReaderFactory extends CachingMetadataReaderFactory {
+
+	private static final Log logger = LogFactory.getLog(IndexedMetadataReaderFactory.class);
+
+
+	private final CandidateComponentsIndex index;
+
+	private final Map<Resource, MetadataReader> indexedMetadataReaderCache = new ConcurrentHashMap<>(256);
+
+
+	/**
+	 * Create a new IndexedMetadataReaderFactory for the given {@link ResourceLoader}.
+	 * @param index the index to restore class metadata from
+	 * @param resourceLoader the Spring ResourceLoader to use
+	 * (also determines the ClassLoader to use)
+	 */
+	public IndexedMetadataReaderFactory(CandidateComponentsIndex index, @Nullable ResourceLoader resourceLoader) {
+		super(resourceLoader);
+		Assert.notNull(index, "CandidateComponentsIndex must not be null");
+		this.index = index;
+	}
+
+	/**
+	 * Create a new IndexedMetadataReaderFactory for the given {@link ClassLoader}.
+	 * @param index the index to restore class metadata from
+	 * @param classLoader the ClassLoader to use
+	 */
+	public IndexedMetadataReaderFactory(CandidateComponentsIndex index, @Nullable ClassLoader classLoader) {
+		super(classLoader);
+		Assert.notNull(index, "CandidateComponentsIndex must not be null");
+		this.index = index;
+	}
+
+
+	@Override
+	public MetadataReader getMetadataReader(Resource resource) throws IOException {
+		MetadataReader metadataReader = this.indexedMetadataReaderCache.get(resource);
+		if (metadataReader != null) {
+			return metadataReader;
+		}
+		byte[] content = getClassMetadata(resource);
+		if (content != null) {
+			try {
+				metadataReader = ClassMetadataSerializer.deserialize(
+						content, resource, getResourceLoader().getClassLoader());
+				this.indexedMetadataReaderCache.put(resource, metadataReader);
+				return metadataReader;
+			}
+			catch (IOException | RuntimeException ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Failed to restore indexed metadata for " + resource + ": " + ex);
+				}
+			}
+		}
+		return super.getMetadataReader(resource);
+	}
+
+	@Nullable
+	private byte[] getClassMetadata(Resource resource) {
+		if (!(resource instanceof ClassPathResource)) {
+			return null;
+		}
+		String path = ((ClassPathResource) resource).getPath();
+		if (!path.endsWith(ClassUtils.CLASS_FILE_SUFFIX)) {
+			return null;
+		}
+		return this.index.getClassMetadata(ClassUtils.convertResourcePathToClassName(
+				path.substring(0, path.length() - ClassUtils.CLASS_FILE_SUFFIX.length())));
+	}
+
+	/**
+	 * Clear the local MetadataReader cache, if any, including restored metadata.
+	 */
+	@Override
+	public void clearCache() {
+		super.clearCache();
+		this.indexedMetadataReaderCache.clear();
+	}
+
+}
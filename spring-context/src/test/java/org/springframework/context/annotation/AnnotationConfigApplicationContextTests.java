@@ -26,6 +26,7 @@ import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.registrar.RegistrarConfig;
 import org.springframework.context.annotation6.ComponentForScanning;
 import org.springframework.context.annotation6.ConfigForScanning;
 import org.springframework.context.annotation6.Jsr330NamedForScanning;
@@ -301,6 +302,15 @@ public class AnnotationConfigApplicationContextTests {
 		assertThat(context.getBean(TestBean.class).name, equalTo("foo"));
 	}
 
+	@Test
+	public void registerWithGeneratedBeanRegistrar() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(RegistrarConfig.class);
+		assertSame(RegistrarConfig.class, context.getBean("registrarConfig").getClass());
+		assertTrue(context.getBeanDefinition("greeting").isLazyInit());
+		assertEquals("Hello foo", context.getBean("welcome").toString());
+		assertArrayEquals(new String[] {"greeting"}, context.getBeanNamesForType(StringBuilder.class));
+	}
+
 	@Test
 	public void nullReturningBeanPostProcessor() {
 		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,7 +18,10 @@ package org.springframework.context.annotation;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Pattern;
 
 import example.profilescan.DevComponent;
@@ -82,6 +85,27 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		testDefault(provider, ScannedGenericBeanDefinition.class);
 	}
 
+	@Test
+	public void defaultsWithParallelScan() {
+		ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+		try {
+			ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+			provider.setResourceLoader(new DefaultResourceLoader(
+					CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+			provider.setForkJoinPool(forkJoinPool);
+			testDefault(provider, ScannedGenericBeanDefinition.class);
+
+			ClassPathScanningCandidateComponentProvider sequentialProvider = new ClassPathScanningCandidateComponentProvider(true);
+			sequentialProvider.setResourceLoader(new DefaultResourceLoader(
+					CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+			assertEquals(beanClassNames(sequentialProvider.findCandidateComponents(TEST_BASE_PACKAGE)),
+					beanClassNames(provider.findCandidateComponents(TEST_BASE_PACKAGE)));
+		}
+		finally {
+			forkJoinPool.shutdown();
+		}
+	}
+
 	@Test
 	public void defaultsWithIndex() {
 		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
@@ -471,6 +495,14 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		}
 	}
 
+	private List<String> beanClassNames(Set<BeanDefinition> candidates) {
+		List<String> beanClassNames = new ArrayList<>();
+		for (BeanDefinition candidate : candidates) {
+			beanClassNames.add(candidate.getBeanClassName());
+		}
+		return beanClassNames;
+	}
+
 	private boolean containsBeanClass(Set<BeanDefinition> candidates, Class<?> beanClass) {
 		for (BeanDefinition candidate : candidates) {
 			if (beanClass.getName().equals(candidate.getBeanClassName())) {
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation.registrar;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Configuration class that comes with a {@link RegistrarConfig__BeanDefinitions}
+ * registrar, as generated at build time by the {@code BeanRegistrarGenerator}
+ * of the spring-context-indexer module.
+ */
+@Configuration
+public class RegistrarConfig {
+
+	@Bean
+	public String name() {
+		return "foo";
+	}
+
+	@Bean({"greeting", "welcome"})
+	@Lazy
+	public StringBuilder greeting(String name) {
+		return new StringBuilder("Hello ").append(name);
+	}
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation.registrar;
+
+/**
+ * Bean registrations for {@link org.springframework.context.annotation.registrar.RegistrarConfig},
+ * generated at build time.
+ */
+public class RegistrarConfig__BeanDefinitions
+		implements org.springframework.context.ApplicationContextInitializer<org.springframework.context.support.GenericApplicationContext> {
+
+	@Override
+	public void initialize(org.springframework.context.support.GenericApplicationContext context) {
+		context.registerBean("registrarConfig", org.springframework.context.annotation.registrar.RegistrarConfig.class, org.springframework.context.annotation.registrar.RegistrarConfig::new);
+		context.registerBean("name", java.lang.String.class, () -> context.getBean("registrarConfig", org.springframework.context.annotation.registrar.RegistrarConfig.class).name(),
+				bd -> {
+					((org.springframework.beans.factory.support.AbstractBeanDefinition) bd).setDestroyMethodName("(inferred)");
+				});
+		context.registerBean("greeting", java.lang.StringBuilder.class, () -> context.getBean("registrarConfig", org.springframework.context.annotation.registrar.RegistrarConfig.class).greeting(context.getBean(java.lang.String.class)),
+				bd -> {
+					bd.setLazyInit(true);
+					((org.springframework.beans.factory.support.AbstractBeanDefinition) bd).setDestroyMethodName("(inferred)");
+				});
+		context.registerAlias("greeting", "welcome");
+	}
+
+}
@@ -16,12 +16,21 @@
 
 package org.springframework.context.index;
 
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 
 import org.springframework.core.io.ClassPathResource;
 
@@ -38,6 +47,9 @@ public class CandidateComponentsIndexLoaderTests {
 	@Rule
 	public final ExpectedException thrown = ExpectedException.none();
 
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 
 	@Test
 	public void validateIndexIsDisabledByDefault() {
@@ -109,4 +121,48 @@ public class CandidateComponentsIndexLoaderTests {
 				getClass().getClassLoader(), cause));
 	}
 
+	@Test
+	public void loadClassMetadataIgnoresTruncatedIndex() throws IOException {
+		File valid = this.temporaryFolder.newFile();
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(valid))) {
+			writeClassMetadataHeader(out, 1);
+			writeClassMetadata(out, "com.example.First", new byte[] {1, 2, 3});
+		}
+		File truncated = this.temporaryFolder.newFile();
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(truncated))) {
+			writeClassMetadataHeader(out, 2);
+			writeClassMetadata(out, "com.example.Second", new byte[] {4, 5, 6});
+		}
+
+		Map<String, byte[]> classMetadata = CandidateComponentsIndexLoader.loadClassMetadata(
+				classMetadataClassLoader(truncated.toURI().toURL(), valid.toURI().toURL()));
+		assertThat(classMetadata.keySet(), contains("com.example.First"));
+		assertArrayEquals(new byte[] {1, 2, 3}, classMetadata.get("com.example.First"));
+	}
+
+
+	private static void writeClassMetadataHeader(DataOutputStream out, int count) throws IOException {
+		out.writeInt(CandidateComponentsIndexLoader.CLASS_METADATA_MAGIC);
+		out.writeInt(CandidateComponentsIndexLoader.CLASS_METADATA_VERSION);
+		out.writeInt(count);
+	}
+
+	private static void writeClassMetadata(DataOutputStream out, String type, byte[] content) throws IOException {
+		out.writeUTF(type);
+		out.writeInt(content.length);
+		out.write(content);
+	}
+
+	private ClassLoader classMetadataClassLoader(URL... urls) {
+		return new ClassLoader(getClass().getClassLoader()) {
+			@Override
+			public Enumeration<URL> getResources(String name) throws IOException {
+				if (CandidateComponentsIndexLoader.CLASS_METADATA_RESOURCE_LOCATION.equals(name)) {
+					return Collections.enumeration(Arrays.asList(urls));
+				}
+				return super.getResources(name);
+			}
+		};
+	}
+
 }
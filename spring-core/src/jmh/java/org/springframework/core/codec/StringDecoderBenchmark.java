@@ -0,0 +1,92 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.util.MimeType;
+
+/**
+ * Benchmarks for {@link StringDecoder} splitting a newline-delimited stream
+ * whose lines straddle chunk boundaries.
+ *
+ * @since 5.0
+ */
+@BenchmarkMode(Mode.Throughput)
+public class StringDecoderBenchmark {
+
+	@Benchmark
+	public List<String> splitLines(BenchmarkData data) {
+		Flux<DataBuffer> input = Flux.fromIterable(data.chunks)
+				.map(bytes -> data.bufferFactory.wrap(bytes));
+		return data.decoder.decode(input, data.elementType, data.mimeType, Collections.emptyMap())
+				.collectList().block();
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"100"})
+		public int lineCount;
+
+		@Param({"64"})
+		public int chunkSize;
+
+		final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+		final StringDecoder decoder = StringDecoder.allMimeTypes(true);
+
+		final ResolvableType elementType = ResolvableType.forClass(String.class);
+
+		final MimeType mimeType = new MimeType("text", "plain", StandardCharsets.UTF_8);
+
+		final List<byte[]> chunks = new ArrayList<>();
+
+		@Setup(Level.Trial)
+		public void setup() {
+			StringBuilder builder = new StringBuilder();
+			for (int i = 0; i < this.lineCount; i++) {
+				builder.append("{\"id\":").append(i).append(",\"name\":\"element-").append(i).append("\"}\n");
+			}
+			byte[] content = builder.toString().getBytes(StandardCharsets.UTF_8);
+			for (int offset = 0; offset < content.length; offset += this.chunkSize) {
+				int length = Math.min(this.chunkSize, content.length - offset);
+				byte[] chunk = new byte[length];
+				System.arraycopy(content, offset, chunk, 0, length);
+				this.chunks.add(chunk);
+			}
+		}
+	}
+
+}
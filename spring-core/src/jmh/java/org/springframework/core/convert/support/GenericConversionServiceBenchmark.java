@@ -0,0 +1,72 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.convert.support;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.core.convert.TypeDescriptor;
+
+/**
+ * Benchmarks for {@link GenericConversionService#convert} with the default
+ * converters, covering a scalar and a collection conversion.
+ *
+ * @since 5.0
+ */
+@BenchmarkMode(Mode.Throughput)
+public class GenericConversionServiceBenchmark {
+
+	@Benchmark
+	public Integer convertStringToInteger(BenchmarkData data) {
+		return data.conversionService.convert("4711", Integer.class);
+	}
+
+	@Benchmark
+	public Object convertListOfStringsToListOfIntegers(BenchmarkData data) {
+		return data.conversionService.convert(data.source, data.sourceType, data.targetType);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		GenericConversionService conversionService;
+
+		List<String> source;
+
+		TypeDescriptor sourceType;
+
+		TypeDescriptor targetType;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.conversionService = new DefaultConversionService();
+			this.source = Arrays.asList("1", "2", "3", "4", "5", "6", "7", "8", "9", "10");
+			this.sourceType = TypeDescriptor.collection(List.class, TypeDescriptor.valueOf(String.class));
+			this.targetType = TypeDescriptor.collection(List.class, TypeDescriptor.valueOf(Integer.class));
+		}
+	}
+
+}
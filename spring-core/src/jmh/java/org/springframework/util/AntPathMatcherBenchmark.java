@@ -0,0 +1,87 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for {@link AntPathMatcher#match(String, String)} against a
+ * typical mix of literal, wildcard and URI template patterns.
+ *
+ * @since 5.0
+ */
+@BenchmarkMode(Mode.Throughput)
+public class AntPathMatcherBenchmark {
+
+	@Benchmark
+	public void matchAllPatterns(BenchmarkData data, Blackhole bh) {
+		for (String path : data.paths) {
+			for (String pattern : data.patterns) {
+				bh.consume(data.matcher.match(pattern, path));
+			}
+		}
+	}
+
+	@Benchmark
+	public void extractUriTemplateVariables(BenchmarkData data, Blackhole bh) {
+		bh.consume(data.matcher.extractUriTemplateVariables(
+				"/hotels/{hotel}/bookings/{booking}", "/hotels/42/bookings/4711"));
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		final AntPathMatcher matcher = new AntPathMatcher();
+
+		final List<String> patterns = new ArrayList<>();
+
+		final List<String> paths = new ArrayList<>();
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.patterns.add("/");
+			this.patterns.add("/resources/**");
+			this.patterns.add("/resources/*.css");
+			this.patterns.add("/hotels");
+			this.patterns.add("/hotels/{hotel}");
+			this.patterns.add("/hotels/{hotel}/bookings/{booking}");
+			this.patterns.add("/hotels/{hotel:\\d+}/rooms/*");
+			this.patterns.add("/api/v?/customers/**/orders");
+			this.patterns.add("/**/*.html");
+
+			this.paths.add("/");
+			this.paths.add("/resources/css/main.css");
+			this.paths.add("/hotels/42");
+			this.paths.add("/hotels/42/bookings/4711");
+			this.paths.add("/hotels/42/rooms/101");
+			this.paths.add("/api/v2/customers/acme/eu/orders");
+			this.paths.add("/docs/reference/index.html");
+		}
+	}
+
+}
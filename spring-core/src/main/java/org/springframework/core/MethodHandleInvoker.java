@@ -0,0 +1,157 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Invoker for a given {@link Method} based on a {@link MethodHandle} that is
+ * created once per method and then shared, avoiding the reflective access
+ * checks and argument copying of {@link Method#invoke} on every call.
+ *
+ * <p>The method handle is adapted to accept the target and the arguments as
+ * an {@code Object[]}, so that it can be invoked exactly without per-call
+ * adaptation. Arguments are not converted the way {@code Method.invoke} does:
+ * callers are expected to check {@link #isApplicable} first and to fall back
+ * on reflective invocation otherwise, e.g. in order to report argument type
+ * mismatches with the usual {@link IllegalArgumentException}.
+ *
+ * <p>Exceptions thrown by the method are propagated as they are, i.e. they
+ * are not wrapped in an {@link java.lang.reflect.InvocationTargetException}.
+ *
+ * @since 5.0
+ */
+public final class MethodHandleInvoker {
+
+	private static final Object NO_INVOKER = new Object();
+
+	private static final Map<Method, Object> invokerCache = new ConcurrentReferenceHashMap<>(256);
+
+
+	private final Method method;
+
+	private final MethodHandle methodHandle;
+
+	private final Class<?>[] parameterTypes;
+
+	private final boolean[] primitiveParameters;
+
+
+	private MethodHandleInvoker(Method method, MethodHandle methodHandle) {
+		this.method = method;
+		this.methodHandle = methodHandle;
+		Class<?>[] types = method.getParameterTypes();
+		this.parameterTypes = new Class<?>[types.length];
+		this.primitiveParameters = new boolean[types.length];
+		for (int i = 0; i < types.length; i++) {
+			this.parameterTypes[i] = ClassUtils.resolvePrimitiveIfNecessary(types[i]);
+			this.primitiveParameters[i] = types[i].isPrimitive();
+		}
+	}
+
+
+	/**
+	 * Return the method invoked by this invoker.
+	 */
+	public Method getMethod() {
+		return this.method;
+	}
+
+	/**
+	 * Check whether the given target and arguments can be passed to
+	 * {@link #invoke} as they are, i.e. the target is an instance of the
+	 * declaring class and each argument is an instance of the corresponding
+	 * parameter type, with non-null values for primitive parameters.
+	 * @param target the target object (ignored for static methods)
+	 * @param args the argument values
+	 */
+	public boolean isApplicable(@Nullable Object target, Object[] args) {
+		if (!Modifier.isStatic(this.method.getModifiers()) && !this.method.getDeclaringClass().isInstance(target)) {
+			return false;
+		}
+		if (args.length != this.parameterTypes.length) {
+			return false;
+		}
+		for (int i = 0; i < args.length; i++) {
+			Object arg = args[i];
+			if (arg != null ? !this.parameterTypes[i].isInstance(arg) : this.primitiveParameters[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Invoke the method on the given target with the given arguments.
+	 * @param target the target object (ignored for static methods)
+	 * @param args the argument values, applicable as per {@link #isApplicable}
+	 * @return the return value of the method, or {@code null} for void methods
+	 * @throws Throwable any exception thrown by the method
+	 */
+	@Nullable
+	public Object invoke(@Nullable Object target, Object[] args) throws Throwable {
+		return (Object) this.methodHandle.invokeExact(target, args);
+	}
+
+
+	/**
+	 * Obtain the shared invoker for the given method.
+	 * @param method the method to invoke
+	 * @return the invoker, or {@code null} if no method handle can be obtained
+	 * for the given method, in which case reflective invocation should be used
+	 */
+	@Nullable
+	public static MethodHandleInvoker forMethod(Method method) {
+		Assert.notNull(method, "Method must not be null");
+		Object invoker = invokerCache.get(method);
+		if (invoker == null) {
+			invoker = createInvoker(method);
+			invokerCache.put(method, invoker);
+		}
+		return (invoker != NO_INVOKER ? (MethodHandleInvoker) invoker : null);
+	}
+
+	private static Object createInvoker(Method method) {
+		try {
+			ReflectionUtils.makeAccessible(method);
+			MethodHandle handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+			if (Modifier.isStatic(method.getModifiers())) {
+				handle = MethodHandles.dropArguments(handle, 0, Object.class);
+			}
+			int parameterCount = method.getParameterCount();
+			handle = handle.asType(MethodType.genericMethodType(parameterCount + 1))
+					.asSpreader(Object[].class, parameterCount);
+			return new MethodHandleInvoker(method, handle);
+		}
+		catch (IllegalAccessException | RuntimeException ex) {
+			// Not accessible through a method handle: fall back on reflection
+			return NO_INVOKER;
+		}
+	}
+
+}
@@ -67,8 +67,7 @@ public class ResourceDecoder extends AbstractDecoder<Resource> {
 
 		Class<?> clazz = elementType.getRawClass();
 
-		Mono<byte[]> byteArray = Flux.from(inputStream).
-				reduce(DataBuffer::write).
+		Mono<byte[]> byteArray = DataBufferUtils.join(inputStream).
 				map(dataBuffer -> {
 					byte[] bytes = new byte[dataBuffer.readableByteCount()];
 					dataBuffer.read(bytes);
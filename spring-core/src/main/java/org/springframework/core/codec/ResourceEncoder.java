@@ -48,6 +48,8 @@ public class ResourceEncoder extends AbstractSingleValueEncoder<Resource> {
 
 	private final int bufferSize;
 
+	private long mappedFileThreshold = -1;
+
 
 	public ResourceEncoder() {
 		this(DEFAULT_BUFFER_SIZE);
@@ -59,6 +61,24 @@ public class ResourceEncoder extends AbstractSingleValueEncoder<Resource> {
 		this.bufferSize = bufferSize;
 	}
 
+	/**
+	 * Set the minimum size of a file resource to be read through memory-mapped
+	 * regions of the file, rather than through an {@link AsynchronousFileChannel}.
+	 * <p>By default this is set to -1, meaning that files are never memory-mapped.
+	 * Only enable this for files that are not modified while being served.
+	 * @see DataBufferUtils#readMapped(java.nio.file.Path, long, DataBufferFactory, int)
+	 */
+	public void setMappedFileThreshold(long mappedFileThreshold) {
+		this.mappedFileThreshold = mappedFileThreshold;
+	}
+
+	/**
+	 * Return the configured {@link #setMappedFileThreshold mappedFileThreshold}.
+	 */
+	public long getMappedFileThreshold() {
+		return this.mappedFileThreshold;
+	}
+
 
 	@Override
 	public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
@@ -73,6 +93,9 @@ public class ResourceEncoder extends AbstractSingleValueEncoder<Resource> {
 		try {
 			if (resource.isFile()) {
 				File file = resource.getFile();
+				if (this.mappedFileThreshold >= 0 && file.length() >= this.mappedFileThreshold) {
+					return DataBufferUtils.readMapped(file.toPath(), dataBufferFactory, this.bufferSize);
+				}
 				AsynchronousFileChannel channel =
 						AsynchronousFileChannel.open(file.toPath(), StandardOpenOption.READ);
 				return DataBufferUtils.read(channel, dataBufferFactory, this.bufferSize);
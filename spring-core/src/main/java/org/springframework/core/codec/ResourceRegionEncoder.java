@@ -57,6 +57,8 @@ public class ResourceRegionEncoder extends AbstractEncoder<ResourceRegion> {
 
 	private final int bufferSize;
 
+	private long mappedFileThreshold = -1;
+
 
 	public ResourceRegionEncoder() {
 		this(DEFAULT_BUFFER_SIZE);
@@ -68,6 +70,24 @@ public class ResourceRegionEncoder extends AbstractEncoder<ResourceRegion> {
 		this.bufferSize = bufferSize;
 	}
 
+	/**
+	 * Set the minimum size of a file resource to be read through memory-mapped
+	 * regions of the file, rather than through an {@link AsynchronousFileChannel}.
+	 * <p>By default this is set to -1, meaning that files are never memory-mapped.
+	 * Only enable this for files that are not modified while being served.
+	 * @see DataBufferUtils#readMapped(java.nio.file.Path, long, DataBufferFactory, int)
+	 */
+	public void setMappedFileThreshold(long mappedFileThreshold) {
+		this.mappedFileThreshold = mappedFileThreshold;
+	}
+
+	/**
+	 * Return the configured {@link #setMappedFileThreshold mappedFileThreshold}.
+	 */
+	public long getMappedFileThreshold() {
+		return this.mappedFileThreshold;
+	}
+
 	@Override
 	public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
 		return super.canEncode(elementType, mimeType)
@@ -125,6 +145,10 @@ public class ResourceRegionEncoder extends AbstractEncoder<ResourceRegion> {
 		try {
 			if (resource.isFile()) {
 				File file = region.getResource().getFile();
+				if (this.mappedFileThreshold >= 0 && file.length() >= this.mappedFileThreshold) {
+					return DataBufferUtils.readMapped(file.toPath(), region.getPosition(),
+							bufferFactory, this.bufferSize);
+				}
 				AsynchronousFileChannel channel =
 						AsynchronousFileChannel.open(file.toPath(), StandardOpenOption.READ);
 				return DataBufferUtils.read(channel, region.getPosition(),
@@ -16,10 +16,10 @@
 
 package org.springframework.core.codec;
 
-import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.function.IntPredicate;
@@ -40,7 +40,9 @@ import org.springframework.util.MimeTypeUtils;
  *
  * <p>By default, this decoder will split the received {@link DataBuffer}s
  * along newline characters ({@code \r\n}), but this can be changed by
- * passing {@code false} as a constructor argument.
+ * passing {@code false} as a constructor argument. Lines that span several
+ * data buffers are joined before being decoded; their maximum length can be
+ * limited through {@link #setMaxLineLength}.
  *
  * @author Sebastien Deleuze
  * @author Brian Clozel
@@ -58,6 +60,8 @@ public class StringDecoder extends AbstractDecoder<String> {
 
 	private final boolean splitOnNewline;
 
+	private int maxLineLength = -1;
+
 
 	/**
 	 * Create a {@code StringDecoder} that decodes a bytes stream to a String stream
@@ -70,6 +74,27 @@ public class StringDecoder extends AbstractDecoder<String> {
 	}
 
 
+	/**
+	 * Set the maximum number of bytes of a line, including its newline
+	 * character, when splitting the byte stream into lines. A line that
+	 * spans several data buffers is held in memory until it is complete, so
+	 * this limit protects against unbounded input without newlines. When
+	 * the limit is exceeded, decoding fails with a {@link DecodingException}.
+	 * <p>By default this is set to -1, meaning no limit.
+	 * @param maxLineLength the maximum line length in bytes, or -1 for no limit
+	 */
+	public void setMaxLineLength(int maxLineLength) {
+		this.maxLineLength = maxLineLength;
+	}
+
+	/**
+	 * Return the {@link #setMaxLineLength configured} maximum line length.
+	 */
+	public int getMaxLineLength() {
+		return this.maxLineLength;
+	}
+
+
 	@Override
 	public boolean canDecode(ResolvableType elementType, @Nullable MimeType mimeType) {
 		return (super.canDecode(elementType, mimeType) &&
@@ -80,47 +105,35 @@ public class StringDecoder extends AbstractDecoder<String> {
 	public Flux<String> decode(Publisher<DataBuffer> inputStream, @Nullable ResolvableType elementType,
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
-		Flux<DataBuffer> inputFlux = Flux.from(inputStream);
+		Charset charset = getCharset(mimeType);
 		if (this.splitOnNewline) {
-			inputFlux = Flux.from(inputStream).flatMap(StringDecoder::splitOnNewline);
+			return Flux.defer(() -> {
+				LineSplitter splitter = new LineSplitter(charset, this.maxLineLength);
+				return Flux.from(inputStream)
+						.concatMapIterable(splitter::split)
+						.concatWith(Mono.defer(() -> Mono.justOrEmpty(splitter.flush())));
+			});
 		}
-		return inputFlux.map(buffer ->  decodeDataBuffer(buffer, mimeType));
+		return Flux.from(inputStream).map(buffer -> decodeDataBuffer(buffer, charset));
 	}
 
 	@Override
 	public Mono<String> decodeToMono(Publisher<DataBuffer> inputStream, ResolvableType elementType,
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
-		return Flux.from(inputStream)
-				.reduce(DataBuffer::write)
-				.map(buffer -> decodeDataBuffer(buffer, mimeType));
-	}
-
-	private static Flux<DataBuffer> splitOnNewline(DataBuffer dataBuffer) {
-		List<DataBuffer> results = new ArrayList<>();
-		int startIdx = 0;
-		int endIdx;
-		final int limit = dataBuffer.readableByteCount();
-		do {
-			endIdx = dataBuffer.indexOf(NEWLINE_DELIMITER, startIdx);
-			int length = endIdx != -1 ? endIdx - startIdx + 1 : limit - startIdx;
-			DataBuffer token = dataBuffer.slice(startIdx, length);
-			results.add(DataBufferUtils.retain(token));
-			startIdx = endIdx + 1;
-		}
-		while (startIdx < limit && endIdx != -1);
-		DataBufferUtils.release(dataBuffer);
-		return Flux.fromIterable(results);
+		Charset charset = getCharset(mimeType);
+		return DataBufferUtils.join(inputStream)
+				.map(buffer -> decodeDataBuffer(buffer, charset));
 	}
 
-	private String decodeDataBuffer(DataBuffer dataBuffer, MimeType mimeType) {
-		Charset charset = getCharset(mimeType);
-		CharBuffer charBuffer = charset.decode(dataBuffer.asByteBuffer());
+	private static String decodeDataBuffer(DataBuffer dataBuffer, Charset charset) {
+		byte[] bytes = new byte[dataBuffer.readableByteCount()];
+		dataBuffer.read(bytes);
 		DataBufferUtils.release(dataBuffer);
-		return charBuffer.toString();
+		return new String(bytes, charset);
 	}
 
-	private Charset getCharset(MimeType mimeType) {
+	private Charset getCharset(@Nullable MimeType mimeType) {
 		if (mimeType != null && mimeType.getCharset() != null) {
 			return mimeType.getCharset();
 		}
@@ -147,4 +160,88 @@ public class StringDecoder extends AbstractDecoder<String> {
 				new MimeType("text", "plain", DEFAULT_CHARSET), MimeTypeUtils.ALL);
 	}
 
+
+	/**
+	 * Splits a stream of data buffers into lines, one subscription at a time.
+	 * Newlines are found by scanning the bytes of each buffer, and only
+	 * completed lines are decoded. The bytes of a line that continues in the
+	 * next buffer are copied into a carry-over array, so that the buffer
+	 * itself can be released right away.
+	 */
+	private static class LineSplitter {
+
+		private static final byte[] EMPTY_BYTES = new byte[0];
+
+		private final Charset charset;
+
+		private final int maxLineLength;
+
+		private byte[] carryOver = EMPTY_BYTES;
+
+		private int carryOverLength;
+
+		private boolean pending;
+
+		public LineSplitter(Charset charset, int maxLineLength) {
+			this.charset = charset;
+			this.maxLineLength = maxLineLength;
+		}
+
+		public List<String> split(DataBuffer dataBuffer) {
+			try {
+				List<String> lines = new ArrayList<>();
+				int limit = dataBuffer.readableByteCount();
+				int startIdx = 0;
+				int endIdx;
+				while ((endIdx = dataBuffer.indexOf(NEWLINE_DELIMITER, startIdx)) != -1) {
+					int length = endIdx - startIdx + 1;
+					checkLineLength(length);
+					byte[] bytes = new byte[this.carryOverLength + length];
+					System.arraycopy(this.carryOver, 0, bytes, 0, this.carryOverLength);
+					dataBuffer.read(bytes, this.carryOverLength, length);
+					lines.add(new String(bytes, this.charset));
+					this.carryOverLength = 0;
+					this.pending = false;
+					startIdx = endIdx + 1;
+				}
+				if (startIdx < limit || lines.isEmpty()) {
+					int length = limit - startIdx;
+					checkLineLength(length);
+					int newLength = this.carryOverLength + length;
+					if (newLength > this.carryOver.length) {
+						this.carryOver = Arrays.copyOf(this.carryOver, Math.max(newLength, this.carryOver.length * 2));
+					}
+					dataBuffer.read(this.carryOver, this.carryOverLength, length);
+					this.carryOverLength = newLength;
+					this.pending = true;
+				}
+				return lines;
+			}
+			finally {
+				DataBufferUtils.release(dataBuffer);
+			}
+		}
+
+		private void checkLineLength(int length) {
+			if (this.maxLineLength >= 0 && this.carryOverLength + length > this.maxLineLength) {
+				this.carryOver = EMPTY_BYTES;
+				this.carryOverLength = 0;
+				throw new DecodingException(
+						"Line exceeds the maximum length of " + this.maxLineLength + " bytes");
+			}
+		}
+
+		@Nullable
+		public String flush() {
+			if (!this.pending) {
+				return null;
+			}
+			String line = new String(this.carryOver, 0, this.carryOverLength, this.charset);
+			this.carryOver = EMPTY_BYTES;
+			this.carryOverLength = 0;
+			this.pending = false;
+			return line;
+		}
+	}
+
 }
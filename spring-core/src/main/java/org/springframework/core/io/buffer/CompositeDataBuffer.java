@@ -0,0 +1,428 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Implementation of the {@link DataBuffer} interface that presents a number of
+ * component buffers as a single buffer, without copying their content.
+ * Constructed using {@link DefaultDataBufferFactory#join(List)}.
+ *
+ * <p>Reading, searching and slicing operate directly on the readable bytes of the
+ * components. Bytes written to a composite buffer are appended to additional
+ * buffers owned by the composite, leaving the components unmodified.
+ * {@link #asByteBuffer()} only has to copy when the readable bytes span several
+ * components.
+ *
+ * <p>Retaining or releasing a composite buffer retains or releases all of its
+ * components, so that pooled components are returned to their pool once the
+ * composite has been released.
+ *
+ * @since 5.0
+ * @see DataBufferFactory#join(List)
+ */
+public class CompositeDataBuffer implements PooledDataBuffer {
+
+	private static final int DEFAULT_TAIL_CAPACITY = 256;
+
+
+	private final DataBufferFactory dataBufferFactory;
+
+	private final List<DataBuffer> components;
+
+	private ByteBuffer[] segments;
+
+	private int[] offsets;
+
+	private int segmentCount;
+
+	private boolean tailWritable;
+
+	private int readPosition;
+
+	private int writePosition;
+
+
+	/**
+	 * Create a new {@code CompositeDataBuffer} based on the readable bytes of
+	 * the given components.
+	 * @param components the buffers to compose
+	 * @param dataBufferFactory the factory that created this buffer
+	 */
+	CompositeDataBuffer(List<? extends DataBuffer> components, DataBufferFactory dataBufferFactory) {
+		Assert.notEmpty(components, "'components' must not be empty");
+		Assert.notNull(dataBufferFactory, "'dataBufferFactory' must not be null");
+
+		this.dataBufferFactory = dataBufferFactory;
+		this.components = new ArrayList<>(components);
+		this.segments = new ByteBuffer[components.size() + 1];
+		this.offsets = new int[components.size() + 1];
+		for (DataBuffer component : components) {
+			addSegment(component.asByteBuffer().slice());
+		}
+	}
+
+	private CompositeDataBuffer(ByteBuffer[] segments, List<DataBuffer> components,
+			DataBufferFactory dataBufferFactory) {
+
+		this.dataBufferFactory = dataBufferFactory;
+		this.components = components;
+		this.segments = new ByteBuffer[segments.length + 1];
+		this.offsets = new int[segments.length + 1];
+		for (ByteBuffer segment : segments) {
+			addSegment(segment);
+		}
+	}
+
+
+	/**
+	 * Return the number of buffers this composite is made up of, including
+	 * the buffers allocated for bytes written to this composite.
+	 */
+	public int getSegmentCount() {
+		return this.segmentCount;
+	}
+
+	@Override
+	public DataBufferFactory factory() {
+		return this.dataBufferFactory;
+	}
+
+	@Override
+	public int indexOf(IntPredicate predicate, int fromIndex) {
+		Assert.notNull(predicate, "'predicate' must not be null");
+
+		if (fromIndex < 0) {
+			fromIndex = 0;
+		}
+		else if (fromIndex >= this.writePosition) {
+			return -1;
+		}
+		for (int i = segmentIndex(fromIndex); i < this.segmentCount; i++) {
+			ByteBuffer segment = this.segments[i];
+			int offset = this.offsets[i];
+			for (int j = Math.max(fromIndex - offset, 0); j < segment.limit(); j++) {
+				if (predicate.test(segment.get(j))) {
+					return offset + j;
+				}
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int lastIndexOf(IntPredicate predicate, int fromIndex) {
+		Assert.notNull(predicate, "'predicate' must not be null");
+
+		int index = Math.min(fromIndex, this.writePosition - 1);
+		if (index < 0) {
+			return -1;
+		}
+		for (int i = segmentIndex(index); i >= 0; i--) {
+			ByteBuffer segment = this.segments[i];
+			int offset = this.offsets[i];
+			for (int j = Math.min(index - offset, segment.limit() - 1); j >= 0; j--) {
+				if (predicate.test(segment.get(j))) {
+					return offset + j;
+				}
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int readableByteCount() {
+		return this.writePosition - this.readPosition;
+	}
+
+	@Override
+	public byte read() {
+		if (this.readPosition >= this.writePosition) {
+			throw new IndexOutOfBoundsException(
+					"readPosition(" + this.readPosition + ") >= writePosition(" + this.writePosition + ")");
+		}
+		int i = segmentIndex(this.readPosition);
+		byte b = this.segments[i].get(this.readPosition - this.offsets[i]);
+		this.readPosition++;
+		return b;
+	}
+
+	@Override
+	public CompositeDataBuffer read(byte[] destination) {
+		Assert.notNull(destination, "'destination' must not be null");
+		return read(destination, 0, destination.length);
+	}
+
+	@Override
+	public CompositeDataBuffer read(byte[] destination, int offset, int length) {
+		Assert.notNull(destination, "'destination' must not be null");
+		int remaining = Math.min(length, readableByteCount());
+		for (int i = segmentIndex(this.readPosition); remaining > 0; i++) {
+			ByteBuffer segment = this.segments[i].duplicate();
+			int start = this.readPosition - this.offsets[i];
+			int count = Math.min(remaining, segment.limit() - start);
+			// Explicit cast for compatibility with covariant return type on JDK 9's ByteBuffer
+			((Buffer) segment).position(start);
+			segment.get(destination, offset, count);
+			offset += count;
+			remaining -= count;
+			this.readPosition += count;
+		}
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte b) {
+		writeInternal(1, tail -> tail.put(b));
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte[] source) {
+		Assert.notNull(source, "'source' must not be null");
+		return write(source, 0, source.length);
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte[] source, int offset, int length) {
+		Assert.notNull(source, "'source' must not be null");
+		writeInternal(length, tail -> tail.put(source, offset, length));
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(DataBuffer... buffers) {
+		if (!ObjectUtils.isEmpty(buffers)) {
+			ByteBuffer[] byteBuffers =
+					Arrays.stream(buffers).map(DataBuffer::asByteBuffer)
+							.toArray(ByteBuffer[]::new);
+			write(byteBuffers);
+		}
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(ByteBuffer... byteBuffers) {
+		Assert.notEmpty(byteBuffers, "'byteBuffers' must not be empty");
+		int length = Arrays.stream(byteBuffers).mapToInt(ByteBuffer::remaining).sum();
+		writeInternal(length, tail -> Arrays.stream(byteBuffers).forEach(tail::put));
+		return this;
+	}
+
+	/**
+	 * Internal write method that appends {@code length} bytes to a tail segment
+	 * owned by this buffer, allocating a new one if the current tail does not
+	 * have enough capacity left.
+	 */
+	private void writeInternal(int length, Consumer<ByteBuffer> writer) {
+		ByteBuffer tail = (this.tailWritable ? this.segments[this.segmentCount - 1] : null);
+		if (tail == null || tail.capacity() - tail.limit() < length) {
+			tail = ByteBuffer.allocate(Math.max(length, DEFAULT_TAIL_CAPACITY));
+			// Explicit cast for compatibility with covariant return type on JDK 9's ByteBuffer
+			((Buffer) tail).limit(0);
+			addSegment(tail);
+			this.tailWritable = true;
+		}
+		// Explicit access via Buffer base type for compatibility
+		// with covariant return type on JDK 9's ByteBuffer...
+		Buffer buffer = tail;
+		int position = tail.limit();
+		buffer.limit(position + length);
+		buffer.position(position);
+		try {
+			writer.accept(tail);
+		}
+		finally {
+			buffer.position(0);
+		}
+		this.writePosition += length;
+	}
+
+	@Override
+	public DataBuffer slice(int index, int length) {
+		Assert.isTrue(index >= 0 && length >= 0 && index + length <= this.writePosition,
+				"'index' and 'length' must be within the written bytes of this buffer");
+
+		List<ByteBuffer> slices = new ArrayList<>();
+		int end = index + length;
+		for (int i = segmentIndex(index); i < this.segmentCount && this.offsets[i] < end; i++) {
+			ByteBuffer duplicate = this.segments[i].duplicate();
+			int offset = this.offsets[i];
+			// Explicit access via Buffer base type for compatibility
+			// with covariant return type on JDK 9's ByteBuffer...
+			Buffer buffer = duplicate;
+			buffer.limit(Math.min(end - offset, duplicate.limit()));
+			buffer.position(Math.max(index - offset, 0));
+			slices.add(duplicate.slice());
+		}
+		return new CompositeDataBuffer(slices.toArray(new ByteBuffer[slices.size()]),
+				this.components, this.dataBufferFactory);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>If the readable bytes of this buffer span more than one segment, they
+	 * are copied into a new {@code ByteBuffer}, and changes to it will not be
+	 * reflected in this buffer.
+	 */
+	@Override
+	public ByteBuffer asByteBuffer() {
+		int length = readableByteCount();
+		if (length == 0) {
+			return ByteBuffer.allocate(0);
+		}
+		int i = segmentIndex(this.readPosition);
+		int start = this.readPosition - this.offsets[i];
+		if (start + length <= this.segments[i].limit()) {
+			ByteBuffer duplicate = this.segments[i].duplicate();
+			// Explicit access via Buffer base type for compatibility
+			// with covariant return type on JDK 9's ByteBuffer...
+			Buffer buffer = duplicate;
+			buffer.position(start);
+			buffer.limit(start + length);
+			return duplicate;
+		}
+		byte[] bytes = new byte[length];
+		int readPosition = this.readPosition;
+		read(bytes);
+		this.readPosition = readPosition;
+		return ByteBuffer.wrap(bytes);
+	}
+
+	@Override
+	public InputStream asInputStream() {
+		return new CompositeDataBufferInputStream();
+	}
+
+	@Override
+	public OutputStream asOutputStream() {
+		return new CompositeDataBufferOutputStream();
+	}
+
+	@Override
+	public CompositeDataBuffer retain() {
+		this.components.forEach(DataBufferUtils::retain);
+		return this;
+	}
+
+	/**
+	 * Release all components of this buffer.
+	 * @return {@code true} if all components were released; {@code false} otherwise
+	 */
+	@Override
+	public boolean release() {
+		boolean released = true;
+		for (DataBuffer component : this.components) {
+			released = DataBufferUtils.release(component) && released;
+		}
+		return released;
+	}
+
+	private void addSegment(ByteBuffer segment) {
+		if (this.segmentCount == this.segments.length) {
+			int newLength = this.segments.length * 2;
+			this.segments = Arrays.copyOf(this.segments, newLength);
+			this.offsets = Arrays.copyOf(this.offsets, newLength);
+		}
+		this.segments[this.segmentCount] = segment;
+		this.offsets[this.segmentCount] = this.writePosition;
+		this.segmentCount++;
+		this.writePosition += segment.limit();
+		this.tailWritable = false;
+	}
+
+	/**
+	 * Return the index of the last segment that starts at or before the given
+	 * index, i.e. the segment that holds the byte at that index.
+	 */
+	private int segmentIndex(int index) {
+		int low = 0;
+		int high = this.segmentCount - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (this.offsets[mid] <= index) {
+				low = mid;
+			}
+			else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+
+	@Override
+	public String toString() {
+		return "CompositeDataBuffer (readPosition=" + this.readPosition + ", writePosition=" +
+				this.writePosition + ", segments=" + this.segmentCount + ")";
+	}
+
+
+	private class CompositeDataBufferInputStream extends InputStream {
+
+		@Override
+		public int available() throws IOException {
+			return readableByteCount();
+		}
+
+		@Override
+		public int read() {
+			return (readableByteCount() > 0 ? CompositeDataBuffer.this.read() & 0xFF : -1);
+		}
+
+		@Override
+		public int read(byte[] bytes, int off, int len) throws IOException {
+			int count = readableByteCount();
+			if (count > 0) {
+				int minLen = Math.min(len, count);
+				CompositeDataBuffer.this.read(bytes, off, minLen);
+				return minLen;
+			}
+			else {
+				return -1;
+			}
+		}
+	}
+
+
+	private class CompositeDataBufferOutputStream extends OutputStream {
+
+		@Override
+		public void write(int b) throws IOException {
+			CompositeDataBuffer.this.write((byte) b);
+		}
+
+		@Override
+		public void write(byte[] bytes, int off, int len) throws IOException {
+			CompositeDataBuffer.this.write(bytes, off, len);
+		}
+	}
+
+}
@@ -17,6 +17,9 @@
 package org.springframework.core.io.buffer;
 
 import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.springframework.util.Assert;
 
 /**
  * A factory for {@link DataBuffer}s,allowing for allocation and wrapping of
@@ -59,4 +62,30 @@ public interface DataBufferFactory {
 	 */
 	DataBuffer wrap(byte[] bytes);
 
+	/**
+	 * Return a new {@code DataBuffer} composed of the given data buffers, in
+	 * order. Depending on the implementation, the returned buffer may be a
+	 * single buffer containing all data of the given buffers, or a composite
+	 * that refers to the given buffers without copying their content.
+	 * <p>Note that the given buffers do not have to be released, as they are
+	 * released as part of the returned buffer.
+	 * <p>The default implementation allocates a single buffer, copies the data
+	 * of the given buffers into it, and releases the given buffers.
+	 * @param dataBuffers the data buffers to be joined
+	 * @return a buffer containing all data of the given buffers
+	 */
+	default DataBuffer join(List<? extends DataBuffer> dataBuffers) {
+		Assert.notEmpty(dataBuffers, "'dataBuffers' must not be empty");
+		int capacity = 0;
+		for (DataBuffer dataBuffer : dataBuffers) {
+			capacity += dataBuffer.readableByteCount();
+		}
+		DataBuffer result = allocateBuffer(capacity);
+		for (DataBuffer dataBuffer : dataBuffers) {
+			result.write(dataBuffer);
+			DataBufferUtils.release(dataBuffer);
+		}
+		return result;
+	}
+
 }
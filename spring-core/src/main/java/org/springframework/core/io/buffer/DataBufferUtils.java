@@ -18,18 +18,23 @@ package org.springframework.core.io.buffer;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.Channel;
 import java.nio.channels.Channels;
 import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
 
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
 import reactor.core.publisher.SynchronousSink;
 
 import org.springframework.util.Assert;
@@ -43,6 +48,12 @@ import org.springframework.util.Assert;
  */
 public abstract class DataBufferUtils {
 
+	/**
+	 * The maximum size of a file region that is memory-mapped at once by
+	 * {@link #readMapped(Path, long, DataBufferFactory, int)}.
+	 */
+	private static final long MAX_MAPPED_REGION_SIZE = 8 * 1024 * 1024;
+
 	/**
 	 * Read the given {@code InputStream} into a {@code Flux} of
 	 * {@code DataBuffer}s. Closes the input stream when the flux is terminated.
@@ -122,6 +133,55 @@ public abstract class DataBufferUtils {
 		});
 	}
 
+	/**
+	 * Read the file at the given {@code Path} into a {@code Flux} of
+	 * {@code DataBuffer}s that are backed by memory-mapped regions of the
+	 * file, rather than by buffers the file content is copied into.
+	 * @param path the file to read from
+	 * @param dataBufferFactory the factory to wrap the mapped regions with
+	 * @param bufferSize the maximum size of the data buffers
+	 * @return a flux of data buffers read from the given file
+	 * @see #readMapped(Path, long, DataBufferFactory, int)
+	 */
+	public static Flux<DataBuffer> readMapped(Path path, DataBufferFactory dataBufferFactory, int bufferSize) {
+		return readMapped(path, 0, dataBufferFactory, bufferSize);
+	}
+
+	/**
+	 * Read the file at the given {@code Path} into a {@code Flux} of
+	 * {@code DataBuffer}s, starting at the given position. The file is opened
+	 * when the flux is subscribed to and closed when the flux is terminated.
+	 * <p>The returned buffers {@linkplain DataBufferFactory#wrap(ByteBuffer) wrap}
+	 * read-only, memory-mapped regions of the file, so the file content is not
+	 * copied into the heap. The file is mapped lazily, a few megabytes at a time.
+	 * <p>Memory mapping is only worthwhile for large files, and comes with
+	 * caveats: mapped memory is only unmapped once the buffers have been
+	 * garbage collected, which on Windows prevents the file from being
+	 * deleted or replaced until then; and accessing a buffer after the file
+	 * has been truncated by another process results in an {@link InternalError}
+	 * or a crash of the JVM. Prefer
+	 * {@link #read(AsynchronousFileChannel, long, DataBufferFactory, int)}
+	 * unless the file is known not to change while it is being read.
+	 * @param path the file to read from
+	 * @param position the position to start reading from
+	 * @param dataBufferFactory the factory to wrap the mapped regions with
+	 * @param bufferSize the maximum size of the data buffers
+	 * @return a flux of data buffers read from the given file
+	 */
+	public static Flux<DataBuffer> readMapped(Path path, long position,
+			DataBufferFactory dataBufferFactory, int bufferSize) {
+
+		Assert.notNull(path, "'path' must not be null");
+		Assert.notNull(dataBufferFactory, "'dataBufferFactory' must not be null");
+		Assert.isTrue(position >= 0, "'position' must be >= 0");
+		Assert.isTrue(bufferSize > 0, "'bufferSize' must be larger than 0");
+
+		return Flux.generate(
+				() -> new MappedFileRegion(FileChannel.open(path, StandardOpenOption.READ), position),
+				new MappedFileGenerator(dataBufferFactory, bufferSize),
+				region -> closeChannel(region.channel));
+	}
+
 	private static void closeChannel(Channel channel) {
 		try {
 			if (channel != null) {
@@ -200,6 +260,23 @@ public abstract class DataBufferUtils {
 				});
 	}
 
+	/**
+	 * Return a new {@code DataBuffer} composed of the data buffers emitted by
+	 * the given publisher, as {@linkplain DataBufferFactory#join(java.util.List)
+	 * joined} by the factory of the first buffer. Depending on that factory,
+	 * the content of the buffers is not copied.
+	 * @param dataBuffers the data buffers that are to be joined
+	 * @return a mono with the joined buffer; or an empty mono if the publisher
+	 * did not emit any buffers
+	 */
+	public static Mono<DataBuffer> join(Publisher<DataBuffer> dataBuffers) {
+		Assert.notNull(dataBuffers, "'dataBuffers' must not be null");
+		return Flux.from(dataBuffers)
+				.collectList()
+				.filter(list -> !list.isEmpty())
+				.map(list -> list.get(0).factory().join(list));
+	}
+
 	/**
 	 * Retain the given data buffer, it it is a {@link PooledDataBuffer}.
 	 * @param dataBuffer the data buffer to retain
@@ -271,6 +348,61 @@ public abstract class DataBufferUtils {
 		}
 	}
 
+	private static class MappedFileRegion {
+
+		private final FileChannel channel;
+
+		private long position;
+
+		private ByteBuffer mappedRegion;
+
+		public MappedFileRegion(FileChannel channel, long position) {
+			this.channel = channel;
+			this.position = position;
+		}
+	}
+
+	private static class MappedFileGenerator
+			implements BiFunction<MappedFileRegion, SynchronousSink<DataBuffer>, MappedFileRegion> {
+
+		private final DataBufferFactory dataBufferFactory;
+
+		private final int bufferSize;
+
+		public MappedFileGenerator(DataBufferFactory dataBufferFactory, int bufferSize) {
+			this.dataBufferFactory = dataBufferFactory;
+			this.bufferSize = bufferSize;
+		}
+
+		@Override
+		public MappedFileRegion apply(MappedFileRegion region, SynchronousSink<DataBuffer> sub) {
+			try {
+				ByteBuffer mappedRegion = region.mappedRegion;
+				if (mappedRegion == null || !mappedRegion.hasRemaining()) {
+					long size = region.channel.size();
+					if (region.position >= size) {
+						sub.complete();
+						return region;
+					}
+					long length = Math.min(size - region.position, MAX_MAPPED_REGION_SIZE);
+					mappedRegion = region.channel.map(FileChannel.MapMode.READ_ONLY, region.position, length);
+					region.mappedRegion = mappedRegion;
+					region.position += length;
+				}
+				int length = Math.min(mappedRegion.remaining(), this.bufferSize);
+				ByteBuffer chunk = mappedRegion.slice();
+				// Explicit cast for compatibility with covariant return type on JDK 9's ByteBuffer
+				((Buffer) chunk).limit(length);
+				((Buffer) mappedRegion).position(mappedRegion.position() + length);
+				sub.next(this.dataBufferFactory.wrap(chunk));
+			}
+			catch (IOException ex) {
+				sub.error(ex);
+			}
+			return region;
+		}
+	}
+
 	private static class AsynchronousFileChannelCompletionHandler
 			implements CompletionHandler<Integer, AsynchronousFileChannel> {
 
@@ -267,9 +267,7 @@ public class DefaultDataBuffer implements DataBuffer {
 
 	void grow(int minCapacity) {
 		ByteBuffer oldBuffer = this.byteBuffer;
-		ByteBuffer newBuffer =
-				(oldBuffer.isDirect() ? ByteBuffer.allocateDirect(minCapacity) :
-						ByteBuffer.allocate(minCapacity));
+		ByteBuffer newBuffer = allocate(minCapacity, oldBuffer.isDirect());
 
 		// Explicit cast for compatibility with covariant return type on JDK 9's ByteBuffer
 		final int remaining = readableByteCount();
@@ -279,7 +277,36 @@ public class DefaultDataBuffer implements DataBuffer {
 		this.byteBuffer = newBuffer;
 		this.readPosition = 0;
 		this.writePosition = remaining;
-		oldBuffer.clear();
+		discard(oldBuffer);
+	}
+
+	/**
+	 * Allocate the {@code ByteBuffer} to {@linkplain #grow grow} into.
+	 * @param capacity the minimum capacity of the buffer
+	 * @param direct whether to allocate a direct buffer
+	 */
+	ByteBuffer allocate(int capacity, boolean direct) {
+		return (direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity));
+	}
+
+	/**
+	 * Dispose of a {@code ByteBuffer} that has been {@linkplain #grow grown} out of.
+	 * @param byteBuffer the buffer that is no longer used
+	 */
+	void discard(ByteBuffer byteBuffer) {
+		// Explicit cast for compatibility with covariant return type on JDK 9's ByteBuffer
+		((Buffer) byteBuffer).clear();
+	}
+
+	/**
+	 * Replace the {@code ByteBuffer} this buffer is based on, resetting both
+	 * the read and write position to 0.
+	 * @param byteBuffer the new buffer to base this buffer on
+	 */
+	void setNativeBuffer(ByteBuffer byteBuffer) {
+		this.byteBuffer = byteBuffer;
+		this.readPosition = 0;
+		this.writePosition = 0;
 	}
 
 
@@ -17,6 +17,7 @@
 package org.springframework.core.io.buffer;
 
 import java.nio.ByteBuffer;
+import java.util.List;
 
 import org.springframework.util.Assert;
 
@@ -100,6 +101,20 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
 		return new DefaultDataBuffer(wrapper, 0, bytes.length, this);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation returns a {@link CompositeDataBuffer} that refers
+	 * to the given buffers, or the given buffer itself if there is only one.
+	 */
+	@Override
+	public DataBuffer join(List<? extends DataBuffer> dataBuffers) {
+		Assert.notEmpty(dataBuffers, "'dataBuffers' must not be empty");
+		if (dataBuffers.size() == 1) {
+			return dataBuffers.get(0);
+		}
+		return new CompositeDataBuffer(dataBuffers, this);
+	}
+
 	@Override
 	public String toString() {
 		return "DefaultDataBufferFactory (preferDirect=" + this.preferDirect + ")";
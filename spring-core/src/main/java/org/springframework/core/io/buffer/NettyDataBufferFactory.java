@@ -17,9 +17,11 @@
 package org.springframework.core.io.buffer;
 
 import java.nio.ByteBuffer;
+import java.util.List;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 
 import org.springframework.util.Assert;
@@ -74,6 +76,25 @@ public class NettyDataBufferFactory implements DataBufferFactory {
 		return new NettyDataBuffer(byteBuf, this);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation returns a {@code NettyDataBuffer} based on a
+	 * {@link CompositeByteBuf} of the given buffers, or the given buffer itself
+	 * if there is only one.
+	 */
+	@Override
+	public DataBuffer join(List<? extends DataBuffer> dataBuffers) {
+		Assert.notEmpty(dataBuffers, "'dataBuffers' must not be empty");
+		if (dataBuffers.size() == 1) {
+			return dataBuffers.get(0);
+		}
+		CompositeByteBuf composite = this.byteBufAllocator.compositeBuffer(dataBuffers.size());
+		for (DataBuffer dataBuffer : dataBuffers) {
+			composite.addComponent(true, toByteBuf(dataBuffer));
+		}
+		return new NettyDataBuffer(composite, this);
+	}
+
 	/**
 	 * Wrap the given Netty {@link ByteBuf} in a {@code NettyDataBuffer}.
 	 * @param byteBuf the Netty byte buffer to wrap
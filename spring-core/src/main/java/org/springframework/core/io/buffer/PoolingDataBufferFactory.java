@@ -0,0 +1,508 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Extension of {@link DefaultDataBufferFactory} that recycles the memory of
+ * the buffers it allocates, for servers that do not come with a buffer pool
+ * of their own, e.g. Servlet containers and Undertow.
+ *
+ * <p>Allocated buffers implement {@link PooledDataBuffer} and are reference
+ * counted through {@link DataBufferUtils#retain} and
+ * {@link DataBufferUtils#release}: once the count drops to zero, the underlying
+ * {@link ByteBuffer} is handed back to the pool. Requested capacities are
+ * rounded up to a power-of-two size class between the minimum and maximum
+ * pooled capacity. Each size class is backed by a bounded arena shared by all
+ * threads, fronted by a small per-thread cache that is consulted first.
+ * Buffers larger than the maximum pooled capacity are not pooled, and are
+ * left to the garbage collector when released.
+ *
+ * <p>Leak detection can be {@linkplain #setLeakDetection enabled} in order
+ * to log the allocation site of buffers that became unreachable without
+ * having been released. It is meant for development and testing, since it
+ * records a stack trace for every allocation.
+ *
+ * @since 5.0
+ * @see DataBufferUtils#release
+ */
+public class PoolingDataBufferFactory extends DefaultDataBufferFactory {
+
+	/**
+	 * The default capacity of the smallest size class.
+	 */
+	public static final int DEFAULT_MIN_POOLED_CAPACITY = 256;
+
+	/**
+	 * The default capacity of the largest size class.
+	 */
+	public static final int DEFAULT_MAX_POOLED_CAPACITY = 64 * 1024;
+
+	/**
+	 * The default maximum number of idle buffers kept per size class.
+	 */
+	public static final int DEFAULT_ARENA_SIZE = 128;
+
+	/**
+	 * The default maximum number of idle buffers cached per thread and size class.
+	 */
+	public static final int DEFAULT_THREAD_CACHE_SIZE = 8;
+
+
+	private static final Log logger = LogFactory.getLog(PoolingDataBufferFactory.class);
+
+	private static final ByteBuffer EMPTY_BUFFER = ByteBuffer.allocate(0).asReadOnlyBuffer();
+
+
+	private final boolean preferDirect;
+
+	private final int minPooledCapacity;
+
+	private final int maxPooledCapacity;
+
+	private final int minPooledCapacityShift;
+
+	private final ArrayBlockingQueue<ByteBuffer>[] arenas;
+
+	private final int threadCacheSize;
+
+	private final ThreadLocal<ThreadCache> threadCache;
+
+	private volatile boolean leakDetection;
+
+	private final ReferenceQueue<PooledBuffer> leakQueue = new ReferenceQueue<>();
+
+	private final Set<LeakTracker> leakTrackers = ConcurrentHashMap.newKeySet();
+
+	private final LongAdder allocationCount = new LongAdder();
+
+	private final LongAdder reuseCount = new LongAdder();
+
+	private final LongAdder releaseCount = new LongAdder();
+
+	private final LongAdder leakCount = new LongAdder();
+
+
+	/**
+	 * Create a new {@code PoolingDataBufferFactory} with default settings.
+	 */
+	public PoolingDataBufferFactory() {
+		this(false);
+	}
+
+	/**
+	 * Create a new {@code PoolingDataBufferFactory}, indicating whether direct
+	 * buffers should be pooled rather than heap buffers.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 */
+	public PoolingDataBufferFactory(boolean preferDirect) {
+		this(preferDirect, DEFAULT_INITIAL_CAPACITY, DEFAULT_MIN_POOLED_CAPACITY,
+				DEFAULT_MAX_POOLED_CAPACITY, DEFAULT_ARENA_SIZE, DEFAULT_THREAD_CACHE_SIZE);
+	}
+
+	/**
+	 * Create a new {@code PoolingDataBufferFactory} with the given settings.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 * @param defaultInitialCapacity the capacity to use for {@link #allocateBuffer()}
+	 * @param minPooledCapacity the capacity of the smallest size class,
+	 * rounded up to a power of two
+	 * @param maxPooledCapacity the capacity of the largest size class,
+	 * rounded up to a power of two
+	 * @param arenaSize the maximum number of idle buffers to keep per size class
+	 * @param threadCacheSize the maximum number of idle buffers to cache per
+	 * thread and size class, or 0 to disable thread-local caching
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public PoolingDataBufferFactory(boolean preferDirect, int defaultInitialCapacity,
+			int minPooledCapacity, int maxPooledCapacity, int arenaSize, int threadCacheSize) {
+
+		super(preferDirect, defaultInitialCapacity);
+		Assert.isTrue(minPooledCapacity > 0, "'minPooledCapacity' should be larger than 0");
+		Assert.isTrue(maxPooledCapacity >= minPooledCapacity,
+				"'maxPooledCapacity' should be larger than or equal to 'minPooledCapacity'");
+		Assert.isTrue(maxPooledCapacity <= (1 << 30), "'maxPooledCapacity' should not exceed 2^30");
+		Assert.isTrue(arenaSize > 0, "'arenaSize' should be larger than 0");
+		Assert.isTrue(threadCacheSize >= 0, "'threadCacheSize' should be 0 or larger");
+
+		this.preferDirect = preferDirect;
+		this.minPooledCapacityShift = log2Ceiling(minPooledCapacity);
+		this.minPooledCapacity = 1 << this.minPooledCapacityShift;
+		this.maxPooledCapacity = 1 << log2Ceiling(maxPooledCapacity);
+
+		int sizeClassCount = log2Ceiling(this.maxPooledCapacity) - this.minPooledCapacityShift + 1;
+		this.arenas = new ArrayBlockingQueue[sizeClassCount];
+		for (int i = 0; i < sizeClassCount; i++) {
+			this.arenas[i] = new ArrayBlockingQueue<>(arenaSize);
+		}
+		this.threadCacheSize = threadCacheSize;
+		this.threadCache = ThreadLocal.withInitial(() -> new ThreadCache(sizeClassCount, threadCacheSize));
+	}
+
+
+	/**
+	 * Enable or disable the detection of buffers that are garbage collected
+	 * without having been released. Leaks are logged at error level, along
+	 * with the stack trace of the allocation.
+	 * <p>By default this is {@code false}.
+	 */
+	public void setLeakDetection(boolean leakDetection) {
+		this.leakDetection = leakDetection;
+	}
+
+	/**
+	 * Whether leak detection is enabled.
+	 */
+	public boolean isLeakDetection() {
+		return this.leakDetection;
+	}
+
+
+	@Override
+	public DefaultDataBuffer allocateBuffer(int initialCapacity) {
+		Assert.isTrue(initialCapacity >= 0, "'initialCapacity' should be 0 or larger");
+		PooledBuffer buffer = new PooledBuffer(acquire(initialCapacity), this);
+		if (this.leakDetection) {
+			reportLeaks();
+			buffer.leakTracker = new LeakTracker(buffer, this.leakQueue);
+			this.leakTrackers.add(buffer.leakTracker);
+		}
+		return buffer;
+	}
+
+	/**
+	 * Obtain a {@code ByteBuffer} with at least the given capacity, from the
+	 * thread-local cache or the arena of the matching size class if possible.
+	 */
+	ByteBuffer acquire(int capacity) {
+		this.allocationCount.increment();
+		int sizeClass = sizeClass(capacity);
+		if (sizeClass < 0) {
+			return allocateNative(capacity);
+		}
+		ByteBuffer byteBuffer = (this.threadCacheSize > 0 ? this.threadCache.get().poll(sizeClass) : null);
+		if (byteBuffer == null) {
+			byteBuffer = this.arenas[sizeClass].poll();
+		}
+		if (byteBuffer != null) {
+			this.reuseCount.increment();
+			return byteBuffer;
+		}
+		return allocateNative(this.minPooledCapacity << sizeClass);
+	}
+
+	/**
+	 * Hand the given {@code ByteBuffer} back to the pool, or leave it to the
+	 * garbage collector if it does not fit any size class or the pool is full.
+	 */
+	void recycle(ByteBuffer byteBuffer) {
+		this.releaseCount.increment();
+		int capacity = byteBuffer.capacity();
+		if (byteBuffer.isDirect() != this.preferDirect || byteBuffer.isReadOnly() ||
+				capacity > this.maxPooledCapacity || capacity < this.minPooledCapacity ||
+				Integer.bitCount(capacity) != 1) {
+			return;
+		}
+		// Explicit cast for compatibility with covariant return type on JDK 9's ByteBuffer
+		((Buffer) byteBuffer).clear();
+		int sizeClass = sizeClass(capacity);
+		if (this.threadCacheSize == 0 || !this.threadCache.get().offer(sizeClass, byteBuffer)) {
+			this.arenas[sizeClass].offer(byteBuffer);
+		}
+	}
+
+	private ByteBuffer allocateNative(int capacity) {
+		return (this.preferDirect ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity));
+	}
+
+	private int sizeClass(int capacity) {
+		if (capacity > this.maxPooledCapacity) {
+			return -1;
+		}
+		if (capacity <= this.minPooledCapacity) {
+			return 0;
+		}
+		return log2Ceiling(capacity) - this.minPooledCapacityShift;
+	}
+
+	private static int log2Ceiling(int value) {
+		return (value <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(value - 1));
+	}
+
+	private void reportLeaks() {
+		LeakTracker tracker;
+		while ((tracker = (LeakTracker) this.leakQueue.poll()) != null) {
+			if (this.leakTrackers.remove(tracker)) {
+				this.leakCount.increment();
+				logger.error("DataBuffer was garbage collected without having been released; " +
+						"see DataBufferUtils.release(DataBuffer). Allocation site:", tracker.allocationSite);
+			}
+		}
+	}
+
+
+	/**
+	 * Return the total number of buffer allocations, including those served
+	 * from the pool as well as those made to grow an existing buffer.
+	 */
+	public long getAllocationCount() {
+		return this.allocationCount.sum();
+	}
+
+	/**
+	 * Return the number of allocations that were served from the pool.
+	 */
+	public long getReuseCount() {
+		return this.reuseCount.sum();
+	}
+
+	/**
+	 * Return the number of allocated buffers that have not been released yet.
+	 */
+	public long getActiveCount() {
+		return this.allocationCount.sum() - this.releaseCount.sum();
+	}
+
+	/**
+	 * Return the number of idle buffers held by the shared arenas.
+	 * Buffers held in per-thread caches are not included.
+	 */
+	public int getIdleCount() {
+		int count = 0;
+		for (ArrayBlockingQueue<ByteBuffer> arena : this.arenas) {
+			count += arena.size();
+		}
+		return count;
+	}
+
+	/**
+	 * Return the number of buffers that were found to be garbage collected
+	 * without having been released. Only available with
+	 * {@linkplain #setLeakDetection leak detection} enabled.
+	 */
+	public long getLeakCount() {
+		if (this.leakDetection) {
+			reportLeaks();
+		}
+		return this.leakCount.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "PoolingDataBufferFactory (preferDirect=" + this.preferDirect +
+				", pooledCapacity=" + this.minPooledCapacity + ".." + this.maxPooledCapacity +
+				", allocations=" + getAllocationCount() + ", reused=" + getReuseCount() +
+				", active=" + getActiveCount() + ", idle=" + getIdleCount() + ")";
+	}
+
+
+	/**
+	 * Per-thread stack of idle buffers for each size class.
+	 */
+	private static class ThreadCache {
+
+		private final ArrayDeque<ByteBuffer>[] buffers;
+
+		private final int maxSize;
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		ThreadCache(int sizeClassCount, int maxSize) {
+			this.buffers = new ArrayDeque[sizeClassCount];
+			this.maxSize = maxSize;
+		}
+
+		@Nullable
+		ByteBuffer poll(int sizeClass) {
+			ArrayDeque<ByteBuffer> deque = this.buffers[sizeClass];
+			return (deque != null ? deque.pollFirst() : null);
+		}
+
+		boolean offer(int sizeClass, ByteBuffer byteBuffer) {
+			ArrayDeque<ByteBuffer> deque = this.buffers[sizeClass];
+			if (deque == null) {
+				deque = new ArrayDeque<>(this.maxSize);
+				this.buffers[sizeClass] = deque;
+			}
+			if (deque.size() >= this.maxSize) {
+				return false;
+			}
+			deque.offerFirst(byteBuffer);
+			return true;
+		}
+	}
+
+
+	/**
+	 * Reference counted {@link DefaultDataBuffer} whose memory is recycled on release.
+	 */
+	private static class PooledBuffer extends DefaultDataBuffer implements PooledDataBuffer {
+
+		private static final AtomicIntegerFieldUpdater<PooledBuffer> REF_COUNT_UPDATER =
+				AtomicIntegerFieldUpdater.newUpdater(PooledBuffer.class, "refCount");
+
+		private final PoolingDataBufferFactory pool;
+
+		@SuppressWarnings("unused")
+		private volatile int refCount = 1;
+
+		/** Whether slices may still share the current memory of this buffer */
+		private volatile boolean sliced;
+
+		LeakTracker leakTracker;
+
+		PooledBuffer(ByteBuffer byteBuffer, PoolingDataBufferFactory pool) {
+			super(byteBuffer, 0, 0, pool);
+			this.pool = pool;
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			for (;;) {
+				int refCount = this.refCount;
+				if (refCount <= 0) {
+					throw new IllegalStateException("DataBuffer has already been released: " + this);
+				}
+				if (REF_COUNT_UPDATER.compareAndSet(this, refCount, refCount + 1)) {
+					return this;
+				}
+			}
+		}
+
+		@Override
+		public boolean release() {
+			for (;;) {
+				int refCount = this.refCount;
+				if (refCount <= 0) {
+					throw new IllegalStateException("DataBuffer has already been released: " + this);
+				}
+				if (REF_COUNT_UPDATER.compareAndSet(this, refCount, refCount - 1)) {
+					if (refCount == 1) {
+						deallocate();
+						return true;
+					}
+					return false;
+				}
+			}
+		}
+
+		private void deallocate() {
+			ByteBuffer byteBuffer = getNativeBuffer();
+			setNativeBuffer(EMPTY_BUFFER);
+			LeakTracker leakTracker = this.leakTracker;
+			if (leakTracker != null) {
+				this.pool.leakTrackers.remove(leakTracker);
+				leakTracker.clear();
+			}
+			this.pool.recycle(byteBuffer);
+		}
+
+		@Override
+		ByteBuffer allocate(int capacity, boolean direct) {
+			return this.pool.acquire(capacity);
+		}
+
+		@Override
+		void discard(ByteBuffer byteBuffer) {
+			if (this.sliced) {
+				// Memory still shared with slices: leave it to the garbage collector
+				this.sliced = false;
+				this.pool.releaseCount.increment();
+			}
+			else {
+				this.pool.recycle(byteBuffer);
+			}
+		}
+
+		@Override
+		void grow(int minCapacity) {
+			if (this.refCount <= 0) {
+				throw new IllegalStateException("DataBuffer has already been released: " + this);
+			}
+			super.grow(minCapacity);
+		}
+
+		@Override
+		public DataBuffer slice(int index, int length) {
+			DefaultDataBuffer slice = (DefaultDataBuffer) super.slice(index, length);
+			this.sliced = true;
+			return new PooledSlice(slice.getNativeBuffer(), length, this);
+		}
+	}
+
+
+	/**
+	 * Slice of a {@link PooledBuffer}, sharing the reference count of its parent.
+	 */
+	private static class PooledSlice extends DefaultDataBuffer implements PooledDataBuffer {
+
+		private final PooledBuffer parent;
+
+		PooledSlice(ByteBuffer byteBuffer, int length, PooledBuffer parent) {
+			super(byteBuffer, 0, length, parent.pool);
+			this.parent = parent;
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			this.parent.retain();
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			return this.parent.release();
+		}
+
+		@Override
+		void grow(int minCapacity) {
+			throw new UnsupportedOperationException(
+					"Growing the capacity of a sliced buffer is not supported");
+		}
+	}
+
+
+	/**
+	 * Weak reference to an allocated buffer, enqueued if the buffer is
+	 * garbage collected without having been released.
+	 */
+	private static class LeakTracker extends WeakReference<PooledBuffer> {
+
+		final Throwable allocationSite = new Throwable("DataBuffer allocation site");
+
+		LeakTracker(PooledBuffer buffer, ReferenceQueue<PooledBuffer> queue) {
+			super(buffer, queue);
+		}
+	}
+
+}
@@ -26,11 +26,15 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLConnection;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.zip.ZipException;
@@ -167,6 +171,10 @@ import org.springframework.util.StringUtils;
  * Ant-style pattern in such a case, which will search <i>all</i> class path
  * locations that contain the root package.
  *
+ * <p>If a {@link #setForkJoinPool ForkJoinPool} has been configured, the root
+ * directories of a pattern (typically one per jar file or class path directory)
+ * are searched in parallel, as tasks in that pool.
+ *
  * @author Juergen Hoeller
  * @author Colin Sampaleanu
  * @author Marius Bogoevici
@@ -202,6 +210,8 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	private ForkJoinPool forkJoinPool;
+
 
 	/**
 	 * Create a new PathMatchingResourcePatternResolver with a DefaultResourceLoader.
@@ -264,6 +274,28 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Set the ForkJoinPool to search the root directories of a pattern in.
+	 * <p>Default is none, searching the root directories sequentially in the
+	 * calling thread. If specified, each root directory is searched as a
+	 * separate task in the given pool, forked from the current task when
+	 * invoked from within that pool already.
+	 * @since 5.0
+	 */
+	public void setForkJoinPool(@Nullable ForkJoinPool forkJoinPool) {
+		this.forkJoinPool = forkJoinPool;
+	}
+
+	/**
+	 * Return the ForkJoinPool to search the root directories of a pattern in,
+	 * if any.
+	 * @since 5.0
+	 */
+	@Nullable
+	public ForkJoinPool getForkJoinPool() {
+		return this.forkJoinPool;
+	}
+
 
 	@Override
 	public Resource getResource(String location) {
@@ -460,23 +492,35 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		String subPattern = locationPattern.substring(rootDirPath.length());
 		Resource[] rootDirResources = getResources(rootDirPath);
 		Set<Resource> result = new LinkedHashSet<>(16);
-		for (Resource rootDirResource : rootDirResources) {
-			rootDirResource = resolveRootDirResource(rootDirResource);
-			URL rootDirURL = rootDirResource.getURL();
-			if (equinoxResolveMethod != null) {
-				if (rootDirURL.getProtocol().startsWith("bundle")) {
-					rootDirURL = (URL) ReflectionUtils.invokeMethod(equinoxResolveMethod, null, rootDirURL);
-					rootDirResource = new UrlResource(rootDirURL);
-				}
+		ForkJoinPool forkJoinPool = getForkJoinPool();
+		if (rootDirResources.length > 1 && forkJoinPool != null) {
+			List<ForkJoinTask<Set<Resource>>> tasks = new ArrayList<>(rootDirResources.length);
+			for (Resource rootDirResource : rootDirResources) {
+				tasks.add(ForkJoinTask.adapt(() -> findPathMatchingResources(rootDirResource, subPattern)));
 			}
-			if (rootDirURL.getProtocol().startsWith(ResourceUtils.URL_PROTOCOL_VFS)) {
-				result.addAll(VfsResourceMatchingDelegate.findMatchingResources(rootDirURL, subPattern, getPathMatcher()));
+			try {
+				if (ForkJoinTask.getPool() == forkJoinPool) {
+					ForkJoinTask.invokeAll(tasks);
+				}
+				else {
+					for (ForkJoinTask<Set<Resource>> task : tasks) {
+						forkJoinPool.execute(task);
+					}
+				}
+				for (ForkJoinTask<Set<Resource>> task : tasks) {
+					result.addAll(task.join());
+				}
 			}
-			else if (ResourceUtils.isJarURL(rootDirURL) || isJarResource(rootDirResource)) {
-				result.addAll(doFindPathMatchingJarResources(rootDirResource, rootDirURL, subPattern));
+			catch (RuntimeException ex) {
+				if (ex.getCause() instanceof IOException) {
+					throw (IOException) ex.getCause();
+				}
+				throw ex;
 			}
-			else {
-				result.addAll(doFindPathMatchingFileResources(rootDirResource, subPattern));
+		}
+		else {
+			for (Resource rootDirResource : rootDirResources) {
+				result.addAll(findPathMatchingResources(rootDirResource, subPattern));
 			}
 		}
 		if (logger.isDebugEnabled()) {
@@ -485,6 +529,26 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return result.toArray(new Resource[result.size()]);
 	}
 
+	private Set<Resource> findPathMatchingResources(Resource rootDirResource, String subPattern) throws IOException {
+		rootDirResource = resolveRootDirResource(rootDirResource);
+		URL rootDirURL = rootDirResource.getURL();
+		if (equinoxResolveMethod != null) {
+			if (rootDirURL.getProtocol().startsWith("bundle")) {
+				rootDirURL = (URL) ReflectionUtils.invokeMethod(equinoxResolveMethod, null, rootDirURL);
+				rootDirResource = new UrlResource(rootDirURL);
+			}
+		}
+		if (rootDirURL.getProtocol().startsWith(ResourceUtils.URL_PROTOCOL_VFS)) {
+			return VfsResourceMatchingDelegate.findMatchingResources(rootDirURL, subPattern, getPathMatcher());
+		}
+		else if (ResourceUtils.isJarURL(rootDirURL) || isJarResource(rootDirResource)) {
+			return doFindPathMatchingJarResources(rootDirResource, rootDirURL, subPattern);
+		}
+		else {
+			return doFindPathMatchingFileResources(rootDirResource, subPattern);
+		}
+	}
+
 	/**
 	 * Determine the root directory for the given location.
 	 * <p>Used for determining the starting point for file matching,
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -124,14 +124,18 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 			return metadataReader;
 		}
 		else if (this.metadataReaderCache != null) {
+			MetadataReader metadataReader;
 			synchronized (this.metadataReaderCache) {
-				MetadataReader metadataReader = this.metadataReaderCache.get(resource);
-				if (metadataReader == null) {
-					metadataReader = super.getMetadataReader(resource);
+				metadataReader = this.metadataReaderCache.get(resource);
+			}
+			if (metadataReader == null) {
+				// Parse outside of the lock, allowing for concurrent scanning
+				metadataReader = super.getMetadataReader(resource);
+				synchronized (this.metadataReaderCache) {
 					this.metadataReaderCache.put(resource, metadataReader);
 				}
-				return metadataReader;
 			}
+			return metadataReader;
 		}
 		else {
 			return super.getMetadataReader(resource);
@@ -0,0 +1,432 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.asm.AnnotationVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Binary serialization of ASM-based class metadata, allowing for the
+ * metadata of a class to be restored without reading its class file again.
+ *
+ * <p>Serialized metadata holds the class structure along with directly
+ * declared annotations of the class and of its annotated methods, using
+ * {@link java.io.DataOutput} primitives:
+ * <ul>
+ * <li>the class access flags as an {@code int}, limited to {@code ACC_INTERFACE},
+ * {@code ACC_ANNOTATION}, {@code ACC_ABSTRACT} and {@code ACC_FINAL}</li>
+ * <li>the class name, an optional superclass name, the interface names, an
+ * optional enclosing class name, whether the class is independent, and the
+ * member class names; names are fully qualified binary names, optional values
+ * are preceded by a {@code boolean} presence flag, and name lists by their
+ * {@code int} length</li>
+ * <li>the annotations of the class: an {@code int} count followed by, for each
+ * annotation, its type name, a {@code boolean} attributes flag and, if set, an
+ * {@code int} count of explicitly declared attributes, each with its name and
+ * its value</li>
+ * <li>the annotated methods: an {@code int} count followed by, for each method,
+ * its name, its {@code int} access flags, its declaring class name, its return
+ * type name and its annotations, in the same layout as for the class</li>
+ * </ul>
+ * Attribute values are written as a tag byte followed by the value: 1 for a
+ * {@code String}, 2 to 9 for {@code boolean}, {@code byte}, {@code char},
+ * {@code short}, {@code int}, {@code long}, {@code float} and {@code double},
+ * 10 for a class reference in type descriptor form, 11 for an enum constant
+ * as the enum type descriptor plus the constant name, 12 for a nested
+ * annotation as its type descriptor plus its attributes, 13 for an array of
+ * tagged values with its {@code int} length, and 14 for a primitive array as
+ * its component type descriptor, its {@code int} length and its tagged values.
+ *
+ * <p>On deserialization, the metadata is replayed through the same visitors
+ * that read class files, so meta-annotations get introspected as usual.
+ *
+ * @since 5.0
+ * @see PersistentCachingMetadataReaderFactory
+ */
+public abstract class ClassMetadataSerializer {
+
+	private static final byte TAG_STRING = 1;
+
+	private static final byte TAG_BOOLEAN = 2;
+
+	private static final byte TAG_BYTE = 3;
+
+	private static final byte TAG_CHAR = 4;
+
+	private static final byte TAG_SHORT = 5;
+
+	private static final byte TAG_INT = 6;
+
+	private static final byte TAG_LONG = 7;
+
+	private static final byte TAG_FLOAT = 8;
+
+	private static final byte TAG_DOUBLE = 9;
+
+	private static final byte TAG_TYPE = 10;
+
+	private static final byte TAG_ENUM = 11;
+
+	private static final byte TAG_ANNOTATION = 12;
+
+	private static final byte TAG_ARRAY = 13;
+
+	private static final byte TAG_PRIMITIVE_ARRAY = 14;
+
+	private static final String DEFAULT_VALUE_HOLDER_CLASS_NAME = AnnotationUtils.class.getName() + "$DefaultValueHolder";
+
+
+	/**
+	 * Serialize the class metadata exposed by the given {@link MetadataReader}.
+	 * @param metadataReader a MetadataReader as obtained from a
+	 * {@link SimpleMetadataReaderFactory}
+	 * @return the serialized form of the class metadata
+	 * @throws IOException if the given MetadataReader does not expose ASM-based
+	 * metadata, or if it carries annotation attribute values that cannot be
+	 * serialized
+	 */
+	public static byte[] serialize(MetadataReader metadataReader) throws IOException {
+		if (!(metadataReader.getAnnotationMetadata() instanceof AnnotationMetadataReadingVisitor)) {
+			throw new IOException("Unsupported annotation metadata: " + metadataReader.getAnnotationMetadata());
+		}
+		AnnotationMetadataReadingVisitor visitor =
+				(AnnotationMetadataReadingVisitor) metadataReader.getAnnotationMetadata();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		DataOutputStream out = new DataOutputStream(bytes);
+		int access = (visitor.isInterface() ? Opcodes.ACC_INTERFACE : 0) |
+				(visitor.isAnnotation() ? Opcodes.ACC_ANNOTATION : 0) |
+				(visitor.isAbstract() ? Opcodes.ACC_ABSTRACT : 0) |
+				(visitor.isFinal() ? Opcodes.ACC_FINAL : 0);
+		out.writeInt(access);
+		out.writeUTF(visitor.getClassName());
+		writeNullableString(out, visitor.getSuperClassName());
+		writeStrings(out, visitor.getInterfaceNames());
+		writeNullableString(out, visitor.getEnclosingClassName());
+		out.writeBoolean(visitor.isIndependent());
+		writeStrings(out, visitor.getMemberClassNames());
+		writeAnnotations(out, visitor.annotationSet, visitor.attributesMap);
+		out.writeInt(visitor.methodMetadataSet.size());
+		for (MethodMetadata methodMetadata : visitor.methodMetadataSet) {
+			if (!(methodMetadata instanceof MethodMetadataReadingVisitor)) {
+				throw new IOException("Unsupported method metadata: " + methodMetadata);
+			}
+			MethodMetadataReadingVisitor methodVisitor = (MethodMetadataReadingVisitor) methodMetadata;
+			out.writeUTF(methodVisitor.methodName);
+			out.writeInt(methodVisitor.access);
+			out.writeUTF(methodVisitor.declaringClassName);
+			out.writeUTF(methodVisitor.returnTypeName);
+			writeAnnotations(out, methodVisitor.metaAnnotationMap.keySet(), methodVisitor.attributesMap);
+		}
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	private static void writeAnnotations(DataOutputStream out, Set<String> annotationTypes,
+			Map<String, List<AnnotationAttributes>> attributesMap) throws IOException {
+
+		out.writeInt(annotationTypes.size());
+		for (String annotationType : annotationTypes) {
+			out.writeUTF(annotationType);
+			List<AnnotationAttributes> attributes = attributesMap.get(annotationType);
+			// Attributes of a directly declared annotation always come first,
+			// followed by those collected from meta-annotations
+			if (attributes != null && !attributes.isEmpty()) {
+				out.writeBoolean(true);
+				writeAttributes(out, attributes.get(0));
+			}
+			else {
+				out.writeBoolean(false);
+			}
+		}
+	}
+
+	private static void writeAttributes(DataOutputStream out, AnnotationAttributes attributes) throws IOException {
+		Map<String, Object> declaredAttributes = new LinkedHashMap<>(attributes.size());
+		for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+			// Default values get registered again when the annotation is replayed
+			if (!DEFAULT_VALUE_HOLDER_CLASS_NAME.equals(entry.getValue().getClass().getName())) {
+				declaredAttributes.put(entry.getKey(), entry.getValue());
+			}
+		}
+		out.writeInt(declaredAttributes.size());
+		for (Map.Entry<String, Object> entry : declaredAttributes.entrySet()) {
+			out.writeUTF(entry.getKey());
+			writeValue(out, entry.getValue());
+		}
+	}
+
+	private static void writeValue(DataOutputStream out, Object value) throws IOException {
+		if (value instanceof String) {
+			out.writeByte(TAG_STRING);
+			out.writeUTF((String) value);
+		}
+		else if (value instanceof Boolean) {
+			out.writeByte(TAG_BOOLEAN);
+			out.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Byte) {
+			out.writeByte(TAG_BYTE);
+			out.writeByte((Byte) value);
+		}
+		else if (value instanceof Character) {
+			out.writeByte(TAG_CHAR);
+			out.writeChar((Character) value);
+		}
+		else if (value instanceof Short) {
+			out.writeByte(TAG_SHORT);
+			out.writeShort((Short) value);
+		}
+		else if (value instanceof Integer) {
+			out.writeByte(TAG_INT);
+			out.writeInt((Integer) value);
+		}
+		else if (value instanceof Long) {
+			out.writeByte(TAG_LONG);
+			out.writeLong((Long) value);
+		}
+		else if (value instanceof Float) {
+			out.writeByte(TAG_FLOAT);
+			out.writeFloat((Float) value);
+		}
+		else if (value instanceof Double) {
+			out.writeByte(TAG_DOUBLE);
+			out.writeDouble((Double) value);
+		}
+		else if (value instanceof Type) {
+			out.writeByte(TAG_TYPE);
+			out.writeUTF(((Type) value).getDescriptor());
+		}
+		else if (value instanceof Enum) {
+			Enum<?> enumValue = (Enum<?>) value;
+			out.writeByte(TAG_ENUM);
+			out.writeUTF(Type.getDescriptor(enumValue.getDeclaringClass()));
+			out.writeUTF(enumValue.name());
+		}
+		else if (value instanceof AnnotationAttributes) {
+			AnnotationAttributes attributes = (AnnotationAttributes) value;
+			if (attributes.annotationType() == null) {
+				throw new IOException("Unresolvable nested annotation type");
+			}
+			out.writeByte(TAG_ANNOTATION);
+			out.writeUTF(Type.getDescriptor(attributes.annotationType()));
+			writeAttributes(out, attributes);
+		}
+		else if (value instanceof Object[]) {
+			Object[] array = (Object[]) value;
+			out.writeByte(TAG_ARRAY);
+			out.writeInt(array.length);
+			for (Object element : array) {
+				writeValue(out, element);
+			}
+		}
+		else if (value != null && value.getClass().isArray() && value.getClass().getComponentType().isPrimitive()) {
+			int length = Array.getLength(value);
+			out.writeByte(TAG_PRIMITIVE_ARRAY);
+			out.writeUTF(Type.getDescriptor(value.getClass().getComponentType()));
+			out.writeInt(length);
+			for (int i = 0; i < length; i++) {
+				writeValue(out, Array.get(value, i));
+			}
+		}
+		else {
+			throw new IOException("Unsupported annotation attribute value: " + value);
+		}
+	}
+
+	private static void writeNullableString(DataOutputStream out, @Nullable String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static void writeStrings(DataOutputStream out, String[] values) throws IOException {
+		out.writeInt(values.length);
+		for (String value : values) {
+			out.writeUTF(value);
+		}
+	}
+
+	/**
+	 * Restore a {@link MetadataReader} from serialized class metadata.
+	 * <p>Meta-annotations of the restored annotations are introspected
+	 * against the given ClassLoader, just like when reading a class file.
+	 * @param content the serialized class metadata
+	 * @param resource the resource reference for the class file
+	 * @param classLoader the ClassLoader to introspect meta-annotations with
+	 * @return the MetadataReader holding the restored metadata
+	 * @throws IOException if the given content is not valid
+	 */
+	public static MetadataReader deserialize(byte[] content, Resource resource, @Nullable ClassLoader classLoader)
+			throws IOException {
+
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(content));
+		AnnotationMetadataReadingVisitor visitor = new AnnotationMetadataReadingVisitor(classLoader);
+		int access = in.readInt();
+		String className = in.readUTF();
+		String superClassName = readNullableString(in);
+		String[] interfaceNames = readStrings(in);
+		for (int i = 0; i < interfaceNames.length; i++) {
+			interfaceNames[i] = ClassUtils.convertClassNameToResourcePath(interfaceNames[i]);
+		}
+		visitor.visit(0, access, ClassUtils.convertClassNameToResourcePath(className), null,
+				(superClassName != null ? ClassUtils.convertClassNameToResourcePath(superClassName) : null),
+				interfaceNames);
+		String enclosingClassName = readNullableString(in);
+		boolean independent = in.readBoolean();
+		if (enclosingClassName != null) {
+			visitor.visitInnerClass(ClassUtils.convertClassNameToResourcePath(className),
+					ClassUtils.convertClassNameToResourcePath(enclosingClassName), null,
+					(independent ? Opcodes.ACC_STATIC : 0));
+		}
+		for (String memberClassName : readStrings(in)) {
+			visitor.visitInnerClass(ClassUtils.convertClassNameToResourcePath(memberClassName),
+					ClassUtils.convertClassNameToResourcePath(className), null, 0);
+		}
+		int annotationCount = in.readInt();
+		for (int i = 0; i < annotationCount; i++) {
+			String annotationType = in.readUTF();
+			replayAnnotation(in, visitor.visitAnnotation(toDescriptor(annotationType), true));
+		}
+		int methodCount = in.readInt();
+		for (int i = 0; i < methodCount; i++) {
+			MethodMetadataReadingVisitor methodVisitor = new MethodMetadataReadingVisitor(in.readUTF(),
+					in.readInt(), in.readUTF(), in.readUTF(), classLoader, visitor.methodMetadataSet);
+			int methodAnnotationCount = in.readInt();
+			for (int j = 0; j < methodAnnotationCount; j++) {
+				String annotationType = in.readUTF();
+				replayAnnotation(in, methodVisitor.visitAnnotation(toDescriptor(annotationType), true));
+			}
+		}
+		return new SimpleMetadataReader(resource, visitor);
+	}
+
+	private static void replayAnnotation(DataInputStream in, AnnotationVisitor annotationVisitor) throws IOException {
+		if (in.readBoolean()) {
+			replayAttributes(in, annotationVisitor);
+		}
+		else {
+			annotationVisitor.visitEnd();
+		}
+	}
+
+	private static void replayAttributes(DataInputStream in, AnnotationVisitor annotationVisitor) throws IOException {
+		int count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			replayValue(in, annotationVisitor, in.readUTF());
+		}
+		annotationVisitor.visitEnd();
+	}
+
+	private static void replayValue(DataInputStream in, AnnotationVisitor annotationVisitor,
+			@Nullable String attributeName) throws IOException {
+
+		byte tag = in.readByte();
+		switch (tag) {
+			case TAG_ENUM:
+				annotationVisitor.visitEnum(attributeName, in.readUTF(), in.readUTF());
+				break;
+			case TAG_ANNOTATION:
+				replayAttributes(in, annotationVisitor.visitAnnotation(attributeName, in.readUTF()));
+				break;
+			case TAG_ARRAY:
+				AnnotationVisitor arrayVisitor = annotationVisitor.visitArray(attributeName);
+				int length = in.readInt();
+				for (int i = 0; i < length; i++) {
+					replayValue(in, arrayVisitor, null);
+				}
+				arrayVisitor.visitEnd();
+				break;
+			case TAG_PRIMITIVE_ARRAY:
+				Class<?> componentType = ClassUtils.resolvePrimitiveClassName(
+						Type.getType(in.readUTF()).getClassName());
+				Assert.state(componentType != null, "Invalid primitive array type");
+				Object array = Array.newInstance(componentType, in.readInt());
+				for (int i = 0; i < Array.getLength(array); i++) {
+					Array.set(array, i, readSimpleValue(in, in.readByte()));
+				}
+				annotationVisitor.visit(attributeName, array);
+				break;
+			default:
+				annotationVisitor.visit(attributeName, readSimpleValue(in, tag));
+		}
+	}
+
+	private static Object readSimpleValue(DataInputStream in, byte tag) throws IOException {
+		switch (tag) {
+			case TAG_STRING:
+				return in.readUTF();
+			case TAG_BOOLEAN:
+				return in.readBoolean();
+			case TAG_BYTE:
+				return in.readByte();
+			case TAG_CHAR:
+				return in.readChar();
+			case TAG_SHORT:
+				return in.readShort();
+			case TAG_INT:
+				return in.readInt();
+			case TAG_LONG:
+				return in.readLong();
+			case TAG_FLOAT:
+				return in.readFloat();
+			case TAG_DOUBLE:
+				return in.readDouble();
+			case TAG_TYPE:
+				return Type.getType(in.readUTF());
+			default:
+				throw new IOException("Unknown value tag: " + tag);
+		}
+	}
+
+	@Nullable
+	private static String readNullableString(DataInputStream in) throws IOException {
+		return (in.readBoolean() ? in.readUTF() : null);
+	}
+
+	private static String[] readStrings(DataInputStream in) throws IOException {
+		String[] values = new String[in.readInt()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = in.readUTF();
+		}
+		return values;
+	}
+
+	private static String toDescriptor(String className) {
+		return "L" + ClassUtils.convertClassNameToResourcePath(className) + ";";
+	}
+
+}
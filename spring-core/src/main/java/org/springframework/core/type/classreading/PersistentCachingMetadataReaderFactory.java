@@ -0,0 +1,361 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.ResourceUtils;
+
+/**
+ * Extension of {@link CachingMetadataReaderFactory} that additionally keeps
+ * the metadata of classes read from jar files in a cache on disk, so that
+ * classes in unchanged jar files do not have to be parsed again on a
+ * subsequent run.
+ *
+ * <p>The cache holds one file per jar file in the given cache directory,
+ * keyed on the path, size and last-modified timestamp of the jar file; a jar
+ * file that has changed in any of these respects simply gets its cache file
+ * rewritten. Jar files are assumed not to change while this factory is in
+ * use. Metadata is appended to the cache file as classes are parsed, in the
+ * format of {@link ClassMetadataSerializer}, and meta-annotations are always
+ * introspected afresh, so changes to annotation types declared in other jar
+ * files are picked up as well.
+ *
+ * <p>A cache directory should not be shared by concurrently running
+ * applications.
+ *
+ * @since 5.0
+ */
+public class PersistentCachingMetadataReaderFactory extends CachingMetadataReaderFactory {
+
+	private static final int CACHE_FILE_MAGIC = 0x53504d43;
+
+	private static final int CACHE_FILE_VERSION = 1;
+
+	private static final String CACHE_FILE_SUFFIX = ".metadata";
+
+	private static final Log logger = LogFactory.getLog(PersistentCachingMetadataReaderFactory.class);
+
+
+	private final File cacheDirectory;
+
+	private final ConcurrentMap<File, JarMetadataCache> jarCaches = new ConcurrentHashMap<>();
+
+
+	/**
+	 * Create a new PersistentCachingMetadataReaderFactory for the default
+	 * class loader, keeping its cache files in the given directory.
+	 * @param cacheDirectory the directory to keep cache files in
+	 */
+	public PersistentCachingMetadataReaderFactory(File cacheDirectory) {
+		super();
+		this.cacheDirectory = initCacheDirectory(cacheDirectory);
+	}
+
+	/**
+	 * Create a new PersistentCachingMetadataReaderFactory for the given
+	 * {@link ClassLoader}, keeping its cache files in the given directory.
+	 * @param cacheDirectory the directory to keep cache files in
+	 * @param classLoader the ClassLoader to use
+	 */
+	public PersistentCachingMetadataReaderFactory(File cacheDirectory, @Nullable ClassLoader classLoader) {
+		super(classLoader);
+		this.cacheDirectory = initCacheDirectory(cacheDirectory);
+	}
+
+	/**
+	 * Create a new PersistentCachingMetadataReaderFactory for the given
+	 * {@link ResourceLoader}, keeping its cache files in the given directory.
+	 * @param cacheDirectory the directory to keep cache files in
+	 * @param resourceLoader the Spring ResourceLoader to use
+	 * (also determines the ClassLoader to use)
+	 */
+	public PersistentCachingMetadataReaderFactory(File cacheDirectory, @Nullable ResourceLoader resourceLoader) {
+		super(resourceLoader);
+		this.cacheDirectory = initCacheDirectory(cacheDirectory);
+	}
+
+	private static File initCacheDirectory(File cacheDirectory) {
+		Assert.notNull(cacheDirectory, "Cache directory must not be null");
+		if (!cacheDirectory.isDirectory() && !cacheDirectory.mkdirs() && logger.isWarnEnabled()) {
+			logger.warn("Could not create metadata cache directory [" + cacheDirectory + "]");
+		}
+		return cacheDirectory;
+	}
+
+
+	/**
+	 * Return the directory that cache files are kept in.
+	 */
+	public final File getCacheDirectory() {
+		return this.cacheDirectory;
+	}
+
+	@Override
+	public MetadataReader getMetadataReader(Resource resource) throws IOException {
+		URL url = getJarEntryUrl(resource);
+		JarMetadataCache jarCache = (url != null ? getJarCache(url) : null);
+		if (jarCache == null) {
+			return super.getMetadataReader(resource);
+		}
+		String entryName = url.getFile().substring(
+				url.getFile().indexOf(ResourceUtils.JAR_URL_SEPARATOR) + ResourceUtils.JAR_URL_SEPARATOR.length());
+		byte[] content = jarCache.getEntry(entryName);
+		if (content != null) {
+			try {
+				return ClassMetadataSerializer.deserialize(content, resource, getResourceLoader().getClassLoader());
+			}
+			catch (IOException | RuntimeException ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Failed to restore cached metadata for " + resource + ": " + ex);
+				}
+			}
+		}
+		MetadataReader metadataReader = super.getMetadataReader(resource);
+		try {
+			jarCache.addEntry(entryName, ClassMetadataSerializer.serialize(metadataReader));
+		}
+		catch (IOException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Not caching metadata for " + resource + ": " + ex.getMessage());
+			}
+		}
+		return metadataReader;
+	}
+
+	/**
+	 * Clear the local MetadataReader cache, if any, as well as the class
+	 * metadata held in memory. Cache files on disk are kept for subsequent runs.
+	 * @see #purgeCache()
+	 */
+	@Override
+	public void clearCache() {
+		super.clearCache();
+		this.jarCaches.clear();
+	}
+
+	/**
+	 * Clear all cached metadata, in memory as well as on disk, deleting
+	 * the cache files in the {@linkplain #getCacheDirectory() cache directory}.
+	 * @see #clearCache()
+	 */
+	public void purgeCache() {
+		super.clearCache();
+		for (JarMetadataCache jarCache : this.jarCaches.values()) {
+			jarCache.purge();
+		}
+		this.jarCaches.clear();
+		File[] cacheFiles = this.cacheDirectory.listFiles((dir, name) -> name.endsWith(CACHE_FILE_SUFFIX));
+		if (cacheFiles != null) {
+			for (File cacheFile : cacheFiles) {
+				if (!cacheFile.delete() && logger.isDebugEnabled()) {
+					logger.debug("Could not delete metadata cache file [" + cacheFile + "]");
+				}
+			}
+		}
+	}
+
+	@Nullable
+	private static URL getJarEntryUrl(Resource resource) {
+		try {
+			URL url = resource.getURL();
+			return (ResourceUtils.isJarURL(url) &&
+					url.getFile().contains(ResourceUtils.JAR_URL_SEPARATOR) ? url : null);
+		}
+		catch (IOException ex) {
+			return null;
+		}
+	}
+
+	@Nullable
+	private JarMetadataCache getJarCache(URL url) {
+		File jarFile;
+		try {
+			jarFile = ResourceUtils.getFile(ResourceUtils.extractJarFileURL(url));
+		}
+		catch (FileNotFoundException ex) {
+			// Not a jar file in the file system
+			return null;
+		}
+		catch (IOException ex) {
+			return null;
+		}
+		return this.jarCaches.computeIfAbsent(jarFile, file -> new JarMetadataCache(file, getCacheFile(file)));
+	}
+
+	private File getCacheFile(File jarFile) {
+		String key = DigestUtils.md5DigestAsHex(jarFile.getAbsolutePath().getBytes(StandardCharsets.UTF_8));
+		return new File(this.cacheDirectory, jarFile.getName() + "-" + key + CACHE_FILE_SUFFIX);
+	}
+
+
+	/**
+	 * Cached class metadata for a single jar file, backed by a cache file
+	 * that new entries are appended to.
+	 */
+	private static class JarMetadataCache {
+
+		private final File jarFile;
+
+		private final File cacheFile;
+
+		private final long jarLength;
+
+		private final long jarLastModified;
+
+		private final Map<String, byte[]> entries = new ConcurrentHashMap<>();
+
+		private boolean headerWritten;
+
+		private boolean writable = true;
+
+		public JarMetadataCache(File jarFile, File cacheFile) {
+			this.jarFile = jarFile;
+			this.cacheFile = cacheFile;
+			this.jarLength = jarFile.length();
+			this.jarLastModified = jarFile.lastModified();
+			if (cacheFile.isFile()) {
+				load();
+			}
+		}
+
+		private void load() {
+			byte[] bytes;
+			try {
+				bytes = Files.readAllBytes(this.cacheFile.toPath());
+			}
+			catch (IOException ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Failed to read metadata cache file [" + this.cacheFile + "]: " + ex);
+				}
+				return;
+			}
+			ByteArrayInputStream input = new ByteArrayInputStream(bytes);
+			DataInputStream in = new DataInputStream(input);
+			// Offset after the last complete entry, with subsequent bytes to be discarded
+			int validLength = 0;
+			try {
+				if (in.readInt() != CACHE_FILE_MAGIC || in.readInt() != CACHE_FILE_VERSION ||
+						!in.readUTF().equals(this.jarFile.getAbsolutePath()) ||
+						in.readLong() != this.jarLength || in.readLong() != this.jarLastModified) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Discarding stale metadata cache file [" + this.cacheFile + "]");
+					}
+					return;
+				}
+				validLength = bytes.length - input.available();
+				while (input.available() > 0) {
+					String entryName = in.readUTF();
+					int length = in.readInt();
+					if (length < 0 || length > input.available()) {
+						throw new EOFException("Invalid length " + length + " of entry '" + entryName + "'");
+					}
+					byte[] content = new byte[length];
+					in.readFully(content);
+					this.entries.put(entryName, content);
+					validLength = bytes.length - input.available();
+				}
+			}
+			catch (IOException | RuntimeException ex) {
+				// Truncated or corrupt trailing entry: keep the complete entries read so far
+				if (logger.isDebugEnabled()) {
+					logger.debug("Discarding corrupt tail of metadata cache file [" + this.cacheFile + "]: " + ex);
+				}
+			}
+			if (validLength == 0) {
+				this.entries.clear();
+				return;
+			}
+			if (validLength < bytes.length) {
+				try (RandomAccessFile file = new RandomAccessFile(this.cacheFile, "rw")) {
+					file.setLength(validLength);
+				}
+				catch (IOException ex) {
+					// Rewrite the cache file from scratch with subsequent entries
+					if (logger.isDebugEnabled()) {
+						logger.debug("Failed to truncate metadata cache file [" + this.cacheFile + "]: " + ex);
+					}
+					return;
+				}
+			}
+			this.headerWritten = true;
+		}
+
+		@Nullable
+		public byte[] getEntry(String entryName) {
+			return this.entries.get(entryName);
+		}
+
+		public synchronized void addEntry(String entryName, byte[] content) {
+			if (this.entries.putIfAbsent(entryName, content) != null || !this.writable) {
+				return;
+			}
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(this.cacheFile, this.headerWritten)))) {
+				if (!this.headerWritten) {
+					out.writeInt(CACHE_FILE_MAGIC);
+					out.writeInt(CACHE_FILE_VERSION);
+					out.writeUTF(this.jarFile.getAbsolutePath());
+					out.writeLong(this.jarLength);
+					out.writeLong(this.jarLastModified);
+					this.headerWritten = true;
+				}
+				out.writeUTF(entryName);
+				out.writeInt(content.length);
+				out.write(content);
+			}
+			catch (IOException ex) {
+				this.writable = false;
+				if (logger.isWarnEnabled()) {
+					logger.warn("Failed to write metadata cache file [" + this.cacheFile + "]: " + ex);
+				}
+			}
+		}
+
+		public synchronized void purge() {
+			this.entries.clear();
+			this.writable = false;
+			if (this.cacheFile.exists() && !this.cacheFile.delete() && logger.isDebugEnabled()) {
+				logger.debug("Could not delete metadata cache file [" + this.cacheFile + "]");
+			}
+		}
+	}
+
+}
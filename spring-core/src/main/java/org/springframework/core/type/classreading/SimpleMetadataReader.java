@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -69,6 +69,12 @@ final class SimpleMetadataReader implements MetadataReader {
 		this.resource = resource;
 	}
 
+	SimpleMetadataReader(Resource resource, AnnotationMetadataReadingVisitor visitor) {
+		this.annotationMetadata = visitor;
+		this.classMetadata = visitor;
+		this.resource = resource;
+	}
+
 
 	@Override
 	public Resource getResource() {
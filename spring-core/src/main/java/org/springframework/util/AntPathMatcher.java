@@ -16,7 +16,9 @@
 
 package org.springframework.util;
 
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -75,7 +77,8 @@ public class AntPathMatcher implements PathMatcher {
 	/** Default path separator: "/" */
 	public static final String DEFAULT_PATH_SEPARATOR = "/";
 
-	private static final int CACHE_TURNOFF_THRESHOLD = 65536;
+	/** Default maximum number of entries for the pattern caches: 65536 */
+	public static final int DEFAULT_CACHE_LIMIT = 65536;
 
 	private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\{[^/]+?\\}");
 
@@ -92,9 +95,15 @@ public class AntPathMatcher implements PathMatcher {
 
 	private volatile Boolean cachePatterns;
 
-	private final Map<String, String[]> tokenizedPatternCache = new ConcurrentHashMap<>(256);
+	private volatile int cacheLimit = DEFAULT_CACHE_LIMIT;
 
-	final Map<String, AntPathStringMatcher> stringMatcherCache = new ConcurrentHashMap<>(256);
+	private final PatternCache<TokenizedPattern> tokenizedPatternCache = new PatternCache<>();
+
+	final PatternCache<AntPathStringMatcher> stringMatcherCache = new PatternCache<>();
+
+	private final boolean tokenizePatternOverridden = isOverridden("tokenizePattern");
+
+	private final boolean tokenizePathOverridden = isOverridden("tokenizePath");
 
 
 	/**
@@ -148,21 +157,43 @@ public class AntPathMatcher implements PathMatcher {
 	 * into this matcher's {@link #match} method. A value of {@code true}
 	 * activates an unlimited pattern cache; a value of {@code false} turns
 	 * the pattern cache off completely.
-	 * <p>Default is for the cache to be on, but with the variant to automatically
-	 * turn it off when encountering too many patterns to cache at runtime
-	 * (the threshold is 65536), assuming that arbitrary permutations of patterns
-	 * are coming in, with little chance for encountering a recurring pattern.
+	 * <p>Default is for the cache to be on but bounded by the
+	 * {@link #setCacheLimit cache limit}, evicting the least recently
+	 * created patterns once the limit is reached. Recurring patterns are
+	 * thereby kept cached even when arbitrary permutations of patterns
+	 * are coming in as well.
 	 * @since 4.0.1
 	 * @see #getStringMatcher(String)
 	 */
 	public void setCachePatterns(boolean cachePatterns) {
 		this.cachePatterns = cachePatterns;
+		if (!cachePatterns) {
+			this.tokenizedPatternCache.clear();
+			this.stringMatcherCache.clear();
+		}
 	}
 
-	private void deactivatePatternCache() {
-		this.cachePatterns = false;
-		this.tokenizedPatternCache.clear();
-		this.stringMatcherCache.clear();
+	/**
+	 * Specify the maximum number of entries for each of the pattern caches,
+	 * unless {@link #setCachePatterns} has been set to {@code true}.
+	 * <p>Default is 65536.
+	 * @since 5.0
+	 */
+	public void setCacheLimit(int cacheLimit) {
+		Assert.isTrue(cacheLimit > 0, "Cache limit must be greater than 0");
+		this.cacheLimit = cacheLimit;
+	}
+
+	/**
+	 * Return the maximum number of entries for each of the pattern caches.
+	 * @since 5.0
+	 */
+	public int getCacheLimit() {
+		return this.cacheLimit;
+	}
+
+	private int getCacheLimit(@Nullable Boolean cachePatterns) {
+		return (cachePatterns != null ? Integer.MAX_VALUE : this.cacheLimit);
 	}
 
 
@@ -181,6 +212,33 @@ public class AntPathMatcher implements PathMatcher {
 		return doMatch(pattern, path, false, null);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation splits the given path into segments once and
+	 * then matches the segments against each pattern in turn.
+	 * @since 5.0
+	 */
+	@Override
+	public boolean match(Collection<String> patterns, String path) {
+		PathSegments pathSegments = null;
+		for (String pattern : patterns) {
+			if (path.startsWith(this.pathSeparator) != pattern.startsWith(this.pathSeparator)) {
+				continue;
+			}
+			TokenizedPattern tokenizedPattern = tokenize(pattern);
+			if (this.caseSensitive && !isPotentialMatch(path, tokenizedPattern.tokens)) {
+				continue;
+			}
+			if (pathSegments == null) {
+				pathSegments = segment(path);
+			}
+			if (doMatch(pattern, tokenizedPattern, pathSegments, true, null)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Actually match the given {@code path} against the given {@code pattern}.
 	 * @param pattern the pattern to match against
@@ -194,17 +252,25 @@ public class AntPathMatcher implements PathMatcher {
 			return false;
 		}
 
-		String[] pattDirs = tokenizePattern(pattern);
-		if (fullMatch && this.caseSensitive && !isPotentialMatch(path, pattDirs)) {
+		TokenizedPattern tokenizedPattern = tokenize(pattern);
+		if (fullMatch && this.caseSensitive && !isPotentialMatch(path, tokenizedPattern.tokens)) {
 			return false;
 		}
 
-		String[] pathDirs = tokenizePath(path);
+		PathSegments pathSegments = segment(path);
+		return doMatch(pattern, tokenizedPattern, pathSegments, fullMatch, uriTemplateVariables);
+	}
+
+	private boolean doMatch(String pattern, TokenizedPattern tokenizedPattern, PathSegments pathSegments,
+			boolean fullMatch, @Nullable Map<String, String> uriTemplateVariables) {
+
+		String path = pathSegments.path;
+		String[] pattDirs = tokenizedPattern.tokens;
 
 		int pattIdxStart = 0;
 		int pattIdxEnd = pattDirs.length - 1;
 		int pathIdxStart = 0;
-		int pathIdxEnd = pathDirs.length - 1;
+		int pathIdxEnd = pathSegments.size() - 1;
 
 		// Match all elements up to the first **
 		while (pattIdxStart <= pattIdxEnd && pathIdxStart <= pathIdxEnd) {
@@ -212,7 +278,7 @@ public class AntPathMatcher implements PathMatcher {
 			if ("**".equals(pattDir)) {
 				break;
 			}
-			if (!matchStrings(pattDir, pathDirs[pathIdxStart], uriTemplateVariables)) {
+			if (!matchStrings(tokenizedPattern, pattIdxStart, pathSegments, pathIdxStart, uriTemplateVariables)) {
 				return false;
 			}
 			pattIdxStart++;
@@ -252,7 +318,7 @@ public class AntPathMatcher implements PathMatcher {
 			if (pattDir.equals("**")) {
 				break;
 			}
-			if (!matchStrings(pattDir, pathDirs[pathIdxEnd], uriTemplateVariables)) {
+			if (!matchStrings(tokenizedPattern, pattIdxEnd, pathSegments, pathIdxEnd, uriTemplateVariables)) {
 				return false;
 			}
 			pattIdxEnd--;
@@ -290,9 +356,8 @@ public class AntPathMatcher implements PathMatcher {
 			strLoop:
 			for (int i = 0; i <= strLength - patLength; i++) {
 				for (int j = 0; j < patLength; j++) {
-					String subPat = pattDirs[pattIdxStart + j + 1];
-					String subStr = pathDirs[pathIdxStart + i + j];
-					if (!matchStrings(subPat, subStr, uriTemplateVariables)) {
+					if (!matchStrings(tokenizedPattern, pattIdxStart + j + 1,
+							pathSegments, pathIdxStart + i + j, uriTemplateVariables)) {
 						continue strLoop;
 					}
 				}
@@ -376,23 +441,29 @@ public class AntPathMatcher implements PathMatcher {
 	 * @return the tokenized pattern parts
 	 */
 	protected String[] tokenizePattern(String pattern) {
-		String[] tokenized = null;
+		return getTokenizedPattern(pattern).tokens;
+	}
+
+	/**
+	 * Tokenize the given pattern through {@link #tokenizePattern} if overridden,
+	 * or through the internal pattern cache otherwise.
+	 */
+	private TokenizedPattern tokenize(String pattern) {
+		if (this.tokenizePatternOverridden) {
+			return new TokenizedPattern(tokenizePattern(pattern));
+		}
+		return getTokenizedPattern(pattern);
+	}
+
+	private TokenizedPattern getTokenizedPattern(String pattern) {
 		Boolean cachePatterns = this.cachePatterns;
-		if (cachePatterns == null || cachePatterns.booleanValue()) {
-			tokenized = this.tokenizedPatternCache.get(pattern);
+		if (cachePatterns != null && !cachePatterns.booleanValue()) {
+			return new TokenizedPattern(pattern);
 		}
+		TokenizedPattern tokenized = this.tokenizedPatternCache.get(pattern);
 		if (tokenized == null) {
-			tokenized = tokenizePath(pattern);
-			if (cachePatterns == null && this.tokenizedPatternCache.size() >= CACHE_TURNOFF_THRESHOLD) {
-				// Try to adapt to the runtime situation that we're encountering:
-				// There are obviously too many different patterns coming in here...
-				// So let's turn off the cache since the patterns are unlikely to be reoccurring.
-				deactivatePatternCache();
-				return tokenized;
-			}
-			if (cachePatterns == null || cachePatterns.booleanValue()) {
-				this.tokenizedPatternCache.put(pattern, tokenized);
-			}
+			tokenized = this.tokenizedPatternCache.put(
+					pattern, new TokenizedPattern(pattern), getCacheLimit(cachePatterns));
 		}
 		return tokenized;
 	}
@@ -407,13 +478,46 @@ public class AntPathMatcher implements PathMatcher {
 	}
 
 	/**
-	 * Test whether or not a string matches against a pattern.
-	 * @param pattern the pattern to match against (never {@code null})
-	 * @param str the String which must be matched against the pattern (never {@code null})
-	 * @return {@code true} if the string matches against the pattern, or {@code false} otherwise
+	 * Split the given path into segments through {@link #tokenizePath} if
+	 * overridden, or without creating a String per segment otherwise.
+	 */
+	private PathSegments segment(String path) {
+		if (this.tokenizePathOverridden) {
+			return new PathSegments(path, tokenizePath(path));
+		}
+		return new PathSegments(path, this.pathSeparator, this.trimTokens);
+	}
+
+	/**
+	 * Determine whether the given tokenization hook is overridden by a subclass,
+	 * in which case matching needs to go through it.
+	 */
+	private boolean isOverridden(String methodName) {
+		for (Class<?> clazz = getClass(); clazz != AntPathMatcher.class; clazz = clazz.getSuperclass()) {
+			try {
+				clazz.getDeclaredMethod(methodName, String.class);
+				return true;
+			}
+			catch (NoSuchMethodException ex) {
+				// Not declared at this level - continue with the superclass
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Test whether or not a path segment matches against a pattern segment.
+	 * @param pattern the tokenized pattern to match against
+	 * @param pattIdx the index of the pattern segment
+	 * @param path the segments of the path which must be matched against the pattern
+	 * @param pathIdx the index of the path segment
+	 * @return {@code true} if the segment matches against the pattern, or {@code false} otherwise
 	 */
-	private boolean matchStrings(String pattern, String str, Map<String, String> uriTemplateVariables) {
-		return getStringMatcher(pattern).matchStrings(str, uriTemplateVariables);
+	private boolean matchStrings(TokenizedPattern pattern, int pattIdx, PathSegments path, int pathIdx,
+			@Nullable Map<String, String> uriTemplateVariables) {
+
+		return pattern.getStringMatcher(pattIdx).matchStrings(
+				path.content, path.getStart(pathIdx), path.getEnd(pathIdx), uriTemplateVariables);
 	}
 
 	/**
@@ -421,32 +525,23 @@ public class AntPathMatcher implements PathMatcher {
 	 * <p>The default implementation checks this AntPathMatcher's internal cache
 	 * (see {@link #setCachePatterns}), creating a new AntPathStringMatcher instance
 	 * if no cached copy is found.
-	 * <p>When encountering too many patterns to cache at runtime (the threshold is 65536),
-	 * it turns the default cache off, assuming that arbitrary permutations of patterns
-	 * are coming in, with little chance for encountering a recurring pattern.
+	 * <p>Unless configured otherwise, the cache is bounded by the
+	 * {@link #setCacheLimit cache limit}, evicting the least recently created
+	 * matchers once the limit is reached.
 	 * <p>This method may be overridden to implement a custom cache strategy.
 	 * @param pattern the pattern to match against (never {@code null})
 	 * @return a corresponding AntPathStringMatcher (never {@code null})
 	 * @see #setCachePatterns
 	 */
 	protected AntPathStringMatcher getStringMatcher(String pattern) {
-		AntPathStringMatcher matcher = null;
 		Boolean cachePatterns = this.cachePatterns;
-		if (cachePatterns == null || cachePatterns.booleanValue()) {
-			matcher = this.stringMatcherCache.get(pattern);
+		if (cachePatterns != null && !cachePatterns.booleanValue()) {
+			return new AntPathStringMatcher(pattern, this.caseSensitive);
 		}
+		AntPathStringMatcher matcher = this.stringMatcherCache.get(pattern);
 		if (matcher == null) {
-			matcher = new AntPathStringMatcher(pattern, this.caseSensitive);
-			if (cachePatterns == null && this.stringMatcherCache.size() >= CACHE_TURNOFF_THRESHOLD) {
-				// Try to adapt to the runtime situation that we're encountering:
-				// There are obviously too many different patterns coming in here...
-				// So let's turn off the cache since the patterns are unlikely to be reoccurring.
-				deactivatePatternCache();
-				return matcher;
-			}
-			if (cachePatterns == null || cachePatterns.booleanValue()) {
-				this.stringMatcherCache.put(pattern, matcher);
-			}
+			matcher = this.stringMatcherCache.put(
+					pattern, new AntPathStringMatcher(pattern, this.caseSensitive), getCacheLimit(cachePatterns));
 		}
 		return matcher;
 	}
@@ -625,6 +720,8 @@ public class AntPathMatcher implements PathMatcher {
 
 		private final Pattern pattern;
 
+		private final String literal;
+
 		private final List<String> variableNames = new LinkedList<>();
 
 		public AntPathStringMatcher(String pattern) {
@@ -634,8 +731,10 @@ public class AntPathMatcher implements PathMatcher {
 		public AntPathStringMatcher(String pattern, boolean caseSensitive) {
 			StringBuilder patternBuilder = new StringBuilder();
 			Matcher matcher = GLOB_PATTERN.matcher(pattern);
+			boolean literal = true;
 			int end = 0;
 			while (matcher.find()) {
+				literal = false;
 				patternBuilder.append(quote(pattern, end, matcher.start()));
 				String match = matcher.group();
 				if ("?".equals(match)) {
@@ -664,6 +763,8 @@ public class AntPathMatcher implements PathMatcher {
 			patternBuilder.append(quote(pattern, end, pattern.length()));
 			this.pattern = (caseSensitive ? Pattern.compile(patternBuilder.toString()) :
 					Pattern.compile(patternBuilder.toString(), Pattern.CASE_INSENSITIVE));
+			// Case-sensitive literal segments can be compared without the regex engine
+			this.literal = (literal && caseSensitive ? pattern : null);
 		}
 
 		private String quote(String s, int start, int end) {
@@ -677,8 +778,29 @@ public class AntPathMatcher implements PathMatcher {
 		 * Main entry point.
 		 * @return {@code true} if the string matches against the pattern, or {@code false} otherwise.
 		 */
-		public boolean matchStrings(String str, Map<String, String> uriTemplateVariables) {
+		public boolean matchStrings(String str, @Nullable Map<String, String> uriTemplateVariables) {
+			return matchStrings(str, 0, str.length(), uriTemplateVariables);
+		}
+
+		/**
+		 * Variant of {@link #matchStrings(String, Map)} that matches a region
+		 * of the given string, avoiding the need to extract it first.
+		 * @param str the string containing the region to match
+		 * @param start the start index of the region (inclusive)
+		 * @param end the end index of the region (exclusive)
+		 * @param uriTemplateVariables a map to expose URI template variables in, if any
+		 * @return {@code true} if the region matches against the pattern, or {@code false} otherwise
+		 * @since 5.0
+		 */
+		public boolean matchStrings(String str, int start, int end,
+				@Nullable Map<String, String> uriTemplateVariables) {
+
+			if (this.literal != null) {
+				return (this.literal.length() == end - start &&
+						str.regionMatches(start, this.literal, 0, this.literal.length()));
+			}
 			Matcher matcher = this.pattern.matcher(str);
+			matcher.region(start, end);
 			if (matcher.matches()) {
 				if (uriTemplateVariables != null) {
 					// SPR-8455
@@ -908,4 +1030,166 @@ public class AntPathMatcher implements PathMatcher {
 		}
 	}
 
+
+	/**
+	 * A pattern tokenized into its segments, along with the
+	 * {@link AntPathStringMatcher} for each segment once needed.
+	 */
+	private final class TokenizedPattern {
+
+		private final String[] tokens;
+
+		private final AntPathStringMatcher[] stringMatchers;
+
+		public TokenizedPattern(String pattern) {
+			this(tokenizePath(pattern));
+		}
+
+		public TokenizedPattern(String[] tokens) {
+			this.tokens = tokens;
+			this.stringMatchers = new AntPathStringMatcher[this.tokens.length];
+		}
+
+		public AntPathStringMatcher getStringMatcher(int index) {
+			AntPathStringMatcher matcher = this.stringMatchers[index];
+			if (matcher == null) {
+				matcher = AntPathMatcher.this.getStringMatcher(this.tokens[index]);
+				this.stringMatchers[index] = matcher;
+			}
+			return matcher;
+		}
+	}
+
+
+	/**
+	 * The segments of a path, held as start and end offsets into the path
+	 * rather than as separate Strings. Follows the same rules as
+	 * {@link #tokenizePath(String)}: any character of the path separator
+	 * delimits segments, empty segments are ignored, and segments are
+	 * trimmed if required.
+	 * <p>Alternatively, holds the segments produced by an overridden
+	 * {@link #tokenizePath(String)}, concatenated into a single String.
+	 */
+	private static final class PathSegments {
+
+		private final String path;
+
+		private final String content;
+
+		private final int[] offsets;
+
+		private final int size;
+
+		public PathSegments(String path, String pathSeparator, boolean trimTokens) {
+			int length = path.length();
+			// Each segment takes at least one character plus a separator
+			int[] offsets = new int[length + 1];
+			int size = 0;
+			int pos = 0;
+			while (pos < length) {
+				while (pos < length && pathSeparator.indexOf(path.charAt(pos)) != -1) {
+					pos++;
+				}
+				int start = pos;
+				while (pos < length && pathSeparator.indexOf(path.charAt(pos)) == -1) {
+					pos++;
+				}
+				int end = pos;
+				if (trimTokens) {
+					while (start < end && path.charAt(start) <= ' ') {
+						start++;
+					}
+					while (end > start && path.charAt(end - 1) <= ' ') {
+						end--;
+					}
+				}
+				if (start < end) {
+					offsets[size * 2] = start;
+					offsets[size * 2 + 1] = end;
+					size++;
+				}
+			}
+			this.path = path;
+			this.content = path;
+			this.offsets = offsets;
+			this.size = size;
+		}
+
+		public PathSegments(String path, String[] segments) {
+			StringBuilder content = new StringBuilder(path.length());
+			int[] offsets = new int[segments.length * 2];
+			for (int i = 0; i < segments.length; i++) {
+				offsets[i * 2] = content.length();
+				content.append(segments[i]);
+				offsets[i * 2 + 1] = content.length();
+			}
+			this.path = path;
+			this.content = content.toString();
+			this.offsets = offsets;
+			this.size = segments.length;
+		}
+
+		public int size() {
+			return this.size;
+		}
+
+		public int getStart(int index) {
+			return this.offsets[index * 2];
+		}
+
+		public int getEnd(int index) {
+			return this.offsets[index * 2 + 1];
+		}
+	}
+
+
+	/**
+	 * Bounded cache for parsed pattern metadata, with concurrent access
+	 * and synchronized creation, evicting the least recently created
+	 * entries once the given limit is exceeded.
+	 */
+	static class PatternCache<T> {
+
+		private final Map<String, T> accessCache = new ConcurrentHashMap<>(256);
+
+		private final Map<String, T> creationCache = new LinkedHashMap<>(256, 0.75f, true);
+
+		@Nullable
+		public T get(String key) {
+			return this.accessCache.get(key);
+		}
+
+		public T put(String key, T value, int limit) {
+			synchronized (this.creationCache) {
+				T existing = this.creationCache.get(key);
+				if (existing != null) {
+					return existing;
+				}
+				this.creationCache.put(key, value);
+				this.accessCache.put(key, value);
+				if (this.creationCache.size() > limit) {
+					Iterator<String> it = this.creationCache.keySet().iterator();
+					this.accessCache.remove(it.next());
+					it.remove();
+				}
+				return value;
+			}
+		}
+
+		public int size() {
+			return this.accessCache.size();
+		}
+
+		public boolean isEmpty() {
+			return this.accessCache.isEmpty();
+		}
+
+		public void clear() {
+			synchronized (this.creationCache) {
+				this.creationCache.clear();
+				this.accessCache.clear();
+			}
+		}
+	}
+
 }
@@ -102,6 +102,19 @@ public abstract class DigestUtils {
 		return appendDigestAsHex(MD5_ALGORITHM_NAME, inputStream, builder);
 	}
 
+	/**
+	 * Append a hexadecimal string representation of the given, already calculated
+	 * digest to the given {@link StringBuilder}, e.g. for a digest that has been
+	 * updated incrementally through a {@link MessageDigest}.
+	 * @param digest the digest to append
+	 * @param builder the string builder to append the digest to
+	 * @return the given string builder
+	 * @since 5.0
+	 */
+	public static StringBuilder appendDigestAsHex(byte[] digest, StringBuilder builder) {
+		return builder.append(encodeHex(digest));
+	}
+
 
 	/**
 	 * Create a new {@link MessageDigest} with the given algorithm.
@@ -169,7 +182,7 @@ public abstract class DigestUtils {
 	}
 
 	private static char[] encodeHex(byte[] bytes) {
-		char chars[] = new char[32];
+		char chars[] = new char[bytes.length * 2];
 		for (int i = 0; i < chars.length; i = i + 2) {
 			byte b = bytes[i / 2];
 			chars[i] = HEX_CHARS[(b >>> 0x4) & 0xf];
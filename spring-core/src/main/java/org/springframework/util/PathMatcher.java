@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.util;
 
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.Map;
 
@@ -68,6 +69,27 @@ public interface PathMatcher {
 	 */
 	boolean matchStart(String pattern, String path);
 
+	/**
+	 * Match the given {@code path} against each of the given {@code patterns},
+	 * according to this PathMatcher's matching strategy.
+	 * <p>The default implementation delegates to {@link #match(String, String)}
+	 * for each pattern. Implementations may override this in order to prepare
+	 * the path only once for all patterns.
+	 * @param patterns the patterns to match against
+	 * @param path the path String to test
+	 * @return {@code true} if the supplied {@code path} matched any of the
+	 * given patterns, {@code false} if it didn't
+	 * @since 5.0
+	 */
+	default boolean match(Collection<String> patterns, String path) {
+		for (String pattern : patterns) {
+			if (match(pattern, path)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Given a pattern and a full path, determine the pattern-mapped part.
 	 * <p>This method is supposed to find out which part of the path is matched
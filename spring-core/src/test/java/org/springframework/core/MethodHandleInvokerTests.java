@@ -0,0 +1,107 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link MethodHandleInvoker}.
+ *
+ * @since 5.0
+ */
+public class MethodHandleInvokerTests {
+
+	@Test
+	public void invokeInstanceMethod() throws Throwable {
+		MethodHandleInvoker invoker = MethodHandleInvoker.forMethod(
+				TestBean.class.getMethod("concat", String.class, int.class));
+		assertNotNull(invoker);
+		Object[] args = new Object[] {"foo", 42};
+		assertTrue(invoker.isApplicable(new TestBean(), args));
+		assertEquals("foo42", invoker.invoke(new TestBean(), args));
+	}
+
+	@Test
+	public void invokeVoidAndStaticMethods() throws Throwable {
+		MethodHandleInvoker invoker = MethodHandleInvoker.forMethod(TestBean.class.getMethod("doNothing"));
+		assertNull(invoker.invoke(new TestBean(), new Object[0]));
+
+		invoker = MethodHandleInvoker.forMethod(TestBean.class.getMethod("twice", int.class));
+		assertTrue(invoker.isApplicable(null, new Object[] {21}));
+		assertEquals(42, invoker.invoke(null, new Object[] {21}));
+	}
+
+	@Test
+	public void invokeNonPublicMethod() throws Throwable {
+		Method method = TestBean.class.getDeclaredMethod("hidden");
+		MethodHandleInvoker invoker = MethodHandleInvoker.forMethod(method);
+		assertEquals("hidden", invoker.invoke(new TestBean(), new Object[0]));
+	}
+
+	@Test
+	public void sharedPerMethod() throws Exception {
+		Method method = TestBean.class.getMethod("doNothing");
+		assertSame(MethodHandleInvoker.forMethod(method), MethodHandleInvoker.forMethod(method));
+	}
+
+	@Test
+	public void isApplicable() throws Exception {
+		MethodHandleInvoker invoker = MethodHandleInvoker.forMethod(
+				TestBean.class.getMethod("concat", String.class, int.class));
+		assertFalse(invoker.isApplicable(new Object(), new Object[] {"foo", 42}));
+		assertFalse(invoker.isApplicable(null, new Object[] {"foo", 42}));
+		assertFalse(invoker.isApplicable(new TestBean(), new Object[] {"foo"}));
+		assertFalse(invoker.isApplicable(new TestBean(), new Object[] {"foo", 42L}));
+		assertFalse(invoker.isApplicable(new TestBean(), new Object[] {"foo", null}));
+		assertTrue(invoker.isApplicable(new TestBean(), new Object[] {null, 42}));
+	}
+
+	@Test(expected = IOException.class)
+	public void exceptionNotWrapped() throws Throwable {
+		MethodHandleInvoker invoker = MethodHandleInvoker.forMethod(TestBean.class.getMethod("fail"));
+		invoker.invoke(new TestBean(), new Object[0]);
+	}
+
+
+	public static class TestBean {
+
+		public String concat(String prefix, int value) {
+			return prefix + value;
+		}
+
+		public void doNothing() {
+		}
+
+		public static int twice(int value) {
+			return value * 2;
+		}
+
+		public void fail() throws IOException {
+			throw new IOException("failure");
+		}
+
+		private String hidden() {
+			return "hidden";
+		}
+	}
+
+}
@@ -26,6 +26,7 @@ import reactor.test.StepVerifier;
 
 import org.springframework.core.ResolvableType;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
@@ -74,4 +75,28 @@ public class ResourceEncoderTests extends AbstractDataBufferAllocatingTestCase {
 				.verify();
 	}
 
+	@Test
+	public void encodeFileResourceMappedAboveThreshold() throws Exception {
+		Resource resource = new ClassPathResource("ResourceRegionEncoderTests.txt", getClass());
+		assertFalse("Mapped by default", isMapped(resource));
+
+		this.encoder.setMappedFileThreshold(resource.contentLength() + 1);
+		assertFalse("Mapped below threshold", isMapped(resource));
+
+		this.encoder.setMappedFileThreshold(resource.contentLength());
+		assertTrue("Not mapped at threshold", isMapped(resource));
+	}
+
+	private boolean isMapped(Resource resource) {
+		DataBuffer buffer = this.encoder.encode(Mono.just(resource), this.bufferFactory,
+				ResolvableType.forClass(Resource.class), null, Collections.emptyMap()).blockFirst();
+		try {
+			// Memory-mapped regions are read-only, unlike buffers read into
+			return buffer.asByteBuffer().isReadOnly();
+		}
+		finally {
+			release(buffer);
+		}
+	}
+
 }
\ No newline at end of file
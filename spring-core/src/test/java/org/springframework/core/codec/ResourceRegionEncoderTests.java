@@ -79,12 +79,46 @@ public class ResourceRegionEncoderTests extends AbstractDataBufferAllocatingTest
 				new ClassPathResource("ResourceRegionEncoderTests.txt", getClass()));
 	}
 
+	@Test
+	public void shouldEncodeResourceRegionMappedFileResource() throws Exception {
+		this.encoder.setMappedFileThreshold(0);
+		shouldEncodeResourceRegion(
+				new ClassPathResource("ResourceRegionEncoderTests.txt", getClass()));
+	}
+
+	@Test
+	public void shouldReadFileResourceMappedAboveThreshold() throws Exception {
+		Resource resource = new ClassPathResource("ResourceRegionEncoderTests.txt", getClass());
+		assertFalse("Mapped by default", isMapped(resource));
+
+		this.encoder.setMappedFileThreshold(resource.contentLength() + 1);
+		assertFalse("Mapped below threshold", isMapped(resource));
+
+		this.encoder.setMappedFileThreshold(resource.contentLength());
+		assertTrue("Not mapped at threshold", isMapped(resource));
+	}
+
 	@Test
 	public void shouldEncodeResourceRegionByteArrayResource() throws Exception {
 		String content = "Spring Framework test resource content.";
 		shouldEncodeResourceRegion(new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8)));
 	}
 
+	private boolean isMapped(Resource resource) {
+		ResourceRegion region = new ResourceRegion(resource, 0, 6);
+		DataBuffer buffer = this.encoder.encode(Mono.just(region), this.bufferFactory,
+				ResolvableType.forClass(ResourceRegion.class),
+				MimeTypeUtils.APPLICATION_OCTET_STREAM,
+				Collections.emptyMap()).blockFirst();
+		try {
+			// Memory-mapped regions are read-only, unlike buffers read into
+			return buffer.asByteBuffer().isReadOnly();
+		}
+		finally {
+			release(buffer);
+		}
+	}
+
 	private void shouldEncodeResourceRegion(Resource resource) {
 		ResourceRegion region = new ResourceRegion(resource, 0, 6);
 		Flux<DataBuffer> result = this.encoder.encode(Mono.just(region), this.bufferFactory,
@@ -16,6 +16,8 @@
 
 package org.springframework.core.codec;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 
 import org.junit.Test;
@@ -84,6 +86,47 @@ public class StringDecoderTests extends AbstractDataBufferAllocatingTestCase {
 
 	}
 
+	@Test
+	public void decodeNewLineAcrossBuffers() throws InterruptedException {
+		Flux<DataBuffer> source = Flux.just(stringBuffer("fo"), stringBuffer("o\nb"),
+				stringBuffer("a"), stringBuffer("r\nbaz"));
+		Flux<String> output = this.decoder.decode(source, ResolvableType.forClass(String.class),
+				null, Collections.emptyMap());
+
+		StepVerifier.create(output)
+				.expectNext("foo\n", "bar\n", "baz")
+				.expectComplete()
+				.verify();
+	}
+
+	@Test
+	public void decodeMultiByteCharacterAcrossBuffers() throws InterruptedException {
+		byte[] bytes = "\u00e9t\u00e9\n".getBytes(StandardCharsets.UTF_8);
+		Flux<DataBuffer> source = Flux.just(
+				this.bufferFactory.wrap(Arrays.copyOfRange(bytes, 0, 1)),
+				this.bufferFactory.wrap(Arrays.copyOfRange(bytes, 1, bytes.length)));
+		Flux<String> output = this.decoder.decode(source, ResolvableType.forClass(String.class),
+				null, Collections.emptyMap());
+
+		StepVerifier.create(output)
+				.expectNext("\u00e9t\u00e9\n")
+				.expectComplete()
+				.verify();
+	}
+
+	@Test
+	public void decodeMaxLineLength() throws InterruptedException {
+		this.decoder.setMaxLineLength(5);
+		Flux<DataBuffer> source = Flux.just(stringBuffer("foo\nba"), stringBuffer("rbaz\n"));
+		Flux<String> output = this.decoder.decode(source, ResolvableType.forClass(String.class),
+				null, Collections.emptyMap());
+
+		StepVerifier.create(output)
+				.expectNext("foo\n")
+				.expectError(DecodingException.class)
+				.verify();
+	}
+
 	@Test
 	public void decodeEmptyFlux() throws InterruptedException {
 		Flux<DataBuffer> source = Flux.empty();
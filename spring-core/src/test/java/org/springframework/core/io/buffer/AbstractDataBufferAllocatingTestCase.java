@@ -46,7 +46,9 @@ public abstract class AbstractDataBufferAllocatingTestCase {
 				{new NettyDataBufferFactory(new PooledByteBufAllocator(true))},
 				{new NettyDataBufferFactory(new PooledByteBufAllocator(false))},
 				{new DefaultDataBufferFactory(true)},
-				{new DefaultDataBufferFactory(false)}
+				{new DefaultDataBufferFactory(false)},
+				{new PoolingDataBufferFactory(true)},
+				{new PoolingDataBufferFactory(false)}
 
 		};
 	}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import org.springframework.core.io.buffer.support.DataBufferTestUtils;
+import org.springframework.util.StreamUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link CompositeDataBuffer}.
+ */
+public class CompositeDataBufferTests {
+
+	private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+
+	@Test
+	public void joinSingleBuffer() {
+		DataBuffer foo = stringBuffer("foo");
+		assertSame(foo, this.bufferFactory.join(Arrays.asList(foo)));
+	}
+
+	@Test
+	public void joinSharesContent() {
+		DefaultDataBuffer foo = stringBuffer("foo");
+		CompositeDataBuffer composite = join(foo, stringBuffer("bar"));
+		assertEquals(2, composite.getSegmentCount());
+
+		foo.getNativeBuffer().put(0, (byte) 'g');
+		assertEquals("goobar", DataBufferTestUtils.dumpString(composite, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void indexOf() {
+		CompositeDataBuffer composite = join(stringBuffer("a,b"), stringBuffer(""), stringBuffer(",c,"));
+		assertEquals(1, composite.indexOf(b -> b == ',', 0));
+		assertEquals(3, composite.indexOf(b -> b == ',', 2));
+		assertEquals(5, composite.indexOf(b -> b == ',', 4));
+		assertEquals(-1, composite.indexOf(b -> b == ',', 6));
+
+		assertEquals(5, composite.lastIndexOf(b -> b == ',', 10));
+		assertEquals(3, composite.lastIndexOf(b -> b == ',', 4));
+		assertEquals(1, composite.lastIndexOf(b -> b == ',', 2));
+		assertEquals(-1, composite.lastIndexOf(b -> b == ',', 0));
+	}
+
+	@Test
+	public void readAcrossSegments() {
+		CompositeDataBuffer composite = join(stringBuffer("foo"), stringBuffer("bar"), stringBuffer("baz"));
+		assertEquals('f', composite.read());
+
+		byte[] bytes = new byte[4];
+		composite.read(bytes);
+		assertArrayEquals("ooba".getBytes(StandardCharsets.UTF_8), bytes);
+		assertEquals(4, composite.readableByteCount());
+
+		bytes = new byte[10];
+		composite.read(bytes, 0, 10);
+		assertEquals("rbaz", new String(bytes, 0, 4, StandardCharsets.UTF_8));
+		assertEquals(0, composite.readableByteCount());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void readBeyondWritePosition() {
+		CompositeDataBuffer composite = join(stringBuffer("f"), stringBuffer("o"));
+		composite.read(new byte[2]);
+		composite.read();
+	}
+
+	@Test
+	public void writeAppendsWithoutModifyingComponents() {
+		DataBuffer foo = stringBuffer("foo");
+		CompositeDataBuffer composite = join(foo, stringBuffer("bar"));
+		composite.write((byte) '-');
+		composite.write("baz".getBytes(StandardCharsets.UTF_8));
+		composite.write(ByteBuffer.wrap("!".getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(3, composite.getSegmentCount());
+		assertEquals(3, foo.readableByteCount());
+		assertEquals("foobar-baz!", DataBufferTestUtils.dumpString(composite, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void asByteBufferSingleSegmentIsShared() {
+		DefaultDataBuffer foo = stringBuffer("foo");
+		CompositeDataBuffer composite = join(foo, stringBuffer("bar"));
+		composite.read(new byte[1]);
+
+		ByteBuffer byteBuffer = composite.slice(0, 2).asByteBuffer();
+		assertEquals(2, byteBuffer.remaining());
+		foo.getNativeBuffer().put(1, (byte) 'i');
+		assertEquals('i', byteBuffer.get(1));
+	}
+
+	@Test
+	public void asByteBufferMultipleSegments() {
+		CompositeDataBuffer composite = join(stringBuffer("foo"), stringBuffer("bar"));
+		composite.read(new byte[1]);
+
+		ByteBuffer byteBuffer = composite.asByteBuffer();
+		byte[] bytes = new byte[byteBuffer.remaining()];
+		byteBuffer.get(bytes);
+		assertArrayEquals("oobar".getBytes(StandardCharsets.UTF_8), bytes);
+		assertEquals(5, composite.readableByteCount());
+	}
+
+	@Test
+	public void inputAndOutputStream() throws IOException {
+		CompositeDataBuffer composite = join(stringBuffer("foo"), stringBuffer("bar"));
+		OutputStream outputStream = composite.asOutputStream();
+		outputStream.write("baz".getBytes(StandardCharsets.UTF_8));
+
+		InputStream inputStream = composite.asInputStream();
+		assertEquals(9, inputStream.available());
+		assertEquals("foobarbaz", StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8));
+		assertEquals(-1, inputStream.read());
+	}
+
+	@Test
+	public void releaseReleasesComponents() {
+		PoolingDataBufferFactory poolingFactory = new PoolingDataBufferFactory();
+		DataBuffer foo = poolingFactory.allocateBuffer(3).write("foo".getBytes(StandardCharsets.UTF_8));
+		DataBuffer bar = poolingFactory.allocateBuffer(3).write("bar".getBytes(StandardCharsets.UTF_8));
+		DataBuffer composite = poolingFactory.join(Arrays.asList(foo, bar));
+		assertTrue(composite instanceof CompositeDataBuffer);
+
+		DataBuffer slice = DataBufferUtils.retain(composite.slice(1, 4));
+		assertFalse(DataBufferUtils.release(composite));
+		assertEquals(2, poolingFactory.getActiveCount());
+
+		assertEquals("ooba", DataBufferTestUtils.dumpString(slice, StandardCharsets.UTF_8));
+		assertTrue(DataBufferUtils.release(slice));
+		assertEquals(0, poolingFactory.getActiveCount());
+	}
+
+
+	private DefaultDataBuffer stringBuffer(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(Math.max(bytes.length, 1));
+		buffer.write(bytes);
+		return buffer;
+	}
+
+	private CompositeDataBuffer join(DataBuffer... buffers) {
+		return (CompositeDataBuffer) this.bufferFactory.join(Arrays.asList(buffers));
+	}
+
+}
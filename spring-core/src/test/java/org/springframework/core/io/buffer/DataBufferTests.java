@@ -282,5 +282,68 @@ public class DataBufferTests extends AbstractDataBufferAllocatingTestCase {
 		assertArrayEquals(" World!!!".getBytes(StandardCharsets.UTF_8), bytes);
 	}
 
+	@Test
+	public void join() {
+		DataBuffer composite = this.bufferFactory.join(Arrays.asList(stringBuffer("a"),
+				stringBuffer("b"), stringBuffer("c")));
+		assertEquals(3, composite.readableByteCount());
+		assertEquals(1, composite.indexOf(b -> b == 'b', 0));
+		assertEquals(1, composite.lastIndexOf(b -> b == 'b', 2));
+
+		byte[] bytes = new byte[3];
+		composite.read(bytes);
+
+		assertArrayEquals(new byte[] {'a','b','c'}, bytes);
+
+		release(composite);
+	}
+
+	@Test
+	public void joinSlice() {
+		DataBuffer composite = this.bufferFactory.join(Arrays.asList(stringBuffer("foo"),
+				stringBuffer("bar"), stringBuffer("baz")));
+		DataBuffer slice = composite.slice(2, 5);
+		assertEquals(5, slice.readableByteCount());
+
+		byte[] bytes = new byte[5];
+		slice.read(bytes);
+
+		assertArrayEquals("obarb".getBytes(StandardCharsets.UTF_8), bytes);
+
+		release(composite);
+	}
+
+	@Test
+	public void joinWithDefaultMethod() {
+		DataBufferFactory bufferFactory = new DataBufferFactory() {
+			@Override
+			public DataBuffer allocateBuffer() {
+				return DataBufferTests.this.bufferFactory.allocateBuffer();
+			}
+			@Override
+			public DataBuffer allocateBuffer(int initialCapacity) {
+				return DataBufferTests.this.bufferFactory.allocateBuffer(initialCapacity);
+			}
+			@Override
+			public DataBuffer wrap(ByteBuffer byteBuffer) {
+				return DataBufferTests.this.bufferFactory.wrap(byteBuffer);
+			}
+			@Override
+			public DataBuffer wrap(byte[] bytes) {
+				return DataBufferTests.this.bufferFactory.wrap(bytes);
+			}
+		};
+		DataBuffer joined = bufferFactory.join(Arrays.asList(stringBuffer("foo"),
+				stringBuffer("bar"), stringBuffer("baz")));
+		assertEquals(9, joined.readableByteCount());
+
+		byte[] bytes = new byte[9];
+		joined.read(bytes);
+
+		assertArrayEquals("foobarbaz".getBytes(StandardCharsets.UTF_8), bytes);
+
+		release(joined);
+	}
+
 
 }
\ No newline at end of file
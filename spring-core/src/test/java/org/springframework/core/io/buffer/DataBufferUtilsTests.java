@@ -20,11 +20,14 @@ import java.io.InputStream;
 import java.net.URI;
 import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 
 import org.junit.Test;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import static org.junit.Assert.assertFalse;
@@ -112,6 +115,52 @@ public class DataBufferUtilsTests extends AbstractDataBufferAllocatingTestCase {
 				.verify();
 	}
 
+	@Test
+	public void readMappedPath() throws Exception {
+		Path path = Paths.get(DataBufferUtilsTests.class.getResource("DataBufferUtilsTests.txt").toURI());
+		Flux<DataBuffer> flux = DataBufferUtils.readMapped(path, this.bufferFactory, 3);
+
+		StepVerifier.create(flux)
+				.consumeNextWith(stringConsumer("foo"))
+				.consumeNextWith(stringConsumer("bar"))
+				.consumeNextWith(stringConsumer("baz"))
+				.consumeNextWith(stringConsumer("qux"))
+				.expectComplete()
+				.verify();
+	}
+
+	@Test
+	public void readMappedPathPosition() throws Exception {
+		Path path = Paths.get(DataBufferUtilsTests.class.getResource("DataBufferUtilsTests.txt").toURI());
+		Flux<DataBuffer> flux = DataBufferUtils.readMapped(path, 3, this.bufferFactory, 5);
+
+		StepVerifier.create(flux)
+				.consumeNextWith(stringConsumer("barba"))
+				.consumeNextWith(stringConsumer("zqux"))
+				.expectComplete()
+				.verify();
+	}
+
+	@Test
+	public void readMappedPathPositionAtEnd() throws Exception {
+		Path path = Paths.get(DataBufferUtilsTests.class.getResource("DataBufferUtilsTests.txt").toURI());
+		Flux<DataBuffer> flux = DataBufferUtils.readMapped(path, 12, this.bufferFactory, 3);
+
+		StepVerifier.create(flux)
+				.expectComplete()
+				.verify();
+	}
+
+	@Test
+	public void readMappedPathNonExistent() throws Exception {
+		Path path = Paths.get("non-existent.txt");
+		Flux<DataBuffer> flux = DataBufferUtils.readMapped(path, this.bufferFactory, 3);
+
+		StepVerifier.create(flux)
+				.expectError(NoSuchFileException.class)
+				.verify();
+	}
+
 	@Test
 	public void takeUntilByteCount() throws Exception {
 		DataBuffer foo = stringBuffer("foo");
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import org.springframework.core.io.buffer.support.DataBufferTestUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link PoolingDataBufferFactory}.
+ */
+public class PoolingDataBufferFactoryTests {
+
+	private final PoolingDataBufferFactory bufferFactory =
+			new PoolingDataBufferFactory(false, 256, 256, 4096, 4, 2);
+
+
+	@Test
+	public void allocateRoundsUpToSizeClass() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(300);
+		assertTrue(buffer instanceof PooledDataBuffer);
+		assertEquals(512, buffer.getNativeBuffer().capacity());
+		assertEquals(0, buffer.readableByteCount());
+		DataBufferUtils.release(buffer);
+	}
+
+	@Test
+	public void releasedMemoryIsReused() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(100);
+		buffer.write("foo".getBytes(StandardCharsets.UTF_8));
+		ByteBuffer nativeBuffer = buffer.getNativeBuffer();
+		assertTrue(DataBufferUtils.release(buffer));
+
+		DefaultDataBuffer other = this.bufferFactory.allocateBuffer(200);
+		assertSame(nativeBuffer, other.getNativeBuffer());
+		assertEquals(0, other.readableByteCount());
+		assertEquals(1, this.bufferFactory.getReuseCount());
+		DataBufferUtils.release(other);
+	}
+
+	@Test
+	public void retainDefersRecycling() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(100);
+		ByteBuffer nativeBuffer = buffer.getNativeBuffer();
+		DataBufferUtils.retain(buffer);
+		assertFalse(DataBufferUtils.release(buffer));
+
+		DefaultDataBuffer other = this.bufferFactory.allocateBuffer(100);
+		assertNotSame(nativeBuffer, other.getNativeBuffer());
+		assertTrue(DataBufferUtils.release(buffer));
+		assertTrue(DataBufferUtils.release(other));
+		assertEquals(0, this.bufferFactory.getActiveCount());
+	}
+
+	@Test
+	public void growRecyclesPreviousMemory() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(256);
+		ByteBuffer nativeBuffer = buffer.getNativeBuffer();
+		byte[] bytes = new byte[300];
+		buffer.write(bytes);
+		assertEquals(300, buffer.readableByteCount());
+		assertEquals(512, buffer.getNativeBuffer().capacity());
+
+		DefaultDataBuffer other = this.bufferFactory.allocateBuffer(10);
+		assertSame(nativeBuffer, other.getNativeBuffer());
+		DataBufferUtils.release(buffer);
+		DataBufferUtils.release(other);
+		assertEquals(0, this.bufferFactory.getActiveCount());
+	}
+
+	@Test
+	public void sliceSharesReferenceCount() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		buffer.write("foobar".getBytes(StandardCharsets.UTF_8));
+		DataBuffer slice = buffer.slice(3, 3);
+		assertEquals("bar", DataBufferTestUtils.dumpString(slice, StandardCharsets.UTF_8));
+
+		DataBufferUtils.retain(slice);
+		assertFalse(DataBufferUtils.release(buffer));
+		assertTrue(DataBufferUtils.release(slice));
+	}
+
+	@Test
+	public void growKeepsMemoryOfSlices() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(256);
+		ByteBuffer nativeBuffer = buffer.getNativeBuffer();
+		buffer.write("foobar".getBytes(StandardCharsets.UTF_8));
+		DataBuffer slice = buffer.slice(3, 3);
+		buffer.write(new byte[300]);
+		assertEquals(512, buffer.getNativeBuffer().capacity());
+
+		DefaultDataBuffer other = this.bufferFactory.allocateBuffer(10);
+		assertNotSame(nativeBuffer, other.getNativeBuffer());
+		other.write("xyz".getBytes(StandardCharsets.UTF_8));
+		assertEquals("bar", DataBufferTestUtils.dumpString(slice, StandardCharsets.UTF_8));
+
+		DataBufferUtils.release(buffer);
+		DataBufferUtils.release(other);
+		assertEquals(0, this.bufferFactory.getActiveCount());
+	}
+
+	@Test
+	public void largeBuffersAreNotPooled() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(5000);
+		assertEquals(5000, buffer.getNativeBuffer().capacity());
+		assertTrue(DataBufferUtils.release(buffer));
+		assertEquals(0, this.bufferFactory.getIdleCount());
+	}
+
+	@Test
+	public void arenaIsBoundedBeyondThreadCache() {
+		DataBuffer[] buffers = new DataBuffer[10];
+		for (int i = 0; i < buffers.length; i++) {
+			buffers[i] = this.bufferFactory.allocateBuffer(256);
+		}
+		for (DataBuffer buffer : buffers) {
+			DataBufferUtils.release(buffer);
+		}
+		// 2 kept in the thread-local cache, 4 in the arena, the rest dropped
+		assertEquals(4, this.bufferFactory.getIdleCount());
+		assertEquals(0, this.bufferFactory.getActiveCount());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void writeAfterRelease() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		DataBufferUtils.release(buffer);
+		buffer.write((byte) 'a');
+	}
+
+	@Test
+	public void leakDetection() throws Exception {
+		this.bufferFactory.setLeakDetection(true);
+		this.bufferFactory.allocateBuffer(10);
+		DataBuffer released = this.bufferFactory.allocateBuffer(10);
+		DataBufferUtils.release(released);
+
+		for (int i = 0; i < 50 && this.bufferFactory.getLeakCount() == 0; i++) {
+			System.gc();
+			Thread.sleep(20);
+		}
+		assertEquals(1, this.bufferFactory.getLeakCount());
+	}
+
+}
@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Ignore;
 import org.junit.Test;
@@ -118,6 +119,25 @@ public class PathMatchingResourcePatternResolverTests {
 		assertTrue("Could not find aspectj_1_5_0.dtd in the root of the aspectjweaver jar", found);
 	}
 
+	@Test
+	public void classpathStarWithPatternAndForkJoinPool() throws Exception {
+		ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+		try {
+			PathMatchingResourcePatternResolver parallelResolver = new PathMatchingResourcePatternResolver();
+			parallelResolver.setForkJoinPool(forkJoinPool);
+			for (String pattern : new String[] {"classpath*:org/springframework/core/io/sup*/*.class",
+					"classpath*:META-INF/*.MF"}) {
+				Resource[] expected = resolver.getResources(pattern);
+				assertTrue("No resources found for " + pattern, expected.length > 0);
+				assertArrayEquals(expected, parallelResolver.getResources(pattern));
+				assertArrayEquals(expected, forkJoinPool.submit(() -> parallelResolver.getResources(pattern)).get());
+			}
+		}
+		finally {
+			forkJoinPool.shutdown();
+		}
+	}
+
 
 	private void assertProtocolAndFilenames(Resource[] resources, String protocol, String... filenames)
 			throws IOException {
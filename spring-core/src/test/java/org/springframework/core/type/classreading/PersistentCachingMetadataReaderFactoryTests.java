@@ -0,0 +1,186 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.AnnotationMetadataTests;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link PersistentCachingMetadataReaderFactory}.
+ *
+ * @since 5.0
+ */
+public class PersistentCachingMetadataReaderFactoryTests {
+
+	private static final String CLASS_NAME = AnnotationMetadataTests.class.getName() + "$AnnotatedComponent";
+
+	private static final String CLASS_FILE = ClassUtils.convertClassNameToResourcePath(CLASS_NAME) + ".class";
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File jarFile;
+
+	private File cacheDirectory;
+
+	private final AtomicInteger reads = new AtomicInteger();
+
+
+	@Before
+	public void setup() throws IOException {
+		this.jarFile = this.temporaryFolder.newFile("test.jar");
+		this.cacheDirectory = this.temporaryFolder.newFolder("cache");
+		try (JarOutputStream out = new JarOutputStream(new FileOutputStream(this.jarFile));
+				InputStream in = getClass().getClassLoader().getResourceAsStream(CLASS_FILE)) {
+			out.putNextEntry(new JarEntry(CLASS_FILE));
+			StreamUtils.copy(in, out);
+			out.closeEntry();
+		}
+	}
+
+
+	@Test
+	public void metadataRestoredFromCache() throws Exception {
+		MetadataReader parsed = createFactory().getMetadataReader(jarResource());
+		assertEquals(1, this.reads.get());
+		assertEquals(1, this.cacheDirectory.listFiles().length);
+
+		MetadataReader cached = createFactory().getMetadataReader(jarResource());
+		assertEquals(1, this.reads.get());
+		assertEquals(describe(parsed.getAnnotationMetadata()), describe(cached.getAnnotationMetadata()));
+		assertEquals(CLASS_NAME, cached.getClassMetadata().getClassName());
+		assertTrue(cached.getAnnotationMetadata().hasAnnotation("org.springframework.stereotype.Component"));
+	}
+
+	@Test
+	public void changedJarFileParsedAgain() throws Exception {
+		createFactory().getMetadataReader(jarResource());
+		assertTrue(this.jarFile.setLastModified(this.jarFile.lastModified() - 10000));
+
+		MetadataReader metadataReader = createFactory().getMetadataReader(jarResource());
+		assertEquals(2, this.reads.get());
+		assertEquals(CLASS_NAME, metadataReader.getClassMetadata().getClassName());
+
+		createFactory().getMetadataReader(jarResource());
+		assertEquals(2, this.reads.get());
+	}
+
+	@Test
+	public void classInDirectoryNotCached() throws Exception {
+		MetadataReader metadataReader = createFactory().getMetadataReader(new ClassPathResource(CLASS_FILE));
+		assertEquals(CLASS_NAME, metadataReader.getClassMetadata().getClassName());
+		assertEquals(0, this.cacheDirectory.listFiles().length);
+	}
+
+	@Test
+	public void clearCacheKeepsCacheFiles() throws Exception {
+		PersistentCachingMetadataReaderFactory factory = createFactory();
+		factory.getMetadataReader(jarResource());
+		factory.clearCache();
+		assertEquals(1, this.cacheDirectory.listFiles().length);
+
+		factory.getMetadataReader(jarResource());
+		assertEquals(1, this.reads.get());
+	}
+
+	@Test
+	public void purgeCache() throws Exception {
+		PersistentCachingMetadataReaderFactory factory = createFactory();
+		factory.getMetadataReader(jarResource());
+		factory.purgeCache();
+		assertEquals(0, this.cacheDirectory.listFiles().length);
+	}
+
+	@Test
+	public void corruptTrailingEntryDiscarded() throws Exception {
+		createFactory().getMetadataReader(jarResource());
+		File cacheFile = this.cacheDirectory.listFiles()[0];
+		long length = cacheFile.length();
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(cacheFile, true))) {
+			out.writeUTF("org/example/Partial.class");
+			out.writeInt(-42);
+			out.write(new byte[] {1, 2, 3});
+		}
+
+		MetadataReader metadataReader = createFactory().getMetadataReader(jarResource());
+		assertEquals(1, this.reads.get());
+		assertEquals(CLASS_NAME, metadataReader.getClassMetadata().getClassName());
+		assertEquals(length, cacheFile.length());
+	}
+
+
+	private PersistentCachingMetadataReaderFactory createFactory() {
+		PersistentCachingMetadataReaderFactory factory =
+				new PersistentCachingMetadataReaderFactory(this.cacheDirectory, getClass().getClassLoader());
+		factory.setCacheLimit(0);
+		return factory;
+	}
+
+	private Resource jarResource() throws IOException {
+		return new UrlResource(new URL("jar:" + this.jarFile.toURI().toURL() + "!/" + CLASS_FILE)) {
+			@Override
+			public InputStream getInputStream() throws IOException {
+				reads.incrementAndGet();
+				return super.getInputStream();
+			}
+		};
+	}
+
+	private static String describe(AnnotationMetadata metadata) {
+		StringBuilder builder = new StringBuilder();
+		builder.append(metadata.getClassName()).append(metadata.isAbstract()).append(metadata.isInterface());
+		builder.append(metadata.isIndependent()).append(metadata.getEnclosingClassName());
+		builder.append(metadata.getSuperClassName());
+		builder.append(StringUtils.arrayToCommaDelimitedString(metadata.getInterfaceNames()));
+		builder.append(StringUtils.arrayToCommaDelimitedString(metadata.getMemberClassNames()));
+		for (String annotationType : metadata.getAnnotationTypes()) {
+			builder.append('\n').append(annotationType).append(metadata.getMetaAnnotationTypes(annotationType));
+			builder.append(metadata.getAnnotationAttributes(annotationType, true));
+			builder.append(metadata.getAnnotationAttributes(annotationType, false));
+			for (MethodMetadata method : metadata.getAnnotatedMethods(annotationType)) {
+				builder.append(method.getMethodName()).append(method.getReturnTypeName());
+				builder.append(method.getAnnotationAttributes(annotationType, true));
+			}
+		}
+		return builder.toString();
+	}
+
+}
@@ -17,6 +17,7 @@
 package org.springframework.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
@@ -616,10 +617,41 @@ public class AntPathMatcherTests {
 		assertTrue(pathMatcher.stringMatcherCache.size() > 20);
 
 		for (int i = 0; i < 65536; i++) {
-			pathMatcher.match("test" + i, "test");
+			pathMatcher.match("test" + i, "test" + i);
 		}
-		// Cache turned off because it went beyond the threshold
-		assertTrue(pathMatcher.stringMatcherCache.isEmpty());
+		// Cache bounded by the default limit, evicting the oldest entries
+		assertEquals(AntPathMatcher.DEFAULT_CACHE_LIMIT, pathMatcher.stringMatcherCache.size());
+		assertNotNull(pathMatcher.stringMatcherCache.get("test65535"));
+	}
+
+	@Test
+	public void cacheLimit() {
+		pathMatcher.setCacheLimit(2);
+		pathMatcher.match("test1", "test1");
+		pathMatcher.match("test2", "test2");
+		assertEquals(2, pathMatcher.stringMatcherCache.size());
+
+		pathMatcher.match("test3", "test3");
+		assertEquals(2, pathMatcher.stringMatcherCache.size());
+		assertNull(pathMatcher.stringMatcherCache.get("test1"));
+		assertNotNull(pathMatcher.stringMatcherCache.get("test2"));
+		assertNotNull(pathMatcher.stringMatcherCache.get("test3"));
+
+		assertTrue(pathMatcher.match("test1", "test1"));
+		assertTrue(pathMatcher.match("/test/{id}", "/test/1"));
+	}
+
+	@Test
+	public void matchCollection() {
+		List<String> patterns = Arrays.asList("/foo/**", "/bar/*.html", "/baz/{id}");
+
+		assertTrue(pathMatcher.match(patterns, "/foo/a/b"));
+		assertTrue(pathMatcher.match(patterns, "/bar/index.html"));
+		assertTrue(pathMatcher.match(patterns, "/baz/1"));
+		assertFalse(pathMatcher.match(patterns, "/bar/index.jsp"));
+		assertFalse(pathMatcher.match(patterns, "/baz/1/2"));
+		assertFalse(pathMatcher.match(patterns, "baz/1"));
+		assertFalse(pathMatcher.match(Collections.<String>emptyList(), "/foo"));
 	}
 
 	@Test
@@ -674,6 +706,27 @@ public class AntPathMatcherTests {
 		assertTrue(pathMatcher.stringMatcherCache.isEmpty());
 	}
 
+	@Test
+	public void overriddenTokenizeHooks() {
+		AntPathMatcher pathMatcher = new AntPathMatcher() {
+			@Override
+			protected String[] tokenizePattern(String pattern) {
+				return super.tokenizePattern(pattern.toLowerCase());
+			}
+			@Override
+			protected String[] tokenizePath(String path) {
+				return super.tokenizePath(path.replace('-', '/'));
+			}
+		};
+
+		assertTrue(pathMatcher.match("/Foo/{bar}/BAZ", "/foo-bar/baz"));
+		assertTrue(pathMatcher.match(Arrays.asList("/other", "/Foo/*/**"), "/foo-bar-baz"));
+		assertTrue(pathMatcher.matchStart("/FOO/**/baz", "/foo-bar"));
+		assertFalse(pathMatcher.match("/foo/*", "/foo-bar-baz"));
+		assertEquals(Collections.singletonMap("bar", "bar"),
+				pathMatcher.extractUriTemplateVariables("/Foo/{bar}/baz", "/foo-bar/baz"));
+	}
+
 	@Test
 	public void extensionMappingWithDotPathSeparator() {
 		pathMatcher.setPathSeparator(".");
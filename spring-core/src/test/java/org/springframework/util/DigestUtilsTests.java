@@ -76,4 +76,13 @@ public class DigestUtilsTests {
 		assertEquals("Invalid hash", expected, builder.toString());
 	}
 
+	@Test
+	public void digestStringBuilder() {
+		String expected = "b10a8db164e0754105b7a99be72e3fe5";
+
+		StringBuilder builder = new StringBuilder();
+		DigestUtils.appendDigestAsHex(DigestUtils.md5Digest(bytes), builder);
+		assertEquals("Invalid hash", expected, builder.toString());
+	}
+
 }
@@ -174,6 +174,13 @@ public class MimeTypeTests {
 		assertEquals("Invalid subtype", "*", mimeType.getSubtype());
 	}
 
+	@Test
+	public void parseMimeTypeCached() {
+		MimeType mimeType = MimeTypeUtils.parseMimeType("text/plain;charset=UTF-8");
+		assertSame(mimeType, MimeTypeUtils.parseMimeType("text/plain;charset=UTF-8"));
+		assertNotSame(mimeType, MimeTypeUtils.parseMimeType("text/plain;charset=ISO-8859-1"));
+	}
+
 	@Test(expected = InvalidMimeTypeException.class)
 	public void parseMimeTypeNoSubtype() {
 		MimeTypeUtils.parseMimeType("audio");
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.messaging.simp.broker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Benchmarks for {@link DefaultSubscriptionRegistry#findSubscriptions}, with
+ * the destination cache both hit and bypassed.
+ *
+ * @since 5.0
+ */
+@BenchmarkMode(Mode.Throughput)
+public class DefaultSubscriptionRegistryBenchmark {
+
+	@Benchmark
+	public MultiValueMap<String, String> findSubscriptionsCached(BenchmarkData data) {
+		return data.registry.findSubscriptions(data.cachedMessage);
+	}
+
+	@Benchmark
+	public MultiValueMap<String, String> findSubscriptionsUncached(BenchmarkData data) {
+		data.counter = (data.counter + 1) % data.destinationCount;
+		return data.uncachedRegistry.findSubscriptions(data.messages[data.counter]);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"100"})
+		public int sessionCount;
+
+		@Param({"50"})
+		public int destinationCount;
+
+		DefaultSubscriptionRegistry registry;
+
+		DefaultSubscriptionRegistry uncachedRegistry;
+
+		Message<?> cachedMessage;
+
+		Message<?>[] messages;
+
+		int counter;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.registry = new DefaultSubscriptionRegistry();
+			this.uncachedRegistry = new DefaultSubscriptionRegistry();
+			// Rotating through more destinations than cache entries forces a full lookup every time
+			this.uncachedRegistry.setCacheLimit(1);
+			for (int i = 0; i < this.sessionCount; i++) {
+				for (int j = 0; j < this.destinationCount; j++) {
+					String destination = (j % 2 == 0 ? "/topic/price." + j : "/topic/price.*");
+					Message<?> subscribe = subscribeMessage("sess" + i, "subs" + j, destination);
+					this.registry.registerSubscription(subscribe);
+					this.uncachedRegistry.registerSubscription(subscribe);
+				}
+			}
+			this.messages = new Message<?>[this.destinationCount];
+			for (int j = 0; j < this.destinationCount; j++) {
+				this.messages[j] = createMessage("/topic/price." + j);
+			}
+			this.cachedMessage = this.messages[0];
+		}
+
+		private static Message<?> createMessage(String destination) {
+			SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+			accessor.setDestination(destination);
+			return MessageBuilder.createMessage("", accessor.getMessageHeaders());
+		}
+
+		private static Message<?> subscribeMessage(String sessionId, String subscriptionId, String destination) {
+			SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+			accessor.setSessionId(sessionId);
+			accessor.setSubscriptionId(subscriptionId);
+			accessor.setDestination(destination);
+			return MessageBuilder.createMessage("", accessor.getMessageHeaders());
+		}
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for {@link MediaType} parsing and sorting, as performed for
+ * every request during content negotiation.
+ *
+ * @since 5.0
+ */
+@BenchmarkMode(Mode.Throughput)
+public class MediaTypeBenchmark {
+
+	@Benchmark
+	public MediaType parseMediaType(BenchmarkData data) {
+		return MediaType.parseMediaType(data.contentType);
+	}
+
+	@Benchmark
+	public List<MediaType> parseMediaTypes(BenchmarkData data) {
+		return MediaType.parseMediaTypes(data.accept);
+	}
+
+	@Benchmark
+	public List<MediaType> parseAndSortBySpecificityAndQuality(BenchmarkData data) {
+		List<MediaType> mediaTypes = MediaType.parseMediaTypes(data.accept);
+		MediaType.sortBySpecificityAndQuality(mediaTypes);
+		return mediaTypes;
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		final String contentType = "application/json;charset=UTF-8";
+
+		final String accept = "text/html,application/xhtml+xml,application/xml;q=0.9," +
+				"image/webp,image/apng,application/json;q=0.8,*/*;q=0.5";
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+
+/**
+ * Benchmarks for {@link Jackson2JsonDecoder}, decoding a JSON array into a
+ * stream of elements as well as into a single aggregated value.
+ *
+ * @since 5.0
+ */
+@BenchmarkMode(Mode.Throughput)
+public class Jackson2JsonDecoderBenchmark {
+
+	@Benchmark
+	public List<Object> decodeArrayToFlux(BenchmarkData data) {
+		return data.decoder.decode(data.input(), data.elementType, MediaType.APPLICATION_JSON,
+				Collections.emptyMap()).collectList().block();
+	}
+
+	@Benchmark
+	public Object decodeArrayToMono(BenchmarkData data) {
+		return data.decoder.decodeToMono(data.input(), data.listType, MediaType.APPLICATION_JSON,
+				Collections.emptyMap()).block();
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"100"})
+		public int elementCount;
+
+		@Param({"1024"})
+		public int chunkSize;
+
+		final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+		final Jackson2JsonDecoder decoder = new Jackson2JsonDecoder();
+
+		final ResolvableType elementType = ResolvableType.forClass(Pojo.class);
+
+		final ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, Pojo.class);
+
+		final List<byte[]> chunks = new ArrayList<>();
+
+		@Setup(Level.Trial)
+		public void setup() {
+			StringBuilder builder = new StringBuilder("[");
+			for (int i = 0; i < this.elementCount; i++) {
+				if (i > 0) {
+					builder.append(',');
+				}
+				builder.append("{\"foo\":\"foo").append(i).append("\",\"bar\":\"bar").append(i).append("\"}");
+			}
+			builder.append(']');
+			byte[] content = builder.toString().getBytes(StandardCharsets.UTF_8);
+			for (int offset = 0; offset < content.length; offset += this.chunkSize) {
+				int length = Math.min(this.chunkSize, content.length - offset);
+				byte[] chunk = new byte[length];
+				System.arraycopy(content, offset, chunk, 0, length);
+				this.chunks.add(chunk);
+			}
+		}
+
+		Flux<DataBuffer> input() {
+			return Flux.fromIterable(this.chunks).map(bytes -> this.bufferFactory.wrap(bytes));
+		}
+	}
+
+
+	public static class Pojo {
+
+		private String foo;
+
+		private String bar;
+
+		public String getFoo() {
+			return this.foo;
+		}
+
+		public void setFoo(String foo) {
+			this.foo = foo;
+		}
+
+		public String getBar() {
+			return this.bar;
+		}
+
+		public void setBar(String bar) {
+			this.bar = bar;
+		}
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for {@link PathPattern#matches(String)} and
+ * {@link PathPattern#matchAndExtract(String)}, using the same pattern and
+ * path mix as the {@code AntPathMatcher} benchmark in spring-core.
+ *
+ * @since 5.0
+ */
+@BenchmarkMode(Mode.Throughput)
+public class PathPatternBenchmark {
+
+	@Benchmark
+	public void matchAllPatterns(BenchmarkData data, Blackhole bh) {
+		for (String path : data.paths) {
+			for (PathPattern pattern : data.patterns) {
+				bh.consume(pattern.matches(path));
+			}
+		}
+	}
+
+	@Benchmark
+	public void matchAndExtract(BenchmarkData data, Blackhole bh) {
+		bh.consume(data.templatePattern.matchAndExtract("/hotels/42/bookings/4711"));
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		final List<PathPattern> patterns = new ArrayList<>();
+
+		final List<String> paths = new ArrayList<>();
+
+		PathPattern templatePattern;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			PathPatternParser parser = new PathPatternParser();
+			this.patterns.add(parser.parse("/"));
+			this.patterns.add(parser.parse("/resources/**"));
+			this.patterns.add(parser.parse("/resources/*.css"));
+			this.patterns.add(parser.parse("/hotels"));
+			this.patterns.add(parser.parse("/hotels/{hotel}"));
+			this.patterns.add(parser.parse("/hotels/{hotel}/bookings/{booking}"));
+			this.patterns.add(parser.parse("/hotels/{hotel:\\d+}/rooms/*"));
+			this.patterns.add(parser.parse("/api/v?/customers/*/orders"));
+			this.patterns.add(parser.parse("/docs/**"));
+			this.templatePattern = parser.parse("/hotels/{hotel}/bookings/{booking}");
+
+			this.paths.add("/");
+			this.paths.add("/resources/css/main.css");
+			this.paths.add("/hotels/42");
+			this.paths.add("/hotels/42/bookings/4711");
+			this.paths.add("/hotels/42/rooms/101");
+			this.paths.add("/api/v2/customers/acme/orders");
+			this.paths.add("/docs/reference/index.html");
+		}
+	}
+
+}
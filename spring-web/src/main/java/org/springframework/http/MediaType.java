@@ -30,6 +30,7 @@ import java.util.stream.Collectors;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.InvalidMimeTypeException;
 import org.springframework.util.MimeType;
 import org.springframework.util.MimeTypeUtils;
@@ -292,6 +293,9 @@ public class MediaType extends MimeType implements Serializable {
 
 	private static final String PARAM_QUALITY_FACTOR = "q";
 
+	private static final ConcurrentLruCache<String, MediaType> cachedMediaTypes =
+			new ConcurrentLruCache<>(64, MediaType::parseMediaTypeInternal);
+
 
 	static {
 		ALL = valueOf(ALL_VALUE);
@@ -319,6 +323,9 @@ public class MediaType extends MimeType implements Serializable {
 	}
 
 
+	private transient volatile Double qualityValue;
+
+
 	/**
 	 * Create a new {@code MediaType} for the given primary type.
 	 * <p>The {@linkplain #getSubtype() subtype} is set to "&#42;", parameters empty.
@@ -414,8 +421,13 @@ public class MediaType extends MimeType implements Serializable {
 	 * @return the quality factory
 	 */
 	public double getQualityValue() {
-		String qualityFactory = getParameter(PARAM_QUALITY_FACTOR);
-		return (qualityFactory != null ? Double.parseDouble(unquote(qualityFactory)) : 1D);
+		Double qualityValue = this.qualityValue;
+		if (qualityValue == null) {
+			String qualityFactory = getParameter(PARAM_QUALITY_FACTOR);
+			qualityValue = (qualityFactory != null ? Double.parseDouble(unquote(qualityFactory)) : 1D);
+			this.qualityValue = qualityValue;
+		}
+		return qualityValue;
 	}
 
 	/**
@@ -481,11 +493,19 @@ public class MediaType extends MimeType implements Serializable {
 
 	/**
 	 * Parse the given String into a single {@code MediaType}.
+	 * <p>Recently parsed {@code MediaType} instances are cached for further retrieval.
 	 * @param mediaType the string to parse
 	 * @return the media type
 	 * @throws InvalidMediaTypeException if the media type value cannot be parsed
 	 */
 	public static MediaType parseMediaType(String mediaType) {
+		if (!StringUtils.hasLength(mediaType)) {
+			throw new InvalidMediaTypeException(mediaType, "'mediaType' must not be empty");
+		}
+		return cachedMediaTypes.get(mediaType);
+	}
+
+	private static MediaType parseMediaTypeInternal(String mediaType) {
 		MimeType type;
 		try {
 			type = MimeTypeUtils.parseMimeType(mediaType);
@@ -644,8 +664,7 @@ public class MediaType extends MimeType implements Serializable {
 	public static void sortBySpecificityAndQuality(List<MediaType> mediaTypes) {
 		Assert.notNull(mediaTypes, "'mediaTypes' must not be null");
 		if (mediaTypes.size() > 1) {
-			Collections.sort(mediaTypes,
-					MediaType.SPECIFICITY_COMPARATOR.thenComparing(MediaType.QUALITY_VALUE_COMPARATOR));
+			Collections.sort(mediaTypes, SPECIFICITY_AND_QUALITY_COMPARATOR);
 		}
 	}
 
@@ -709,4 +728,11 @@ public class MediaType extends MimeType implements Serializable {
 		}
 	};
 
+
+	/**
+	 * Comparator used by {@link #sortBySpecificityAndQuality(List)}.
+	 */
+	private static final Comparator<MediaType> SPECIFICITY_AND_QUALITY_COMPARATOR =
+			SPECIFICITY_COMPARATOR.thenComparing(QUALITY_VALUE_COMPARATOR);
+
 }
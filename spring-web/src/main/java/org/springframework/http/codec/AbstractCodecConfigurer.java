@@ -31,8 +31,14 @@ import org.springframework.core.codec.Decoder;
 import org.springframework.core.codec.Encoder;
 import org.springframework.core.codec.ResourceDecoder;
 import org.springframework.core.codec.StringDecoder;
+import org.springframework.http.codec.json.Jackson2CborDecoder;
+import org.springframework.http.codec.json.Jackson2CborEncoder;
 import org.springframework.http.codec.json.Jackson2JsonDecoder;
 import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.codec.protobuf.ProtobufDecoder;
+import org.springframework.http.codec.protobuf.ProtobufEncoder;
 import org.springframework.http.codec.xml.Jaxb2XmlDecoder;
 import org.springframework.http.codec.xml.Jaxb2XmlEncoder;
 import org.springframework.util.Assert;
@@ -53,6 +59,17 @@ abstract class AbstractCodecConfigurer implements CodecConfigurer {
 					ClassUtils.isPresent("com.fasterxml.jackson.core.JsonGenerator",
 							AbstractCodecConfigurer.class.getClassLoader());
 
+	protected static final boolean jackson2SmilePresent = jackson2Present &&
+			ClassUtils.isPresent("com.fasterxml.jackson.dataformat.smile.SmileFactory",
+					AbstractCodecConfigurer.class.getClassLoader());
+
+	protected static final boolean jackson2CborPresent = jackson2Present &&
+			ClassUtils.isPresent("com.fasterxml.jackson.dataformat.cbor.CBORFactory",
+					AbstractCodecConfigurer.class.getClassLoader());
+
+	protected static final boolean protobufPresent = ClassUtils.isPresent("com.google.protobuf.Message",
+			AbstractCodecConfigurer.class.getClassLoader());
+
 	protected static final boolean jaxb2Present = ClassUtils.isPresent("javax.xml.bind.Binder",
 			AbstractCodecConfigurer.class.getClassLoader());
 
@@ -173,6 +190,9 @@ abstract class AbstractCodecConfigurer implements CodecConfigurer {
 			result.add(new DecoderHttpMessageReader<>(new DataBufferDecoder()));
 			result.add(new DecoderHttpMessageReader<>(new ResourceDecoder()));
 			result.add(new DecoderHttpMessageReader<>(StringDecoder.textPlainOnly(splitTextOnNewLine())));
+			if (protobufPresent) {
+				result.add(new DecoderHttpMessageReader<>(new ProtobufDecoder()));
+			}
 			return result;
 		}
 
@@ -189,6 +209,12 @@ abstract class AbstractCodecConfigurer implements CodecConfigurer {
 			if (jackson2Present) {
 				result.add(new DecoderHttpMessageReader<>(jackson2Decoder()));
 			}
+			if (jackson2SmilePresent) {
+				result.add(new DecoderHttpMessageReader<>(new Jackson2SmileDecoder()));
+			}
+			if (jackson2CborPresent) {
+				result.add(new DecoderHttpMessageReader<>(new Jackson2CborDecoder()));
+			}
 			return result;
 		}
 
@@ -213,6 +239,9 @@ abstract class AbstractCodecConfigurer implements CodecConfigurer {
 			result.add(new EncoderHttpMessageWriter<>(new DataBufferEncoder()));
 			result.add(new ResourceHttpMessageWriter());
 			result.add(new EncoderHttpMessageWriter<>(CharSequenceEncoder.textPlainOnly()));
+			if (protobufPresent) {
+				result.add(new EncoderHttpMessageWriter<>(new ProtobufEncoder()));
+			}
 			return result;
 		}
 
@@ -227,6 +256,12 @@ abstract class AbstractCodecConfigurer implements CodecConfigurer {
 			if (jackson2Present) {
 				result.add(new EncoderHttpMessageWriter<>(jackson2Encoder()));
 			}
+			if (jackson2SmilePresent) {
+				result.add(new EncoderHttpMessageWriter<>(new Jackson2SmileEncoder()));
+			}
+			if (jackson2CborPresent) {
+				result.add(new EncoderHttpMessageWriter<>(new Jackson2CborEncoder()));
+			}
 			return result;
 		}
 
@@ -20,6 +20,7 @@ import java.util.Collections;
 import java.util.List;
 
 import org.springframework.core.codec.Encoder;
+import org.springframework.http.codec.multipart.DefaultPartHttpMessageReader;
 import org.springframework.http.codec.multipart.MultipartHttpMessageReader;
 import org.springframework.http.codec.multipart.SynchronossPartHttpMessageReader;
 import org.springframework.util.ClassUtils;
@@ -80,6 +81,11 @@ class DefaultServerCodecConfigurer extends AbstractCodecConfigurer implements Se
 				result.add(partReader);
 				result.add(new MultipartHttpMessageReader(partReader));
 			}
+			else {
+				DefaultPartHttpMessageReader partReader = new DefaultPartHttpMessageReader();
+				result.add(partReader);
+				result.add(new MultipartHttpMessageReader(partReader));
+			}
 			return result;
 		}
 
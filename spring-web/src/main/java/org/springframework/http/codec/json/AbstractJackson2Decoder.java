@@ -0,0 +1,186 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.CodecException;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.codec.HttpMessageDecoder;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.MimeType;
+
+/**
+ * Abstract base class for Jackson 2.9 decoding, leveraging non-blocking parsing
+ * for data formats whose {@link com.fasterxml.jackson.core.JsonFactory} supports
+ * it (JSON and Smile), and aggregating the input before parsing it otherwise.
+ *
+ * @author Sebastien Deleuze
+ * @author Rossen Stoyanchev
+ * @since 5.0
+ */
+public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport implements HttpMessageDecoder<Object> {
+
+	/**
+	 * Constructor with a Jackson {@link ObjectMapper} to use.
+	 */
+	protected AbstractJackson2Decoder(ObjectMapper mapper, MimeType... mimeTypes) {
+		super(mapper, mimeTypes);
+	}
+
+
+	@Override
+	public boolean canDecode(ResolvableType elementType, @Nullable MimeType mimeType) {
+		JavaType javaType = this.objectMapper.getTypeFactory().constructType(elementType.getType());
+		// Skip String: CharSequenceDecoder + "*/*" comes after
+		return (!CharSequence.class.isAssignableFrom(elementType.resolve(Object.class)) &&
+				this.objectMapper.canDeserialize(javaType) && supportsMimeType(mimeType));
+	}
+
+	@Override
+	public List<MimeType> getDecodableMimeTypes() {
+		return getMimeTypes();
+	}
+
+	@Override
+	public Flux<Object> decode(Publisher<DataBuffer> input, @Nullable ResolvableType elementType,
+			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+
+		return decodeInternal(input, true, elementType, hints);
+	}
+
+	@Override
+	public Mono<Object> decodeToMono(Publisher<DataBuffer> input, ResolvableType elementType,
+			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+
+		return decodeInternal(input, false, elementType, hints).singleOrEmpty();
+	}
+
+	private Flux<Object> decodeInternal(Publisher<DataBuffer> inputStream, boolean tokenizeArrayElements,
+			ResolvableType elementType, Map<String, Object> hints) {
+
+		Assert.notNull(inputStream, "'inputStream' must not be null");
+		Assert.notNull(elementType, "'elementType' must not be null");
+
+		Class<?> contextClass = getParameter(elementType).map(MethodParameter::getContainingClass).orElse(null);
+		JavaType javaType = getJavaType(elementType.getType(), contextClass);
+		Class<?> jsonView = (Class<?>) hints.get(Jackson2CodecSupport.JSON_VIEW_HINT);
+
+		ObjectReader reader = (jsonView != null ?
+				this.objectMapper.readerWithView(jsonView).forType(javaType) :
+				this.objectMapper.readerFor(javaType));
+
+		if (this.objectMapper.getFactory().canParseAsync()) {
+			return Jackson2Tokenizer.tokenize(inputStream, this.objectMapper.getFactory(), tokenizeArrayElements)
+					.map(tokenBuffer -> {
+						try {
+							return reader.readValue(tokenBuffer.asParser(this.objectMapper));
+						}
+						catch (IOException ex) {
+							throw processException(ex);
+						}
+					});
+		}
+		else {
+			return DataBufferUtils.join(inputStream)
+					.flatMapIterable(dataBuffer -> readValues(dataBuffer, reader, tokenizeArrayElements));
+		}
+	}
+
+	/**
+	 * Read all top-level values, or the elements of top-level arrays, from
+	 * the given aggregated input with a blocking parser.
+	 */
+	private List<Object> readValues(DataBuffer dataBuffer, ObjectReader reader, boolean tokenizeArrayElements) {
+		List<Object> result = new ArrayList<>();
+		InputStream inputStream = dataBuffer.asInputStream();
+		try (JsonParser parser = this.objectMapper.getFactory().createParser(inputStream)) {
+			JsonToken token = parser.nextToken();
+			while (token != null) {
+				if (tokenizeArrayElements && token == JsonToken.START_ARRAY) {
+					token = parser.nextToken();
+					while (token != null && token != JsonToken.END_ARRAY) {
+						result.add(reader.readValue(parser));
+						token = parser.nextToken();
+					}
+				}
+				else {
+					result.add(reader.readValue(parser));
+				}
+				token = parser.nextToken();
+			}
+			return result;
+		}
+		catch (IOException ex) {
+			throw processException(ex);
+		}
+		finally {
+			DataBufferUtils.release(dataBuffer);
+		}
+	}
+
+	private CodecException processException(IOException ex) {
+		if (ex instanceof InvalidDefinitionException) {
+			return new CodecException("Type definition error: " +
+					((InvalidDefinitionException) ex).getType(), ex);
+		}
+		if (ex instanceof JsonProcessingException) {
+			return new DecodingException("JSON decoding error: " +
+					((JsonProcessingException) ex).getOriginalMessage(), ex);
+		}
+		return new DecodingException("I/O error while parsing input stream", ex);
+	}
+
+
+	// HttpMessageDecoder...
+
+	@Override
+	public Map<String, Object> getDecodeHints(ResolvableType actualType, ResolvableType elementType,
+			ServerHttpRequest request, ServerHttpResponse response) {
+
+		return getHints(actualType);
+	}
+
+	@Override
+	protected <A extends Annotation> A getAnnotation(MethodParameter parameter, Class<A> annotType) {
+		return parameter.getParameterAnnotation(annotType);
+	}
+
+}
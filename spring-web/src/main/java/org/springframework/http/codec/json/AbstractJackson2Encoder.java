@@ -0,0 +1,370 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.CodecException;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.MimeType;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Abstract base class for Jackson 2.9 encoding, writing a {@code Mono} as a
+ * single value, a {@code Flux} with a "streaming" media type as a sequence of
+ * values flushed one by one, and any other {@code Flux} as a single array.
+ *
+ * @author Sebastien Deleuze
+ * @author Arjen Poutsma
+ * @since 5.0
+ */
+public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport implements HttpMessageEncoder<Object> {
+
+	/**
+	 * The number of bytes of array elements that are gathered into a single
+	 * buffer before it is emitted, when encoding an array.
+	 */
+	private static final int BATCH_SIZE = 8 * 1024;
+
+
+	private final List<MediaType> streamingMediaTypes = new ArrayList<>(1);
+
+	private final Map<WriterCacheKey, ObjectWriter> writerCache = new ConcurrentReferenceHashMap<>(64);
+
+
+	/**
+	 * Constructor with a Jackson {@link ObjectMapper} to use.
+	 */
+	protected AbstractJackson2Encoder(ObjectMapper mapper, MimeType... mimeTypes) {
+		super(mapper, mimeTypes);
+	}
+
+
+	/**
+	 * Configure "streaming" media types for which flushing should be performed
+	 * automatically vs at the end of the stream.
+	 * @param mediaTypes one or more media types to add to the list
+	 * @see HttpMessageEncoder#getStreamingMediaTypes()
+	 */
+	public void setStreamingMediaTypes(List<MediaType> mediaTypes) {
+		this.streamingMediaTypes.clear();
+		this.streamingMediaTypes.addAll(mediaTypes);
+	}
+
+	@Override
+	public List<MimeType> getEncodableMimeTypes() {
+		return getMimeTypes();
+	}
+
+
+	@Override
+	public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
+		Class<?> clazz = elementType.resolve(Object.class);
+		return (Object.class == clazz ||
+				!String.class.isAssignableFrom(clazz) && this.objectMapper.canSerialize(clazz)) &&
+				supportsMimeType(mimeType);
+	}
+
+	@Override
+	public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+			ResolvableType elementType, @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+
+		Assert.notNull(inputStream, "'inputStream' must not be null");
+		Assert.notNull(bufferFactory, "'bufferFactory' must not be null");
+		Assert.notNull(elementType, "'elementType' must not be null");
+
+		Class<?> jsonView = (Class<?>) hints.get(Jackson2CodecSupport.JSON_VIEW_HINT);
+		ObjectWriter writer = getObjectWriter(elementType, jsonView, mimeType);
+
+		if (inputStream instanceof Mono) {
+			return Flux.from(inputStream).map(value -> encodeValue(value, bufferFactory, writer));
+		}
+		else if (isStreamingMimeType(mimeType)) {
+			byte[] separator = getStreamingMediaTypeSeparator(mimeType);
+			return Flux.from(inputStream).map(value -> {
+				DataBuffer buffer = encodeValue(value, bufferFactory, writer);
+				if (separator != null) {
+					buffer.write(separator);
+				}
+				return buffer;
+			});
+		}
+		else {
+			return Flux.defer(() -> {
+				ArrayBatcher batcher;
+				try {
+					batcher = new ArrayBatcher(bufferFactory, writer);
+				}
+				catch (IOException ex) {
+					return Flux.error(ex);
+				}
+				return Flux.from(inputStream)
+						.concatMapIterable(batcher::write)
+						.concatWith(Mono.fromCallable(batcher::close))
+						.doOnCancel(batcher::discard)
+						.doOnError(ex -> batcher.discard());
+			});
+		}
+	}
+
+	private boolean isStreamingMimeType(@Nullable MimeType mimeType) {
+		for (MediaType streamingMediaType : this.streamingMediaTypes) {
+			if (streamingMediaType.isCompatibleWith(mimeType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Return the separator to write after each value when encoding a stream
+	 * with one of the configured {@link #getStreamingMediaTypes() streaming
+	 * media types}, or {@code null} if values are written back to back.
+	 * @param mimeType the streaming mime type being written
+	 */
+	@Nullable
+	protected byte[] getStreamingMediaTypeSeparator(@Nullable MimeType mimeType) {
+		return null;
+	}
+
+	/**
+	 * Customize the {@link ObjectWriter} used for the given mime type, e.g.
+	 * to configure a specific {@link com.fasterxml.jackson.core.PrettyPrinter}.
+	 * The resulting writer is cached per element type, view, and mime type.
+	 * @param writer the writer to customize
+	 * @param mimeType the mime type being written
+	 * @return the writer to use
+	 */
+	protected ObjectWriter customizeWriter(ObjectWriter writer, @Nullable MimeType mimeType) {
+		return writer;
+	}
+
+	private ObjectWriter getObjectWriter(ResolvableType elementType, @Nullable Class<?> jsonView,
+			@Nullable MimeType mimeType) {
+
+		JavaType javaType = getJavaType(elementType.getType(), null);
+		WriterCacheKey cacheKey = new WriterCacheKey(javaType, jsonView, mimeType);
+
+		ObjectWriter writer = this.writerCache.get(cacheKey);
+		if (writer == null) {
+			writer = (jsonView != null ?
+					this.objectMapper.writerWithView(jsonView) : this.objectMapper.writer());
+			if (javaType.isContainerType()) {
+				writer = writer.forType(javaType);
+			}
+			writer = customizeWriter(writer, mimeType);
+			this.writerCache.put(cacheKey, writer);
+		}
+		return writer;
+	}
+
+	private DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ObjectWriter writer) {
+		DataBuffer buffer = bufferFactory.allocateBuffer();
+		OutputStream outputStream = buffer.asOutputStream();
+		boolean release = true;
+		try {
+			writer.writeValue(outputStream, value);
+			release = false;
+		}
+		catch (IOException ex) {
+			throw processException(ex);
+		}
+		finally {
+			if (release) {
+				DataBufferUtils.release(buffer);
+			}
+		}
+		return buffer;
+	}
+
+	private RuntimeException processException(IOException ex) {
+		if (ex instanceof InvalidDefinitionException) {
+			return new CodecException("Type definition error: " +
+					((InvalidDefinitionException) ex).getType(), ex);
+		}
+		if (ex instanceof JsonProcessingException) {
+			return new EncodingException("JSON encoding error: " +
+					((JsonProcessingException) ex).getOriginalMessage(), ex);
+		}
+		return new IllegalStateException("Unexpected I/O error while writing to data buffer", ex);
+	}
+
+
+	// HttpMessageEncoder...
+
+	@Override
+	public List<MediaType> getStreamingMediaTypes() {
+		return Collections.unmodifiableList(this.streamingMediaTypes);
+	}
+
+	@Override
+	public Map<String, Object> getEncodeHints(ResolvableType actualType, ResolvableType elementType,
+			MediaType mediaType, ServerHttpRequest request, ServerHttpResponse response) {
+
+		return getHints(actualType);
+	}
+
+	@Override
+	protected <A extends Annotation> A getAnnotation(MethodParameter parameter, Class<A> annotType) {
+		return parameter.getMethodAnnotation(annotType);
+	}
+
+
+	/**
+	 * Writes the elements of a stream as an array through a single generator,
+	 * gathering several elements into one buffer until it holds at least
+	 * {@link #BATCH_SIZE} bytes.
+	 */
+	private class ArrayBatcher {
+
+		private final DataBufferFactory bufferFactory;
+
+		private final ObjectWriter writer;
+
+		private final JsonGenerator generator;
+
+		private DataBuffer buffer;
+
+		public ArrayBatcher(DataBufferFactory bufferFactory, ObjectWriter writer) throws IOException {
+			this.bufferFactory = bufferFactory;
+			this.writer = writer;
+			this.generator = objectMapper.getFactory().createGenerator(new BatchOutputStream());
+			writer.getConfig().initialize(this.generator);
+			this.generator.writeStartArray();
+		}
+
+		public List<DataBuffer> write(Object value) {
+			try {
+				this.writer.writeValue(this.generator, value);
+				this.generator.flush();
+			}
+			catch (IOException ex) {
+				throw processException(ex);
+			}
+			if (this.buffer == null || this.buffer.readableByteCount() < BATCH_SIZE) {
+				return Collections.emptyList();
+			}
+			DataBuffer batch = this.buffer;
+			this.buffer = null;
+			return Collections.singletonList(batch);
+		}
+
+		public DataBuffer close() throws IOException {
+			this.generator.writeEndArray();
+			this.generator.close();
+			DataBuffer batch = this.buffer;
+			this.buffer = null;
+			return batch;
+		}
+
+		public void discard() {
+			if (this.buffer != null) {
+				DataBufferUtils.release(this.buffer);
+				this.buffer = null;
+			}
+		}
+
+		private DataBuffer currentBuffer() {
+			if (this.buffer == null) {
+				this.buffer = this.bufferFactory.allocateBuffer();
+			}
+			return this.buffer;
+		}
+
+
+		/**
+		 * The target of the generator: the buffer of the current batch.
+		 */
+		private class BatchOutputStream extends OutputStream {
+
+			@Override
+			public void write(int b) {
+				currentBuffer().write((byte) b);
+			}
+
+			@Override
+			public void write(byte[] bytes, int off, int len) {
+				currentBuffer().write(bytes, off, len);
+			}
+		}
+	}
+
+
+	private static final class WriterCacheKey {
+
+		private final JavaType javaType;
+
+		private final Class<?> jsonView;
+
+		private final MimeType mimeType;
+
+		public WriterCacheKey(JavaType javaType, @Nullable Class<?> jsonView, @Nullable MimeType mimeType) {
+			this.javaType = javaType;
+			this.jsonView = jsonView;
+			this.mimeType = mimeType;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof WriterCacheKey)) {
+				return false;
+			}
+			WriterCacheKey otherKey = (WriterCacheKey) other;
+			return (this.javaType.equals(otherKey.javaType) &&
+					ObjectUtils.nullSafeEquals(this.jsonView, otherKey.jsonView) &&
+					ObjectUtils.nullSafeEquals(this.mimeType, otherKey.mimeType));
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.javaType.hashCode() * 29 + ObjectUtils.nullSafeHashCode(this.jsonView)) * 29 +
+					ObjectUtils.nullSafeHashCode(this.mimeType);
+		}
+	}
+
+}
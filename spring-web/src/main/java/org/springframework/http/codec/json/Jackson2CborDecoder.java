@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.Assert;
+import org.springframework.util.MimeType;
+
+/**
+ * Decode a byte stream of CBOR objects and convert to Object's with Jackson 2.9.
+ *
+ * <p>Jackson does not provide a non-blocking CBOR parser, so the input is
+ * aggregated before it is parsed.
+ *
+ * @since 5.0
+ * @see Jackson2CborEncoder
+ */
+public class Jackson2CborDecoder extends AbstractJackson2Decoder {
+
+	private static final MimeType CBOR_MIME_TYPE = new MimeType("application", "cbor");
+
+
+	public Jackson2CborDecoder() {
+		this(Jackson2ObjectMapperBuilder.cbor().build());
+	}
+
+	/**
+	 * Constructor with a Jackson {@link ObjectMapper} to use, which must be
+	 * configured with a {@link CBORFactory}.
+	 * @see Jackson2ObjectMapperBuilder#cbor()
+	 */
+	public Jackson2CborDecoder(ObjectMapper mapper, MimeType... mimeTypes) {
+		super(mapper, mimeTypes.length > 0 ? mimeTypes : new MimeType[] {CBOR_MIME_TYPE});
+		Assert.isInstanceOf(CBORFactory.class, mapper.getFactory(), "CBORFactory required");
+	}
+
+}
@@ -77,6 +77,13 @@ public abstract class Jackson2CodecSupport {
 	}
 
 
+	/**
+	 * Return the MIME types supported by this codec.
+	 */
+	protected List<MimeType> getMimeTypes() {
+		return this.mimeTypes;
+	}
+
 	protected boolean supportsMimeType(MimeType mimeType) {
 		return (mimeType == null || this.mimeTypes.stream().anyMatch(m -> m.isCompatibleWith(mimeType)));
 	}
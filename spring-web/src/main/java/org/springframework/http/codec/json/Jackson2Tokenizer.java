@@ -0,0 +1,192 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+/**
+ * Tokenizes a stream of {@link DataBuffer}s into a stream of {@link TokenBuffer}s,
+ * one per top-level JSON value, or one per element of a top-level JSON array.
+ * Based on Jackson's non-blocking JSON or Smile parser, which is fed the bytes
+ * of each data buffer as they arrive, so that neither the values nor the whole
+ * array have to be buffered in their serialized form.
+ *
+ * @since 5.0
+ */
+class Jackson2Tokenizer {
+
+	private final JsonParser parser;
+
+	private final ByteArrayFeeder inputFeeder;
+
+	private final boolean tokenizeArrayElements;
+
+	private TokenBuffer tokenBuffer;
+
+	private int objectDepth;
+
+	private int arrayDepth;
+
+
+	private Jackson2Tokenizer(JsonParser parser, boolean tokenizeArrayElements) {
+		this.parser = parser;
+		this.inputFeeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+		this.tokenizeArrayElements = tokenizeArrayElements;
+		this.tokenBuffer = new TokenBuffer(parser);
+	}
+
+
+	/**
+	 * Tokenize the given {@code Publisher<DataBuffer>} into {@code Flux<TokenBuffer>}.
+	 * @param dataBuffers the source data buffers
+	 * @param jsonFactory the factory to create the non-blocking parser with
+	 * @param tokenizeArrayElements if {@code true} and the "top level" JSON
+	 * object is an array, each element is returned individually, immediately
+	 * after it is received
+	 * @return the resulting token buffers
+	 */
+	public static Flux<TokenBuffer> tokenize(Publisher<DataBuffer> dataBuffers, JsonFactory jsonFactory,
+			boolean tokenizeArrayElements) {
+
+		return Flux.defer(() -> {
+			Jackson2Tokenizer tokenizer;
+			try {
+				tokenizer = new Jackson2Tokenizer(
+						jsonFactory.createNonBlockingByteArrayParser(), tokenizeArrayElements);
+			}
+			catch (IOException ex) {
+				return Flux.error(ex);
+			}
+			return Flux.from(dataBuffers)
+					.concatMapIterable(tokenizer::tokenize)
+					.concatWith(Flux.defer(() -> Flux.fromIterable(tokenizer.endOfInput())));
+		});
+	}
+
+
+	private List<TokenBuffer> tokenize(DataBuffer dataBuffer) {
+		byte[] bytes = new byte[dataBuffer.readableByteCount()];
+		dataBuffer.read(bytes);
+		DataBufferUtils.release(dataBuffer);
+
+		try {
+			this.inputFeeder.feedInput(bytes, 0, bytes.length);
+			return parseTokens();
+		}
+		catch (JsonProcessingException ex) {
+			throw new DecodingException("JSON decoding error: " + ex.getOriginalMessage(), ex);
+		}
+		catch (IOException ex) {
+			throw new DecodingException("I/O error while parsing input stream", ex);
+		}
+	}
+
+	private List<TokenBuffer> endOfInput() {
+		this.inputFeeder.endOfInput();
+		try {
+			return parseTokens();
+		}
+		catch (JsonProcessingException ex) {
+			throw new DecodingException("JSON decoding error: " + ex.getOriginalMessage(), ex);
+		}
+		catch (IOException ex) {
+			throw new DecodingException("I/O error while parsing input stream", ex);
+		}
+	}
+
+	private List<TokenBuffer> parseTokens() throws IOException {
+		List<TokenBuffer> result = new ArrayList<>();
+		while (true) {
+			JsonToken token = this.parser.nextToken();
+			// null marks the end of input, NOT_AVAILABLE the end of the bytes fed so far
+			if (token == null || token == JsonToken.NOT_AVAILABLE) {
+				break;
+			}
+			updateDepth(token);
+			if (!this.tokenizeArrayElements) {
+				processTokenNormal(token, result);
+			}
+			else {
+				processTokenArray(token, result);
+			}
+		}
+		return result;
+	}
+
+	private void updateDepth(JsonToken token) {
+		switch (token) {
+			case START_OBJECT:
+				this.objectDepth++;
+				break;
+			case END_OBJECT:
+				this.objectDepth--;
+				break;
+			case START_ARRAY:
+				this.arrayDepth++;
+				break;
+			case END_ARRAY:
+				this.arrayDepth--;
+				break;
+			default:
+				break;
+		}
+	}
+
+	private void processTokenNormal(JsonToken token, List<TokenBuffer> result) throws IOException {
+		this.tokenBuffer.copyCurrentEvent(this.parser);
+
+		if ((token.isStructEnd() || token.isScalarValue()) &&
+				this.objectDepth == 0 && this.arrayDepth == 0) {
+			result.add(this.tokenBuffer);
+			this.tokenBuffer = new TokenBuffer(this.parser);
+		}
+	}
+
+	private void processTokenArray(JsonToken token, List<TokenBuffer> result) throws IOException {
+		boolean topLevelArrayToken = isTopLevelArrayToken(token);
+		if (!topLevelArrayToken) {
+			this.tokenBuffer.copyCurrentEvent(this.parser);
+		}
+
+		if (this.objectDepth == 0 && this.arrayDepth <= 1 &&
+				((token.isStructEnd() && !topLevelArrayToken) || token.isScalarValue())) {
+			result.add(this.tokenBuffer);
+			this.tokenBuffer = new TokenBuffer(this.parser);
+		}
+	}
+
+	private boolean isTopLevelArrayToken(JsonToken token) {
+		return (this.objectDepth == 0 && ((token == JsonToken.START_ARRAY && this.arrayDepth == 1) ||
+				(token == JsonToken.END_ARRAY && this.arrayDepth == 0)));
+	}
+
+}
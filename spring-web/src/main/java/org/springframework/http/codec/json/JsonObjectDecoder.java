@@ -24,6 +24,7 @@ import java.util.function.Function;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
@@ -107,24 +108,24 @@ class JsonObjectDecoder extends AbstractDecoder<DataBuffer> {
 			int index;
 			int state;
 			boolean insideString;
-			ByteBuf input;
+			CompositeByteBuf input;
 			Integer writerIndex;
 
 			@Override
 			public Publisher<? extends DataBuffer> apply(DataBuffer buffer) {
 				List<DataBuffer> chunks = new ArrayList<>();
 				if (this.input == null) {
-					this.input = Unpooled.copiedBuffer(buffer.asByteBuffer());
-					DataBufferUtils.release(buffer);
-					this.writerIndex = this.input.writerIndex();
+					this.input = Unpooled.compositeBuffer(Integer.MAX_VALUE);
 				}
 				else {
-					this.index = this.index - this.input.readerIndex();
-					this.input = Unpooled.copiedBuffer(this.input,
-							Unpooled.copiedBuffer(buffer.asByteBuffer()));
-					DataBufferUtils.release(buffer);
-					this.writerIndex = this.input.writerIndex();
+					// Drop fully consumed chunks rather than copying the remainder
+					int readerIndex = this.input.readerIndex();
+					this.input.discardReadComponents();
+					this.index = this.index - (readerIndex - this.input.readerIndex());
 				}
+				this.input.addComponent(true, Unpooled.copiedBuffer(buffer.asByteBuffer()));
+				DataBufferUtils.release(buffer);
+				this.writerIndex = this.input.writerIndex();
 				if (this.state == ST_CORRUPTED) {
 					this.input.skipBytes(this.input.readableBytes());
 					return Flux.error(new IllegalStateException("Corrupted stream"));
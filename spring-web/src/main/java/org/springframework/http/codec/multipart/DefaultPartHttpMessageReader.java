@@ -0,0 +1,558 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.multipart;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpInputMessage;
+import org.springframework.http.codec.HttpMessageReader;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@code HttpMessageReader} for parsing {@code "multipart/form-data"} requests
+ * to a stream of {@link Part}'s, with a built-in non-blocking parser.
+ *
+ * <p>The content of each part is held in memory up to
+ * {@link #setMaxInMemorySize maxInMemorySize} bytes, and is streamed to a
+ * temporary file in the {@link #setFileStorageDirectory file storage directory}
+ * beyond that, so that memory usage is bounded regardless of the size of the
+ * upload. A part is emitted once all of its content has been received.
+ * {@link FilePart#transferTo} moves the temporary file of a part to its
+ * destination rather than copying it. On an error or cancellation, this reader
+ * deletes the files of all parts, emitted or not, unless they have been
+ * transferred already. Otherwise the files of emitted parts are deleted via
+ * {@link Part#delete()}, which happens automatically at the end of the exchange
+ * for parts registered through the {@link #PART_REGISTRY_HINT} hint.
+ * Files are created, written, and deleted on the
+ * {@link #setBlockingOperationScheduler blocking operation scheduler}, so as not
+ * to block the thread that the request body is received on.
+ *
+ * <p>The number of parts, the size of the headers of a part, and the disk
+ * usage of a part can be limited as well. Exceeding a limit results in a
+ * {@link DecodingException}.
+ *
+ * <p>This reader can be provided to {@link MultipartHttpMessageReader} in order
+ * to aggregate all parts into a Map.
+ *
+ * @since 5.0
+ * @see MultipartHttpMessageReader
+ */
+public class DefaultPartHttpMessageReader implements HttpMessageReader<Part> {
+
+	/**
+	 * Name of the hint with a {@code Consumer<Part>} to pass each emitted part
+	 * with content in a temporary file to, so that the file can be deleted once
+	 * the request has been handled.
+	 * <p>{@link org.springframework.web.server.adapter.DefaultServerWebExchange}
+	 * exposes such a registry as an exchange attribute of the same name, and
+	 * deletes the registered parts at the end of the exchange.
+	 */
+	public static final String PART_REGISTRY_HINT = DefaultPartHttpMessageReader.class.getName() + ".partRegistry";
+
+	private static final String FILE_STORAGE_DIRECTORY_PREFIX = "spring-multipart-";
+
+
+	private final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+	private int maxInMemorySize = 256 * 1024;
+
+	private long maxDiskUsagePerPart = -1;
+
+	private int maxParts = -1;
+
+	private int maxHeadersSize = 8 * 1024;
+
+	private Charset headersCharset = StandardCharsets.UTF_8;
+
+	private Path fileStorageDirectory;
+
+	private Scheduler blockingOperationScheduler = Schedulers.elastic();
+
+
+	/**
+	 * Set the maximum number of bytes of the content of a part that is held
+	 * in memory. Content beyond that is written to a temporary file, except
+	 * for form fields, which are rejected if they exceed this size.
+	 * <p>By default this is set to 256K.
+	 */
+	public void setMaxInMemorySize(int maxInMemorySize) {
+		Assert.isTrue(maxInMemorySize >= 0, "'maxInMemorySize' must not be negative");
+		this.maxInMemorySize = maxInMemorySize;
+	}
+
+	/**
+	 * Return the configured {@link #setMaxInMemorySize maxInMemorySize}.
+	 */
+	public int getMaxInMemorySize() {
+		return this.maxInMemorySize;
+	}
+
+	/**
+	 * Set the maximum number of bytes of the content of a part that is
+	 * written to disk.
+	 * <p>By default this is set to -1, meaning that there is no limit.
+	 */
+	public void setMaxDiskUsagePerPart(long maxDiskUsagePerPart) {
+		this.maxDiskUsagePerPart = maxDiskUsagePerPart;
+	}
+
+	/**
+	 * Return the configured {@link #setMaxDiskUsagePerPart maxDiskUsagePerPart}.
+	 */
+	public long getMaxDiskUsagePerPart() {
+		return this.maxDiskUsagePerPart;
+	}
+
+	/**
+	 * Set the maximum number of parts of a multipart request.
+	 * <p>By default this is set to -1, meaning that there is no limit.
+	 */
+	public void setMaxParts(int maxParts) {
+		this.maxParts = maxParts;
+	}
+
+	/**
+	 * Return the configured {@link #setMaxParts maxParts}.
+	 */
+	public int getMaxParts() {
+		return this.maxParts;
+	}
+
+	/**
+	 * Set the maximum number of bytes of the headers of a part.
+	 * <p>By default this is set to 8K.
+	 */
+	public void setMaxHeadersSize(int maxHeadersSize) {
+		this.maxHeadersSize = maxHeadersSize;
+	}
+
+	/**
+	 * Return the configured {@link #setMaxHeadersSize maxHeadersSize}.
+	 */
+	public int getMaxHeadersSize() {
+		return this.maxHeadersSize;
+	}
+
+	/**
+	 * Set the charset to decode the headers of a part with.
+	 * <p>By default this is set to UTF-8.
+	 */
+	public void setHeadersCharset(Charset headersCharset) {
+		Assert.notNull(headersCharset, "'headersCharset' must not be null");
+		this.headersCharset = headersCharset;
+	}
+
+	/**
+	 * Return the configured {@link #setHeadersCharset headersCharset}.
+	 */
+	public Charset getHeadersCharset() {
+		return this.headersCharset;
+	}
+
+	/**
+	 * Set the directory to store the content of parts in, once it exceeds
+	 * {@link #setMaxInMemorySize maxInMemorySize}.
+	 * <p>By default, a new directory is created under the system temporary
+	 * directory the first time it is needed.
+	 */
+	public void setFileStorageDirectory(Path fileStorageDirectory) {
+		Assert.notNull(fileStorageDirectory, "'fileStorageDirectory' must not be null");
+		this.fileStorageDirectory = fileStorageDirectory;
+	}
+
+	/**
+	 * Set the {@link Scheduler} to perform file operations on, i.e. creating,
+	 * writing, reading, moving, and deleting the temporary files of parts.
+	 * <p>By default this is set to {@link Schedulers#elastic()}. Consider a
+	 * dedicated scheduler with a bounded number of threads in order to limit
+	 * the number of concurrent file operations.
+	 */
+	public void setBlockingOperationScheduler(Scheduler blockingOperationScheduler) {
+		Assert.notNull(blockingOperationScheduler, "'blockingOperationScheduler' must not be null");
+		this.blockingOperationScheduler = blockingOperationScheduler;
+	}
+
+
+	@Override
+	public List<MediaType> getReadableMediaTypes() {
+		return Collections.singletonList(MediaType.MULTIPART_FORM_DATA);
+	}
+
+	@Override
+	public boolean canRead(ResolvableType elementType, @Nullable MediaType mediaType) {
+		return Part.class.equals(elementType.resolve(Object.class)) &&
+				(mediaType == null || MediaType.MULTIPART_FORM_DATA.isCompatibleWith(mediaType));
+	}
+
+
+	@Override
+	public Flux<Part> read(ResolvableType elementType, ReactiveHttpInputMessage message,
+			Map<String, Object> hints) {
+
+		return Flux.defer(() -> {
+			byte[] boundary = getBoundary(message.getHeaders());
+			if (boundary == null) {
+				return Flux.error(new DecodingException("No multipart boundary found in Content-Type: \"" +
+						message.getHeaders().getContentType() + "\""));
+			}
+			@SuppressWarnings("unchecked")
+			Consumer<Part> partRegistry = (Consumer<Part>) hints.get(PART_REGISTRY_HINT);
+			PartGenerator generator = new PartGenerator(boundary, partRegistry);
+			return message.getBody()
+					.concatMap(generator::generate)
+					.concatWith(Mono.defer(generator::complete))
+					.onErrorResume(ex -> generator.discard().then(Mono.error(ex)))
+					.doOnCancel(() -> generator.discard().subscribe());
+		});
+	}
+
+	@Override
+	public Mono<Part> readMono(ResolvableType elementType, ReactiveHttpInputMessage message,
+			Map<String, Object> hints) {
+
+		return Mono.error(new UnsupportedOperationException(
+				"This reader does not support reading a single element."));
+	}
+
+	@Nullable
+	private byte[] getBoundary(HttpHeaders headers) {
+		MediaType contentType = headers.getContentType();
+		if (contentType != null) {
+			String boundary = contentType.getParameter("boundary");
+			if (StringUtils.hasLength(boundary)) {
+				if (boundary.length() > 2 && boundary.startsWith("\"") && boundary.endsWith("\"")) {
+					boundary = boundary.substring(1, boundary.length() - 1);
+				}
+				return boundary.getBytes(StandardCharsets.ISO_8859_1);
+			}
+		}
+		return null;
+	}
+
+	private synchronized Path getFileStorageDirectory() throws IOException {
+		if (this.fileStorageDirectory == null) {
+			this.fileStorageDirectory = Files.createTempDirectory(FILE_STORAGE_DIRECTORY_PREFIX);
+		}
+		else if (!Files.exists(this.fileStorageDirectory)) {
+			Files.createDirectories(this.fileStorageDirectory);
+		}
+		return this.fileStorageDirectory;
+	}
+
+
+	/**
+	 * Creates parts from the events of a {@link MultipartParser}, holding their
+	 * content in memory or in a temporary file. Parsing happens on the thread
+	 * that emits the data buffers, and file operations are performed on the
+	 * {@link #setBlockingOperationScheduler blocking operation scheduler}
+	 * before the parts completed by a data buffer are emitted.
+	 */
+	private class PartGenerator implements MultipartParser.Listener {
+
+		private final MultipartParser parser;
+
+		private final List<Supplier<Part>> parts = new ArrayList<>();
+
+		/** Files with pending writes, in the order of their parts */
+		private final Set<PartFile> pendingFiles = new LinkedHashSet<>();
+
+		/** Files of parts that have not been emitted yet */
+		private final List<PartFile> files = new ArrayList<>();
+
+		/** Emitted parts with content in a file, to delete on error or cancellation */
+		private final List<Part> fileParts = new ArrayList<>();
+
+		@Nullable
+		private final Consumer<Part> partRegistry;
+
+		private int partCount;
+
+		private HttpHeaders headers;
+
+		private boolean formField;
+
+		private List<byte[]> memoryContent;
+
+		private long contentSize;
+
+		private PartFile partFile;
+
+		public PartGenerator(byte[] boundary, @Nullable Consumer<Part> partRegistry) {
+			this.parser = new MultipartParser(boundary, maxHeadersSize, headersCharset, this);
+			this.partRegistry = partRegistry;
+		}
+
+		public Flux<Part> generate(DataBuffer dataBuffer) {
+			this.parser.parse(dataBuffer);
+			List<Supplier<Part>> parts = new ArrayList<>(this.parts);
+			this.parts.clear();
+			Flux<Part> result = Flux.fromIterable(parts).map(Supplier::get);
+			if (this.pendingFiles.isEmpty()) {
+				return result;
+			}
+			List<PartFile> pendingFiles = new ArrayList<>(this.pendingFiles);
+			this.pendingFiles.clear();
+			return Mono.fromCallable(() -> {
+						for (PartFile pendingFile : pendingFiles) {
+							pendingFile.flush();
+						}
+						return pendingFiles;
+					})
+					.subscribeOn(blockingOperationScheduler)
+					.thenMany(result);
+		}
+
+		public Mono<Part> complete() {
+			if (!this.parser.isComplete()) {
+				return Mono.error(new DecodingException("Could not find end of multipart body"));
+			}
+			return Mono.empty();
+		}
+
+		/**
+		 * Delete the files of all parts that have not been emitted, as well as
+		 * the files of emitted parts that have not been transferred or deleted
+		 * by the consumer, on the blocking operation scheduler.
+		 */
+		public Mono<Void> discard() {
+			List<PartFile> files;
+			List<Part> fileParts;
+			synchronized (this.files) {
+				files = new ArrayList<>(this.files);
+				this.files.clear();
+				fileParts = new ArrayList<>(this.fileParts);
+				this.fileParts.clear();
+			}
+			if (files.isEmpty() && fileParts.isEmpty()) {
+				return Mono.empty();
+			}
+			return Mono.<Void>fromRunnable(() -> files.forEach(PartFile::delete))
+					.subscribeOn(blockingOperationScheduler)
+					.thenMany(Flux.fromIterable(fileParts))
+					.concatMap(part -> part.delete().onErrorResume(ex -> Mono.empty()))
+					.then();
+		}
+
+		@Override
+		public void headers(HttpHeaders headers) {
+			this.partCount++;
+			if (maxParts > 0 && this.partCount > maxParts) {
+				throw new DecodingException("Too many parts (" + maxParts + " allowed)");
+			}
+			this.headers = headers;
+			this.formField = DefaultParts.isFormField(headers);
+			this.memoryContent = new ArrayList<>();
+			this.contentSize = 0;
+		}
+
+		@Override
+		public void body(byte[] bytes, int offset, int length) {
+			this.contentSize += length;
+			if (this.partFile == null && this.contentSize <= maxInMemorySize) {
+				this.memoryContent.add(Arrays.copyOfRange(bytes, offset, offset + length));
+				return;
+			}
+			if (this.formField) {
+				throw new DecodingException("Form field value exceeded the memory usage limit of " +
+						maxInMemorySize + " bytes");
+			}
+			if (maxDiskUsagePerPart >= 0 && this.contentSize > maxDiskUsagePerPart) {
+				throw new DecodingException("Part exceeded the disk usage limit of " +
+						maxDiskUsagePerPart + " bytes");
+			}
+			if (this.partFile == null) {
+				this.partFile = new PartFile();
+				synchronized (this.files) {
+					this.files.add(this.partFile);
+				}
+				for (byte[] chunk : this.memoryContent) {
+					this.partFile.write(chunk);
+				}
+				this.memoryContent = null;
+			}
+			this.partFile.write(Arrays.copyOfRange(bytes, offset, offset + length));
+			this.pendingFiles.add(this.partFile);
+		}
+
+		@Override
+		public void partComplete() {
+			HttpHeaders headers = this.headers;
+			if (this.formField) {
+				String value = concat(this.memoryContent, this.contentSize, getCharset(headers));
+				FormFieldPart part = DefaultParts.formFieldPart(headers, value, bufferFactory);
+				this.parts.add(() -> part);
+			}
+			else if (this.partFile != null) {
+				PartFile partFile = this.partFile;
+				partFile.complete();
+				this.pendingFiles.add(partFile);
+				this.parts.add(() -> {
+					Part part = DefaultParts.part(headers, partFile.getFile(), bufferFactory, blockingOperationScheduler);
+					synchronized (this.files) {
+						this.files.remove(partFile);
+						this.fileParts.add(part);
+					}
+					if (this.partRegistry != null) {
+						this.partRegistry.accept(part);
+					}
+					return part;
+				});
+				this.partFile = null;
+			}
+			else {
+				Part part = DefaultParts.part(headers, this.memoryContent, bufferFactory, blockingOperationScheduler);
+				this.parts.add(() -> part);
+			}
+			this.headers = null;
+			this.memoryContent = null;
+		}
+
+		private Charset getCharset(HttpHeaders headers) {
+			MediaType contentType = headers.getContentType();
+			return (contentType != null && contentType.getCharset() != null ?
+					contentType.getCharset() : StandardCharsets.UTF_8);
+		}
+
+		private String concat(List<byte[]> chunks, long size, Charset charset) {
+			byte[] bytes = new byte[(int) size];
+			int position = 0;
+			for (byte[] chunk : chunks) {
+				System.arraycopy(chunk, 0, bytes, position, chunk.length);
+				position += chunk.length;
+			}
+			return new String(bytes, charset);
+		}
+	}
+
+
+	/**
+	 * The temporary file of a part. Content is collected on the parsing thread,
+	 * and written by {@link #flush()} on the blocking operation scheduler.
+	 */
+	private class PartFile {
+
+		private final List<byte[]> pendingChunks = new ArrayList<>();
+
+		private Path file;
+
+		private FileChannel fileChannel;
+
+		private boolean complete;
+
+		private boolean deleted;
+
+		public synchronized void write(byte[] chunk) {
+			this.pendingChunks.add(chunk);
+		}
+
+		public synchronized void complete() {
+			this.complete = true;
+		}
+
+		/**
+		 * Write all pending chunks, creating the file first if necessary,
+		 * and close the file once the part is complete.
+		 */
+		public synchronized void flush() {
+			if (this.deleted) {
+				return;
+			}
+			try {
+				if (this.file == null) {
+					this.file = Files.createTempFile(getFileStorageDirectory(), null, ".multipart");
+					this.fileChannel = FileChannel.open(this.file, StandardOpenOption.WRITE);
+				}
+				for (byte[] chunk : this.pendingChunks) {
+					ByteBuffer byteBuffer = ByteBuffer.wrap(chunk);
+					while (byteBuffer.hasRemaining()) {
+						this.fileChannel.write(byteBuffer);
+					}
+				}
+				this.pendingChunks.clear();
+				if (this.complete) {
+					closeFileChannel();
+				}
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Could not write part content to " + this.file, ex);
+			}
+		}
+
+		public synchronized Path getFile() {
+			Assert.state(this.file != null && this.fileChannel == null, "Part content not written yet");
+			return this.file;
+		}
+
+		public synchronized void delete() {
+			this.deleted = true;
+			this.pendingChunks.clear();
+			try {
+				closeFileChannel();
+			}
+			catch (IOException ex) {
+				// ignore
+			}
+			if (this.file != null) {
+				try {
+					Files.deleteIfExists(this.file);
+				}
+				catch (IOException ex) {
+					// ignore
+				}
+			}
+		}
+
+		private void closeFileChannel() throws IOException {
+			if (this.fileChannel != null) {
+				FileChannel fileChannel = this.fileChannel;
+				this.fileChannel = null;
+				fileChannel.close();
+			}
+		}
+	}
+
+}
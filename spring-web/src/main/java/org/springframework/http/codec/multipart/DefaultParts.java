@@ -0,0 +1,327 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.multipart;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.Assert;
+
+/**
+ * Default implementations of {@link Part} and its subtypes, with content held
+ * either in memory or in a file, as created by {@link DefaultPartHttpMessageReader}.
+ *
+ * @since 5.0
+ */
+abstract class DefaultParts {
+
+	/**
+	 * Create a new {@link FormFieldPart} with the given headers and value.
+	 */
+	public static FormFieldPart formFieldPart(HttpHeaders headers, String value,
+			DataBufferFactory bufferFactory) {
+
+		return new DefaultFormFieldPart(headers, value, bufferFactory);
+	}
+
+	/**
+	 * Create a new {@link Part} or {@link FilePart} with the given headers and
+	 * content held in memory, transferred to a file on the given scheduler.
+	 */
+	public static Part part(HttpHeaders headers, List<byte[]> content, DataBufferFactory bufferFactory,
+			Scheduler scheduler) {
+
+		Content memoryContent = new MemoryContent(content, bufferFactory, scheduler);
+		return (headers.getContentDisposition().getFilename() != null ?
+				new DefaultFilePart(headers, memoryContent) : new DefaultPart(headers, memoryContent));
+	}
+
+	/**
+	 * Create a new {@link Part} or {@link FilePart} with the given headers and
+	 * content held in the given file, accessed on the given scheduler.
+	 */
+	public static Part part(HttpHeaders headers, Path file, DataBufferFactory bufferFactory,
+			Scheduler scheduler) {
+
+		Content fileContent = new FileContent(file, bufferFactory, scheduler);
+		return (headers.getContentDisposition().getFilename() != null ?
+				new DefaultFilePart(headers, fileContent) : new DefaultPart(headers, fileContent));
+	}
+
+	/**
+	 * Whether the part with the given headers is a form field, i.e. a part
+	 * without filename and with a "text/plain" content type, if any.
+	 */
+	public static boolean isFormField(HttpHeaders headers) {
+		MediaType contentType = headers.getContentType();
+		return ((contentType == null || MediaType.TEXT_PLAIN.isCompatibleWith(contentType)) &&
+				headers.getContentDisposition().getFilename() == null);
+	}
+
+
+	private static abstract class AbstractPart implements Part {
+
+		private final HttpHeaders headers;
+
+		protected AbstractPart(HttpHeaders headers) {
+			Assert.notNull(headers, "HttpHeaders is required");
+			this.headers = headers;
+		}
+
+		@Override
+		public String name() {
+			String name = this.headers.getContentDisposition().getName();
+			Assert.state(name != null, "No name available");
+			return name;
+		}
+
+		@Override
+		public HttpHeaders headers() {
+			return this.headers;
+		}
+
+		@Override
+		public String toString() {
+			return "Part '" + name() + "'";
+		}
+	}
+
+
+	private static class DefaultFormFieldPart extends AbstractPart implements FormFieldPart {
+
+		private final String value;
+
+		private final DataBufferFactory bufferFactory;
+
+		public DefaultFormFieldPart(HttpHeaders headers, String value, DataBufferFactory bufferFactory) {
+			super(headers);
+			this.value = value;
+			this.bufferFactory = bufferFactory;
+		}
+
+		@Override
+		public String value() {
+			return this.value;
+		}
+
+		@Override
+		public Flux<DataBuffer> content() {
+			return Flux.defer(() -> {
+				MediaType contentType = headers().getContentType();
+				Charset charset = (contentType != null && contentType.getCharset() != null ?
+						contentType.getCharset() : StandardCharsets.UTF_8);
+				return Flux.just(this.bufferFactory.wrap(this.value.getBytes(charset)));
+			});
+		}
+	}
+
+
+	private static class DefaultPart extends AbstractPart {
+
+		protected final Content content;
+
+		public DefaultPart(HttpHeaders headers, Content content) {
+			super(headers);
+			this.content = content;
+		}
+
+		@Override
+		public Flux<DataBuffer> content() {
+			return this.content.content();
+		}
+
+		@Override
+		public Mono<Void> delete() {
+			return this.content.delete();
+		}
+	}
+
+
+	private static class DefaultFilePart extends DefaultPart implements FilePart {
+
+		public DefaultFilePart(HttpHeaders headers, Content content) {
+			super(headers, content);
+		}
+
+		@Override
+		public String filename() {
+			String filename = headers().getContentDisposition().getFilename();
+			Assert.state(filename != null, "No filename available");
+			return filename;
+		}
+
+		@Override
+		public Mono<Void> transferTo(File dest) {
+			return this.content.transferTo(dest.toPath());
+		}
+
+		@Override
+		public String toString() {
+			return "FilePart '" + name() + "' (" + filename() + ")";
+		}
+	}
+
+
+	/**
+	 * The content of a part.
+	 */
+	private interface Content {
+
+		Flux<DataBuffer> content();
+
+		Mono<Void> transferTo(Path dest);
+
+		Mono<Void> delete();
+	}
+
+
+	/**
+	 * Content held in memory, as the chunks it was received in.
+	 * Transfers to a file are performed on the given scheduler.
+	 */
+	private static final class MemoryContent implements Content {
+
+		private final List<byte[]> chunks;
+
+		private final DataBufferFactory bufferFactory;
+
+		private final Scheduler scheduler;
+
+		public MemoryContent(List<byte[]> chunks, DataBufferFactory bufferFactory, Scheduler scheduler) {
+			this.chunks = chunks;
+			this.bufferFactory = bufferFactory;
+			this.scheduler = scheduler;
+		}
+
+		@Override
+		public Flux<DataBuffer> content() {
+			return Flux.fromIterable(this.chunks).map(this.bufferFactory::wrap);
+		}
+
+		@Override
+		public Mono<Void> transferTo(Path dest) {
+			return Mono.defer(() -> {
+				try (OutputStream outputStream = Files.newOutputStream(dest)) {
+					for (byte[] chunk : this.chunks) {
+						outputStream.write(chunk);
+					}
+				}
+				catch (IOException ex) {
+					return Mono.error(ex);
+				}
+				return Mono.empty();
+			}).subscribeOn(this.scheduler);
+		}
+
+		@Override
+		public Mono<Void> delete() {
+			return Mono.empty();
+		}
+	}
+
+
+	/**
+	 * Content held in a file, which is moved rather than copied on transfer.
+	 * File operations are performed on the given scheduler.
+	 */
+	private static final class FileContent implements Content {
+
+		private volatile Path file;
+
+		private final DataBufferFactory bufferFactory;
+
+		private final Scheduler scheduler;
+
+		/** Whether the file is still the temporary file, rather than a transfer destination */
+		private boolean temporary = true;
+
+		public FileContent(Path file, DataBufferFactory bufferFactory, Scheduler scheduler) {
+			this.file = file;
+			this.bufferFactory = bufferFactory;
+			this.scheduler = scheduler;
+		}
+
+		@Override
+		public Flux<DataBuffer> content() {
+			return Flux.defer(() -> {
+				try {
+					AsynchronousFileChannel channel =
+							AsynchronousFileChannel.open(this.file, StandardOpenOption.READ);
+					return DataBufferUtils.read(channel, this.bufferFactory, 64 * 1024);
+				}
+				catch (IOException ex) {
+					return Flux.<DataBuffer>error(ex);
+				}
+			}).subscribeOn(this.scheduler);
+		}
+
+		@Override
+		public Mono<Void> transferTo(Path dest) {
+			return Mono.defer(() -> {
+				try {
+					moveFile(dest);
+				}
+				catch (IOException ex) {
+					return Mono.error(ex);
+				}
+				return Mono.empty();
+			}).subscribeOn(this.scheduler);
+		}
+
+		private synchronized void moveFile(Path dest) throws IOException {
+			if (!this.file.equals(dest)) {
+				// A rename within the same file system, and a copy only across file systems
+				Files.move(this.file, dest, StandardCopyOption.REPLACE_EXISTING);
+				this.file = dest;
+				this.temporary = false;
+			}
+		}
+
+		@Override
+		public Mono<Void> delete() {
+			return Mono.<Void>fromCallable(() -> {
+				deleteFile();
+				return null;
+			}).subscribeOn(this.scheduler);
+		}
+
+		private synchronized void deleteFile() throws IOException {
+			if (this.temporary) {
+				Files.deleteIfExists(this.file);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.multipart;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Incremental, push-based parser for multipart bodies as defined in
+ * <a href="https://tools.ietf.org/html/rfc2046#section-5.1">RFC 2046</a>.
+ * The body is fed one data buffer at a time, and the headers and content of
+ * each part are passed to a {@link Listener} as they are recognized, so that
+ * neither the body nor a part have to be held in memory.
+ *
+ * <p>Only the few bytes at the end of a data buffer that may be the start of
+ * a boundary delimiter are carried over to the next data buffer.
+ *
+ * @since 5.0
+ */
+final class MultipartParser {
+
+	private static final byte CR = '\r';
+
+	private static final byte LF = '\n';
+
+	private static final byte HYPHEN = '-';
+
+	private static final byte[] EMPTY = new byte[0];
+
+
+	private final byte[] delimiter;
+
+	private final int maxHeadersSize;
+
+	private final Charset headersCharset;
+
+	private final Listener listener;
+
+	private State state = State.PREAMBLE;
+
+	/** Bytes from the end of the previous data buffer that still need to be parsed */
+	private byte[] carryOver;
+
+	private final ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+
+	/** The number of bytes of the "\r\n\r\n" sequence ending the headers matched so far */
+	private int headersEndMatch;
+
+
+	/**
+	 * Create a new parser for the given boundary.
+	 * @param boundary the boundary, from the "boundary" parameter of the content type
+	 * @param maxHeadersSize the maximum number of bytes of the headers of a part
+	 * @param headersCharset the charset to decode part headers with
+	 * @param listener the listener to pass headers and content to
+	 */
+	public MultipartParser(byte[] boundary, int maxHeadersSize, Charset headersCharset, Listener listener) {
+		this.delimiter = new byte[boundary.length + 4];
+		this.delimiter[0] = CR;
+		this.delimiter[1] = LF;
+		this.delimiter[2] = HYPHEN;
+		this.delimiter[3] = HYPHEN;
+		System.arraycopy(boundary, 0, this.delimiter, 4, boundary.length);
+		this.maxHeadersSize = maxHeadersSize;
+		this.headersCharset = headersCharset;
+		this.listener = listener;
+		// The first delimiter may be at the very start of the body, without a preceding line break
+		this.carryOver = new byte[] {CR, LF};
+	}
+
+
+	/**
+	 * Parse the given data buffer, and release it.
+	 * @throws DecodingException if the body is not a valid multipart body, or
+	 * exceeds the configured limits
+	 */
+	public void parse(DataBuffer dataBuffer) {
+		byte[] bytes;
+		try {
+			int length = dataBuffer.readableByteCount();
+			bytes = Arrays.copyOf(this.carryOver, this.carryOver.length + length);
+			dataBuffer.read(bytes, this.carryOver.length, length);
+		}
+		finally {
+			DataBufferUtils.release(dataBuffer);
+		}
+		this.carryOver = EMPTY;
+
+		int position = 0;
+		while (position < bytes.length) {
+			switch (this.state) {
+				case PREAMBLE:
+				case BODY:
+					position = parseBody(bytes, position);
+					break;
+				case DELIMITER_SUFFIX:
+					position = parseDelimiterSuffix(bytes, position);
+					break;
+				case HEADERS:
+					position = parseHeaders(bytes, position);
+					break;
+				default:
+					// Ignore the epilogue
+					return;
+			}
+		}
+	}
+
+	/**
+	 * Whether the close delimiter, which ends the multipart body, has been parsed.
+	 */
+	public boolean isComplete() {
+		return (this.state == State.EPILOGUE);
+	}
+
+	private int parseBody(byte[] bytes, int position) {
+		int index = indexOfDelimiter(bytes, position);
+		if (index != -1) {
+			if (this.state == State.BODY) {
+				if (index > position) {
+					this.listener.body(bytes, position, index - position);
+				}
+				this.listener.partComplete();
+			}
+			this.state = State.DELIMITER_SUFFIX;
+			return index + this.delimiter.length;
+		}
+		int end = carryOverStart(bytes, position);
+		if (this.state == State.BODY && end > position) {
+			this.listener.body(bytes, position, end - position);
+		}
+		this.carryOver = Arrays.copyOfRange(bytes, end, bytes.length);
+		return bytes.length;
+	}
+
+	private int indexOfDelimiter(byte[] bytes, int position) {
+		int last = bytes.length - this.delimiter.length;
+		for (int i = position; i <= last; i++) {
+			if (bytes[i] == CR && matchesDelimiter(bytes, i, this.delimiter.length)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Return the index of the first byte at the end of the given array that may
+	 * be the start of a delimiter, which has to be carried over to the next
+	 * data buffer, or the length of the array if there is none.
+	 */
+	private int carryOverStart(byte[] bytes, int position) {
+		int start = Math.max(position, bytes.length - this.delimiter.length + 1);
+		for (int i = start; i < bytes.length; i++) {
+			if (bytes[i] == CR && matchesDelimiter(bytes, i, bytes.length - i)) {
+				return i;
+			}
+		}
+		return bytes.length;
+	}
+
+	private boolean matchesDelimiter(byte[] bytes, int index, int length) {
+		for (int i = 1; i < length; i++) {
+			if (bytes[index + i] != this.delimiter[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int parseDelimiterSuffix(byte[] bytes, int position) {
+		if (bytes.length - position < 2) {
+			this.carryOver = Arrays.copyOfRange(bytes, position, bytes.length);
+			return bytes.length;
+		}
+		if (bytes[position] == HYPHEN && bytes[position + 1] == HYPHEN) {
+			this.state = State.EPILOGUE;
+			return bytes.length;
+		}
+		// Skip transport padding
+		while (position < bytes.length && (bytes[position] == ' ' || bytes[position] == '\t')) {
+			position++;
+		}
+		if (bytes.length - position < 2) {
+			this.carryOver = Arrays.copyOfRange(bytes, position, bytes.length);
+			return bytes.length;
+		}
+		if (bytes[position] != CR || bytes[position + 1] != LF) {
+			throw new DecodingException("Invalid multipart boundary delimiter: expected CRLF");
+		}
+		this.state = State.HEADERS;
+		this.headerBytes.reset();
+		// The line break of the delimiter line counts towards the "\r\n\r\n" ending
+		// the headers, so that an empty line right after it means "no headers"
+		this.headersEndMatch = 2;
+		return position + 2;
+	}
+
+	private int parseHeaders(byte[] bytes, int position) {
+		for (int i = position; i < bytes.length; i++) {
+			updateHeadersEndMatch(bytes[i]);
+			if (this.headersEndMatch == 4) {
+				appendHeaderBytes(bytes, position, i + 1 - position);
+				this.listener.headers(toHttpHeaders());
+				this.state = State.BODY;
+				return i + 1;
+			}
+		}
+		appendHeaderBytes(bytes, position, bytes.length - position);
+		return bytes.length;
+	}
+
+	private void updateHeadersEndMatch(byte b) {
+		if (b == CR) {
+			this.headersEndMatch = (this.headersEndMatch == 2 ? 3 : 1);
+		}
+		else if (b == LF && (this.headersEndMatch == 1 || this.headersEndMatch == 3)) {
+			this.headersEndMatch++;
+		}
+		else {
+			this.headersEndMatch = 0;
+		}
+	}
+
+	private void appendHeaderBytes(byte[] bytes, int offset, int length) {
+		if (this.headerBytes.size() + length > this.maxHeadersSize) {
+			throw new DecodingException("Part headers exceeded the limit of " + this.maxHeadersSize + " bytes");
+		}
+		this.headerBytes.write(bytes, offset, length);
+	}
+
+	private HttpHeaders toHttpHeaders() {
+		HttpHeaders headers = new HttpHeaders();
+		String name = null;
+		String value = null;
+		for (String line : new String(this.headerBytes.toByteArray(), this.headersCharset).split("\r\n")) {
+			if (line.isEmpty()) {
+				continue;
+			}
+			if ((line.charAt(0) == ' ' || line.charAt(0) == '\t') && name != null) {
+				// Folded header value
+				value = value + ' ' + line.trim();
+				continue;
+			}
+			if (name != null) {
+				headers.add(name, value);
+			}
+			int colon = line.indexOf(':');
+			if (colon <= 0) {
+				throw new DecodingException("Invalid part header: \"" + line + "\"");
+			}
+			name = line.substring(0, colon).trim();
+			value = line.substring(colon + 1).trim();
+		}
+		if (name != null) {
+			headers.add(name, value);
+		}
+		return headers;
+	}
+
+
+	private enum State {
+
+		/** Before the first boundary delimiter */
+		PREAMBLE,
+
+		/** After a boundary delimiter: either "--" for the last one, or a line break */
+		DELIMITER_SUFFIX,
+
+		/** The headers of a part */
+		HEADERS,
+
+		/** The content of a part */
+		BODY,
+
+		/** After the close delimiter */
+		EPILOGUE
+	}
+
+
+	/**
+	 * Callback for the parts recognized by a {@link MultipartParser}.
+	 */
+	interface Listener {
+
+		/**
+		 * Called with the headers of a part, before its content.
+		 */
+		void headers(HttpHeaders headers);
+
+		/**
+		 * Called with a chunk of the content of the current part. The given
+		 * array is only valid for the duration of the call.
+		 */
+		void body(byte[] bytes, int offset, int length);
+
+		/**
+		 * Called when all of the content of the current part has been passed.
+		 */
+		void partComplete();
+	}
+
+}
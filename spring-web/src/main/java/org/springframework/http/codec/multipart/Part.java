@@ -17,6 +17,7 @@
 package org.springframework.http.codec.multipart;
 
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
@@ -57,4 +58,15 @@ public interface Part {
 	 */
 	Flux<DataBuffer> content();
 
+	/**
+	 * Delete the underlying storage of the content of this part, if any,
+	 * e.g. the temporary file that the content was written to while reading.
+	 * <p>By default this does nothing.
+	 * @return a completion signal, once the storage has been deleted
+	 * @since 5.0
+	 */
+	default Mono<Void> delete() {
+		return Mono.empty();
+	}
+
 }
@@ -0,0 +1,301 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.protobuf;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.ExtensionRegistry;
+import com.google.protobuf.Message;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.converter.protobuf.ExtensionRegistryInitializer;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+
+/**
+ * A {@code Decoder} that reads {@link com.google.protobuf.Message}s
+ * using <a href="https://developers.google.com/protocol-buffers/">Google Protocol Buffers</a>.
+ *
+ * <p>A {@code Mono} is decoded from the whole input, which is expected to
+ * contain a single message. A {@code Flux} is decoded from a stream of
+ * varint length-delimited messages, as written by
+ * {@link Message#writeDelimitedTo(java.io.OutputStream)}, emitting each
+ * message as soon as its last byte has been received.
+ *
+ * <p>To generate {@code Message} Java classes, you need to install the {@code protoc} binary.
+ *
+ * <p>This decoder requires Protobuf 3 or higher, and supports
+ * {@code "application/x-protobuf"} with the official
+ * {@code "com.google.protobuf:protobuf-java"} library.
+ *
+ * @since 5.0
+ * @see ProtobufEncoder
+ */
+public class ProtobufDecoder extends ProtobufCodecSupport implements Decoder<Message> {
+
+	/**
+	 * The default max size for a message.
+	 */
+	public static final int DEFAULT_MESSAGE_MAX_SIZE = 64 * 1024;
+
+
+	private final ExtensionRegistry extensionRegistry = ExtensionRegistry.newInstance();
+
+	private int maxMessageSize = DEFAULT_MESSAGE_MAX_SIZE;
+
+
+	/**
+	 * Construct a new {@code ProtobufDecoder}.
+	 */
+	public ProtobufDecoder() {
+		this(null);
+	}
+
+	/**
+	 * Construct a new {@code ProtobufDecoder} with an initializer that allows
+	 * the registration of message extensions.
+	 * @param registryInitializer an initializer for message extensions
+	 */
+	public ProtobufDecoder(@Nullable ExtensionRegistryInitializer registryInitializer) {
+		if (registryInitializer != null) {
+			registryInitializer.initializeExtensionRegistry(this.extensionRegistry);
+		}
+	}
+
+
+	/**
+	 * Set the max size of a message, beyond which a {@link DecodingException}
+	 * is raised. This applies to each message of a length-delimited stream as
+	 * well as to a single message decoded from the whole input.
+	 * <p>By default this is set to {@link #DEFAULT_MESSAGE_MAX_SIZE}.
+	 */
+	public void setMaxMessageSize(int maxMessageSize) {
+		this.maxMessageSize = maxMessageSize;
+	}
+
+	/**
+	 * Return the configured max size of a message.
+	 */
+	public int getMaxMessageSize() {
+		return this.maxMessageSize;
+	}
+
+
+	@Override
+	public boolean canDecode(ResolvableType elementType, @Nullable MimeType mimeType) {
+		return (Message.class.isAssignableFrom(elementType.resolve(Object.class)) &&
+				supportsMimeType(mimeType));
+	}
+
+	@Override
+	public List<MimeType> getDecodableMimeTypes() {
+		return getMimeTypes();
+	}
+
+	@Override
+	public Flux<Message> decode(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+
+		return Flux.defer(() -> {
+			DelimitedMessageReader reader = new DelimitedMessageReader(elementType.resolve(Object.class));
+			return Flux.from(inputStream)
+					.concatMapIterable(reader::read)
+					.concatWith(Mono.defer(reader::complete));
+		});
+	}
+
+	@Override
+	public Mono<Message> decodeToMono(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+
+		Class<?> messageClass = elementType.resolve(Object.class);
+		return Mono.defer(() -> {
+			// Collected here rather than with DataBufferUtils.join, so they can be released on error
+			List<DataBuffer> dataBuffers = new ArrayList<>();
+			AtomicLong byteCount = new AtomicLong();
+			return Flux.from(inputStream)
+					.doOnNext(dataBuffer -> {
+						dataBuffers.add(dataBuffer);
+						long count = byteCount.addAndGet(dataBuffer.readableByteCount());
+						if (count > this.maxMessageSize) {
+							throw new DecodingException("The number of bytes to read for the message (at least " +
+									count + ") exceeds the configured limit (" + this.maxMessageSize + ")");
+						}
+					})
+					.then(Mono.defer(() -> {
+						if (dataBuffers.isEmpty()) {
+							return Mono.empty();
+						}
+						DataBuffer dataBuffer = dataBuffers.get(0).factory().join(new ArrayList<>(dataBuffers));
+						dataBuffers.clear();
+						try {
+							return Mono.just(readMessage(messageClass, codedInput(dataBuffer.asByteBuffer())));
+						}
+						finally {
+							DataBufferUtils.release(dataBuffer);
+						}
+					}))
+					.doFinally(signalType -> {
+						dataBuffers.forEach(DataBufferUtils::release);
+						dataBuffers.clear();
+					});
+		});
+	}
+
+	/**
+	 * Create a {@code CodedInputStream} over the remaining bytes of the given
+	 * buffer, without copying if it is backed by an array. The bytes of direct
+	 * buffers are copied, since Protobuf's unsafe access to direct memory is
+	 * not reliable across JDK versions.
+	 */
+	private static CodedInputStream codedInput(ByteBuffer byteBuffer) {
+		if (byteBuffer.hasArray()) {
+			return CodedInputStream.newInstance(byteBuffer.array(),
+					byteBuffer.arrayOffset() + byteBuffer.position(), byteBuffer.remaining());
+		}
+		byte[] bytes = new byte[byteBuffer.remaining()];
+		byteBuffer.get(bytes);
+		return CodedInputStream.newInstance(bytes);
+	}
+
+	private Message readMessage(Class<?> messageClass, CodedInputStream input) {
+		try {
+			Message.Builder builder = getMessageBuilder(messageClass);
+			builder.mergeFrom(input, this.extensionRegistry);
+			return builder.build();
+		}
+		catch (IOException ex) {
+			throw new DecodingException("I/O error while parsing input stream", ex);
+		}
+		catch (Exception ex) {
+			throw new DecodingException("Could not read Protobuf message: " + ex.getMessage(), ex);
+		}
+	}
+
+
+	/**
+	 * Reads varint length-delimited messages from a stream of data buffers.
+	 * Messages contained in a single data buffer are parsed directly from it,
+	 * while the bytes of a message spanning several data buffers are gathered first.
+	 */
+	private class DelimitedMessageReader {
+
+		private final Class<?> messageClass;
+
+		private int messageSize;
+
+		/** The number of bits of the message size read so far, while within the varint */
+		private int messageSizeShift;
+
+		private byte[] messageBytes;
+
+		private int messageBytesRead;
+
+		public DelimitedMessageReader(Class<?> messageClass) {
+			this.messageClass = messageClass;
+		}
+
+		public List<Message> read(DataBuffer dataBuffer) {
+			try {
+				ByteBuffer input = dataBuffer.asByteBuffer();
+				List<Message> result = new ArrayList<>();
+				while (input.hasRemaining()) {
+					if (this.messageBytes == null) {
+						if (!readMessageSize(input)) {
+							break;
+						}
+						if (input.remaining() >= this.messageSize) {
+							result.add(readMessageInPlace(input, this.messageSize));
+							continue;
+						}
+						this.messageBytes = new byte[this.messageSize];
+						this.messageBytesRead = 0;
+					}
+					int length = Math.min(input.remaining(), this.messageSize - this.messageBytesRead);
+					input.get(this.messageBytes, this.messageBytesRead, length);
+					this.messageBytesRead += length;
+					if (this.messageBytesRead == this.messageSize) {
+						result.add(readMessage(this.messageClass, CodedInputStream.newInstance(this.messageBytes)));
+						this.messageBytes = null;
+					}
+				}
+				return result;
+			}
+			finally {
+				DataBufferUtils.release(dataBuffer);
+			}
+		}
+
+		public Mono<Message> complete() {
+			if (this.messageBytes != null || this.messageSizeShift != 0) {
+				return Mono.error(new DecodingException("Incomplete Protobuf message at end of stream"));
+			}
+			return Mono.empty();
+		}
+
+		/**
+		 * Read the varint size of the next message, possibly continuing a varint
+		 * split across data buffers.
+		 * @return {@code true} if the size has been read completely
+		 */
+		private boolean readMessageSize(ByteBuffer input) {
+			if (this.messageSizeShift == 0) {
+				this.messageSize = 0;
+			}
+			while (input.hasRemaining()) {
+				int b = input.get();
+				if (this.messageSizeShift >= 32) {
+					throw new DecodingException("Cannot parse message size: malformed varint");
+				}
+				this.messageSize |= (b & 0x7f) << this.messageSizeShift;
+				this.messageSizeShift += 7;
+				if ((b & 0x80) == 0) {
+					this.messageSizeShift = 0;
+					if (this.messageSize < 0 || this.messageSize > maxMessageSize) {
+						throw new DecodingException("The number of bytes to read for the message (" +
+								this.messageSize + ") exceeds the configured limit (" + maxMessageSize + ")");
+					}
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private Message readMessageInPlace(ByteBuffer input, int size) {
+			ByteBuffer messageBuffer = input.slice();
+			// Explicit cast for compatibility with covariant return type on JDK 9's ByteBuffer
+			((Buffer) messageBuffer).limit(size);
+			((Buffer) input).position(input.position() + size);
+			return readMessage(this.messageClass, codedInput(messageBuffer));
+		}
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.protobuf;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.Message;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+
+/**
+ * An {@code Encoder} that writes {@link com.google.protobuf.Message}s
+ * using <a href="https://developers.google.com/protocol-buffers/">Google Protocol Buffers</a>.
+ *
+ * <p>A {@code Mono} is encoded as a single message. Each element of a
+ * {@code Flux} is encoded as a varint length-delimited message, as written by
+ * {@link Message#writeDelimitedTo(java.io.OutputStream)}, and flushed
+ * individually.
+ *
+ * <p>To generate {@code Message} Java classes, you need to install the {@code protoc} binary.
+ *
+ * <p>This encoder requires Protobuf 3 or higher, and supports
+ * {@code "application/x-protobuf"} with the official
+ * {@code "com.google.protobuf:protobuf-java"} library.
+ *
+ * @since 5.0
+ * @see ProtobufDecoder
+ */
+public class ProtobufEncoder extends ProtobufCodecSupport implements HttpMessageEncoder<Message> {
+
+	private static final List<MediaType> STREAMING_MEDIA_TYPES = Collections.singletonList(
+			new MediaType("application", "x-protobuf", Collections.singletonMap(DELIMITED_KEY, DELIMITED_VALUE)));
+
+
+	@Override
+	public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
+		return (Message.class.isAssignableFrom(elementType.resolve(Object.class)) &&
+				supportsMimeType(mimeType));
+	}
+
+	@Override
+	public List<MimeType> getEncodableMimeTypes() {
+		return getMimeTypes();
+	}
+
+	@Override
+	public Flux<DataBuffer> encode(Publisher<? extends Message> inputStream, DataBufferFactory bufferFactory,
+			ResolvableType elementType, @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+
+		boolean delimited = !(inputStream instanceof Mono);
+		return Flux.from(inputStream).map(message -> encodeMessage(message, bufferFactory, delimited));
+	}
+
+	private DataBuffer encodeMessage(Message message, DataBufferFactory bufferFactory, boolean delimited) {
+		int size = message.getSerializedSize();
+		int prefixSize = (delimited ? CodedOutputStream.computeUInt32SizeNoTag(size) : 0);
+		// Serialize into an array of the exact size, which the data buffer can wrap without copying
+		byte[] bytes = new byte[prefixSize + size];
+		CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+		try {
+			if (delimited) {
+				output.writeUInt32NoTag(size);
+			}
+			message.writeTo(output);
+			output.checkNoSpaceLeft();
+		}
+		catch (IOException ex) {
+			throw new EncodingException("Could not write Protobuf message: " + ex.getMessage(), ex);
+		}
+		return bufferFactory.wrap(bytes);
+	}
+
+
+	// HttpMessageEncoder...
+
+	@Override
+	public List<MediaType> getStreamingMediaTypes() {
+		return STREAMING_MEDIA_TYPES;
+	}
+
+}
@@ -19,17 +19,24 @@ package org.springframework.http.server.reactive;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import javax.servlet.AsyncContext;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletRequestWrapper;
 import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.eclipse.jetty.server.HttpOutput;
+import org.eclipse.jetty.server.Request;
 
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
 
 /**
  * {@link ServletHttpHandlerAdapter} extension that uses Jetty APIs for writing
- * to the response with {@link ByteBuffer}.
+ * to the response with {@link ByteBuffer}, and that exposes the Jetty request
+ * headers directly rather than copying them.
  *
  * @author Violeta Georgieva
  * @since 5.0
@@ -42,6 +49,18 @@ public class JettyHttpHandlerAdapter extends ServletHttpHandlerAdapter {
 	}
 
 
+	@Override
+	protected ServerHttpRequest createRequest(HttpServletRequest request,
+			AsyncContext context) throws IOException {
+
+		Request jettyRequest = getJettyRequest(request);
+		if (jettyRequest == null) {
+			return super.createRequest(request, context);
+		}
+		HttpHeaders headers = new HttpHeaders(new JettyHeadersAdapter(jettyRequest.getHttpFields()));
+		return new ServletServerHttpRequest(headers, request, context, getDataBufferFactory(), getBufferSize());
+	}
+
 	@Override
 	protected ServerHttpResponse createResponse(HttpServletResponse response,
 			AsyncContext context) throws IOException {
@@ -50,6 +69,18 @@ public class JettyHttpHandlerAdapter extends ServletHttpHandlerAdapter {
 	}
 
 
+	@Nullable
+	private static Request getJettyRequest(ServletRequest request) {
+		while (!(request instanceof Request)) {
+			if (!(request instanceof ServletRequestWrapper)) {
+				return null;
+			}
+			request = ((ServletRequestWrapper) request).getRequest();
+		}
+		return (Request) request;
+	}
+
+
 	private static final class JettyServerHttpResponse extends ServletServerHttpResponse {
 
 		public JettyServerHttpResponse(HttpServletResponse response, AsyncContext context,
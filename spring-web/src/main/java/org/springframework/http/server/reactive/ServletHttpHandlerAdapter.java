@@ -89,6 +89,12 @@ public class ServletHttpHandlerAdapter implements Servlet {
 		return this.bufferSize;
 	}
 
+	/**
+	 * Set the factory to allocate request and response buffers with.
+	 * <p>By default this is a {@link DefaultDataBufferFactory} for heap buffers.
+	 * A {@link org.springframework.core.io.buffer.PoolingDataBufferFactory}
+	 * may be used instead in order to recycle buffer memory across requests.
+	 */
 	public void setDataBufferFactory(DataBufferFactory dataBufferFactory) {
 		Assert.notNull(dataBufferFactory, "DataBufferFactory must not be null");
 		this.dataBufferFactory = dataBufferFactory;
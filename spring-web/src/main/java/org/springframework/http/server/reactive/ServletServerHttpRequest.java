@@ -72,7 +72,18 @@ public class ServletServerHttpRequest extends AbstractServerHttpRequest {
 	public ServletServerHttpRequest(HttpServletRequest request, AsyncContext asyncContext,
 			DataBufferFactory bufferFactory, int bufferSize) throws IOException {
 
-		super(initUri(request), initHeaders(request));
+		this(createDefaultHttpHeaders(request), request, asyncContext, bufferFactory, bufferSize);
+	}
+
+	/**
+	 * Constructor variant for use with request headers that have already been
+	 * adapted from the native request of the underlying server.
+	 * @since 5.0
+	 */
+	public ServletServerHttpRequest(HttpHeaders headers, HttpServletRequest request,
+			AsyncContext asyncContext, DataBufferFactory bufferFactory, int bufferSize) throws IOException {
+
+		super(initUri(request), initHeaders(headers, request));
 
 		Assert.notNull(bufferFactory, "'bufferFactory' must not be null");
 		Assert.isTrue(bufferSize > 0, "'bufferSize' must be higher than 0");
@@ -105,7 +116,8 @@ public class ServletServerHttpRequest extends AbstractServerHttpRequest {
 		}
 	}
 
-	private static HttpHeaders initHeaders(HttpServletRequest request) {
+	private static HttpHeaders createDefaultHttpHeaders(HttpServletRequest request) {
+		Assert.notNull(request, "'request' must not be null");
 		HttpHeaders headers = new HttpHeaders();
 		for (Enumeration<?> names = request.getHeaderNames();
 			 names.hasMoreElements(); ) {
@@ -115,6 +127,10 @@ public class ServletServerHttpRequest extends AbstractServerHttpRequest {
 				headers.add(name, (String) values.nextElement());
 			}
 		}
+		return headers;
+	}
+
+	private static HttpHeaders initHeaders(HttpHeaders headers, HttpServletRequest request) {
 		MediaType contentType = headers.getContentType();
 		if (contentType == null) {
 			String requestContentType = request.getContentType();
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.server.reactive;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import io.undertow.util.HeaderMap;
+import io.undertow.util.HeaderValues;
+import io.undertow.util.HttpString;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * {@code MultiValueMap} implementation for wrapping Undertow HTTP headers.
+ *
+ * <p>Header names are resolved to Undertow's well-known {@link HttpString}
+ * constants where possible, which carry a precomputed case-insensitive hash
+ * code, so no copy of the headers is created for a request.
+ *
+ * @since 5.0
+ */
+class UndertowHeadersAdapter implements MultiValueMap<String, String> {
+
+	private final HeaderMap headers;
+
+
+	UndertowHeadersAdapter(HeaderMap headers) {
+		this.headers = headers;
+	}
+
+
+	@Override
+	@Nullable
+	public String getFirst(String key) {
+		return this.headers.getFirst(key);
+	}
+
+	@Override
+	public void add(String key, @Nullable String value) {
+		this.headers.add(toHttpString(key), value);
+	}
+
+	@Override
+	public void addAll(String key, List<String> values) {
+		this.headers.addAll(toHttpString(key), values);
+	}
+
+	@Override
+	public void set(String key, @Nullable String value) {
+		this.headers.put(toHttpString(key), value);
+	}
+
+	@Override
+	public void setAll(Map<String, String> values) {
+		values.forEach((key, value) -> this.headers.put(toHttpString(key), value));
+	}
+
+	@Override
+	public Map<String, String> toSingleValueMap() {
+		Map<String, String> singleValueMap = new LinkedHashMap<>(this.headers.size());
+		this.headers.forEach(values -> singleValueMap.put(values.getHeaderName().toString(), values.getFirst()));
+		return singleValueMap;
+	}
+
+	@Override
+	public int size() {
+		return this.headers.getHeaderNames().size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return (this.headers.size() == 0);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return (key instanceof String && this.headers.contains((String) key));
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		return (value instanceof String &&
+				this.headers.getHeaderNames().stream()
+						.map(this.headers::get)
+						.anyMatch(values -> values.contains(value)));
+	}
+
+	@Override
+	@Nullable
+	public List<String> get(Object key) {
+		return (key instanceof String ? this.headers.get((String) key) : null);
+	}
+
+	@Override
+	@Nullable
+	public List<String> put(String key, List<String> value) {
+		HeaderValues previousValues = this.headers.get(key);
+		this.headers.putAll(toHttpString(key), value);
+		return previousValues;
+	}
+
+	@Override
+	@Nullable
+	public List<String> remove(Object key) {
+		if (key instanceof String) {
+			Collection<String> removed = this.headers.remove((String) key);
+			if (removed != null) {
+				return (removed instanceof List ? (List<String>) removed : new ArrayList<>(removed));
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void putAll(Map<? extends String, ? extends List<String>> map) {
+		map.forEach((key, values) -> this.headers.putAll(toHttpString(key), values));
+	}
+
+	@Override
+	public void clear() {
+		this.headers.clear();
+	}
+
+	@Override
+	public Set<String> keySet() {
+		return new HeaderNames();
+	}
+
+	@Override
+	public Collection<List<String>> values() {
+		return this.headers.getHeaderNames().stream()
+				.map(this.headers::get)
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public Set<Entry<String, List<String>>> entrySet() {
+		return new AbstractSet<Entry<String, List<String>>>() {
+			@Override
+			public Iterator<Entry<String, List<String>>> iterator() {
+				return new EntryIterator();
+			}
+			@Override
+			public int size() {
+				return headers.getHeaderNames().size();
+			}
+		};
+	}
+
+
+	@Override
+	public String toString() {
+		return entrySet().stream()
+				.map(entry -> entry.getKey() + "=" + entry.getValue())
+				.collect(Collectors.joining(", ", "{", "}"));
+	}
+
+
+	/**
+	 * Return the well-known {@link HttpString} constant for the given header
+	 * name, falling back on a new instance for other names.
+	 */
+	private static HttpString toHttpString(String key) {
+		HttpString name = HttpString.tryFromString(key);
+		return (name != null ? name : new HttpString(key));
+	}
+
+
+	private class EntryIterator implements Iterator<Entry<String, List<String>>> {
+
+		private final Iterator<HttpString> names = headers.getHeaderNames().iterator();
+
+		@Override
+		public boolean hasNext() {
+			return this.names.hasNext();
+		}
+
+		@Override
+		public Entry<String, List<String>> next() {
+			return new HeaderEntry(this.names.next());
+		}
+	}
+
+
+	private class HeaderEntry implements Entry<String, List<String>> {
+
+		private final HttpString key;
+
+		HeaderEntry(HttpString key) {
+			this.key = key;
+		}
+
+		@Override
+		public String getKey() {
+			return this.key.toString();
+		}
+
+		@Override
+		public List<String> getValue() {
+			return headers.get(this.key);
+		}
+
+		@Override
+		public List<String> setValue(List<String> value) {
+			List<String> previousValues = headers.get(this.key);
+			headers.putAll(this.key, value);
+			return previousValues;
+		}
+	}
+
+
+	private class HeaderNames extends AbstractSet<String> {
+
+		@Override
+		public Iterator<String> iterator() {
+			return new HeaderNamesIterator(headers.getHeaderNames().iterator());
+		}
+
+		@Override
+		public int size() {
+			return headers.getHeaderNames().size();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return containsKey(o);
+		}
+	}
+
+
+	private class HeaderNamesIterator implements Iterator<String> {
+
+		private final Iterator<HttpString> iterator;
+
+		private HeaderNamesIterator(Iterator<HttpString> iterator) {
+			this.iterator = iterator;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.iterator.hasNext();
+		}
+
+		@Override
+		public String next() {
+			return this.iterator.next().toString();
+		}
+	}
+
+}
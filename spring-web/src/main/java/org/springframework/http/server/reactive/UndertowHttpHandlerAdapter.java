@@ -51,6 +51,12 @@ public class UndertowHttpHandlerAdapter implements io.undertow.server.HttpHandle
 	}
 
 
+	/**
+	 * Set the factory to allocate request and response buffers with.
+	 * <p>By default this is a {@link DefaultDataBufferFactory} for heap buffers.
+	 * A {@link org.springframework.core.io.buffer.PoolingDataBufferFactory}
+	 * may be used instead in order to recycle buffer memory across requests.
+	 */
 	public void setDataBufferFactory(DataBufferFactory bufferFactory) {
 		Assert.notNull(bufferFactory, "DataBufferFactory must not be null");
 		this.bufferFactory = bufferFactory;
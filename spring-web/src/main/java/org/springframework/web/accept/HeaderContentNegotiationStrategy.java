@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,18 +23,30 @@ import java.util.List;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.StringUtils;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.context.request.NativeWebRequest;
 
 /**
  * A {@code ContentNegotiationStrategy} that checks the 'Accept' request header.
  *
+ * <p>The parsed and sorted media types are cached per 'Accept' header value,
+ * since the same few header values tend to recur across requests.
+ *
  * @author Rossen Stoyanchev
  * @author Juergen Hoeller
  * @since 3.2
  */
 public class HeaderContentNegotiationStrategy implements ContentNegotiationStrategy {
 
+	private static final int CACHE_LIMIT = 64;
+
+
+	private final ConcurrentLruCache<String, List<MediaType>> mediaTypesCache =
+			new ConcurrentLruCache<>(CACHE_LIMIT, HeaderContentNegotiationStrategy::parseMediaTypes);
+
+
 	/**
 	 * {@inheritDoc}
 	 * @throws HttpMediaTypeNotAcceptableException if the 'Accept' header cannot be parsed
@@ -48,16 +60,21 @@ public class HeaderContentNegotiationStrategy implements ContentNegotiationStrat
 			return Collections.emptyList();
 		}
 
-		List<String> headerValues = Arrays.asList(headerValueArray);
+		String headerValue = (headerValueArray.length == 1 ? headerValueArray[0] :
+				StringUtils.arrayToCommaDelimitedString(headerValueArray));
 		try {
-			List<MediaType> mediaTypes = MediaType.parseMediaTypes(headerValues);
-			MediaType.sortBySpecificityAndQuality(mediaTypes);
-			return mediaTypes;
+			return this.mediaTypesCache.get(headerValue);
 		}
 		catch (InvalidMediaTypeException ex) {
 			throw new HttpMediaTypeNotAcceptableException(
-					"Could not parse 'Accept' header " + headerValues + ": " + ex.getMessage());
+					"Could not parse 'Accept' header " + Arrays.asList(headerValueArray) + ": " + ex.getMessage());
 		}
 	}
 
+	private static List<MediaType> parseMediaTypes(String headerValue) {
+		List<MediaType> mediaTypes = MediaType.parseMediaTypes(headerValue);
+		MediaType.sortBySpecificityAndQuality(mediaTypes);
+		return Collections.unmodifiableList(mediaTypes);
+	}
+
 }
@@ -18,11 +18,15 @@ package org.springframework.web.filter;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.ServletRequest;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -42,6 +46,12 @@ import org.springframework.web.util.WebUtils;
  * (e.g. a {@link org.springframework.web.servlet.View}) is still rendered.
  * As such, this filter only saves bandwidth, not server performance.
  *
+ * <p>By default the complete response body is cached in order to compute the
+ * ETag. Alternatively, a {@link #setContentCacheLimit content cache limit} may
+ * be set: the MD5 digest is then computed incrementally as the content is
+ * written, and responses exceeding the limit are streamed to the client
+ * without an ETag instead of being held in memory.
+ *
  * <p><b>NOTE:</b> As of Spring Framework 5.0, this filter uses request/response
  * decorators built on the Servlet 3.1 API.
  *
@@ -66,6 +76,8 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 	private boolean writeWeakETag = false;
 
+	private int contentCacheLimit = -1;
+
 
 	/**
 	 * Set whether the ETag value written to the response should be weak, as per RFC 7232.
@@ -86,6 +98,28 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		return this.writeWeakETag;
 	}
 
+	/**
+	 * Set the maximum number of bytes of response content to cache per request.
+	 * <p>When set, the ETag is computed from an MD5 digest that is updated as
+	 * content is written, rather than from the fully cached body. Responses
+	 * whose content exceeds the limit are written through to the client as
+	 * they are produced and do not get an ETag.
+	 * <p>The default is -1, i.e. no limit: the whole body is always cached.
+	 * @since 5.0
+	 */
+	public void setContentCacheLimit(int contentCacheLimit) {
+		this.contentCacheLimit = contentCacheLimit;
+	}
+
+	/**
+	 * Return the maximum number of bytes of response content to cache per
+	 * request, or -1 if there is no limit.
+	 * @since 5.0
+	 */
+	public int getContentCacheLimit() {
+		return this.contentCacheLimit;
+	}
+
 
 	/**
 	 * The default value is {@code false} so that the filter may delay the generation
@@ -102,7 +136,9 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 		HttpServletResponse responseToUse = response;
 		if (!isAsyncDispatch(request) && !(response instanceof ContentCachingResponseWrapper)) {
-			responseToUse = new HttpStreamingAwareContentCachingResponseWrapper(response, request);
+			responseToUse = (this.contentCacheLimit >= 0 ?
+					new DigestingResponseWrapper(response, request, this.contentCacheLimit) :
+					new HttpStreamingAwareContentCachingResponseWrapper(response, request));
 		}
 
 		filterChain.doFilter(request, responseToUse);
@@ -116,30 +152,28 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		ContentCachingResponseWrapper responseWrapper =
 				WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
 		Assert.notNull(responseWrapper, "ContentCachingResponseWrapper not found");
+		DigestingResponseWrapper digestingWrapper = (responseWrapper instanceof DigestingResponseWrapper ?
+				(DigestingResponseWrapper) responseWrapper : null);
+		if (digestingWrapper != null) {
+			digestingWrapper.flushWriter();
+		}
 		HttpServletResponse rawResponse = (HttpServletResponse) responseWrapper.getResponse();
 		int statusCode = responseWrapper.getStatusCode();
 
 		if (rawResponse.isCommitted()) {
 			responseWrapper.copyBodyToResponse();
 		}
-		else if (isEligibleForEtag(request, responseWrapper, statusCode, responseWrapper.getContentInputStream())) {
-			String responseETag = generateETagHeaderValue(responseWrapper.getContentInputStream(), this.writeWeakETag);
-			rawResponse.setHeader(HEADER_ETAG, responseETag);
-			String requestETag = request.getHeader(HEADER_IF_NONE_MATCH);
-			if (requestETag != null
-					&& (responseETag.equals(requestETag)
-					|| responseETag.replaceFirst("^W/", "").equals(requestETag.replaceFirst("^W/", ""))
-					|| "*".equals(requestETag))) {
-				if (logger.isTraceEnabled()) {
-					logger.trace("ETag [" + responseETag + "] equal to If-None-Match, sending 304");
-				}
-				rawResponse.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+		else if (digestingWrapper != null && digestingWrapper.isContentLimitExceeded()) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Response content exceeded cache limit, not adding ETag");
 			}
-			else {
-				if (logger.isTraceEnabled()) {
-					logger.trace("ETag [" + responseETag + "] not equal to If-None-Match [" + requestETag +
-							"], sending normal response");
-				}
+			responseWrapper.copyBodyToResponse();
+		}
+		else if (isEligibleForEtag(request, responseWrapper, statusCode, responseWrapper.getContentInputStream())) {
+			String responseETag = (digestingWrapper != null ?
+					generateETagHeaderValue(digestingWrapper.getContentDigest(), this.writeWeakETag) :
+					generateETagHeaderValue(responseWrapper.getContentInputStream(), this.writeWeakETag));
+			if (!applyETag(request, rawResponse, responseETag)) {
 				responseWrapper.copyBodyToResponse();
 			}
 		}
@@ -151,6 +185,34 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		}
 	}
 
+	/**
+	 * Set the given ETag on the response and send a 304 status if it matches
+	 * the {@code If-None-Match} header of the request.
+	 * @return {@code true} if a 304 status was set, {@code false} if the body
+	 * should be sent
+	 */
+	private boolean applyETag(HttpServletRequest request, HttpServletResponse rawResponse, String responseETag) {
+		rawResponse.setHeader(HEADER_ETAG, responseETag);
+		String requestETag = request.getHeader(HEADER_IF_NONE_MATCH);
+		if (requestETag != null
+				&& (responseETag.equals(requestETag)
+				|| responseETag.replaceFirst("^W/", "").equals(requestETag.replaceFirst("^W/", ""))
+				|| "*".equals(requestETag))) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("ETag [" + responseETag + "] equal to If-None-Match, sending 304");
+			}
+			rawResponse.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return true;
+		}
+		else {
+			if (logger.isTraceEnabled()) {
+				logger.trace("ETag [" + responseETag + "] not equal to If-None-Match [" + requestETag +
+						"], sending normal response");
+			}
+			return false;
+		}
+	}
+
 	/**
 	 * Indicates whether the given request and response are eligible for ETag generation.
 	 * <p>The default implementation returns {@code true} if all conditions match:
@@ -189,13 +251,17 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 	 * @see org.springframework.util.DigestUtils
 	 */
 	protected String generateETagHeaderValue(InputStream inputStream, boolean isWeak) throws IOException {
+		return generateETagHeaderValue(DigestUtils.md5Digest(inputStream), isWeak);
+	}
+
+	private static String generateETagHeaderValue(byte[] digest, boolean isWeak) {
 		// length of W/ + 0 + " + 32bits md5 hash + "
 		StringBuilder builder = new StringBuilder(37);
 		if (isWeak) {
 			builder.append("W/");
 		}
 		builder.append("\"0");
-		DigestUtils.appendMd5DigestAsHex(inputStream, builder);
+		DigestUtils.appendDigestAsHex(digest, builder);
 		builder.append('"');
 		return builder.toString();
 	}
@@ -237,9 +303,191 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 			return (useRawResponse() ? getResponse().getWriter() : super.getWriter());
 		}
 
-		private boolean useRawResponse() {
+		protected boolean useRawResponse() {
 			return isContentCachingDisabled(this.request);
 		}
 	}
 
+
+	/**
+	 * Content caching response wrapper that updates an MD5 digest as content
+	 * is written, and writes content through to the response once the content
+	 * cache limit is exceeded.
+	 */
+	private static class DigestingResponseWrapper extends HttpStreamingAwareContentCachingResponseWrapper {
+
+		private final int contentCacheLimit;
+
+		private MessageDigest digest = createDigest();
+
+		private ServletOutputStream outputStream;
+
+		private PrintWriter writer;
+
+		public DigestingResponseWrapper(HttpServletResponse response, HttpServletRequest request,
+				int contentCacheLimit) {
+
+			super(response, request);
+			this.contentCacheLimit = contentCacheLimit;
+		}
+
+		private static MessageDigest createDigest() {
+			try {
+				return MessageDigest.getInstance("MD5");
+			}
+			catch (NoSuchAlgorithmException ex) {
+				throw new IllegalStateException("Could not find MessageDigest with algorithm \"MD5\"", ex);
+			}
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			if (useRawResponse()) {
+				return getResponse().getOutputStream();
+			}
+			if (this.outputStream == null) {
+				this.outputStream = new DigestingServletOutputStream(super.getOutputStream());
+			}
+			return this.outputStream;
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			if (useRawResponse()) {
+				return getResponse().getWriter();
+			}
+			if (this.writer == null) {
+				String characterEncoding = getCharacterEncoding();
+				this.writer = new PrintWriter(new OutputStreamWriter(getOutputStream(),
+						(characterEncoding != null ? characterEncoding : WebUtils.DEFAULT_CHARACTER_ENCODING)));
+			}
+			return this.writer;
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			// only flush the underlying response once content is written through
+			if (isContentLimitExceeded()) {
+				flushWriter();
+				getResponse().flushBuffer();
+			}
+		}
+
+		@Override
+		public void setContentLength(int len) {
+			setContentLengthLong(len);
+		}
+
+		@Override
+		public void setContentLengthLong(long len) {
+			if (len > this.contentCacheLimit) {
+				try {
+					writeContentThrough();
+				}
+				catch (IOException ex) {
+					throw new IllegalStateException("Failed to write cached content to response", ex);
+				}
+			}
+			if (isContentLimitExceeded()) {
+				getResponse().setContentLengthLong(len);
+			}
+			else {
+				super.setContentLengthLong(len);
+			}
+		}
+
+		@Override
+		public void resetBuffer() {
+			if (isContentLimitExceeded()) {
+				getResponse().resetBuffer();
+			}
+			else {
+				super.resetBuffer();
+				this.digest.reset();
+			}
+		}
+
+		@Override
+		public void reset() {
+			super.reset();
+			if (!isContentLimitExceeded()) {
+				this.digest.reset();
+			}
+		}
+
+		public boolean isContentLimitExceeded() {
+			return (this.digest == null);
+		}
+
+		public byte[] getContentDigest() {
+			Assert.state(!isContentLimitExceeded(), "Content limit exceeded");
+			return this.digest.digest();
+		}
+
+		public void flushWriter() {
+			if (this.writer != null) {
+				this.writer.flush();
+			}
+		}
+
+		/**
+		 * Stop caching content: write the content cached so far to the response
+		 * and pass any further content straight through.
+		 */
+		private void writeContentThrough() throws IOException {
+			if (!isContentLimitExceeded()) {
+				this.digest = null;
+				copyBodyToResponse(false);
+			}
+		}
+
+
+		private class DigestingServletOutputStream extends ServletOutputStream {
+
+			private final ServletOutputStream os;
+
+			public DigestingServletOutputStream(ServletOutputStream os) {
+				this.os = os;
+			}
+
+			@Override
+			public void write(int b) throws IOException {
+				if (!isContentLimitExceeded() && getContentSize() >= contentCacheLimit) {
+					writeContentThrough();
+				}
+				if (isContentLimitExceeded()) {
+					getResponse().getOutputStream().write(b);
+				}
+				else {
+					this.os.write(b);
+					digest.update((byte) b);
+				}
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				if (!isContentLimitExceeded() && getContentSize() + len > contentCacheLimit) {
+					writeContentThrough();
+				}
+				if (isContentLimitExceeded()) {
+					getResponse().getOutputStream().write(b, off, len);
+				}
+				else {
+					this.os.write(b, off, len);
+					digest.update(b, off, len);
+				}
+			}
+
+			@Override
+			public boolean isReady() {
+				return this.os.isReady();
+			}
+
+			@Override
+			public void setWriteListener(WriteListener writeListener) {
+				this.os.setWriteListener(writeListener);
+			}
+		}
+	}
+
 }
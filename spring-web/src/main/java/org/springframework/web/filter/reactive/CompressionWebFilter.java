@@ -0,0 +1,431 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter.reactive;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.SynchronousSink;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+/**
+ * Reactive {@link WebFilter} that compresses response bodies with the
+ * {@code gzip} or {@code deflate} content coding, as accepted by the client
+ * through the {@code Accept-Encoding} request header.
+ *
+ * <p>Response bodies are compressed incrementally as data buffers are written,
+ * so the response is never buffered as a whole. For streaming responses
+ * written via {@link ServerHttpResponse#writeAndFlushWith}, the compressed
+ * output is flushed along with each flush of the response.
+ *
+ * <p>Only responses with a {@link #setMimeTypes compressible} content type
+ * and with a content length (if known) of at least the
+ * {@link #setMinResponseSize minimum response size} are compressed. Such
+ * responses always declare {@code Vary: Accept-Encoding}, whether or not
+ * they are compressed for the current request. Native {@link Deflater}
+ * instances are pooled across requests.
+ *
+ * @since 5.0
+ */
+public class CompressionWebFilter implements WebFilter {
+
+	/** Default minimum size in bytes of a response body to compress */
+	public static final int DEFAULT_MIN_RESPONSE_SIZE = 1024;
+
+	private static final List<MediaType> DEFAULT_MIME_TYPES = Collections.unmodifiableList(Arrays.asList(
+			MediaType.TEXT_HTML, MediaType.TEXT_XML, MediaType.TEXT_PLAIN,
+			new MediaType("text", "css"), new MediaType("text", "javascript"),
+			new MediaType("application", "javascript"), MediaType.APPLICATION_JSON,
+			MediaType.APPLICATION_XML));
+
+	private static final String GZIP = "gzip";
+
+	private static final String DEFLATE = "deflate";
+
+	private static final byte[] GZIP_HEADER = new byte[] {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+	private static final int MAX_POOLED_DEFLATERS = 64;
+
+
+	private int minResponseSize = DEFAULT_MIN_RESPONSE_SIZE;
+
+	private List<MediaType> mimeTypes = DEFAULT_MIME_TYPES;
+
+	private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+	private final Queue<Deflater> gzipDeflaters = new ConcurrentLinkedQueue<>();
+
+	private final Queue<Deflater> deflateDeflaters = new ConcurrentLinkedQueue<>();
+
+
+	/**
+	 * Set the minimum size in bytes of a response body to compress.
+	 * <p>This is checked against the {@code Content-Length} of the response,
+	 * or against the size of the body if it is written as a single buffer.
+	 * <p>By default this is set to {@value #DEFAULT_MIN_RESPONSE_SIZE}.
+	 */
+	public void setMinResponseSize(int minResponseSize) {
+		Assert.isTrue(minResponseSize >= 0, "'minResponseSize' must not be negative");
+		this.minResponseSize = minResponseSize;
+	}
+
+	/**
+	 * Return the configured minimum response size.
+	 */
+	public int getMinResponseSize() {
+		return this.minResponseSize;
+	}
+
+	/**
+	 * Set the content types of responses to compress.
+	 * <p>By default this includes common text, JavaScript, JSON and XML types.
+	 */
+	public void setMimeTypes(List<MediaType> mimeTypes) {
+		Assert.notEmpty(mimeTypes, "'mimeTypes' must not be empty");
+		this.mimeTypes = Collections.unmodifiableList(mimeTypes);
+	}
+
+	/**
+	 * Return the content types of responses to compress.
+	 */
+	public List<MediaType> getMimeTypes() {
+		return this.mimeTypes;
+	}
+
+	/**
+	 * Set the compression level to use, from 0 to 9.
+	 * <p>By default this is {@link Deflater#DEFAULT_COMPRESSION}.
+	 * @see Deflater#setLevel(int)
+	 */
+	public void setCompressionLevel(int compressionLevel) {
+		Assert.isTrue((compressionLevel >= 0 && compressionLevel <= 9) ||
+				compressionLevel == Deflater.DEFAULT_COMPRESSION, "Invalid compression level");
+		this.compressionLevel = compressionLevel;
+	}
+
+	/**
+	 * Return the configured compression level.
+	 */
+	public int getCompressionLevel() {
+		return this.compressionLevel;
+	}
+
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		ServerHttpRequest request = exchange.getRequest();
+		if (request.getMethod() == HttpMethod.HEAD) {
+			return chain.filter(exchange);
+		}
+		String encoding = selectEncoding(request.getHeaders());
+		ServerHttpResponse response = new CompressingServerHttpResponse(exchange.getResponse(), encoding);
+		return chain.filter(exchange.mutate().response(response).build());
+	}
+
+	/**
+	 * Select the content coding to use from the {@code Accept-Encoding} header.
+	 * @return {@code "gzip"}, {@code "deflate"}, or {@code null} if neither is accepted
+	 */
+	@Nullable
+	private static String selectEncoding(HttpHeaders headers) {
+		List<String> values = headers.get(HttpHeaders.ACCEPT_ENCODING);
+		if (values == null) {
+			return null;
+		}
+		boolean deflate = false;
+		for (String value : values) {
+			for (String coding : StringUtils.tokenizeToStringArray(value, ",")) {
+				int index = coding.indexOf(';');
+				String name = (index != -1 ? coding.substring(0, index).trim() : coding);
+				if (index != -1 && isZeroQuality(coding.substring(index + 1))) {
+					continue;
+				}
+				if (GZIP.equalsIgnoreCase(name) || "x-gzip".equalsIgnoreCase(name) || "*".equals(name)) {
+					return GZIP;
+				}
+				if (DEFLATE.equalsIgnoreCase(name)) {
+					deflate = true;
+				}
+			}
+		}
+		return (deflate ? DEFLATE : null);
+	}
+
+	private static boolean isZeroQuality(String parameters) {
+		for (String parameter : StringUtils.tokenizeToStringArray(parameters, ";")) {
+			if (parameter.startsWith("q=")) {
+				try {
+					return Double.parseDouble(parameter.substring(2)) == 0;
+				}
+				catch (NumberFormatException ex) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+
+	/**
+	 * Response decorator that compresses the body if applicable.
+	 */
+	private class CompressingServerHttpResponse extends ServerHttpResponseDecorator {
+
+		private final String encoding;
+
+		CompressingServerHttpResponse(ServerHttpResponse delegate, @Nullable String encoding) {
+			super(delegate);
+			this.encoding = encoding;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			if (!isCompressible() || this.encoding == null) {
+				return super.writeWith(body);
+			}
+			if (body instanceof Mono) {
+				// Single buffer: apply the minimum size to the actual body
+				Mono<DataBuffer> mono = Mono.from(body);
+				return Flux.from(mono
+						.map(buffer -> (buffer.readableByteCount() < minResponseSize ?
+								super.writeWith(Mono.just(buffer)) : writeCompressed(Mono.just(buffer))))
+						.defaultIfEmpty(Mono.defer(() -> super.writeWith(Mono.empty()))))
+						.flatMap(Function.identity())
+						.then();
+			}
+			return writeCompressed(body);
+		}
+
+		private Mono<Void> writeCompressed(Publisher<? extends DataBuffer> body) {
+			Compressor compressor = initCompressor();
+			Flux<DataBuffer> compressed = Flux.from(body)
+					.<DataBuffer>handle(compressor::compress)
+					.concatWith(Mono.fromCallable(compressor::finish))
+					.doFinally(compressor::release);
+			return super.writeWith(compressed);
+		}
+
+		@Override
+		public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+			if (!isCompressible() || this.encoding == null) {
+				return super.writeAndFlushWith(body);
+			}
+			Compressor compressor = initCompressor();
+			// The outer publisher completes before the writer subscribes to the last inner
+			// publisher: release the compressor once the final (finish) publisher terminates,
+			// or right away if the outer publisher gets cancelled or fails.
+			Flux<Flux<DataBuffer>> compressed = Flux.from(body)
+					.map(publisher -> Flux.from(publisher)
+							.<DataBuffer>handle(compressor::compress)
+							.concatWith(Mono.fromCallable(compressor::flush)))
+					.concatWith(Mono.fromCallable(() -> Mono.fromCallable(compressor::finish)
+							.flux()
+							.doFinally(compressor::release)))
+					.doOnCancel(() -> compressor.release(SignalType.CANCEL))
+					.doOnError(ex -> compressor.release(SignalType.ON_ERROR));
+			return super.writeAndFlushWith(compressed);
+		}
+
+		/**
+		 * Whether the response qualifies for compression, in which case the
+		 * {@code Vary} header is updated as well.
+		 */
+		private boolean isCompressible() {
+			HttpHeaders headers = getHeaders();
+			HttpStatus status = getStatusCode();
+			if (headers.containsKey(HttpHeaders.CONTENT_ENCODING) ||
+					status == HttpStatus.NO_CONTENT || status == HttpStatus.NOT_MODIFIED) {
+				return false;
+			}
+			long contentLength = headers.getContentLength();
+			if (contentLength != -1 && contentLength < minResponseSize) {
+				return false;
+			}
+			MediaType contentType = headers.getContentType();
+			if (contentType == null || mimeTypes.stream().noneMatch(type -> type.includes(contentType))) {
+				return false;
+			}
+			List<String> vary = headers.getVary();
+			if (!vary.contains("*") && vary.stream().noneMatch(HttpHeaders.ACCEPT_ENCODING::equalsIgnoreCase)) {
+				headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			}
+			return true;
+		}
+
+		private Compressor initCompressor() {
+			Assert.state(this.encoding != null, "No content coding selected");
+			HttpHeaders headers = getHeaders();
+			headers.set(HttpHeaders.CONTENT_ENCODING, this.encoding);
+			headers.remove(HttpHeaders.CONTENT_LENGTH);
+			String eTag = headers.getETag();
+			if (eTag != null && eTag.startsWith("\"")) {
+				// The compressed representation differs from the original one
+				headers.setETag("W/" + eTag);
+			}
+			return new Compressor(GZIP.equals(this.encoding), this);
+		}
+	}
+
+
+	/**
+	 * Incremental compressor for the body of a single response, not thread-safe.
+	 */
+	private class Compressor {
+
+		private final boolean gzip;
+
+		private final ServerHttpResponse response;
+
+		private final Deflater deflater;
+
+		private final CRC32 crc = new CRC32();
+
+		private final byte[] chunk = new byte[8192];
+
+		private boolean headerWritten;
+
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		Compressor(boolean gzip, ServerHttpResponse response) {
+			this.gzip = gzip;
+			this.response = response;
+			Deflater deflater = getPool().poll();
+			if (deflater == null) {
+				deflater = new Deflater(compressionLevel, gzip);
+			}
+			else {
+				deflater.setLevel(compressionLevel);
+			}
+			this.deflater = deflater;
+		}
+
+		private Queue<Deflater> getPool() {
+			return (this.gzip ? gzipDeflaters : deflateDeflaters);
+		}
+
+		public void compress(DataBuffer input, SynchronousSink<DataBuffer> sink) {
+			byte[] bytes = new byte[input.readableByteCount()];
+			input.read(bytes);
+			DataBufferUtils.release(input);
+			if (this.gzip) {
+				this.crc.update(bytes);
+			}
+			this.deflater.setInput(bytes);
+			DataBuffer output = writeHeaderIfNecessary(null);
+			while (!this.deflater.needsInput()) {
+				output = deflate(output, Deflater.NO_FLUSH);
+			}
+			if (output != null) {
+				sink.next(output);
+			}
+		}
+
+		public DataBuffer flush() {
+			DataBuffer output = writeHeaderIfNecessary(null);
+			int count;
+			do {
+				count = this.deflater.deflate(this.chunk, 0, this.chunk.length, Deflater.SYNC_FLUSH);
+				output = write(output, this.chunk, count);
+			}
+			while (count == this.chunk.length);
+			return output;
+		}
+
+		public DataBuffer finish() {
+			DataBuffer output = writeHeaderIfNecessary(null);
+			this.deflater.finish();
+			while (!this.deflater.finished()) {
+				output = deflate(output, Deflater.NO_FLUSH);
+			}
+			output = write(output, this.chunk, 0);
+			if (this.gzip) {
+				writeIntLE(output, (int) this.crc.getValue());
+				writeIntLE(output, (int) this.deflater.getBytesRead());
+			}
+			return output;
+		}
+
+		public void release(SignalType signalType) {
+			if (!this.released.compareAndSet(false, true)) {
+				return;
+			}
+			if (signalType == SignalType.ON_COMPLETE && getPool().size() < MAX_POOLED_DEFLATERS) {
+				this.deflater.reset();
+				getPool().offer(this.deflater);
+			}
+			else {
+				this.deflater.end();
+			}
+		}
+
+		@Nullable
+		private DataBuffer writeHeaderIfNecessary(@Nullable DataBuffer output) {
+			if (this.gzip && !this.headerWritten) {
+				this.headerWritten = true;
+				return write(output, GZIP_HEADER, GZIP_HEADER.length);
+			}
+			return output;
+		}
+
+		@Nullable
+		private DataBuffer deflate(@Nullable DataBuffer output, int flush) {
+			int count = this.deflater.deflate(this.chunk, 0, this.chunk.length, flush);
+			return (count > 0 ? write(output, this.chunk, count) : output);
+		}
+
+		private DataBuffer write(@Nullable DataBuffer output, byte[] bytes, int count) {
+			if (output == null) {
+				output = this.response.bufferFactory().allocateBuffer(Math.max(count, 256));
+			}
+			return output.write(bytes, 0, count);
+		}
+
+		private void writeIntLE(DataBuffer output, int value) {
+			output.write((byte) value);
+			output.write((byte) (value >> 8));
+			output.write((byte) (value >> 16));
+			output.write((byte) (value >> 24));
+		}
+	}
+
+}
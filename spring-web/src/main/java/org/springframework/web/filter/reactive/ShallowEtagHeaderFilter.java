@@ -0,0 +1,299 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.web.filter.reactive;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+/**
+ * Reactive {@link WebFilter} that generates an {@code ETag} value based on the
+ * content of the response. This ETag is compared to the {@code If-None-Match}
+ * header of the request. If these headers are equal, the response content is
+ * not sent, but rather a {@code 304 "Not Modified"} status instead.
+ *
+ * <p>The MD5 digest of the content is updated as each data buffer is written,
+ * while the buffers are held back until the body is complete. Response bodies
+ * that exceed the {@link #setContentCacheLimit content cache limit} are
+ * written through as they are produced and do not get an ETag.
+ *
+ * <p>Since the ETag is based on the response content, the response is still
+ * rendered. As such, this filter only saves bandwidth, not server performance.
+ * Responses written via {@link ServerHttpResponse#writeAndFlushWith} are
+ * considered streaming and are never given an ETag.
+ *
+ * @since 5.0
+ * @see org.springframework.web.filter.ShallowEtagHeaderFilter
+ */
+public class ShallowEtagHeaderFilter implements WebFilter {
+
+	/** Default maximum number of bytes of response content to hold per request */
+	public static final int DEFAULT_CONTENT_CACHE_LIMIT = 256 * 1024;
+
+	private static final String DIRECTIVE_NO_STORE = "no-store";
+
+
+	private boolean writeWeakETag = false;
+
+	private int contentCacheLimit = DEFAULT_CONTENT_CACHE_LIMIT;
+
+
+	/**
+	 * Set whether the ETag value written to the response should be weak, as per RFC 7232.
+	 * @see <a href="https://tools.ietf.org/html/rfc7232#section-2.3">RFC 7232 section 2.3</a>
+	 */
+	public void setWriteWeakETag(boolean writeWeakETag) {
+		this.writeWeakETag = writeWeakETag;
+	}
+
+	/**
+	 * Return whether the ETag value written to the response should be weak, as per RFC 7232.
+	 */
+	public boolean isWriteWeakETag() {
+		return this.writeWeakETag;
+	}
+
+	/**
+	 * Set the maximum number of bytes of response content to hold back per
+	 * request while computing the ETag, or -1 for no limit.
+	 * <p>A body written as a single {@link Mono} is already held in memory
+	 * and is therefore not subject to this limit.
+	 * <p>By default this is set to {@value #DEFAULT_CONTENT_CACHE_LIMIT}.
+	 */
+	public void setContentCacheLimit(int contentCacheLimit) {
+		this.contentCacheLimit = contentCacheLimit;
+	}
+
+	/**
+	 * Return the configured content cache limit.
+	 */
+	public int getContentCacheLimit() {
+		return this.contentCacheLimit;
+	}
+
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		ServerHttpRequest request = exchange.getRequest();
+		if (request.getMethod() != HttpMethod.GET) {
+			return chain.filter(exchange);
+		}
+		ServerHttpResponse response = new EtagServerHttpResponse(exchange.getResponse(), request);
+		return chain.filter(exchange.mutate().response(response).build());
+	}
+
+	/**
+	 * Indicates whether the given response is eligible for ETag generation.
+	 * <p>The default implementation returns {@code true} if all conditions match:
+	 * <ul>
+	 * <li>response status codes in the {@code 2xx} series</li>
+	 * <li>response Cache-Control header is not set or does not contain a "no-store" directive</li>
+	 * <li>response ETag header is not set yet</li>
+	 * </ul>
+	 * <p>Only GET requests are considered in the first place.
+	 * @param request the HTTP request
+	 * @param response the HTTP response
+	 * @return {@code true} if eligible for ETag generation; {@code false} otherwise
+	 */
+	protected boolean isEligibleForEtag(ServerHttpRequest request, ServerHttpResponse response) {
+		HttpStatus status = response.getStatusCode();
+		if (status != null && !status.is2xxSuccessful()) {
+			return false;
+		}
+		HttpHeaders headers = response.getHeaders();
+		String cacheControl = headers.getCacheControl();
+		return ((cacheControl == null || !cacheControl.contains(DIRECTIVE_NO_STORE)) &&
+				headers.getETag() == null);
+	}
+
+	/**
+	 * Generate the ETag header value from the given MD5 digest of the content,
+	 * in the same format as the Servlet based filter.
+	 */
+	private static String generateETagHeaderValue(byte[] digest, boolean isWeak) {
+		// length of W/ + 0 + " + 32bits md5 hash + "
+		StringBuilder builder = new StringBuilder(37);
+		if (isWeak) {
+			builder.append("W/");
+		}
+		builder.append("\"0");
+		DigestUtils.appendDigestAsHex(digest, builder);
+		builder.append('"');
+		return builder.toString();
+	}
+
+	private static boolean matchesIfNoneMatch(ServerHttpRequest request, String eTag) {
+		List<String> ifNoneMatch;
+		try {
+			ifNoneMatch = request.getHeaders().getIfNoneMatch();
+		}
+		catch (IllegalArgumentException ex) {
+			return false;
+		}
+		for (String clientETag : ifNoneMatch) {
+			// Compare weak/strong ETags as per https://tools.ietf.org/html/rfc7232#section-2.3
+			if ("*".equals(clientETag) || (StringUtils.hasLength(clientETag) &&
+					clientETag.replaceFirst("^W/", "").equals(eTag.replaceFirst("^W/", "")))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	private class EtagServerHttpResponse extends ServerHttpResponseDecorator {
+
+		private final ServerHttpRequest request;
+
+		public EtagServerHttpResponse(ServerHttpResponse delegate, ServerHttpRequest request) {
+			super(delegate);
+			this.request = request;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			if (!isEligibleForEtag(this.request, this)) {
+				return super.writeWith(body);
+			}
+			ContentDigester digester = new ContentDigester(body instanceof Mono ? -1 : contentCacheLimit);
+			Flux<DataBuffer> content = Flux.from(body)
+					.flatMapIterable(digester::accept)
+					.concatWith(Flux.defer(() -> Flux.fromIterable(complete(digester))))
+					.doFinally(signal -> {
+						if (signal != SignalType.ON_COMPLETE) {
+							digester.release();
+						}
+					});
+			return super.writeWith(content);
+		}
+
+		/**
+		 * Set the ETag once the body is complete, and return the buffers to
+		 * write: none if the ETag matches the {@code If-None-Match} header.
+		 */
+		private List<DataBuffer> complete(ContentDigester digester) {
+			if (digester.isContentLimitExceeded()) {
+				return Collections.emptyList();
+			}
+			List<DataBuffer> buffers = digester.drain();
+			String eTag = generateETagHeaderValue(digester.digest(), writeWeakETag);
+			getHeaders().setETag(eTag);
+			if (matchesIfNoneMatch(this.request, eTag)) {
+				buffers.forEach(DataBufferUtils::release);
+				setStatusCode(HttpStatus.NOT_MODIFIED);
+				getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+				return Collections.emptyList();
+			}
+			if (getHeaders().getContentLength() == -1) {
+				getHeaders().setContentLength(digester.getContentLength());
+			}
+			return buffers;
+		}
+	}
+
+
+	/**
+	 * Holds back data buffers while updating an MD5 digest of their content,
+	 * until the configured limit is exceeded.
+	 */
+	private static class ContentDigester {
+
+		private final int limit;
+
+		private final MessageDigest digest;
+
+		private List<DataBuffer> buffers = new ArrayList<>();
+
+		private long contentLength;
+
+		private boolean contentLimitExceeded;
+
+		public ContentDigester(int limit) {
+			this.limit = limit;
+			try {
+				this.digest = MessageDigest.getInstance("MD5");
+			}
+			catch (NoSuchAlgorithmException ex) {
+				throw new IllegalStateException("Could not find MessageDigest with algorithm \"MD5\"", ex);
+			}
+		}
+
+		/**
+		 * Accept the next data buffer, returning the buffers to pass on.
+		 */
+		public synchronized List<DataBuffer> accept(DataBuffer buffer) {
+			if (this.contentLimitExceeded) {
+				return Collections.singletonList(buffer);
+			}
+			this.contentLength += buffer.readableByteCount();
+			if (this.limit >= 0 && this.contentLength > this.limit) {
+				this.contentLimitExceeded = true;
+				List<DataBuffer> result = drain();
+				result.add(buffer);
+				return result;
+			}
+			this.digest.update(buffer.asByteBuffer());
+			this.buffers.add(buffer);
+			return Collections.emptyList();
+		}
+
+		public boolean isContentLimitExceeded() {
+			return this.contentLimitExceeded;
+		}
+
+		public long getContentLength() {
+			return this.contentLength;
+		}
+
+		public byte[] digest() {
+			return this.digest.digest();
+		}
+
+		public synchronized List<DataBuffer> drain() {
+			List<DataBuffer> result = this.buffers;
+			this.buffers = new ArrayList<>();
+			return result;
+		}
+
+		public void release() {
+			drain().forEach(DataBufferUtils::release);
+		}
+	}
+
+}
@@ -21,6 +21,7 @@ import java.lang.reflect.Method;
 import java.util.Arrays;
 
 import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodHandleInvoker;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.lang.Nullable;
@@ -54,6 +55,8 @@ public class InvocableHandlerMethod extends HandlerMethod {
 
 	private ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
+	private boolean useMethodHandles = false;
+
 
 	/**
 	 * Create an instance from a {@code HandlerMethod}.
@@ -108,6 +111,16 @@ public class InvocableHandlerMethod extends HandlerMethod {
 		this.parameterNameDiscoverer = parameterNameDiscoverer;
 	}
 
+	/**
+	 * Whether to invoke the handler method through a shared {@link MethodHandleInvoker}
+	 * rather than through reflection, whenever the resolved arguments allow for it.
+	 * <p>Default is "false".
+	 * @since 5.0
+	 */
+	public void setUseMethodHandles(boolean useMethodHandles) {
+		this.useMethodHandles = useMethodHandles;
+	}
+
 
 	/**
 	 * Invoke the method after resolving its argument values in the context of the given request.
@@ -154,10 +167,10 @@ public class InvocableHandlerMethod extends HandlerMethod {
 			if (args[i] != null) {
 				continue;
 			}
-			if (this.argumentResolvers.supportsParameter(parameter)) {
+			HandlerMethodArgumentResolver resolver = this.argumentResolvers.getArgumentResolver(parameter);
+			if (resolver != null) {
 				try {
-					args[i] = this.argumentResolvers.resolveArgument(
-							parameter, mavContainer, request, this.dataBinderFactory);
+					args[i] = resolver.resolveArgument(parameter, mavContainer, request, this.dataBinderFactory);
 					continue;
 				}
 				catch (Exception ex) {
@@ -200,8 +213,25 @@ public class InvocableHandlerMethod extends HandlerMethod {
 
 	/**
 	 * Invoke the handler method with the given argument values.
+	 * <p>If {@linkplain #setUseMethodHandles method handles} are enabled, uses a
+	 * shared {@link MethodHandleInvoker} for the handler method if the arguments
+	 * can be passed as they are. Uses reflection otherwise.
 	 */
 	protected Object doInvoke(Object... args) throws Exception {
+		MethodHandleInvoker invoker = (this.useMethodHandles ?
+				MethodHandleInvoker.forMethod(getBridgedMethod()) : null);
+		if (invoker != null && invoker.isApplicable(getBean(), args)) {
+			try {
+				return invoker.invoke(getBean(), args);
+			}
+			catch (Exception | Error ex) {
+				throw ex;
+			}
+			catch (Throwable ex) {
+				String text = getInvocationErrorMessage("Failed to invoke handler method", args);
+				throw new IllegalStateException(text, ex);
+			}
+		}
 		ReflectionUtils.makeAccessible(getBridgedMethod());
 		try {
 			return getBridgedMethod().invoke(getBean(), args);
@@ -19,13 +19,18 @@ package org.springframework.web.server.adapter;
 import java.security.Principal;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import org.springframework.core.ResolvableType;
@@ -36,6 +41,7 @@ import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.HttpMessageReader;
 import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.multipart.DefaultPartHttpMessageReader;
 import org.springframework.http.codec.multipart.Part;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
@@ -86,6 +92,9 @@ public class DefaultServerWebExchange implements ServerWebExchange {
 
 	private final Mono<MultiValueMap<String, Part>> multipartDataMono;
 
+	/** Parts with content in temporary files, as registered by the multipart reader */
+	private final Queue<Part> multipartParts = new ConcurrentLinkedQueue<>();
+
 	private volatile boolean notModified;
 
 
@@ -103,8 +112,11 @@ public class DefaultServerWebExchange implements ServerWebExchange {
 		this.request = request;
 		this.response = response;
 		this.sessionMono = sessionManager.getSession(this).cache();
+		Consumer<Part> partRegistry = this.multipartParts::add;
+		this.attributes.put(DefaultPartHttpMessageReader.PART_REGISTRY_HINT, partRegistry);
 		this.formDataMono = initFormData(request, codecConfigurer);
-		this.multipartDataMono = initMultipartData(request, codecConfigurer);
+		this.multipartDataMono = initMultipartData(request, codecConfigurer,
+				Collections.singletonMap(DefaultPartHttpMessageReader.PART_REGISTRY_HINT, partRegistry));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -131,7 +143,7 @@ public class DefaultServerWebExchange implements ServerWebExchange {
 
 	@SuppressWarnings("unchecked")
 	private static Mono<MultiValueMap<String, Part>> initMultipartData(ServerHttpRequest request,
-			ServerCodecConfigurer configurer) {
+			ServerCodecConfigurer configurer, Map<String, Object> hints) {
 
 		try {
 			MediaType contentType = request.getHeaders().getContentType();
@@ -140,7 +152,7 @@ public class DefaultServerWebExchange implements ServerWebExchange {
 						.filter(reader -> reader.canRead(MULTIPART_DATA_TYPE, MediaType.MULTIPART_FORM_DATA))
 						.findFirst()
 						.orElseThrow(() -> new IllegalStateException("No multipart HttpMessageReader.")))
-						.readMono(MULTIPART_DATA_TYPE, request, Collections.emptyMap())
+						.readMono(MULTIPART_DATA_TYPE, request, hints)
 						.switchIfEmpty(EMPTY_MULTIPART_DATA)
 						.cache();
 			}
@@ -200,6 +212,29 @@ public class DefaultServerWebExchange implements ServerWebExchange {
 		return this.multipartDataMono;
 	}
 
+	/**
+	 * Delete the underlying storage of the parts of a multipart request that
+	 * have been read, ignoring errors. Parts are registered through the
+	 * {@link DefaultPartHttpMessageReader#PART_REGISTRY_HINT}, which this exchange
+	 * passes for {@link #getMultipartData()} and exposes as an attribute for other
+	 * readers of the request body. A request body that has not been read is
+	 * not read for cleanup.
+	 * <p>Invoked by {@link HttpWebHandlerAdapter} once the exchange has
+	 * been handled.
+	 * @see Part#delete()
+	 */
+	public Mono<Void> cleanupMultipart() {
+		return Flux.defer(() -> {
+					List<Part> parts = new ArrayList<>();
+					for (Part part = this.multipartParts.poll(); part != null; part = this.multipartParts.poll()) {
+						parts.add(part);
+					}
+					return Flux.fromIterable(parts);
+				})
+				.concatMap(part -> part.delete().onErrorResume(ex -> Mono.empty()))
+				.then();
+	}
+
 	@Override
 	public boolean isNotModified() {
 		return this.notModified;
@@ -136,6 +136,7 @@ public class HttpWebHandlerAdapter extends WebHandlerDecorator implements HttpHa
 					logHandleFailure(ex);
 					return Mono.empty();
 				})
+				.then(Mono.defer(() -> cleanup(exchange)))
 				.then(Mono.defer(response::setComplete));
 	}
 
@@ -143,6 +144,11 @@ public class HttpWebHandlerAdapter extends WebHandlerDecorator implements HttpHa
 		return new DefaultServerWebExchange(request, response, this.sessionManager, getCodecConfigurer());
 	}
 
+	private Mono<Void> cleanup(ServerWebExchange exchange) {
+		return (exchange instanceof DefaultServerWebExchange ?
+				((DefaultServerWebExchange) exchange).cleanupMultipart() : Mono.empty());
+	}
+
 	private void logHandleFailure(Throwable ex) {
 		if (indicatesDisconnectedClient(ex)) {
 			if (disconnectedClientLogger.isTraceEnabled()) {
@@ -22,6 +22,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
+import javax.servlet.ServletRequest;
 import javax.servlet.http.HttpServletRequest;
 
 import org.apache.commons.logging.Log;
@@ -47,6 +48,13 @@ import org.springframework.util.StringUtils;
  */
 public class UrlPathHelper {
 
+	/**
+	 * Name of the request attribute that holds the lookup path resolved
+	 * through {@link #resolveAndCacheLookupPath}.
+	 * @since 5.0
+	 */
+	public static final String PATH_ATTRIBUTE = UrlPathHelper.class.getName() + ".PATH";
+
 	/**
 	 * Special WebSphere request attribute, indicating the original request URI.
 	 * Preferable over the standard Servlet 2.4 forward attribute on WebSphere,
@@ -160,6 +168,34 @@ public class UrlPathHelper {
 		}
 	}
 
+	/**
+	 * Resolve the {@link #getLookupPathForRequest lookup path} and store it
+	 * in the request attribute {@link #PATH_ATTRIBUTE}, so that further
+	 * matching during the same handler lookup can use it without resolving
+	 * it again.
+	 * @param request current HTTP request
+	 * @return the resolved lookup path
+	 * @since 5.0
+	 * @see #getResolvedLookupPath(ServletRequest)
+	 */
+	public String resolveAndCacheLookupPath(HttpServletRequest request) {
+		String lookupPath = getLookupPathForRequest(request);
+		request.setAttribute(PATH_ATTRIBUTE, lookupPath);
+		return lookupPath;
+	}
+
+	/**
+	 * Return the lookup path previously resolved through
+	 * {@link #resolveAndCacheLookupPath}, if any.
+	 * @param request current request
+	 * @return the cached lookup path, or {@code null} if none
+	 * @since 5.0
+	 */
+	@Nullable
+	public static String getResolvedLookupPath(ServletRequest request) {
+		return (String) request.getAttribute(PATH_ATTRIBUTE);
+	}
+
 	/**
 	 * Return the path within the servlet mapping for the given request,
 	 * i.e. the part of the request's URL beyond the part that called the servlet,
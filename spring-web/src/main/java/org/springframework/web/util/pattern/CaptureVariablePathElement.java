@@ -124,6 +124,13 @@ class CaptureVariablePathElement extends PathElement {
 		return this.variableName;
 	}
 
+	/**
+	 * Whether the captured value is constrained by a regular expression.
+	 */
+	boolean isConstrained() {
+		return (this.constraintPattern != null);
+	}
+
 	@Override
 	public int getNormalizedLength() {
 		return 1;
@@ -99,6 +99,17 @@ class LiteralPathElement extends PathElement {
 		return len;
 	}
 
+	/**
+	 * Return the literal text, lower-cased for a case-insensitive element.
+	 */
+	String getText() {
+		return String.valueOf(this.text);
+	}
+
+	boolean isCaseSensitive() {
+		return this.caseSensitive;
+	}
+
 
 	public String toString() {
 		return "Literal(" + String.valueOf(this.text) + ")";
@@ -34,6 +34,11 @@ import org.springframework.util.PathMatcher;
  * {@link PatternParseException} if the provided patterns are
  * illegal.
  *
+ * <p>Can be used in Spring MVC as well, e.g. through
+ * {@code PathMatchConfigurer#setPathMatcher}, in place of the default
+ * {@link org.springframework.util.AntPathMatcher}. Note that "**" is only
+ * supported at the end of a pattern.
+ *
  * @author Andy Clement
  * @author Juergen Hoeller
  * @since 5.0
@@ -48,8 +53,8 @@ public class ParsingPathMatcher implements PathMatcher {
 
 	@Override
 	public boolean isPattern(String path) {
-		// TODO crude, should be smarter, lookup pattern and ask it
-		return (path.indexOf('*') != -1 || path.indexOf('?') != -1);
+		// Same characters as the parser treats specially, incl. captured variables
+		return (path.indexOf('*') != -1 || path.indexOf('?') != -1 || path.indexOf('{') != -1);
 	}
 
 	@Override
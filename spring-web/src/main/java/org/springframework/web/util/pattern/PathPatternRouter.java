@@ -0,0 +1,419 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.pattern.PathPattern.MatchingContext;
+
+/**
+ * Merges a set of {@link PathPattern}s into a single tree keyed by path
+ * segments, so that a lookup path can be matched against all of them with
+ * a single walk instead of trying one pattern after another.
+ *
+ * <p>Leading path segments that are literal (e.g. "/orders") or whole-segment
+ * captures without a regular expression (e.g. "/{id}") are shared between
+ * patterns in the tree; captured values are collected along the way. Anything
+ * beyond those segments, such as wildcards, regular expressions or
+ * {@code {*rest}} captures, is matched by the remaining elements of the
+ * individual pattern, starting at the position the tree walk has reached.
+ *
+ * <p>Among all patterns that match, the most specific one is selected as per
+ * {@link PathPattern#compareTo}, with a pattern that is equal to the lookup
+ * path sorted first, and the order of registration breaking ties.
+ *
+ * <p>Routes must be added before the router is used for matching. Once
+ * populated, an instance can be used for concurrent lookups.
+ *
+ * @since 5.0
+ * @param <T> the type of value mapped to each pattern
+ */
+public class PathPatternRouter<T> {
+
+	private final Node root = new Node();
+
+	private final List<Route<T>> routes = new ArrayList<>();
+
+	private char separator = PathPatternParser.DEFAULT_SEPARATOR;
+
+	private int maxVariableCount;
+
+
+	/**
+	 * Add a route for the given pattern.
+	 * <p>All patterns of a router must use the same separator.
+	 * @param pattern the path pattern
+	 * @param value the value to return when the pattern is the best match
+	 */
+	public void addRoute(PathPattern pattern, T value) {
+		Assert.notNull(pattern, "PathPattern must not be null");
+		Assert.notNull(value, "Value must not be null");
+		if (this.routes.isEmpty()) {
+			this.separator = pattern.getSeparator();
+		}
+		else {
+			Assert.isTrue(pattern.getSeparator() == this.separator,
+					"All patterns must use the separator '" + this.separator + "': " + pattern);
+		}
+
+		List<String> variableNames = new ArrayList<>(pattern.getCapturedVariableCount());
+		Node node = this.root;
+		PathElement elem = pattern.getHeadSection();
+		boolean matchOptionalTrailingSlash = false;
+
+		while (elem instanceof SeparatorPathElement) {
+			PathElement segment = elem.next;
+			if (segment == null) {
+				// Trailing separator: an empty last segment
+				node = node.literalChild("");
+				matchOptionalTrailingSlash = false;
+				elem = null;
+				break;
+			}
+			if (!isWholeSegment(segment)) {
+				break;
+			}
+			if (segment instanceof LiteralPathElement) {
+				LiteralPathElement literal = (LiteralPathElement) segment;
+				node = (literal.isCaseSensitive() ?
+						node.literalChild(literal.getText()) : node.caseInsensitiveChild(literal.getText()));
+			}
+			else {
+				variableNames.add(((CaptureVariablePathElement) segment).getVariableName());
+				node = node.variableChild();
+			}
+			matchOptionalTrailingSlash = pattern.allowOptionalTrailingSlash;
+			elem = segment.next;
+		}
+
+		this.maxVariableCount = Math.max(this.maxVariableCount, variableNames.size());
+		Route<T> route = new Route<>(pattern, value, this.routes.size(),
+				StringUtils.toStringArray(variableNames), elem, matchOptionalTrailingSlash);
+		this.routes.add(route);
+		if (pattern.getHeadSection() == null) {
+			// Only ever matches an empty path
+			return;
+		}
+		if (elem != null) {
+			node.residualRoutes.add(route);
+		}
+		else {
+			node.routes.add(route);
+		}
+	}
+
+	/**
+	 * Whether the given element spans an entire path segment and can
+	 * therefore be shared with other patterns in the tree.
+	 */
+	private static boolean isWholeSegment(PathElement elem) {
+		if (elem instanceof LiteralPathElement ||
+				(elem instanceof CaptureVariablePathElement && !((CaptureVariablePathElement) elem).isConstrained())) {
+			PathElement next = elem.next;
+			return (next == null || next instanceof SeparatorPathElement ||
+					next instanceof CaptureTheRestPathElement || next instanceof WildcardTheRestPathElement);
+		}
+		return false;
+	}
+
+	/**
+	 * Return the patterns added to this router, in registration order.
+	 */
+	public List<PathPattern> getPatterns() {
+		List<PathPattern> patterns = new ArrayList<>(this.routes.size());
+		for (Route<T> route : this.routes) {
+			patterns.add(route.pattern);
+		}
+		return patterns;
+	}
+
+	/**
+	 * Find the best matching pattern for the given path.
+	 * @param path the lookup path
+	 * @return the best match along with the variables extracted from the
+	 * path, or {@code null} if no pattern matches
+	 */
+	@Nullable
+	public RouteMatch<T> match(@Nullable String path) {
+		MatchCollector<T> collector = new MatchCollector<>(path);
+		if (!StringUtils.hasLength(path)) {
+			for (Route<T> route : this.routes) {
+				if (route.pattern.matches(path)) {
+					collector.add(route, route.pattern.matchAndExtract(path != null ? path : ""));
+				}
+			}
+		}
+		else {
+			match(this.root, path, 0, new String[this.maxVariableCount], 0, collector);
+		}
+		return collector.getBestMatch();
+	}
+
+	private void match(Node node, String path, int pos, String[] values, int depth, MatchCollector<T> collector) {
+		for (Route<T> route : node.residualRoutes) {
+			if (collector.isCandidate(route)) {
+				MatchingContext context = route.pattern.new MatchingContext(path, true);
+				if (route.residualHead.matches(pos, context)) {
+					collector.add(route, route.getVariables(values, context.getExtractedVariables()));
+				}
+			}
+		}
+
+		int length = path.length();
+		if (pos == length) {
+			for (Route<T> route : node.routes) {
+				collector.add(route, values);
+			}
+			return;
+		}
+		if (path.charAt(pos) != this.separator) {
+			return;
+		}
+
+		int end = path.indexOf(this.separator, pos + 1);
+		if (end == -1) {
+			end = length;
+		}
+		if (end == pos + 1 && end == length) {
+			// Only a trailing separator left
+			for (Route<T> route : node.routes) {
+				if (route.matchOptionalTrailingSlash) {
+					collector.add(route, values);
+				}
+			}
+		}
+
+		String segment = null;
+		if (node.literalChildren != null) {
+			segment = path.substring(pos + 1, end);
+			Node child = node.literalChildren.get(segment);
+			if (child != null) {
+				match(child, path, end, values, depth, collector);
+			}
+		}
+		if (node.caseInsensitiveChildren != null) {
+			Node child = node.caseInsensitiveChildren.get(toLowerCase(path, pos + 1, end));
+			if (child != null) {
+				match(child, path, end, values, depth, collector);
+			}
+		}
+		if (node.variableChild != null && end > pos + 1) {
+			values[depth] = (segment != null ? segment : path.substring(pos + 1, end));
+			match(node.variableChild, path, end, values, depth + 1, collector);
+			values[depth] = null;
+		}
+	}
+
+	private static String toLowerCase(String path, int start, int end) {
+		char[] chars = new char[end - start];
+		for (int i = 0; i < chars.length; i++) {
+			// Same as LiteralPathElement, for consistent results
+			chars[i] = Character.toLowerCase(path.charAt(start + i));
+		}
+		return new String(chars);
+	}
+
+
+	/**
+	 * The result of a successful {@link #match} call.
+	 * @param <T> the type of value mapped to the pattern
+	 */
+	public static final class RouteMatch<T> {
+
+		private final PathPattern pattern;
+
+		private final T value;
+
+		private final Map<String, String> uriVariables;
+
+		RouteMatch(PathPattern pattern, T value, Map<String, String> uriVariables) {
+			this.pattern = pattern;
+			this.value = value;
+			this.uriVariables = uriVariables;
+		}
+
+		/**
+		 * Return the best matching pattern.
+		 */
+		public PathPattern getPattern() {
+			return this.pattern;
+		}
+
+		/**
+		 * Return the value the pattern was added with.
+		 */
+		public T getValue() {
+			return this.value;
+		}
+
+		/**
+		 * Return the variables extracted from the path, or an empty map.
+		 */
+		public Map<String, String> getUriVariables() {
+			return this.uriVariables;
+		}
+
+		@Override
+		public String toString() {
+			return "RouteMatch '" + this.pattern + "' " + this.uriVariables;
+		}
+	}
+
+
+	/**
+	 * A node in the tree, reached by a sequence of path segments.
+	 */
+	private final class Node {
+
+		// Routes ending at this node
+		final List<Route<T>> routes = new ArrayList<>(1);
+
+		// Routes continuing with pattern elements that are matched individually
+		final List<Route<T>> residualRoutes = new ArrayList<>(1);
+
+		Map<String, Node> literalChildren;
+
+		Map<String, Node> caseInsensitiveChildren;
+
+		Node variableChild;
+
+		Node literalChild(String text) {
+			if (this.literalChildren == null) {
+				this.literalChildren = new HashMap<>();
+			}
+			return this.literalChildren.computeIfAbsent(text, key -> new Node());
+		}
+
+		Node caseInsensitiveChild(String text) {
+			if (this.caseInsensitiveChildren == null) {
+				this.caseInsensitiveChildren = new HashMap<>();
+			}
+			return this.caseInsensitiveChildren.computeIfAbsent(text, key -> new Node());
+		}
+
+		Node variableChild() {
+			if (this.variableChild == null) {
+				this.variableChild = new Node();
+			}
+			return this.variableChild;
+		}
+	}
+
+
+	/**
+	 * A pattern with its value and the information needed to complete a
+	 * match once the tree walk reaches the node the route was added to.
+	 */
+	private static final class Route<T> {
+
+		final PathPattern pattern;
+
+		final T value;
+
+		// Registration order, for breaking ties between equally specific patterns
+		final int order;
+
+		// Names of the variables captured by the tree walk, in path order
+		final String[] variableNames;
+
+		// First element left to match, if the pattern was not fully merged into the tree
+		final PathElement residualHead;
+
+		final boolean matchOptionalTrailingSlash;
+
+		Route(PathPattern pattern, T value, int order, String[] variableNames,
+				@Nullable PathElement residualHead, boolean matchOptionalTrailingSlash) {
+
+			this.pattern = pattern;
+			this.value = value;
+			this.order = order;
+			this.variableNames = variableNames;
+			this.residualHead = residualHead;
+			this.matchOptionalTrailingSlash = matchOptionalTrailingSlash;
+		}
+
+		Map<String, String> getVariables(String[] values, Map<String, String> residualVariables) {
+			if (this.variableNames.length == 0) {
+				return residualVariables;
+			}
+			Map<String, String> variables = new HashMap<>(residualVariables);
+			for (int i = 0; i < this.variableNames.length; i++) {
+				variables.put(this.variableNames[i], values[i]);
+			}
+			return variables;
+		}
+	}
+
+
+	/**
+	 * Keeps track of the most specific route matched so far.
+	 */
+	private static final class MatchCollector<T> {
+
+		private final Comparator<PathPattern> comparator;
+
+		private Route<T> bestRoute;
+
+		private Map<String, String> bestVariables;
+
+		MatchCollector(@Nullable String path) {
+			this.comparator = new ParsingPathMatcher.PatternComparatorConsideringPath(path != null ? path : "");
+		}
+
+		/**
+		 * Whether the given route would be preferred over the best match so far.
+		 */
+		boolean isCandidate(Route<T> route) {
+			if (this.bestRoute == null) {
+				return true;
+			}
+			int result = this.comparator.compare(route.pattern, this.bestRoute.pattern);
+			return (result < 0 || (result == 0 && route.order < this.bestRoute.order));
+		}
+
+		void add(Route<T> route, String[] values) {
+			if (isCandidate(route)) {
+				this.bestRoute = route;
+				this.bestVariables = route.getVariables(values, Collections.emptyMap());
+			}
+		}
+
+		void add(Route<T> route, Map<String, String> variables) {
+			if (isCandidate(route)) {
+				this.bestRoute = route;
+				this.bestVariables = variables;
+			}
+		}
+
+		@Nullable
+		RouteMatch<T> getBestMatch() {
+			if (this.bestRoute == null || this.bestVariables == null) {
+				return null;
+			}
+			return new RouteMatch<>(this.bestRoute.pattern, this.bestRoute.value, this.bestVariables);
+		}
+	}
+
+}
@@ -34,11 +34,15 @@ import java.util.TimeZone;
 import org.hamcrest.Matchers;
 import org.junit.Test;
 
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
@@ -466,4 +470,34 @@ public class HttpHeadersTests {
 		assertEquals("Expected one (first) locale", Locale.GERMAN, headers.getContentLanguage());
 	}
 
+	@Test
+	public void readOnlyHttpHeadersIsView() {
+		headers.set(HttpHeaders.CONTENT_LANGUAGE, "de");
+		HttpHeaders readOnly = HttpHeaders.readOnlyHttpHeaders(headers);
+		assertEquals(headers, readOnly);
+		assertSame(readOnly, HttpHeaders.readOnlyHttpHeaders(readOnly));
+
+		headers.add(HttpHeaders.CONTENT_LANGUAGE, "en");
+		assertEquals(Arrays.asList("de", "en"), readOnly.get("content-language"));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void readOnlyHttpHeadersSet() {
+		HttpHeaders.readOnlyHttpHeaders(headers).setContentLength(42);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void readOnlyHttpHeadersValues() {
+		headers.set(HttpHeaders.CONTENT_LANGUAGE, "de");
+		HttpHeaders.readOnlyHttpHeaders(headers).get(HttpHeaders.CONTENT_LANGUAGE).add("en");
+	}
+
+	@Test
+	public void multiValueMapConstructor() {
+		MultiValueMap<String, String> map = new LinkedMultiValueMap<>();
+		HttpHeaders headers = new HttpHeaders(map);
+		headers.setContentLength(42);
+		assertEquals("42", map.getFirst(HttpHeaders.CONTENT_LENGTH));
+	}
+
 }
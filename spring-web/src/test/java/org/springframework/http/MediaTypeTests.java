@@ -67,6 +67,19 @@ public class MediaTypeTests {
 		assertEquals("Invalid quality factor", 0.2D, mediaType.getQualityValue(), 0D);
 	}
 
+	@Test
+	public void parseMediaTypeCached() {
+		MediaType mediaType = MediaType.parseMediaType("application/json;q=0.8");
+		assertSame(mediaType, MediaType.parseMediaType("application/json;q=0.8"));
+		assertEquals(0.8D, mediaType.getQualityValue(), 0D);
+		assertEquals(1D, MediaType.parseMediaType("application/json").getQualityValue(), 0D);
+	}
+
+	@Test(expected = InvalidMediaTypeException.class)
+	public void parseMediaTypeEmpty() {
+		MediaType.parseMediaType("");
+	}
+
 	@Test(expected = InvalidMediaTypeException.class)
 	public void parseMediaTypeNoSubtype() {
 		MediaType.parseMediaType("audio");
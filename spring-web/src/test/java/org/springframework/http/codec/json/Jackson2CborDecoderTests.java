@@ -0,0 +1,138 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.codec.Pojo;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+
+import static java.util.Arrays.*;
+import static java.util.Collections.*;
+import static org.junit.Assert.*;
+import static org.springframework.http.MediaType.*;
+
+/**
+ * Unit tests for {@link Jackson2CborDecoder}.
+ */
+public class Jackson2CborDecoderTests extends AbstractDataBufferAllocatingTestCase {
+
+	private static final MimeType CBOR_MIME_TYPE = new MimeType("application", "cbor");
+
+
+	private final Jackson2CborDecoder decoder = new Jackson2CborDecoder();
+
+	private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.cbor().build();
+
+
+	@Test
+	public void canDecode() {
+		assertTrue(this.decoder.canDecode(ResolvableType.forClass(Pojo.class), CBOR_MIME_TYPE));
+		assertTrue(this.decoder.canDecode(ResolvableType.forClass(Pojo.class), null));
+
+		assertFalse(this.decoder.canDecode(ResolvableType.forClass(String.class), null));
+		assertFalse(this.decoder.canDecode(ResolvableType.forClass(Pojo.class), APPLICATION_JSON));
+	}
+
+	@Test
+	public void decodePojo() throws Exception {
+		Flux<DataBuffer> source = Flux.just(cborBuffer(new Pojo("foofoo", "barbar")));
+
+		Mono<Object> mono = this.decoder.decodeToMono(source, ResolvableType.forClass(Pojo.class),
+				CBOR_MIME_TYPE, emptyMap());
+
+		StepVerifier.create(mono)
+				.expectNext(new Pojo("foofoo", "barbar"))
+				.verifyComplete();
+	}
+
+	@Test
+	public void decodeToList() throws Exception {
+		Flux<DataBuffer> source = Flux.just(cborBuffer(asList(new Pojo("f1", "b1"), new Pojo("f2", "b2"))));
+
+		ResolvableType elementType = ResolvableType.forClassWithGenerics(List.class, Pojo.class);
+		Mono<Object> mono = this.decoder.decodeToMono(source, elementType, CBOR_MIME_TYPE, emptyMap());
+
+		StepVerifier.create(mono)
+				.expectNext(asList(new Pojo("f1", "b1"), new Pojo("f2", "b2")))
+				.verifyComplete();
+	}
+
+	@Test
+	public void decodeToFlux() throws Exception {
+		byte[] cbor = this.mapper.writeValueAsBytes(asList(new Pojo("f1", "b1"), new Pojo("f2", "b2")));
+
+		// one byte per buffer, to aggregate values that span several buffers
+		Flux<DataBuffer> source = Flux.range(0, cbor.length).map(i -> bytesBuffer(new byte[] {cbor[i]}));
+		Flux<Object> flux = this.decoder.decode(source, ResolvableType.forClass(Pojo.class),
+				CBOR_MIME_TYPE, emptyMap());
+
+		StepVerifier.create(flux)
+				.expectNext(new Pojo("f1", "b1"))
+				.expectNext(new Pojo("f2", "b2"))
+				.verifyComplete();
+	}
+
+	@Test
+	public void decodeStream() throws Exception {
+		ByteArrayOutputStream cbor = new ByteArrayOutputStream();
+		this.mapper.writeValue(cbor, new Pojo("f1", "b1"));
+		this.mapper.writeValue(cbor, new Pojo("f2", "b2"));
+
+		Flux<DataBuffer> source = Flux.just(bytesBuffer(cbor.toByteArray()));
+		Flux<Object> flux = this.decoder.decode(source, ResolvableType.forClass(Pojo.class),
+				CBOR_MIME_TYPE, emptyMap());
+
+		StepVerifier.create(flux)
+				.expectNext(new Pojo("f1", "b1"))
+				.expectNext(new Pojo("f2", "b2"))
+				.verifyComplete();
+	}
+
+	@Test
+	public void invalidData() throws Exception {
+		Flux<DataBuffer> source = Flux.just(stringBuffer("{\"foofoo\": \"foofoo\", \"barbar\": \"barbar\""));
+		Flux<Object> flux = this.decoder.decode(source, ResolvableType.forClass(Pojo.class),
+				CBOR_MIME_TYPE, emptyMap());
+
+		StepVerifier.create(flux).verifyError(DecodingException.class);
+	}
+
+
+	private DataBuffer cborBuffer(Object value) throws Exception {
+		return bytesBuffer(this.mapper.writeValueAsBytes(value));
+	}
+
+	private DataBuffer bytesBuffer(byte[] bytes) {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(bytes.length);
+		buffer.write(bytes);
+		return buffer;
+	}
+
+}
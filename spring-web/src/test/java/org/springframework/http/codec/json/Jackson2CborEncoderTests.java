@@ -0,0 +1,122 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.codec.Pojo;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+
+import static java.util.Collections.*;
+import static org.junit.Assert.*;
+import static org.springframework.http.MediaType.*;
+
+/**
+ * Unit tests for {@link Jackson2CborEncoder}.
+ */
+public class Jackson2CborEncoderTests extends AbstractDataBufferAllocatingTestCase {
+
+	private static final MimeType CBOR_MIME_TYPE = new MimeType("application", "cbor");
+
+
+	private final Jackson2CborEncoder encoder = new Jackson2CborEncoder();
+
+	private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.cbor().build();
+
+
+	@Test
+	public void canEncode() {
+		ResolvableType pojoType = ResolvableType.forClass(Pojo.class);
+		assertTrue(this.encoder.canEncode(pojoType, CBOR_MIME_TYPE));
+		assertTrue(this.encoder.canEncode(pojoType, null));
+	}
+
+	@Test
+	public void canNotEncode() {
+		assertFalse(this.encoder.canEncode(ResolvableType.forClass(String.class), null));
+		assertFalse(this.encoder.canEncode(ResolvableType.forClass(Pojo.class), APPLICATION_JSON));
+		assertFalse(this.encoder.canEncode(ResolvableType.forClass(Object.class), APPLICATION_JSON));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void jsonObjectMapper() {
+		new Jackson2CborEncoder(new ObjectMapper());
+	}
+
+	@Test
+	public void encodeMono() throws Exception {
+		Pojo pojo = new Pojo("foo", "bar");
+		ResolvableType type = ResolvableType.forClass(Pojo.class);
+		Flux<DataBuffer> output = this.encoder.encode(Mono.just(pojo), this.bufferFactory, type,
+				CBOR_MIME_TYPE, emptyMap());
+
+		StepVerifier.create(output)
+				.consumeNextWith(buffer -> assertEquals(pojo, readPojo(buffer)))
+				.verifyComplete();
+	}
+
+	@Test
+	public void encode() throws Exception {
+		Flux<Pojo> source = Flux.range(0, 1000).map(i -> new Pojo("foo" + i, "bar" + i));
+		ResolvableType type = ResolvableType.forClass(Pojo.class);
+		Flux<DataBuffer> output = this.encoder.encode(source, this.bufferFactory, type, CBOR_MIME_TYPE, emptyMap());
+
+		List<DataBuffer> buffers = output.collectList().block();
+		assertTrue(buffers.size() > 1);
+
+		ByteArrayOutputStream cbor = new ByteArrayOutputStream();
+		buffers.forEach(buffer -> write(buffer, cbor));
+
+		List<Pojo> pojos = this.mapper.readerFor(
+				this.mapper.getTypeFactory().constructCollectionType(List.class, Pojo.class))
+				.readValue(cbor.toByteArray());
+		assertEquals(1000, pojos.size());
+		assertEquals(new Pojo("foo999", "bar999"), pojos.get(999));
+	}
+
+	private Pojo readPojo(DataBuffer buffer) {
+		try {
+			return this.mapper.readValue(buffer.asInputStream(), Pojo.class);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+		finally {
+			release(buffer);
+		}
+	}
+
+	private void write(DataBuffer buffer, ByteArrayOutputStream outputStream) {
+		byte[] bytes = new byte[buffer.readableByteCount()];
+		buffer.read(bytes);
+		release(buffer);
+		outputStream.write(bytes, 0, bytes.length);
+	}
+
+}
@@ -16,10 +16,13 @@
 
 package org.springframework.http.codec.json;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
 
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import static java.util.Collections.*;
 import org.junit.Test;
 import static org.springframework.http.MediaType.*;
@@ -33,9 +36,11 @@ import reactor.test.StepVerifier;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.support.DataBufferTestUtils;
 import org.springframework.http.codec.Pojo;
 import org.springframework.http.codec.ServerSentEvent;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -81,6 +86,33 @@ public class Jackson2JsonEncoderTests extends AbstractDataBufferAllocatingTestCa
 				.verifyComplete();
 	}
 
+	@Test
+	public void encodeEmpty() throws Exception {
+		ResolvableType type = ResolvableType.forClass(Pojo.class);
+		Flux<DataBuffer> output = this.encoder.encode(Flux.empty(), this.bufferFactory, type, null, emptyMap());
+
+		StepVerifier.create(output)
+				.consumeNextWith(stringConsumer("[]"))
+				.verifyComplete();
+	}
+
+	@Test
+	public void encodeInBatches() throws Exception {
+		Flux<Pojo> source = Flux.range(0, 1000).map(i -> new Pojo("foo" + i, "bar" + i));
+		ResolvableType type = ResolvableType.forClass(Pojo.class);
+		Flux<DataBuffer> output = this.encoder.encode(source, this.bufferFactory, type, null, emptyMap());
+
+		List<DataBuffer> buffers = output.collectList().block();
+		assertTrue(buffers.size() > 1);
+
+		StringBuilder json = new StringBuilder();
+		buffers.forEach(buffer -> json.append(DataBufferTestUtils.dumpString(buffer, StandardCharsets.UTF_8)));
+		release(buffers.toArray(new DataBuffer[buffers.size()]));
+
+		List<?> pojos = new ObjectMapper().readValue(json.toString(), List.class);
+		assertEquals(1000, pojos.size());
+	}
+
 	@Test
 	public void encodeWithType() throws Exception {
 		Flux<ParentClass> source = Flux.just(new Foo(), new Bar());
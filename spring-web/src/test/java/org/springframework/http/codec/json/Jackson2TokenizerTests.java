@@ -0,0 +1,157 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
+import org.springframework.core.io.buffer.DataBuffer;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+
+/**
+ * Unit tests for {@link Jackson2Tokenizer}.
+ */
+public class Jackson2TokenizerTests extends AbstractDataBufferAllocatingTestCase {
+
+	private ObjectMapper objectMapper;
+
+	private JsonFactory jsonFactory;
+
+
+	@Before
+	public void createFactory() {
+		this.jsonFactory = new JsonFactory();
+		this.objectMapper = new ObjectMapper(this.jsonFactory);
+	}
+
+
+	@Test
+	public void doNotTokenizeArrayElements() {
+		testTokenize(
+				singletonList("{\"foo\": \"foofoo\", \"bar\": \"barbar\"}"),
+				singletonList("{\"foo\": \"foofoo\", \"bar\": \"barbar\"}"), false);
+
+		testTokenize(
+				asList("{\"foo\": \"foofoo\"", ", \"bar\": \"barbar\"}"),
+				singletonList("{\"foo\":\"foofoo\",\"bar\":\"barbar\"}"), false);
+
+		testTokenize(
+				singletonList("[{\"foo\": \"foofoo\", \"bar\": \"barbar\"},{\"foo\": \"foofoofoo\", \"bar\": \"barbarbar\"}]"),
+				singletonList("[{\"foo\": \"foofoo\", \"bar\": \"barbar\"},{\"foo\": \"foofoofoo\", \"bar\": \"barbarbar\"}]"), false);
+
+		testTokenize(
+				asList("[{\"foo\": \"bar\"},{\"foo\": \"baz\"}", "]"),
+				singletonList("[{\"foo\": \"bar\"},{\"foo\": \"baz\"}]"), false);
+
+		testTokenize(
+				asList("{\"foo\": \"bar\"}", "{\"foo\": \"baz\"}"),
+				asList("{\"foo\": \"bar\"}", "{\"foo\": \"baz\"}"), false);
+
+		testTokenize(
+				singletonList("\"foo\""),
+				singletonList("\"foo\""), false);
+	}
+
+	@Test
+	public void tokenizeArrayElements() {
+		testTokenize(
+				singletonList("{\"foo\": \"foofoo\", \"bar\": \"barbar\"}"),
+				singletonList("{\"foo\": \"foofoo\", \"bar\": \"barbar\"}"), true);
+
+		testTokenize(
+				singletonList("[{\"foo\": \"foofoo\", \"bar\": \"barbar\"},{\"foo\": \"foofoofoo\", \"bar\": \"barbarbar\"}]"),
+				asList("{\"foo\": \"foofoo\", \"bar\": \"barbar\"}",
+						"{\"foo\": \"foofoofoo\", \"bar\": \"barbarbar\"}"), true);
+
+		testTokenize(
+				asList("[{\"foo\": \"foofoo\", \"bar\"", ": \"barbar\"},{\"foo\": \"foofoofoo\", \"bar\": \"barbarbar\"}]"),
+				asList("{\"foo\": \"foofoo\", \"bar\": \"barbar\"}",
+						"{\"foo\": \"foofoofoo\", \"bar\": \"barbarbar\"}"), true);
+
+		testTokenize(
+				singletonList("[{\"foo\": {\"bar\": [1, 2]}}, [3, [4]], \"baz\", 5, null]"),
+				asList("{\"foo\": {\"bar\": [1, 2]}}", "[3, [4]]", "\"baz\"", "5", "null"), true);
+
+		testTokenize(
+				asList("[1", ",2,", "3]"),
+				asList("1", "2", "3"), true);
+
+		testTokenize(
+				singletonList("[]"),
+				Arrays.<String>asList(), true);
+	}
+
+	@Test
+	public void errorInStream() {
+		Flux<DataBuffer> source = Flux.just(stringBuffer("{\"foo\": \"bar\"}"), stringBuffer("}"));
+		Flux<TokenBuffer> result = Jackson2Tokenizer.tokenize(source, this.jsonFactory, true);
+
+		StepVerifier.create(result)
+				.expectNextCount(1)
+				.expectError(DecodingException.class)
+				.verify();
+	}
+
+	@Test
+	public void truncatedInput() {
+		Flux<DataBuffer> source = Flux.just(stringBuffer("[{\"foo\": \"bar\"}, {\"foo\":"));
+		Flux<TokenBuffer> result = Jackson2Tokenizer.tokenize(source, this.jsonFactory, true);
+
+		StepVerifier.create(result)
+				.expectNextCount(1)
+				.expectError(DecodingException.class)
+				.verify();
+	}
+
+
+	private void testTokenize(List<String> source, List<String> expected, boolean tokenizeArrayElements) {
+		Flux<DataBuffer> sourceFlux = Flux.fromIterable(source).map(this::stringBuffer);
+		Flux<JsonNode> result = Jackson2Tokenizer.tokenize(sourceFlux, this.jsonFactory, tokenizeArrayElements)
+				.map(tokenBuffer -> readTree(tokenBuffer.asParser(this.objectMapper)));
+
+		StepVerifier.FirstStep<JsonNode> builder = StepVerifier.create(result);
+		expected.forEach(json -> builder.expectNext(readTree(json)));
+		builder.verifyComplete();
+	}
+
+	private JsonNode readTree(Object content) {
+		try {
+			return (content instanceof JsonParser ? this.objectMapper.readTree((JsonParser) content) :
+					this.objectMapper.readTree((String) content));
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+}
@@ -0,0 +1,421 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.multipart;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpInputMessage;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.mock.http.server.reactive.test.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.test.MockServerHttpResponse;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.adapter.HttpWebHandlerAdapter;
+
+import static java.util.Collections.*;
+import static org.junit.Assert.*;
+import static org.springframework.core.ResolvableType.*;
+
+/**
+ * Unit tests for {@link DefaultPartHttpMessageReader}.
+ */
+public class DefaultPartHttpMessageReaderTests {
+
+	private static final String BOUNDARY = "NbjrKgjbsaMLdnMxMfDpD6myWomYc0qNX0w";
+
+	private static final ResolvableType PART_TYPE = ResolvableType.forClass(Part.class);
+
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final DefaultPartHttpMessageReader reader = new DefaultPartHttpMessageReader();
+
+	private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+	private Path storageDirectory;
+
+	private String fileContent;
+
+
+	@Before
+	public void setUp() throws Exception {
+		this.storageDirectory = this.temporaryFolder.newFolder().toPath();
+		this.reader.setFileStorageDirectory(this.storageDirectory);
+
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			builder.append("Line ").append(i).append("\r\n--").append(i).append('\n');
+		}
+		this.fileContent = builder.toString();
+	}
+
+
+	@Test
+	public void canRead() {
+		assertTrue(this.reader.canRead(PART_TYPE, MediaType.MULTIPART_FORM_DATA));
+		assertTrue(this.reader.canRead(PART_TYPE, null));
+		assertFalse(this.reader.canRead(PART_TYPE, MediaType.APPLICATION_FORM_URLENCODED));
+		assertFalse(this.reader.canRead(ResolvableType.forClass(Object.class), MediaType.MULTIPART_FORM_DATA));
+	}
+
+	@Test
+	public void readParts() {
+		for (int chunkSize : new int[] {1, 7, 64, 1024, Integer.MAX_VALUE}) {
+			List<Part> parts = this.reader.read(PART_TYPE, message(body(), chunkSize), emptyMap())
+					.collectList().block();
+
+			assertEquals(3, parts.size());
+
+			assertTrue(parts.get(0) instanceof FormFieldPart);
+			assertEquals("name", parts.get(0).name());
+			assertEquals("Jürgen", ((FormFieldPart) parts.get(0)).value());
+
+			assertTrue(parts.get(1) instanceof FilePart);
+			assertEquals("file", parts.get(1).name());
+			assertEquals("file.txt", ((FilePart) parts.get(1)).filename());
+			assertEquals(MediaType.TEXT_PLAIN, parts.get(1).headers().getContentType());
+			assertEquals(this.fileContent, content(parts.get(1)));
+
+			assertFalse(parts.get(2) instanceof FormFieldPart);
+			assertFalse(parts.get(2) instanceof FilePart);
+			assertEquals("json", parts.get(2).name());
+			assertEquals("{\"foo\":\"bar\"}", content(parts.get(2)));
+		}
+	}
+
+	@Test
+	public void readMultiValueMap() {
+		MultipartHttpMessageReader multipartReader = new MultipartHttpMessageReader(this.reader);
+		ResolvableType type = forClassWithGenerics(MultiValueMap.class, String.class, Part.class);
+		MultiValueMap<String, Part> parts = multipartReader.readMono(type, message(body(), 100), emptyMap()).block();
+
+		assertEquals(3, parts.size());
+		assertEquals("Jürgen", ((FormFieldPart) parts.getFirst("name")).value());
+		assertEquals("file.txt", ((FilePart) parts.getFirst("file")).filename());
+	}
+
+	@Test
+	public void emptyPartAndPreambleAndEpilogue() {
+		String body = "preamble\r\n" +
+				"--" + BOUNDARY + "\r\n" +
+				"Content-Disposition: form-data; name=\"empty\"\r\n" +
+				"\r\n" +
+				"\r\n" +
+				"--" + BOUNDARY + "--\r\n" +
+				"epilogue";
+
+		StepVerifier.create(this.reader.read(PART_TYPE, message(body, 3), emptyMap()))
+				.consumeNextWith(part -> {
+					assertEquals("empty", part.name());
+					assertEquals("", ((FormFieldPart) part).value());
+				})
+				.verifyComplete();
+	}
+
+	@Test
+	public void fileContentInMemory() throws Exception {
+		List<Part> parts = this.reader.read(PART_TYPE, message(body(), 1024), emptyMap()).collectList().block();
+
+		assertEquals(this.fileContent, content(parts.get(1)));
+		assertEquals(0, Files.list(this.storageDirectory).count());
+
+		File dest = this.temporaryFolder.newFile();
+		((FilePart) parts.get(1)).transferTo(dest).block();
+		assertEquals(this.fileContent, new String(Files.readAllBytes(dest.toPath()), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void fileContentOnDisk() throws Exception {
+		this.reader.setMaxInMemorySize(100);
+		List<Part> parts = this.reader.read(PART_TYPE, message(body(), 1024), emptyMap()).collectList().block();
+
+		assertEquals(this.fileContent, content(parts.get(1)));
+		assertEquals(1, Files.list(this.storageDirectory).count());
+
+		File dest = new File(this.temporaryFolder.getRoot(), "dest.txt");
+		((FilePart) parts.get(1)).transferTo(dest).block();
+		assertEquals(this.fileContent, new String(Files.readAllBytes(dest.toPath()), StandardCharsets.UTF_8));
+		// moved rather than copied
+		assertEquals(0, Files.list(this.storageDirectory).count());
+		assertEquals(this.fileContent, content(parts.get(1)));
+	}
+
+	@Test
+	public void deleteFilePart() throws Exception {
+		this.reader.setMaxInMemorySize(100);
+		List<Part> parts = this.reader.read(PART_TYPE, message(body(), 1024), emptyMap()).collectList().block();
+		assertEquals(1, Files.list(this.storageDirectory).count());
+
+		parts.get(1).delete().block();
+		assertEquals(0, Files.list(this.storageDirectory).count());
+	}
+
+	@Test
+	public void fileOperationsOnBlockingOperationScheduler() {
+		Scheduler scheduler = Schedulers.newSingle("multipart-test");
+		try {
+			this.reader.setMaxInMemorySize(100);
+			this.reader.setBlockingOperationScheduler(scheduler);
+
+			StepVerifier.create(this.reader.read(PART_TYPE, message(body(), 1024), emptyMap()))
+					.expectNextCount(1)
+					.consumeNextWith(part -> {
+						assertEquals("file", part.name());
+						assertTrue(Thread.currentThread().getName().startsWith("multipart-test"));
+					})
+					.expectNextCount(1)
+					.verifyComplete();
+		}
+		finally {
+			scheduler.dispose();
+		}
+	}
+
+	@Test
+	public void multipartDataDeletedOnceExchangeHandled() throws Exception {
+		this.reader.setMaxInMemorySize(100);
+		ServerCodecConfigurer configurer = ServerCodecConfigurer.create();
+		configurer.registerDefaults(false);
+		configurer.customCodecs().reader(new MultipartHttpMessageReader(this.reader));
+		HttpWebHandlerAdapter handlerAdapter = new HttpWebHandlerAdapter(exchange ->
+				exchange.getMultipartData()
+						.doOnNext(parts -> assertEquals(1, this.storageDirectory.toFile().list().length))
+						.then());
+		handlerAdapter.setCodecConfigurer(configurer);
+
+		MockServerHttpRequest request = MockServerHttpRequest.post("/")
+				.contentType(MediaType.parseMediaType("multipart/form-data; boundary=" + BOUNDARY))
+				.body(body());
+		MockServerHttpResponse response = new MockServerHttpResponse();
+		handlerAdapter.handle(request, response).block();
+
+		assertNotEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+		assertEquals(0, Files.list(this.storageDirectory).count());
+	}
+
+	@Test
+	public void partsReadWithRegistryDeletedOnceExchangeHandled() throws Exception {
+		this.reader.setMaxInMemorySize(100);
+		HttpWebHandlerAdapter handlerAdapter = new HttpWebHandlerAdapter(exchange -> {
+			Consumer<Part> registry = exchange.<Consumer<Part>>getAttribute(
+					DefaultPartHttpMessageReader.PART_REGISTRY_HINT).get();
+			return this.reader.read(PART_TYPE, exchange.getRequest(),
+					singletonMap(DefaultPartHttpMessageReader.PART_REGISTRY_HINT, registry))
+					.doOnComplete(() -> assertEquals(1, this.storageDirectory.toFile().list().length))
+					.then();
+		});
+
+		MockServerHttpRequest request = MockServerHttpRequest.post("/")
+				.contentType(MediaType.parseMediaType("multipart/form-data; boundary=" + BOUNDARY))
+				.body(body());
+		MockServerHttpResponse response = new MockServerHttpResponse();
+		handlerAdapter.handle(request, response).block();
+
+		assertNotEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+		assertEquals(0, Files.list(this.storageDirectory).count());
+	}
+
+	@Test
+	public void unreadBodyNotParsedOnceExchangeHandled() {
+		ServerCodecConfigurer configurer = ServerCodecConfigurer.create();
+		configurer.registerDefaults(false);
+		configurer.customCodecs().reader(new MultipartHttpMessageReader(this.reader));
+		HttpWebHandlerAdapter handlerAdapter = new HttpWebHandlerAdapter(exchange -> Mono.empty());
+		handlerAdapter.setCodecConfigurer(configurer);
+
+		AtomicBoolean subscribed = new AtomicBoolean();
+		Flux<DataBuffer> body = Flux.just(this.bufferFactory.wrap(body().getBytes(StandardCharsets.UTF_8)))
+				.doOnSubscribe(subscription -> subscribed.set(true));
+		MockServerHttpRequest request = MockServerHttpRequest.post("/")
+				.contentType(MediaType.parseMediaType("multipart/form-data; boundary=" + BOUNDARY))
+				.body(body);
+		handlerAdapter.handle(request, new MockServerHttpResponse()).block();
+
+		assertFalse(subscribed.get());
+	}
+
+	@Test
+	public void emittedFilePartDeletedOnDownstreamError() throws Exception {
+		this.reader.setMaxInMemorySize(100);
+		this.reader.setBlockingOperationScheduler(Schedulers.immediate());
+
+		Flux<Part> parts = this.reader.read(PART_TYPE, message(body(), 1024), emptyMap())
+				.doOnNext(part -> {
+					if ("json".equals(part.name())) {
+						throw new IllegalStateException("Downstream failure");
+					}
+				});
+		StepVerifier.create(parts)
+				.expectNextCount(2)
+				.verifyError(IllegalStateException.class);
+
+		assertEquals(0, Files.list(this.storageDirectory).count());
+	}
+
+	@Test
+	public void transferredFilePartNotDeletedOnCancel() throws Exception {
+		this.reader.setMaxInMemorySize(100);
+		this.reader.setBlockingOperationScheduler(Schedulers.immediate());
+		File dest = new File(this.temporaryFolder.getRoot(), "dest.txt");
+
+		this.reader.read(PART_TYPE, message(body(), 1024), emptyMap())
+				.filter(part -> part instanceof FilePart)
+				.concatMap(part -> ((FilePart) part).transferTo(dest).then(Mono.just(part)))
+				.take(1)
+				.blockLast();
+
+		assertEquals(0, Files.list(this.storageDirectory).count());
+		assertEquals(this.fileContent, new String(Files.readAllBytes(dest.toPath()), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void tooManyParts() {
+		this.reader.setMaxParts(2);
+
+		StepVerifier.create(this.reader.read(PART_TYPE, message(body(), 1024), emptyMap()))
+				.expectNextCount(1)
+				.verifyError(DecodingException.class);
+	}
+
+	@Test
+	public void partExceedsDiskUsage() throws Exception {
+		this.reader.setMaxInMemorySize(100);
+		this.reader.setMaxDiskUsagePerPart(1000);
+
+		StepVerifier.create(this.reader.read(PART_TYPE, message(body(), 1024), emptyMap()))
+				.expectNextCount(1)
+				.verifyError(DecodingException.class);
+
+		assertEquals(0, Files.list(this.storageDirectory).count());
+	}
+
+	@Test
+	public void formFieldExceedsMemoryUsage() {
+		this.reader.setMaxInMemorySize(3);
+
+		StepVerifier.create(this.reader.read(PART_TYPE, message(body(), 1024), emptyMap()))
+				.verifyError(DecodingException.class);
+	}
+
+	@Test
+	public void headersExceedMaxSize() {
+		this.reader.setMaxHeadersSize(20);
+
+		StepVerifier.create(this.reader.read(PART_TYPE, message(body(), 1024), emptyMap()))
+				.verifyError(DecodingException.class);
+	}
+
+	@Test
+	public void missingCloseDelimiter() {
+		String body = body();
+		body = body.substring(0, body.lastIndexOf("--" + BOUNDARY));
+
+		StepVerifier.create(this.reader.read(PART_TYPE, message(body, 1024), emptyMap()))
+				.expectNextCount(2)
+				.verifyError(DecodingException.class);
+	}
+
+	@Test
+	public void missingBoundary() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+		ReactiveHttpInputMessage message = message(headers, Flux.empty());
+
+		StepVerifier.create(this.reader.read(PART_TYPE, message, emptyMap()))
+				.verifyError(DecodingException.class);
+	}
+
+
+	private String body() {
+		return "--" + BOUNDARY + "\r\n" +
+				"Content-Disposition: form-data; name=\"name\"\r\n" +
+				"\r\n" +
+				"Jürgen\r\n" +
+				"--" + BOUNDARY + "\r\n" +
+				"Content-Disposition: form-data; name=\"file\"; filename=\"file.txt\"\r\n" +
+				"Content-Type: text/plain\r\n" +
+				"\r\n" +
+				this.fileContent + "\r\n" +
+				"--" + BOUNDARY + "\r\n" +
+				"Content-Disposition: form-data; name=\"json\"\r\n" +
+				"Content-Type: application/json\r\n" +
+				"\r\n" +
+				"{\"foo\":\"bar\"}\r\n" +
+				"--" + BOUNDARY + "--\r\n";
+	}
+
+	private ReactiveHttpInputMessage message(String body, int chunkSize) {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		int size = Math.min(chunkSize, bytes.length);
+		Flux<DataBuffer> chunks = Flux.range(0, (bytes.length + size - 1) / size)
+				.map(i -> {
+					int offset = i * size;
+					int length = Math.min(size, bytes.length - offset);
+					return this.bufferFactory.wrap(Arrays.copyOfRange(bytes, offset, offset + length));
+				});
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.parseMediaType("multipart/form-data; boundary=" + BOUNDARY));
+		return message(headers, chunks);
+	}
+
+	private ReactiveHttpInputMessage message(HttpHeaders headers, Flux<DataBuffer> body) {
+		return new ReactiveHttpInputMessage() {
+			@Override
+			public Flux<DataBuffer> getBody() {
+				return body;
+			}
+			@Override
+			public HttpHeaders getHeaders() {
+				return headers;
+			}
+		};
+	}
+
+	private String content(Part part) {
+		DataBuffer buffer = DataBufferUtils.join(part.content()).block();
+		byte[] bytes = new byte[buffer.readableByteCount()];
+		buffer.read(bytes);
+		DataBufferUtils.release(buffer);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
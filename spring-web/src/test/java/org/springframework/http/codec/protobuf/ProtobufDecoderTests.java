@@ -0,0 +1,182 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.protobuf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.protobuf.Msg;
+import org.springframework.protobuf.SecondMsg;
+import org.springframework.util.MimeType;
+
+import static java.util.Collections.*;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ProtobufDecoder}.
+ */
+public class ProtobufDecoderTests extends AbstractDataBufferAllocatingTestCase {
+
+	private static final MimeType PROTOBUF_MIME_TYPE = new MimeType("application", "x-protobuf");
+
+
+	private final ProtobufDecoder decoder = new ProtobufDecoder();
+
+	private final Msg testMsg1 = Msg.newBuilder().setFoo("Foo").setBlah(SecondMsg.newBuilder().setBlah(123).build()).build();
+
+	private final Msg testMsg2 = Msg.newBuilder().setFoo("Bar").setBlah(SecondMsg.newBuilder().setBlah(456).build()).build();
+
+
+	@Test
+	public void canDecode() {
+		assertTrue(this.decoder.canDecode(ResolvableType.forClass(Msg.class), null));
+		assertTrue(this.decoder.canDecode(ResolvableType.forClass(Msg.class), PROTOBUF_MIME_TYPE));
+		assertFalse(this.decoder.canDecode(ResolvableType.forClass(Msg.class), MimeType.valueOf("application/json")));
+		assertFalse(this.decoder.canDecode(ResolvableType.forClass(Object.class), PROTOBUF_MIME_TYPE));
+	}
+
+	@Test
+	public void decodeToMono() {
+		Mono<DataBuffer> input = Mono.just(bytesBuffer(this.testMsg1.toByteArray()));
+
+		StepVerifier.create(this.decoder.decodeToMono(input, ResolvableType.forClass(Msg.class), null, emptyMap()))
+				.expectNext(this.testMsg1)
+				.verifyComplete();
+	}
+
+	@Test
+	public void decodeToMonoWithSplitBuffers() {
+		byte[] bytes = this.testMsg1.toByteArray();
+		Flux<DataBuffer> input = Flux.just(bytesBuffer(bytes, 0, 4), bytesBuffer(bytes, 4, bytes.length - 4));
+
+		StepVerifier.create(this.decoder.decodeToMono(input, ResolvableType.forClass(Msg.class), null, emptyMap()))
+				.expectNext(this.testMsg1)
+				.verifyComplete();
+	}
+
+	@Test
+	public void decodeToMonoExceedingMaxMessageSize() {
+		byte[] bytes = this.testMsg1.toByteArray();
+		this.decoder.setMaxMessageSize(bytes.length - 1);
+		Flux<DataBuffer> input = Flux.just(bytesBuffer(bytes, 0, 4), bytesBuffer(bytes, 4, bytes.length - 4));
+
+		StepVerifier.create(this.decoder.decodeToMono(input, ResolvableType.forClass(Msg.class), null, emptyMap()))
+				.verifyError(DecodingException.class);
+	}
+
+	@Test
+	public void decodeToMonoExceedingMaxMessageSizeReleasesBuffers() {
+		byte[] bytes = this.testMsg1.toByteArray();
+		this.decoder.setMaxMessageSize(bytes.length - 1);
+		NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(new UnpooledByteBufAllocator(false));
+		NettyDataBuffer buffer1 = bufferFactory.wrap(Unpooled.copiedBuffer(bytes, 0, 4));
+		NettyDataBuffer buffer2 = bufferFactory.wrap(Unpooled.copiedBuffer(bytes, 4, bytes.length - 4));
+		Flux<DataBuffer> input = Flux.just(buffer1, buffer2);
+
+		StepVerifier.create(this.decoder.decodeToMono(input, ResolvableType.forClass(Msg.class), null, emptyMap()))
+				.verifyError(DecodingException.class);
+
+		assertEquals(0, buffer1.getNativeBuffer().refCnt());
+		assertEquals(0, buffer2.getNativeBuffer().refCnt());
+	}
+
+	@Test
+	public void decodeStream() throws IOException {
+		Flux<DataBuffer> input = Flux.just(bytesBuffer(delimited(this.testMsg1, this.testMsg2)));
+
+		StepVerifier.create(this.decoder.decode(input, ResolvableType.forClass(Msg.class), null, emptyMap()))
+				.expectNext(this.testMsg1)
+				.expectNext(this.testMsg2)
+				.verifyComplete();
+	}
+
+	@Test
+	public void decodeStreamWithSplitBuffers() throws IOException {
+		byte[] bytes = delimited(this.testMsg1, this.testMsg2);
+
+		// one byte per buffer, to read sizes and messages that span several buffers
+		Flux<DataBuffer> input = Flux.range(0, bytes.length).map(i -> bytesBuffer(bytes, i, 1));
+
+		StepVerifier.create(this.decoder.decode(input, ResolvableType.forClass(Msg.class), null, emptyMap()))
+				.expectNext(this.testMsg1)
+				.expectNext(this.testMsg2)
+				.verifyComplete();
+	}
+
+	@Test
+	public void decodeStreamWithLargeMessageSize() throws IOException {
+		Msg largeMsg = Msg.newBuilder().setFoo(new String(new char[300]).replace('\0', 'x')).build();
+		byte[] bytes = delimited(largeMsg, this.testMsg1);
+		Flux<DataBuffer> input = Flux.just(bytesBuffer(bytes, 0, 1), bytesBuffer(bytes, 1, bytes.length - 1));
+
+		StepVerifier.create(this.decoder.decode(input, ResolvableType.forClass(Msg.class), null, emptyMap()))
+				.expectNext(largeMsg)
+				.expectNext(this.testMsg1)
+				.verifyComplete();
+	}
+
+	@Test
+	public void decodeStreamExceedingMaxMessageSize() throws IOException {
+		this.decoder.setMaxMessageSize(1);
+		Flux<DataBuffer> input = Flux.just(bytesBuffer(delimited(this.testMsg1)));
+
+		StepVerifier.create(this.decoder.decode(input, ResolvableType.forClass(Msg.class), null, emptyMap()))
+				.verifyError(DecodingException.class);
+	}
+
+	@Test
+	public void decodeIncompleteStream() throws IOException {
+		byte[] bytes = delimited(this.testMsg1);
+		Flux<DataBuffer> input = Flux.just(bytesBuffer(bytes, 0, bytes.length - 1));
+
+		StepVerifier.create(this.decoder.decode(input, ResolvableType.forClass(Msg.class), null, emptyMap()))
+				.verifyError(DecodingException.class);
+	}
+
+
+	private byte[] delimited(Msg... messages) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		for (Msg message : messages) {
+			message.writeDelimitedTo(outputStream);
+		}
+		return outputStream.toByteArray();
+	}
+
+	private DataBuffer bytesBuffer(byte[] bytes) {
+		return bytesBuffer(bytes, 0, bytes.length);
+	}
+
+	private DataBuffer bytesBuffer(byte[] bytes, int offset, int length) {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(length);
+		buffer.write(bytes, offset, length);
+		return buffer;
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.protobuf;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.protobuf.Msg;
+import org.springframework.protobuf.SecondMsg;
+import org.springframework.util.MimeType;
+
+import static java.util.Collections.*;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ProtobufEncoder}.
+ */
+public class ProtobufEncoderTests extends AbstractDataBufferAllocatingTestCase {
+
+	private static final MimeType PROTOBUF_MIME_TYPE = new MimeType("application", "x-protobuf");
+
+
+	private final ProtobufEncoder encoder = new ProtobufEncoder();
+
+	private final Msg testMsg1 = Msg.newBuilder().setFoo("Foo").setBlah(SecondMsg.newBuilder().setBlah(123).build()).build();
+
+	private final Msg testMsg2 = Msg.newBuilder().setFoo("Bar").setBlah(SecondMsg.newBuilder().setBlah(456).build()).build();
+
+
+	@Test
+	public void canEncode() {
+		assertTrue(this.encoder.canEncode(ResolvableType.forClass(Msg.class), null));
+		assertTrue(this.encoder.canEncode(ResolvableType.forClass(Msg.class), PROTOBUF_MIME_TYPE));
+		assertFalse(this.encoder.canEncode(ResolvableType.forClass(Msg.class), MediaType.APPLICATION_JSON));
+		assertFalse(this.encoder.canEncode(ResolvableType.forClass(Object.class), PROTOBUF_MIME_TYPE));
+	}
+
+	@Test
+	public void streamingMediaTypes() {
+		List<MediaType> mediaTypes = this.encoder.getStreamingMediaTypes();
+		assertEquals(1, mediaTypes.size());
+		assertEquals("true", mediaTypes.get(0).getParameter(ProtobufCodecSupport.DELIMITED_KEY));
+	}
+
+	@Test
+	public void encodeMono() {
+		Flux<DataBuffer> output = this.encoder.encode(Mono.just(this.testMsg1), this.bufferFactory,
+				ResolvableType.forClass(Msg.class), PROTOBUF_MIME_TYPE, emptyMap());
+
+		StepVerifier.create(output)
+				.consumeNextWith(buffer -> {
+					try {
+						assertEquals(this.testMsg1, Msg.parseFrom(bytes(buffer)));
+					}
+					catch (IOException ex) {
+						throw new IllegalStateException(ex);
+					}
+				})
+				.verifyComplete();
+	}
+
+	@Test
+	public void encodeStream() {
+		Flux<DataBuffer> output = this.encoder.encode(Flux.just(this.testMsg1, this.testMsg2), this.bufferFactory,
+				ResolvableType.forClass(Msg.class), PROTOBUF_MIME_TYPE, emptyMap());
+
+		StepVerifier.create(output)
+				.consumeNextWith(buffer -> assertEquals(this.testMsg1, parseDelimited(buffer)))
+				.consumeNextWith(buffer -> assertEquals(this.testMsg2, parseDelimited(buffer)))
+				.verifyComplete();
+	}
+
+
+	private Msg parseDelimited(DataBuffer buffer) {
+		ByteArrayInputStream inputStream = new ByteArrayInputStream(bytes(buffer));
+		try {
+			Msg message = Msg.parseDelimitedFrom(inputStream);
+			assertEquals(0, inputStream.available());
+			return message;
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private byte[] bytes(DataBuffer buffer) {
+		byte[] bytes = new byte[buffer.readableByteCount()];
+		buffer.read(bytes);
+		release(buffer);
+		return bytes;
+	}
+
+}
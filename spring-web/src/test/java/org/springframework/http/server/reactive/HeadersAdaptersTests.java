@@ -0,0 +1,152 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.server.reactive;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.undertow.util.HeaderMap;
+import org.eclipse.jetty.http.HttpFields;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.util.MultiValueMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the {@code MultiValueMap} adapters of native server headers.
+ *
+ * @since 5.0
+ */
+@RunWith(Parameterized.class)
+public class HeadersAdaptersTests {
+
+	@Parameterized.Parameter(0)
+	public String name;
+
+	@Parameterized.Parameter(1)
+	public Supplier<MultiValueMap<String, String>> headersSupplier;
+
+	private MultiValueMap<String, String> headers;
+
+
+	@Parameterized.Parameters(name = "headers [{0}]")
+	public static Object[][] arguments() {
+		return new Object[][] {
+				{"map", headers(() -> CollectionUtils.toMultiValueMap(new LinkedCaseInsensitiveMap<>(8, Locale.ENGLISH)))},
+				{"netty", headers(() -> new NettyHeadersAdapter(new DefaultHttpHeaders()))},
+				{"undertow", headers(() -> new UndertowHeadersAdapter(new HeaderMap()))},
+				{"jetty", headers(() -> new JettyHeadersAdapter(new HttpFields()))}
+		};
+	}
+
+	private static Supplier<MultiValueMap<String, String>> headers(Supplier<MultiValueMap<String, String>> supplier) {
+		return supplier;
+	}
+
+
+	@Before
+	public void setup() {
+		this.headers = this.headersSupplier.get();
+	}
+
+
+	@Test
+	public void getWithUnknownHeaderShouldReturnNull() {
+		assertNull(this.headers.get("Unknown"));
+		assertNull(this.headers.getFirst("Unknown"));
+		assertFalse(this.headers.containsKey("Unknown"));
+	}
+
+	@Test
+	public void getFirstWithMultipleValues() {
+		this.headers.add("TestHeader", "first");
+		this.headers.add("TestHeader", "second");
+		assertEquals("first", this.headers.getFirst("TestHeader"));
+		assertEquals(Arrays.asList("first", "second"), this.headers.get("TestHeader"));
+		assertEquals(1, this.headers.size());
+	}
+
+	@Test
+	public void getCaseInsensitive() {
+		this.headers.add("TestHeader", "first");
+		this.headers.add("Content-Type", "text/plain");
+		assertEquals("first", this.headers.getFirst("testheader"));
+		assertEquals("text/plain", this.headers.getFirst("content-type"));
+		assertTrue(this.headers.containsKey("CONTENT-TYPE"));
+		assertEquals(Collections.singletonList("text/plain"), this.headers.get("CONTENT-TYPE"));
+	}
+
+	@Test
+	public void setReplacesValues() {
+		this.headers.add("TestHeader", "first");
+		this.headers.add("TestHeader", "second");
+		this.headers.set("testheader", "third");
+		assertEquals(Collections.singletonList("third"), this.headers.get("TestHeader"));
+	}
+
+	@Test
+	public void putShouldOverrideExisting() {
+		this.headers.add("TestHeader", "first");
+		this.headers.put("TestHeader", Arrays.asList("override"));
+		assertEquals("override", this.headers.getFirst("TestHeader"));
+		assertEquals(1, this.headers.size());
+	}
+
+	@Test
+	public void removeAndClear() {
+		this.headers.add("TestHeader", "first");
+		this.headers.add("OtherHeader", "other");
+		this.headers.remove("testheader");
+		assertFalse(this.headers.containsKey("TestHeader"));
+		assertEquals(1, this.headers.size());
+		this.headers.clear();
+		assertTrue(this.headers.isEmpty());
+	}
+
+	@Test
+	public void keySetAndEntrySet() {
+		this.headers.add("TestHeader", "first");
+		this.headers.add("TestHeader", "second");
+		this.headers.add("OtherHeader", "other");
+		assertEquals(2, this.headers.keySet().size());
+		assertEquals(2, this.headers.entrySet().size());
+		this.headers.entrySet().forEach(entry ->
+				assertEquals(this.headers.get(entry.getKey()), entry.getValue()));
+	}
+
+	@Test
+	public void httpHeadersWrapping() {
+		HttpHeaders httpHeaders = new HttpHeaders(this.headers);
+		httpHeaders.setContentLength(42);
+		assertEquals("42", this.headers.getFirst("Content-Length"));
+		assertEquals(42, HttpHeaders.readOnlyHttpHeaders(httpHeaders).getContentLength());
+	}
+
+}
@@ -16,6 +16,7 @@
 
 package org.springframework.web.accept;
 
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.Test;
@@ -68,6 +69,26 @@ public class HeaderContentNegotiationStrategyTests {
 		assertEquals("text/plain;q=0.5", mediaTypes.get(3).toString());
 	}
 
+	@Test
+	public void resolveMediaTypesCached() throws Exception {
+		this.servletRequest.addHeader("Accept", "text/plain; q=0.5, text/html");
+		List<MediaType> mediaTypes = this.strategy.resolveMediaTypes(this.webRequest);
+
+		MockHttpServletRequest otherRequest = new MockHttpServletRequest();
+		otherRequest.addHeader("Accept", "text/plain; q=0.5, text/html");
+		assertSame(mediaTypes, this.strategy.resolveMediaTypes(new ServletWebRequest(otherRequest)));
+
+		otherRequest = new MockHttpServletRequest();
+		otherRequest.addHeader("Accept", "text/html");
+		assertEquals(Collections.singletonList(MediaType.TEXT_HTML),
+				this.strategy.resolveMediaTypes(new ServletWebRequest(otherRequest)));
+	}
+
+	@Test
+	public void resolveMediaTypesNoHeader() throws Exception {
+		assertEquals(Collections.emptyList(), this.strategy.resolveMediaTypes(this.webRequest));
+	}
+
 	@Test(expected = HttpMediaTypeNotAcceptableException.class)
 	public void resolveMediaTypesParseError() throws Exception {
 		this.servletRequest.addHeader("Accept", "textplain; q=0.5");
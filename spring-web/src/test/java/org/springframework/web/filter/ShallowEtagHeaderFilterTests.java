@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,9 @@
 
 package org.springframework.web.filter;
 
+import java.io.PrintWriter;
 import javax.servlet.FilterChain;
+import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletResponse;
 
 import org.junit.Test;
@@ -262,4 +264,81 @@ public class ShallowEtagHeaderFilterTests {
 		assertArrayEquals("Invalid content", responseBody, response.getContentAsByteArray());
 	}
 
+	@Test
+	public void filterNoMatchWithContentCacheLimit() throws Exception {
+		filter.setContentCacheLimit(1024);
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		final byte[] responseBody = "Hello World".getBytes("UTF-8");
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			((HttpServletResponse) filterResponse).setStatus(HttpServletResponse.SC_OK);
+			FileCopyUtils.copy(responseBody, filterResponse.getOutputStream());
+		};
+		filter.doFilter(request, response, filterChain);
+
+		assertEquals("Invalid status", 200, response.getStatus());
+		assertEquals("Invalid ETag header", "\"0b10a8db164e0754105b7a99be72e3fe5\"", response.getHeader("ETag"));
+		assertEquals("Invalid Content-Length header", responseBody.length, response.getContentLength());
+		assertArrayEquals("Invalid content", responseBody, response.getContentAsByteArray());
+	}
+
+	@Test
+	public void filterMatchWithContentCacheLimit() throws Exception {
+		filter.setContentCacheLimit(1024);
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		request.addHeader("If-None-Match", "\"0b10a8db164e0754105b7a99be72e3fe5\"");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			PrintWriter writer = filterResponse.getWriter();
+			writer.write("Hello ");
+			writer.write("World");
+		};
+		filter.doFilter(request, response, filterChain);
+
+		assertEquals("Invalid status", 304, response.getStatus());
+		assertEquals("Invalid ETag header", "\"0b10a8db164e0754105b7a99be72e3fe5\"", response.getHeader("ETag"));
+		assertArrayEquals("Invalid content", new byte[0], response.getContentAsByteArray());
+	}
+
+	@Test
+	public void filterContentCacheLimitExceeded() throws Exception {
+		filter.setContentCacheLimit(8);
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			ServletOutputStream outputStream = filterResponse.getOutputStream();
+			outputStream.write("Hello ".getBytes("UTF-8"));
+			assertFalse("Response committed too early", response.isCommitted());
+			outputStream.write("World".getBytes("UTF-8"));
+			filterResponse.flushBuffer();
+			assertTrue("Response not committed", response.isCommitted());
+		};
+		filter.doFilter(request, response, filterChain);
+
+		assertEquals("Invalid status", 200, response.getStatus());
+		assertNull("Unexpected ETag header", response.getHeader("ETag"));
+		assertEquals("Invalid content", "Hello World", response.getContentAsString());
+	}
+
+	@Test
+	public void filterContentLengthExceedsContentCacheLimit() throws Exception {
+		filter.setContentCacheLimit(8);
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		final byte[] responseBody = "Hello World".getBytes("UTF-8");
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			filterResponse.setContentLength(responseBody.length);
+			FileCopyUtils.copy(responseBody, filterResponse.getOutputStream());
+		};
+		filter.doFilter(request, response, filterChain);
+
+		assertNull("Unexpected ETag header", response.getHeader("ETag"));
+		assertEquals("Invalid Content-Length header", responseBody.length, response.getContentLength());
+		assertArrayEquals("Invalid content", responseBody, response.getContentAsByteArray());
+	}
+
 }
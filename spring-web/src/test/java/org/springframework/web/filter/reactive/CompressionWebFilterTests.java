@@ -0,0 +1,199 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter.reactive;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.mock.http.server.reactive.test.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.test.MockServerHttpResponse;
+import org.springframework.mock.http.server.reactive.test.MockServerWebExchange;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for {@link CompressionWebFilter}.
+ *
+ * @since 5.0
+ */
+public class CompressionWebFilterTests {
+
+	private static final String CONTENT = StringUtils.collectionToDelimitedString(
+			Collections.nCopies(200, "Hello World"), " ");
+
+
+	private final CompressionWebFilter filter = new CompressionWebFilter();
+
+	private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+
+	@Test
+	public void gzip() throws Exception {
+		MockServerHttpResponse response = filter("gzip, deflate", MediaType.TEXT_PLAIN,
+				(exchangeResponse) -> exchangeResponse.writeWith(Flux.just(
+						buffer(CONTENT.substring(0, 100)), buffer(CONTENT.substring(100)))));
+
+		HttpHeaders headers = response.getHeaders();
+		assertEquals("gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(HttpHeaders.ACCEPT_ENCODING, headers.getFirst(HttpHeaders.VARY));
+		assertFalse(headers.containsKey(HttpHeaders.CONTENT_LENGTH));
+		assertEquals(CONTENT, read(new GZIPInputStream(body(response))));
+	}
+
+	@Test
+	public void deflate() throws Exception {
+		MockServerHttpResponse response = filter("deflate", MediaType.APPLICATION_JSON,
+				(exchangeResponse) -> exchangeResponse.writeWith(Mono.just(buffer(CONTENT))));
+
+		assertEquals("deflate", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(CONTENT, read(new InflaterInputStream(body(response))));
+	}
+
+	@Test
+	public void streaming() throws Exception {
+		MockServerHttpResponse response = filter("gzip", MediaType.TEXT_PLAIN,
+				(exchangeResponse) -> exchangeResponse.writeAndFlushWith(Flux.just(
+						Flux.just(buffer(CONTENT.substring(0, 100))), Flux.just(buffer(CONTENT.substring(100))))));
+
+		assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(CONTENT, read(new GZIPInputStream(body(response))));
+	}
+
+	@Test
+	public void streamingWithDeferredSubscription() throws Exception {
+		// Writer that subscribes to the inner publishers only after the outer one has completed
+		List<Publisher<? extends DataBuffer>> publishers = new ArrayList<>();
+		MockServerWebExchange exchange = MockServerHttpRequest.get("/")
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip").toExchange();
+		ServerHttpResponse deferringResponse = new ServerHttpResponseDecorator(exchange.getResponse()) {
+			@Override
+			public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+				return Flux.from(body).doOnNext(publishers::add).then();
+			}
+		};
+		this.filter.filter(exchange.mutate().response(deferringResponse).build(), filteredExchange -> {
+			filteredExchange.getResponse().getHeaders().setContentType(MediaType.TEXT_PLAIN);
+			return filteredExchange.getResponse().writeAndFlushWith(Flux.just(
+					Flux.just(buffer(CONTENT.substring(0, 100))), Flux.just(buffer(CONTENT.substring(100)))));
+		}).block(Duration.ofSeconds(5));
+
+		// Another response in the meantime, possibly picking up a pooled compressor
+		MockServerHttpResponse otherResponse = filter("gzip", MediaType.TEXT_PLAIN,
+				(exchangeResponse) -> exchangeResponse.writeWith(Flux.just(buffer(CONTENT), buffer(CONTENT))));
+		assertEquals(CONTENT + CONTENT, read(new GZIPInputStream(body(otherResponse))));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (Publisher<? extends DataBuffer> publisher : publishers) {
+			Flux.from(publisher).toIterable().forEach(buffer -> {
+				byte[] bytes = new byte[buffer.readableByteCount()];
+				buffer.read(bytes);
+				DataBufferUtils.release(buffer);
+				out.write(bytes, 0, bytes.length);
+			});
+		}
+		assertEquals(CONTENT, read(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))));
+	}
+
+	@Test
+	public void belowMinResponseSize() throws Exception {
+		MockServerHttpResponse response = filter("gzip", MediaType.TEXT_PLAIN,
+				(exchangeResponse) -> exchangeResponse.writeWith(Mono.just(buffer("Hello World"))));
+
+		assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeaders().getFirst(HttpHeaders.VARY));
+		assertEquals("Hello World", read(body(response)));
+	}
+
+	@Test
+	public void notAccepted() throws Exception {
+		MockServerHttpResponse response = filter("identity, gzip;q=0", MediaType.TEXT_PLAIN,
+				(exchangeResponse) -> exchangeResponse.writeWith(Mono.just(buffer(CONTENT))));
+
+		assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeaders().getFirst(HttpHeaders.VARY));
+		assertEquals(CONTENT, read(body(response)));
+	}
+
+	@Test
+	public void notCompressibleContentType() throws Exception {
+		MockServerHttpResponse response = filter("gzip", MediaType.IMAGE_PNG,
+				(exchangeResponse) -> exchangeResponse.writeWith(Mono.just(buffer(CONTENT))));
+
+		assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertNull(response.getHeaders().getFirst(HttpHeaders.VARY));
+		assertEquals(CONTENT, read(body(response)));
+	}
+
+
+	private MockServerHttpResponse filter(String acceptEncoding, MediaType contentType,
+			Function<ServerHttpResponse, Mono<Void>> handler) {
+
+		MockServerWebExchange exchange = MockServerHttpRequest.get("/")
+				.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding).toExchange();
+		this.filter.filter(exchange, filteredExchange -> {
+			filteredExchange.getResponse().getHeaders().setContentType(contentType);
+			return handler.apply(filteredExchange.getResponse());
+		}).block(Duration.ofSeconds(5));
+		return exchange.getResponse();
+	}
+
+	private DataBuffer buffer(String value) {
+		return this.bufferFactory.wrap(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private InputStream body(MockServerHttpResponse response) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		response.getBody().toIterable().forEach(buffer -> {
+			byte[] bytes = new byte[buffer.readableByteCount()];
+			buffer.read(bytes);
+			DataBufferUtils.release(buffer);
+			out.write(bytes, 0, bytes.length);
+		});
+		return new ByteArrayInputStream(out.toByteArray());
+	}
+
+	private String read(InputStream inputStream) throws IOException {
+		return StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.web.filter.reactive;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.test.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.test.MockServerHttpResponse;
+import org.springframework.mock.http.server.reactive.test.MockServerWebExchange;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for {@link ShallowEtagHeaderFilter}.
+ *
+ * @since 5.0
+ */
+public class ShallowEtagHeaderFilterTests {
+
+	private static final String ETAG = "\"0b10a8db164e0754105b7a99be72e3fe5\"";
+
+
+	private final ShallowEtagHeaderFilter filter = new ShallowEtagHeaderFilter();
+
+	private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+
+	@Test
+	public void filterNoMatch() throws Exception {
+		MockServerHttpResponse response = filter(MockServerHttpRequest.get("/hotels").toExchange(),
+				exchangeResponse -> exchangeResponse.writeWith(Flux.just(buffer("Hello "), buffer("World"))));
+
+		assertEquals(ETAG, response.getHeaders().getETag());
+		assertEquals(11, response.getHeaders().getContentLength());
+		assertEquals("Hello World", body(response));
+	}
+
+	@Test
+	public void filterNoMatchWeakETag() throws Exception {
+		this.filter.setWriteWeakETag(true);
+		MockServerHttpResponse response = filter(MockServerHttpRequest.get("/hotels").toExchange(),
+				exchangeResponse -> exchangeResponse.writeWith(Mono.just(buffer("Hello World"))));
+
+		assertEquals("W/" + ETAG, response.getHeaders().getETag());
+		assertEquals("Hello World", body(response));
+	}
+
+	@Test
+	public void filterMatch() throws Exception {
+		MockServerWebExchange exchange = MockServerHttpRequest.get("/hotels")
+				.header(HttpHeaders.IF_NONE_MATCH, "W/" + ETAG).toExchange();
+		MockServerHttpResponse response = filter(exchange,
+				exchangeResponse -> exchangeResponse.writeWith(Flux.just(buffer("Hello "), buffer("World"))));
+
+		assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+		assertEquals(ETAG, response.getHeaders().getETag());
+		assertEquals("", body(response));
+	}
+
+	@Test
+	public void filterContentCacheLimitExceeded() throws Exception {
+		this.filter.setContentCacheLimit(8);
+		MockServerHttpResponse response = filter(MockServerHttpRequest.get("/hotels").toExchange(),
+				exchangeResponse -> exchangeResponse.writeWith(Flux.just(buffer("Hello "), buffer("World"))));
+
+		assertNull(response.getHeaders().getETag());
+		assertEquals("Hello World", body(response));
+	}
+
+	@Test
+	public void filterNotEligible() throws Exception {
+		MockServerHttpResponse response = filter(MockServerHttpRequest.get("/hotels").toExchange(),
+				exchangeResponse -> {
+					exchangeResponse.getHeaders().setCacheControl("no-store");
+					return exchangeResponse.writeWith(Flux.just(buffer("Hello World")));
+				});
+
+		assertNull(response.getHeaders().getETag());
+		assertEquals("Hello World", body(response));
+	}
+
+	@Test
+	public void filterStreaming() throws Exception {
+		MockServerHttpResponse response = filter(MockServerHttpRequest.get("/hotels").toExchange(),
+				exchangeResponse -> exchangeResponse.writeAndFlushWith(
+						Flux.just(Flux.just(buffer("Hello ")), Flux.just(buffer("World")))));
+
+		assertNull(response.getHeaders().getETag());
+		assertEquals("Hello World", body(response));
+	}
+
+	@Test
+	public void filterPost() throws Exception {
+		MockServerHttpResponse response = filter(MockServerHttpRequest.post("/hotels").toExchange(),
+				exchangeResponse -> exchangeResponse.writeWith(Flux.just(buffer("Hello World"))));
+
+		assertNull(response.getHeaders().getETag());
+		assertEquals("Hello World", body(response));
+	}
+
+
+	private MockServerHttpResponse filter(MockServerWebExchange exchange,
+			Function<ServerHttpResponse, Mono<Void>> handler) {
+
+		this.filter.filter(exchange, filteredExchange -> handler.apply(filteredExchange.getResponse()))
+				.block(Duration.ofSeconds(5));
+		return exchange.getResponse();
+	}
+
+	private DataBuffer buffer(String value) {
+		return this.bufferFactory.wrap(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private String body(MockServerHttpResponse response) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		response.getBody().toIterable().forEach(buffer -> {
+			byte[] bytes = new byte[buffer.readableByteCount()];
+			buffer.read(bytes);
+			DataBufferUtils.release(buffer);
+			out.write(bytes, 0, bytes.length);
+		});
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+}
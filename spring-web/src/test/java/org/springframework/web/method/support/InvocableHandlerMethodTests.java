@@ -105,6 +105,14 @@ public class InvocableHandlerMethodTests {
 		assertEquals("99-value", returnValue);
 	}
 
+	@Test
+	public void resolveProvidedArgWithMethodHandles() throws Exception {
+		handlerMethod.setUseMethodHandles(true);
+		Object returnValue = handlerMethod.invokeForRequest(webRequest, null, 99, "value");
+
+		assertEquals("99-value", returnValue);
+	}
+
 	@Test
 	public void resolveProvidedArgFirst() throws Exception {
 		StubArgumentResolver intResolver = new StubArgumentResolver(Integer.class, 1);
@@ -196,6 +204,26 @@ public class InvocableHandlerMethodTests {
 		}
 	}
 
+	@Test
+	public void invocationTargetExceptionWithMethodHandles() throws Exception {
+		Throwable expected = new Exception("error");
+		try {
+			invokeExceptionRaisingHandler(expected, true);
+		}
+		catch (Exception actual) {
+			assertSame(expected, actual);
+		}
+
+		expected = new Throwable("error");
+		try {
+			invokeExceptionRaisingHandler(expected, true);
+		}
+		catch (IllegalStateException actual) {
+			assertSame(expected, actual.getCause());
+			assertTrue(actual.getMessage().contains("Failed to invoke handler method"));
+		}
+	}
+
 	@Test  // SPR-13917
 	public void invocationErrorMessage() throws Exception {
 		HandlerMethodArgumentResolverComposite composite = new HandlerMethodArgumentResolverComposite();
@@ -217,9 +245,15 @@ public class InvocableHandlerMethodTests {
 
 
 	private void invokeExceptionRaisingHandler(Throwable expected) throws Exception {
+		invokeExceptionRaisingHandler(expected, false);
+	}
+
+	private void invokeExceptionRaisingHandler(Throwable expected, boolean useMethodHandles) throws Exception {
 		Method method = ExceptionRaisingHandler.class.getDeclaredMethod("raiseException");
 		Object handler = new ExceptionRaisingHandler(expected);
-		new InvocableHandlerMethod(handler, method).invokeForRequest(webRequest, null);
+		InvocableHandlerMethod hm = new InvocableHandlerMethod(handler, method);
+		hm.setUseMethodHandles(useMethodHandles);
+		hm.invokeForRequest(webRequest, null);
 		fail("Expected exception");
 	}
 
@@ -49,6 +49,16 @@ public class UrlPathHelperTests {
 		assertEquals("Incorrect path returned", "/welcome.html", helper.getPathWithinApplication(request));
 	}
 
+	@Test
+	public void resolveAndCacheLookupPath() {
+		request.setContextPath("/petclinic");
+		request.setRequestURI("/petclinic/welcome.html");
+
+		assertNull(UrlPathHelper.getResolvedLookupPath(request));
+		assertEquals("/welcome.html", helper.resolveAndCacheLookupPath(request));
+		assertEquals("/welcome.html", UrlPathHelper.getResolvedLookupPath(request));
+	}
+
 	@Test
 	public void getPathWithinApplicationForRootWithNoLeadingSlash() {
 		request.setContextPath("/petclinic");
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link PathPatternRouter}.
+ */
+public class PathPatternRouterTests {
+
+	private static final List<String> PATTERNS = Arrays.asList(
+			"", "/", "/foo", "/foo/", "/foo/bar", "/foo/bar/", "/foo/{id}", "/foo/{id}/bar",
+			"/foo/{id:[0-9]+}", "/foo/{id}/{name}", "/foo/{*rest}", "/foo/**", "/foo/ba?", "/foo/b*",
+			"/foo/*.html", "/foo/{name}.{ext}", "/foo/{id}/**", "/{a}/{b}/{c}", "/{a}", "/**", "/{*all}",
+			"foo", "foo/bar", "/foo//bar", "/bar/{id}/baz/{*rest}", "/bar/{x}/{y}/qux");
+
+	private static final List<String> PATHS = Arrays.asList(
+			"", "/", "//", "/foo", "/foo/", "/foo//", "/foo/bar", "/foo/bar/", "/foo/baz", "/foo/123",
+			"/foo/123/bar", "/foo/123/bar/", "/foo/abc/def", "/foo/page.html", "/foo/a.b", "/foo//bar",
+			"/foo/a/b/c", "/x/y/z", "/x", "/x/", "foo", "foo/bar", "bar", "/bar/1/baz", "/bar/1/baz/a/b",
+			"/bar/1/2/qux", "/FOO/BAR", "/Foo/123");
+
+
+	@Test
+	public void sameResultAsLinearMatching() {
+		assertSameResultAsLinearMatching(new PathPatternParser());
+	}
+
+	@Test
+	public void sameResultAsLinearMatchingWithOptionalTrailingSlash() {
+		PathPatternParser parser = new PathPatternParser();
+		parser.setMatchOptionalTrailingSlash(true);
+		assertSameResultAsLinearMatching(parser);
+	}
+
+	@Test
+	public void sameResultAsLinearMatchingCaseInsensitive() {
+		PathPatternParser parser = new PathPatternParser();
+		parser.setCaseSensitive(false);
+		assertSameResultAsLinearMatching(parser);
+	}
+
+	@Test
+	public void variables() {
+		PathPatternParser parser = new PathPatternParser();
+		PathPatternRouter<String> router = new PathPatternRouter<>();
+		router.addRoute(parser.parse("/orders/{orderId}/items/{itemId}"), "item");
+		router.addRoute(parser.parse("/orders/{id}/{*rest}"), "rest");
+		router.addRoute(parser.parse("/orders/{id}/{name}.{ext}"), "file");
+
+		PathPatternRouter.RouteMatch<String> match = router.match("/orders/42/items/7");
+		assertEquals("item", match.getValue());
+		assertEquals("/orders/{orderId}/items/{itemId}", match.getPattern().getPatternString());
+		assertEquals(2, match.getUriVariables().size());
+		assertEquals("42", match.getUriVariables().get("orderId"));
+		assertEquals("7", match.getUriVariables().get("itemId"));
+
+		match = router.match("/orders/42/report.pdf");
+		assertEquals("file", match.getValue());
+		assertEquals(3, match.getUriVariables().size());
+		assertEquals("42", match.getUriVariables().get("id"));
+		assertEquals("report", match.getUriVariables().get("name"));
+		assertEquals("pdf", match.getUriVariables().get("ext"));
+
+		match = router.match("/orders/42/a/b");
+		assertEquals("rest", match.getValue());
+		assertEquals("42", match.getUriVariables().get("id"));
+		assertEquals("/a/b", match.getUriVariables().get("rest"));
+
+		assertNull(router.match("/orders"));
+		assertNull(router.match("/customers/42"));
+	}
+
+	@Test
+	public void registrationOrderBreaksTies() {
+		PathPatternParser parser = new PathPatternParser();
+		PathPatternRouter<String> router = new PathPatternRouter<>();
+		router.addRoute(parser.parse("/foo/{a}"), "first");
+		router.addRoute(parser.parse("/foo/{b}"), "second");
+
+		PathPatternRouter.RouteMatch<String> match = router.match("/foo/bar");
+		assertEquals("first", match.getValue());
+		assertEquals(Collections.singletonMap("a", "bar"), match.getUriVariables());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void mixedSeparators() {
+		PathPatternRouter<String> router = new PathPatternRouter<>();
+		router.addRoute(new PathPatternParser().parse("/foo"), "slash");
+		router.addRoute(new PathPatternParser('.').parse("foo.bar"), "dot");
+	}
+
+
+	private void assertSameResultAsLinearMatching(PathPatternParser parser) {
+		List<PathPattern> patterns = new ArrayList<>();
+		PathPatternRouter<Integer> router = new PathPatternRouter<>();
+		for (int i = 0; i < PATTERNS.size(); i++) {
+			PathPattern pattern = parser.parse(PATTERNS.get(i));
+			patterns.add(pattern);
+			router.addRoute(pattern, i);
+		}
+		assertEquals(patterns, router.getPatterns());
+
+		for (String path : PATHS) {
+			// Every subset of patterns ending with the last one, so that each pattern wins sometimes
+			for (int from = 0; from < patterns.size(); from++) {
+				PathPatternRouter<Integer> subRouter = new PathPatternRouter<>();
+				List<PathPattern> matches = new ArrayList<>();
+				for (int i = from; i < patterns.size(); i++) {
+					subRouter.addRoute(patterns.get(i), i);
+					if (patterns.get(i).matches(path)) {
+						matches.add(patterns.get(i));
+					}
+				}
+				PathPatternRouter.RouteMatch<Integer> match = subRouter.match(path);
+				if (matches.isEmpty()) {
+					assertNull("Unexpected match for '" + path + "': " + match, match);
+					continue;
+				}
+				Collections.sort(matches, new ParsingPathMatcher.PatternComparatorConsideringPath(path));
+				PathPattern expected = matches.get(0);
+				assertNotNull("No match for '" + path + "', expected " + expected, match);
+				assertEquals("Path '" + path + "'", expected.getPatternString(), match.getPattern().getPatternString());
+				Map<String, String> variables = expected.matchAndExtract(path);
+				assertEquals("Path '" + path + "'", variables, match.getUriVariables());
+			}
+		}
+	}
+
+}
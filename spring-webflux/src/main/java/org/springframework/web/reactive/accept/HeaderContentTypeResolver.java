@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,33 +15,57 @@
  */
 package org.springframework.web.reactive.accept;
 
+import java.util.Collections;
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.StringUtils;
 import org.springframework.web.server.NotAcceptableStatusException;
 import org.springframework.web.server.ServerWebExchange;
 
 /**
  * A {@link RequestedContentTypeResolver} that checks the 'Accept' request header.
  *
+ * <p>The parsed and sorted media types are cached per 'Accept' header value,
+ * since the same few header values tend to recur across requests.
+ *
  * @author Rossen Stoyanchev
  * @since 5.0
  */
 public class HeaderContentTypeResolver implements RequestedContentTypeResolver {
 
+	private static final int CACHE_LIMIT = 64;
+
+
+	private final ConcurrentLruCache<String, List<MediaType>> mediaTypesCache =
+			new ConcurrentLruCache<>(CACHE_LIMIT, HeaderContentTypeResolver::parseMediaTypes);
+
+
 	@Override
 	public List<MediaType> resolveMediaTypes(ServerWebExchange exchange) throws NotAcceptableStatusException {
+		List<String> headerValues = exchange.getRequest().getHeaders().get(HttpHeaders.ACCEPT);
+		if (headerValues == null || headerValues.isEmpty()) {
+			return Collections.emptyList();
+		}
+		String headerValue = (headerValues.size() == 1 ? headerValues.get(0) :
+				StringUtils.collectionToCommaDelimitedString(headerValues));
 		try {
-			List<MediaType> mediaTypes = exchange.getRequest().getHeaders().getAccept();
-			MediaType.sortBySpecificityAndQuality(mediaTypes);
-			return mediaTypes;
+			return this.mediaTypesCache.get(headerValue);
 		}
 		catch (InvalidMediaTypeException ex) {
-			String value = exchange.getRequest().getHeaders().getFirst("Accept");
+			String value = exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT);
 			throw new NotAcceptableStatusException(
 					"Could not parse 'Accept' header [" + value + "]: " + ex.getMessage());
 		}
 	}
 
+	private static List<MediaType> parseMediaTypes(String headerValue) {
+		List<MediaType> mediaTypes = MediaType.parseMediaTypes(headerValue);
+		MediaType.sortBySpecificityAndQuality(mediaTypes);
+		return Collections.unmodifiableList(mediaTypes);
+	}
+
 }
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+import org.springframework.http.client.reactive.ClientHttpResponseDecorator;
+
+/**
+ * {@link ClientHttpResponse} decorator that transparently decompresses a
+ * response body with the {@code gzip} or {@code deflate} content coding.
+ *
+ * <p>The body is inflated incrementally as data buffers are received and
+ * requested, and is verified to be complete, including the checksum and size
+ * in the trailer of the gzip format. The {@code Content-Encoding} and
+ * {@code Content-Length} headers, which describe the compressed body, are
+ * not exposed.
+ *
+ * @since 5.0
+ * @see ExchangeFunctions
+ */
+class DecompressingClientHttpResponse extends ClientHttpResponseDecorator {
+
+	private static final int FHCRC = 2;
+
+	private static final int FEXTRA = 4;
+
+	private static final int FNAME = 8;
+
+	private static final int FCOMMENT = 16;
+
+
+	private final boolean gzip;
+
+	private final HttpHeaders headers;
+
+
+	private DecompressingClientHttpResponse(ClientHttpResponse delegate, boolean gzip) {
+		super(delegate);
+		this.gzip = gzip;
+		HttpHeaders headers = new HttpHeaders();
+		delegate.getHeaders().forEach((name, values) -> {
+			if (!HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name) &&
+					!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+				headers.put(name, values);
+			}
+		});
+		this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+	}
+
+
+	@Override
+	public HttpHeaders getHeaders() {
+		return this.headers;
+	}
+
+	@Override
+	public Flux<DataBuffer> getBody() {
+		return Flux.defer(() -> {
+			Decompressor decompressor = new Decompressor(this.gzip);
+			return super.getBody()
+					.concatMap(decompressor::decompress)
+					.concatWith(Mono.defer(decompressor::complete))
+					.doFinally(signalType -> decompressor.release());
+		});
+	}
+
+
+	/**
+	 * Decorate the given response if its body uses a content coding that
+	 * can be decompressed, or return it as is otherwise.
+	 */
+	public static ClientHttpResponse decorateIfNecessary(ClientHttpResponse response) {
+		String encoding = response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+		if (encoding != null) {
+			encoding = encoding.trim();
+			if ("gzip".equalsIgnoreCase(encoding) || "x-gzip".equalsIgnoreCase(encoding)) {
+				return new DecompressingClientHttpResponse(response, true);
+			}
+			else if ("deflate".equalsIgnoreCase(encoding)) {
+				return new DecompressingClientHttpResponse(response, false);
+			}
+		}
+		return response;
+	}
+
+
+	/**
+	 * Incremental decompressor for a single response body. Each received data
+	 * buffer is inflated lazily, one chunk per requested data buffer, so that
+	 * a highly compressed buffer does not result in a large allocation.
+	 */
+	private static class Decompressor {
+
+		private static final int CHUNK_SIZE = 8192;
+
+		private static final int GZIP_TRAILER_LENGTH = 8;
+
+		private final Inflater inflater;
+
+		private final boolean gzip;
+
+		private final byte[] chunk = new byte[CHUNK_SIZE];
+
+		private final CRC32 crc = new CRC32();
+
+		private long size;
+
+		private boolean received;
+
+		private boolean ended;
+
+		private byte[] header;
+
+		private byte[] trailer = new byte[0];
+
+		Decompressor(boolean gzip) {
+			this.inflater = new Inflater(gzip);
+			this.gzip = gzip;
+			this.header = (gzip ? new byte[0] : null);
+		}
+
+		public Flux<DataBuffer> decompress(DataBuffer input) {
+			byte[] bytes = new byte[input.readableByteCount()];
+			input.read(bytes);
+			DataBufferFactory bufferFactory = input.factory();
+			DataBufferUtils.release(input);
+			this.received |= (bytes.length > 0);
+			int offset = 0;
+			if (this.header != null) {
+				// Accumulate the gzip header until it is complete
+				byte[] buffered = Arrays.copyOf(this.header, this.header.length + bytes.length);
+				System.arraycopy(bytes, 0, buffered, this.header.length, bytes.length);
+				int headerLength = getGzipHeaderLength(buffered);
+				if (headerLength == -1) {
+					this.header = buffered;
+					return Flux.empty();
+				}
+				offset = headerLength - this.header.length;
+				this.header = null;
+			}
+			if (this.inflater.finished()) {
+				addTrailer(bytes, offset);
+				return Flux.empty();
+			}
+			if (offset >= bytes.length) {
+				return Flux.empty();
+			}
+			this.inflater.setInput(bytes, offset, bytes.length - offset);
+			return Flux.generate(sink -> inflate(bytes, bufferFactory, sink));
+		}
+
+		/**
+		 * Emit the next chunk inflated from the given input, or complete
+		 * if more input is needed or the compressed data is complete.
+		 */
+		private synchronized void inflate(byte[] input, DataBufferFactory bufferFactory,
+				SynchronousSink<DataBuffer> sink) {
+
+			if (this.ended) {
+				sink.complete();
+				return;
+			}
+			try {
+				int count = this.inflater.inflate(this.chunk);
+				if (count > 0) {
+					this.crc.update(this.chunk, 0, count);
+					this.size += count;
+					DataBuffer output = bufferFactory.allocateBuffer(count);
+					output.write(this.chunk, 0, count);
+					sink.next(output);
+					return;
+				}
+				if (this.inflater.needsDictionary()) {
+					throw new DataFormatException("Preset dictionary not supported");
+				}
+				if (this.inflater.finished()) {
+					addTrailer(input, input.length - this.inflater.getRemaining());
+				}
+				sink.complete();
+			}
+			catch (DataFormatException ex) {
+				sink.error(new IllegalStateException("Invalid compressed response body: " + ex.getMessage(), ex));
+			}
+		}
+
+		private void addTrailer(byte[] bytes, int offset) {
+			if (this.gzip && this.trailer.length < GZIP_TRAILER_LENGTH && offset < bytes.length) {
+				// Data beyond the trailer, e.g. further gzip members, is ignored
+				int length = Math.min(bytes.length - offset, GZIP_TRAILER_LENGTH - this.trailer.length);
+				byte[] trailer = Arrays.copyOf(this.trailer, this.trailer.length + length);
+				System.arraycopy(bytes, offset, trailer, this.trailer.length, length);
+				this.trailer = trailer;
+			}
+		}
+
+		/**
+		 * Verify that the compressed data is complete, including the
+		 * CRC-32 and the size in the trailer in case of gzip.
+		 */
+		public Mono<DataBuffer> complete() {
+			if (!this.received) {
+				// No body, e.g. for a HEAD request
+				return Mono.empty();
+			}
+			if (!this.inflater.finished()) {
+				return Mono.error(new IllegalStateException("Compressed response body ended prematurely"));
+			}
+			if (this.gzip) {
+				if (this.trailer.length < GZIP_TRAILER_LENGTH) {
+					return Mono.error(new IllegalStateException("Incomplete gzip trailer in compressed response body"));
+				}
+				if (readInt(this.trailer, 0) != this.crc.getValue()) {
+					return Mono.error(new IllegalStateException("CRC-32 mismatch in compressed response body"));
+				}
+				if (readInt(this.trailer, 4) != (this.size & 0xffffffffL)) {
+					return Mono.error(new IllegalStateException("Size mismatch in compressed response body"));
+				}
+			}
+			return Mono.empty();
+		}
+
+		public synchronized void release() {
+			if (!this.ended) {
+				this.ended = true;
+				this.inflater.end();
+			}
+		}
+
+		/**
+		 * Read an unsigned little-endian 32-bit value.
+		 */
+		private static long readInt(byte[] bytes, int offset) {
+			return ((bytes[offset] & 0xffL) | ((bytes[offset + 1] & 0xffL) << 8) |
+					((bytes[offset + 2] & 0xffL) << 16) | ((bytes[offset + 3] & 0xffL) << 24));
+		}
+
+		/**
+		 * Return the length of the gzip header in the given bytes, or -1 if
+		 * more bytes are needed to determine it.
+		 */
+		private static int getGzipHeaderLength(byte[] bytes) {
+			if (bytes.length < 10) {
+				return -1;
+			}
+			if (bytes[0] != (byte) 0x1f || bytes[1] != (byte) 0x8b) {
+				throw new IllegalStateException("Invalid gzip header in compressed response body");
+			}
+			int flags = bytes[3];
+			int length = 10;
+			if ((flags & FEXTRA) != 0) {
+				if (bytes.length < length + 2) {
+					return -1;
+				}
+				length += 2 + ((bytes[length] & 0xff) | ((bytes[length + 1] & 0xff) << 8));
+			}
+			if ((flags & FNAME) != 0) {
+				length = skipZeroTerminated(bytes, length);
+			}
+			if ((flags & FCOMMENT) != 0) {
+				length = skipZeroTerminated(bytes, length);
+			}
+			if ((flags & FHCRC) != 0 && length != -1) {
+				length += 2;
+			}
+			return (length != -1 && length <= bytes.length ? length : -1);
+		}
+
+		private static int skipZeroTerminated(byte[] bytes, int offset) {
+			if (offset == -1) {
+				return -1;
+			}
+			for (int i = offset; i < bytes.length; i++) {
+				if (bytes[i] == 0) {
+					return i + 1;
+				}
+			}
+			return -1;
+		}
+	}
+
+}
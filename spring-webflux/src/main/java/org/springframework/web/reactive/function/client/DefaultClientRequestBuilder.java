@@ -133,11 +133,17 @@ class DefaultClientRequestBuilder implements ClientRequest.Builder {
 
 			this.method = method;
 			this.url = url;
-			this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+			this.headers = readOnlyCopy(headers);
 			this.cookies = CollectionUtils.unmodifiableMultiValueMap(cookies);
 			this.inserter = inserter;
 		}
 
+		private static HttpHeaders readOnlyCopy(HttpHeaders headers) {
+			HttpHeaders copy = new HttpHeaders();
+			copy.putAll(headers);
+			return HttpHeaders.readOnlyHttpHeaders(copy);
+		}
+
 		@Override
 		public HttpMethod method() {
 			return this.method;
@@ -72,12 +72,17 @@ class DefaultWebClient implements WebClient {
 
 		this.exchangeFunction = exchangeFunction;
 		this.uriBuilderFactory = (factory != null ? factory : new DefaultUriBuilderFactory());
-		this.defaultHeaders = (defaultHeaders != null ?
-				HttpHeaders.readOnlyHttpHeaders(defaultHeaders) : null);
+		this.defaultHeaders = (defaultHeaders != null ? readOnlyCopy(defaultHeaders) : null);
 		this.defaultCookies = (defaultCookies != null ?
 				CollectionUtils.unmodifiableMultiValueMap(defaultCookies) : null);
 	}
 
+	private static HttpHeaders readOnlyCopy(HttpHeaders headers) {
+		HttpHeaders copy = new HttpHeaders();
+		copy.putAll(headers);
+		return HttpHeaders.readOnlyHttpHeaders(copy);
+	}
+
 
 	@Override
 	public UriSpec<RequestHeadersSpec<?>> get() {
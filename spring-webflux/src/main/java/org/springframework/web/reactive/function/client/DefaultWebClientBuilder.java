@@ -50,6 +50,8 @@ class DefaultWebClientBuilder implements WebClient.Builder {
 
 	private ExchangeStrategies exchangeStrategies = ExchangeStrategies.withDefaults();
 
+	private boolean decompressResponses;
+
 	private ExchangeFunction exchangeFunction;
 
 
@@ -104,6 +106,12 @@ class DefaultWebClientBuilder implements WebClient.Builder {
 		return this;
 	}
 
+	@Override
+	public WebClient.Builder decompressResponses(boolean decompressResponses) {
+		this.decompressResponses = decompressResponses;
+		return this;
+	}
+
 	@Override
 	public WebClient.Builder exchangeFunction(ExchangeFunction exchangeFunction) {
 		this.exchangeFunction = exchangeFunction;
@@ -132,11 +140,12 @@ class DefaultWebClientBuilder implements WebClient.Builder {
 			return this.exchangeFunction;
 		}
 		else if (this.connector != null) {
-			return ExchangeFunctions.create(this.connector, this.exchangeStrategies);
+			return ExchangeFunctions.create(this.connector, this.exchangeStrategies, this.decompressResponses);
 		}
 
 		else {
-			return ExchangeFunctions.create(new ReactorClientHttpConnector(), this.exchangeStrategies);
+			return ExchangeFunctions.create(new ReactorClientHttpConnector(), this.exchangeStrategies,
+					this.decompressResponses);
 		}
 	}
 
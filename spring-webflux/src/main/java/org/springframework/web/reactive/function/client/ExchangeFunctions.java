@@ -20,6 +20,7 @@ import java.util.logging.Level;
 
 import reactor.core.publisher.Mono;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.util.Assert;
 
@@ -28,6 +29,10 @@ import org.springframework.util.Assert;
  * {@linkplain #create(ClientHttpConnector) create} an {@code ExchangeFunction} given a
  * {@code ClientHttpConnector}.
  *
+ * <p>Exchange functions can optionally accept {@code gzip} and {@code deflate}
+ * compressed responses and transparently decompress their body, see
+ * {@link #create(ClientHttpConnector, ExchangeStrategies, boolean)}.
+ *
  * @author Arjen Poutsma
  * @since 5.0
  */
@@ -50,32 +55,65 @@ public abstract class ExchangeFunctions {
 	 * @return the created function
 	 */
 	public static ExchangeFunction create(ClientHttpConnector connector, ExchangeStrategies strategies) {
+		return create(connector, strategies, false);
+	}
+
+	/**
+	 * Create a new {@link ExchangeFunction} with the given connector and strategies,
+	 * optionally decompressing responses.
+	 * <p>If {@code decompress} is {@code true}, requests that do not specify an
+	 * {@code Accept-Encoding} header themselves accept {@code gzip} and
+	 * {@code deflate} compressed responses, and the body of such responses is
+	 * transparently decompressed.
+	 * @param connector the connector to create connections
+	 * @param strategies the strategies to use
+	 * @param decompress whether to request and decompress compressed responses
+	 * @return the created function
+	 * @since 5.0
+	 */
+	public static ExchangeFunction create(ClientHttpConnector connector, ExchangeStrategies strategies,
+			boolean decompress) {
+
 		Assert.notNull(connector, "'connector' must not be null");
 		Assert.notNull(strategies, "'strategies' must not be null");
-		return new DefaultExchangeFunction(connector, strategies);
+		return new DefaultExchangeFunction(connector, strategies, decompress);
 	}
 
 
 	private static class DefaultExchangeFunction implements ExchangeFunction {
 
+		private static final String ACCEPT_ENCODING = "gzip, deflate";
+
 		private final ClientHttpConnector connector;
 
 		private final ExchangeStrategies strategies;
 
-		public DefaultExchangeFunction(ClientHttpConnector connector, ExchangeStrategies strategies) {
+		private final boolean decompress;
+
+		public DefaultExchangeFunction(ClientHttpConnector connector, ExchangeStrategies strategies,
+				boolean decompress) {
+
 			this.connector = connector;
 			this.strategies = strategies;
+			this.decompress = decompress;
 		}
 
 		@Override
 		public Mono<ClientResponse> exchange(ClientRequest request) {
 			Assert.notNull(request, "'request' must not be null");
+			boolean decompress = (this.decompress && !request.headers().containsKey(HttpHeaders.ACCEPT_ENCODING));
 			return this.connector
 					.connect(request.method(), request.url(),
-							clientHttpRequest -> request.writeTo(clientHttpRequest, this.strategies))
+							clientHttpRequest -> {
+								if (decompress) {
+									clientHttpRequest.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, ACCEPT_ENCODING);
+								}
+								return request.writeTo(clientHttpRequest, this.strategies);
+							})
 					.log("org.springframework.web.reactive.function.client", Level.FINE)
-					.map(clientHttpResponse -> new DefaultClientResponse(clientHttpResponse,
-							this.strategies));
+					.map(clientHttpResponse -> new DefaultClientResponse(decompress ?
+							DecompressingClientHttpResponse.decorateIfNecessary(clientHttpResponse) :
+							clientHttpResponse, this.strategies));
 		}
 	}
 
@@ -252,12 +252,23 @@ public interface WebClient {
 		 */
 		Builder exchangeStrategies(ExchangeStrategies strategies);
 
+		/**
+		 * Configure whether to accept {@code gzip} and {@code deflate} compressed
+		 * responses, and to transparently decompress their body. Requests that
+		 * specify an {@code Accept-Encoding} header themselves are not affected.
+		 * <p>By default this is set to {@code false}.
+		 * @param decompressResponses whether to decompress responses
+		 * @see ExchangeFunctions#create(ClientHttpConnector, ExchangeStrategies, boolean)
+		 */
+		Builder decompressResponses(boolean decompressResponses);
+
 		/**
 		 * Provide a pre-configured {@link ExchangeFunction} instance. This is
 		 * an alternative to and effectively overrides the following:
 		 * <ul>
 		 * <li>{@link #clientConnector(ClientHttpConnector)}
-		 * <li>{@link #exchangeStrategies(ExchangeStrategies)}.
+		 * <li>{@link #exchangeStrategies(ExchangeStrategies)}
+		 * <li>{@link #decompressResponses(boolean)}.
 		 * </ul>
 		 * @param exchangeFunction the exchange function to use
 		 * @see #clientConnector(ClientHttpConnector)
@@ -22,6 +22,7 @@ import java.nio.charset.Charset;
 import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -37,6 +38,7 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpRange;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.HttpMessageReader;
+import org.springframework.http.codec.multipart.DefaultPartHttpMessageReader;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.util.Assert;
@@ -103,6 +105,15 @@ class DefaultServerRequest implements ServerRequest {
 	@Override
 	public <T> T body(BodyExtractor<T, ? super ServerHttpRequest> extractor, Map<String, Object> hints) {
 		Assert.notNull(extractor, "'extractor' must not be null");
+		// Let the multipart reader register parts for cleanup at the end of the exchange
+		Map<String, Object> readHints = exchange().getAttribute(DefaultPartHttpMessageReader.PART_REGISTRY_HINT)
+				.filter(registry -> !hints.containsKey(DefaultPartHttpMessageReader.PART_REGISTRY_HINT))
+				.map(registry -> {
+					Map<String, Object> map = new HashMap<>(hints);
+					map.put(DefaultPartHttpMessageReader.PART_REGISTRY_HINT, registry);
+					return map;
+				})
+				.orElse(hints);
 		return extractor.extract(request(),
 				new BodyExtractor.Context() {
 					@Override
@@ -115,7 +126,7 @@ class DefaultServerRequest implements ServerRequest {
 					}
 					@Override
 					public Map<String, Object> hints() {
-						return hints;
+						return readHints;
 					}
 				});
 	}
@@ -30,6 +30,9 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.web.server.support.LookupPath;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.ParsingPathMatcher;
+import org.springframework.web.util.pattern.PathPatternParser;
+import org.springframework.web.util.pattern.PathPatternRouter;
 
 /**
  * Abstract base class for URL-mapped
@@ -43,7 +46,9 @@ import org.springframework.web.server.ServerWebExchange;
  *
  * <p>Will search all path patterns to find the most exact match for the
  * current request path. The most exact match is defined as the longest
- * path pattern that matches the current request path.
+ * path pattern that matches the current request path. With the default
+ * {@link ParsingPathMatcher}, all patterns are merged into a
+ * {@link PathPatternRouter} and matched in a single pass over the path.
  *
  * @author Rossen Stoyanchev
  * @author Juergen Hoeller
@@ -58,6 +63,8 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping {
 
 	private final Map<String, Object> handlerMap = new LinkedHashMap<>();
 
+	private volatile PathPatternRouter<String> patternRouter;
+
 
 	/**
 	 * Whether to match to URLs irrespective of the presence of a trailing slash.
@@ -66,6 +73,7 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping {
 	 */
 	public void setUseTrailingSlashMatch(boolean useTrailingSlashMatch) {
 		this.useTrailingSlashMatch = useTrailingSlashMatch;
+		this.patternRouter = null;
 	}
 
 	/**
@@ -142,6 +150,15 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping {
 		}
 
 		// Pattern match?
+		if (getPathMatcher().getClass() == ParsingPathMatcher.class) {
+			PathPatternRouter.RouteMatch<String> match = getPatternRouter().match(urlPath);
+			if (match == null) {
+				return null;
+			}
+			String pathWithinMapping = match.getPattern().extractPathWithinPattern(urlPath);
+			return handleMatch(getHandlerForPattern(match.getValue()), match.getValue(), pathWithinMapping, exchange);
+		}
+
 		List<String> matches = new ArrayList<>();
 		for (String pattern : this.handlerMap.keySet()) {
 			if (getPathMatcher().match(pattern, urlPath)) {
@@ -164,24 +181,48 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping {
 			bestMatch = matches.get(0);
 		}
 		if (bestMatch != null) {
-			handler = this.handlerMap.get(bestMatch);
-			if (handler == null) {
-				if (bestMatch.endsWith("/")) {
-					handler = this.handlerMap.get(bestMatch.substring(0, bestMatch.length() - 1));
-				}
-				if (handler == null) {
-					throw new IllegalStateException(
-							"Could not find handler for best pattern match [" + bestMatch + "]");
-				}
-			}
 			String pathWithinMapping = getPathMatcher().extractPathWithinPattern(bestMatch, urlPath);
-			return handleMatch(handler, bestMatch, pathWithinMapping, exchange);
+			return handleMatch(getHandlerForPattern(bestMatch), bestMatch, pathWithinMapping, exchange);
 		}
 
 		// No handler found...
 		return null;
 	}
 
+	/**
+	 * Return the router for all registered patterns, building it on first use
+	 * after a registration change.
+	 */
+	private PathPatternRouter<String> getPatternRouter() {
+		PathPatternRouter<String> router = this.patternRouter;
+		if (router == null) {
+			router = new PathPatternRouter<>();
+			PathPatternParser parser = new PathPatternParser();
+			for (String pattern : this.handlerMap.keySet()) {
+				router.addRoute(parser.parse(pattern), pattern);
+				if (useTrailingSlashMatch() && !pattern.endsWith("/")) {
+					router.addRoute(parser.parse(pattern + "/"), pattern + "/");
+				}
+			}
+			this.patternRouter = router;
+		}
+		return router;
+	}
+
+	private Object getHandlerForPattern(String bestMatch) {
+		Object handler = this.handlerMap.get(bestMatch);
+		if (handler == null) {
+			if (bestMatch.endsWith("/")) {
+				handler = this.handlerMap.get(bestMatch.substring(0, bestMatch.length() - 1));
+			}
+			if (handler == null) {
+				throw new IllegalStateException(
+						"Could not find handler for best pattern match [" + bestMatch + "]");
+			}
+		}
+		return handler;
+	}
+
 	private Object handleMatch(Object handler, String bestMatch, String pathWithinMapping,
 			ServerWebExchange exchange) throws Exception {
 
@@ -256,6 +297,7 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping {
 		}
 		else {
 			this.handlerMap.put(urlPath, resolvedHandler);
+			this.patternRouter = null;
 			if (logger.isInfoEnabled()) {
 				logger.info("Mapped URL path [" + urlPath + "] onto " + getHandlerDescription(handler));
 			}
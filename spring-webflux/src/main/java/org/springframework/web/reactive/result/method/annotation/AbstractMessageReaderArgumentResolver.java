@@ -34,6 +34,7 @@ import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.codec.DecodingException;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.HttpMessageReader;
+import org.springframework.http.codec.multipart.DefaultPartHttpMessageReader;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.lang.Nullable;
@@ -115,9 +116,13 @@ public abstract class AbstractMessageReaderArgumentResolver extends HandlerMetho
 			mediaType = MediaType.APPLICATION_OCTET_STREAM;
 		}
 
+		// Let the multipart reader register parts for cleanup at the end of the exchange
+		Map<String, Object> readHints = exchange.getAttribute(DefaultPartHttpMessageReader.PART_REGISTRY_HINT)
+				.map(registry -> Collections.singletonMap(DefaultPartHttpMessageReader.PART_REGISTRY_HINT, registry))
+				.orElse(Collections.emptyMap());
+
 		for (HttpMessageReader<?> reader : getMessageReaders()) {
 			if (reader.canRead(elementType, mediaType)) {
-				Map<String, Object> readHints = Collections.emptyMap();
 				if (adapter != null && adapter.isMultiValue()) {
 					Flux<?> flux = reader.read(bodyType, elementType, request, response, readHints);
 					flux = flux.onErrorResume(ex -> Flux.error(handleReadError(bodyParameter, ex)));
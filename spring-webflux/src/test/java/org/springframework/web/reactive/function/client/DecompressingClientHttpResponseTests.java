@@ -0,0 +1,182 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link DecompressingClientHttpResponse}.
+ */
+public class DecompressingClientHttpResponseTests {
+
+	private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+	private String content;
+
+
+	@Before
+	public void setUp() {
+		// Highly compressible, so that a small input inflates to many output chunks
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 20000; i++) {
+			builder.append("Lorem ipsum ");
+		}
+		this.content = builder.toString();
+	}
+
+
+	@Test
+	public void gzip() throws Exception {
+		byte[] compressed = compress(true);
+		for (int chunkSize : new int[] {1, 7, 1024, compressed.length}) {
+			assertEquals(this.content, decompress("gzip", compressed, chunkSize));
+		}
+	}
+
+	@Test
+	public void deflate() throws Exception {
+		byte[] compressed = compress(false);
+		for (int chunkSize : new int[] {1, 7, 1024, compressed.length}) {
+			assertEquals(this.content, decompress("deflate", compressed, chunkSize));
+		}
+	}
+
+	@Test
+	public void outputEmittedInBoundedChunks() throws Exception {
+		byte[] compressed = compress(true);
+		StepVerifier.create(response("gzip", compressed, compressed.length).getBody())
+				.thenConsumeWhile(buffer -> {
+					assertTrue(buffer.readableByteCount() <= 8192);
+					DataBufferUtils.release(buffer);
+					return true;
+				})
+				.verifyComplete();
+	}
+
+	@Test
+	public void truncatedBody() throws Exception {
+		byte[] compressed = compress(true);
+		byte[] truncated = Arrays.copyOf(compressed, compressed.length / 2);
+		StepVerifier.create(response("gzip", truncated, 1024).getBody())
+				.thenConsumeWhile(buffer -> {
+					DataBufferUtils.release(buffer);
+					return true;
+				})
+				.verifyErrorMessage("Compressed response body ended prematurely");
+	}
+
+	@Test
+	public void missingGzipTrailer() throws Exception {
+		byte[] compressed = compress(true);
+		byte[] truncated = Arrays.copyOf(compressed, compressed.length - 4);
+		StepVerifier.create(response("gzip", truncated, 1024).getBody())
+				.thenConsumeWhile(buffer -> {
+					DataBufferUtils.release(buffer);
+					return true;
+				})
+				.verifyErrorMessage("Incomplete gzip trailer in compressed response body");
+	}
+
+	@Test
+	public void gzipCrcMismatch() throws Exception {
+		byte[] compressed = compress(true);
+		compressed[compressed.length - 8] ^= 1;
+		StepVerifier.create(response("gzip", compressed, 1024).getBody())
+				.thenConsumeWhile(buffer -> {
+					DataBufferUtils.release(buffer);
+					return true;
+				})
+				.verifyErrorMessage("CRC-32 mismatch in compressed response body");
+	}
+
+	@Test
+	public void emptyBody() {
+		StepVerifier.create(response("gzip", new byte[0], 1).getBody())
+				.verifyComplete();
+	}
+
+	@Test
+	public void headers() throws Exception {
+		ClientHttpResponse response = response("gzip", compress(true), 1024);
+
+		assertFalse(response.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING));
+		assertFalse(response.getHeaders().containsKey(HttpHeaders.CONTENT_LENGTH));
+		assertEquals("text/plain", response.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE));
+	}
+
+	@Test
+	public void notCompressed() {
+		ClientHttpResponse response = mock(ClientHttpResponse.class);
+		when(response.getHeaders()).thenReturn(new HttpHeaders());
+
+		assertSame(response, DecompressingClientHttpResponse.decorateIfNecessary(response));
+	}
+
+
+	private byte[] compress(boolean gzip) throws Exception {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try (OutputStream out = (gzip ? new GZIPOutputStream(bos) : new DeflaterOutputStream(bos))) {
+			out.write(this.content.getBytes(StandardCharsets.UTF_8));
+		}
+		return bos.toByteArray();
+	}
+
+	private String decompress(String encoding, byte[] compressed, int chunkSize) {
+		DataBuffer buffer = DataBufferUtils.join(response(encoding, compressed, chunkSize).getBody()).block();
+		byte[] bytes = new byte[buffer.readableByteCount()];
+		buffer.read(bytes);
+		DataBufferUtils.release(buffer);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private ClientHttpResponse response(String encoding, byte[] compressed, int chunkSize) {
+		Flux<DataBuffer> body = Flux.range(0, (compressed.length + chunkSize - 1) / chunkSize)
+				.map(i -> {
+					int offset = i * chunkSize;
+					int length = Math.min(chunkSize, compressed.length - offset);
+					return this.bufferFactory.wrap(Arrays.copyOfRange(compressed, offset, offset + length));
+				});
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.CONTENT_ENCODING, encoding);
+		headers.setContentLength(compressed.length);
+		headers.set(HttpHeaders.CONTENT_TYPE, "text/plain");
+		ClientHttpResponse response = mock(ClientHttpResponse.class);
+		when(response.getHeaders()).thenReturn(headers);
+		when(response.getBody()).thenReturn(body);
+		return DecompressingClientHttpResponse.decorateIfNecessary(response);
+	}
+
+}
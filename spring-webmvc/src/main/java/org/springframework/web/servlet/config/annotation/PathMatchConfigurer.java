@@ -100,7 +100,11 @@ public class PathMatchConfigurer {
 	/**
 	 * Set the PathMatcher implementation to use for matching URL paths
 	 * against registered URL patterns. Default is AntPathMatcher.
+	 * <p>Use a {@link org.springframework.web.util.pattern.ParsingPathMatcher}
+	 * to match with pre-parsed {@link org.springframework.web.util.pattern.PathPattern}s
+	 * instead, for request mappings as well as interceptor mappings.
 	 * @see org.springframework.util.AntPathMatcher
+	 * @see org.springframework.web.util.pattern.ParsingPathMatcher
 	 */
 	public PathMatchConfigurer setPathMatcher(PathMatcher pathMatcher) {
 		this.pathMatcher = pathMatcher;
@@ -354,6 +354,23 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 	 */
 	@Override
 	public final HandlerExecutionChain getHandler(HttpServletRequest request) throws Exception {
+		Object previousLookupPath = request.getAttribute(UrlPathHelper.PATH_ATTRIBUTE);
+		try {
+			return doGetHandler(request);
+		}
+		finally {
+			// The resolved lookup path is specific to this handler mapping
+			if (previousLookupPath != null) {
+				request.setAttribute(UrlPathHelper.PATH_ATTRIBUTE, previousLookupPath);
+			}
+			else {
+				request.removeAttribute(UrlPathHelper.PATH_ATTRIBUTE);
+			}
+		}
+	}
+
+	@Nullable
+	private HandlerExecutionChain doGetHandler(HttpServletRequest request) throws Exception {
 		Object handler = getHandlerInternal(request);
 		if (handler == null) {
 			handler = getDefaultHandler();
@@ -396,6 +413,19 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 	@Nullable
 	protected abstract Object getHandlerInternal(HttpServletRequest request) throws Exception;
 
+	/**
+	 * Resolve the lookup path for the given request through the configured
+	 * {@link UrlPathHelper} and keep it as a request attribute for the rest
+	 * of the handler lookup, including conditions and interceptor mappings.
+	 * @param request current HTTP request
+	 * @return the lookup path
+	 * @since 5.0
+	 * @see UrlPathHelper#resolveAndCacheLookupPath
+	 */
+	protected String initLookupPath(HttpServletRequest request) {
+		return this.urlPathHelper.resolveAndCacheLookupPath(request);
+	}
+
 	/**
 	 * Build a {@link HandlerExecutionChain} for the given handler, including
 	 * applicable interceptors.
@@ -420,7 +450,10 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 		HandlerExecutionChain chain = (handler instanceof HandlerExecutionChain ?
 				(HandlerExecutionChain) handler : new HandlerExecutionChain(handler));
 
-		String lookupPath = this.urlPathHelper.getLookupPathForRequest(request);
+		String lookupPath = UrlPathHelper.getResolvedLookupPath(request);
+		if (lookupPath == null) {
+			lookupPath = this.urlPathHelper.getLookupPathForRequest(request);
+		}
 		for (HandlerInterceptor interceptor : this.adaptedInterceptors) {
 			if (interceptor instanceof MappedInterceptor) {
 				MappedInterceptor mappedInterceptor = (MappedInterceptor) interceptor;
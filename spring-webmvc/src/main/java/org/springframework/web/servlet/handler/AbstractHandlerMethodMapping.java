@@ -23,10 +23,13 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import javax.servlet.ServletException;
@@ -36,15 +39,21 @@ import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.MethodIntrospector;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.lang.Nullable;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.PathMatcher;
+import org.springframework.util.StringUtils;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsUtils;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.pattern.ParsingPathMatcher;
 
 /**
  * Abstract base class for {@link HandlerMapping} implementations that define
@@ -74,6 +83,11 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	 */
 	private static final String SCOPED_TARGET_NAME_PREFIX = "scopedTarget.";
 
+	/**
+	 * Default maximum number of lookup paths for which to cache candidate mappings.
+	 */
+	public static final int DEFAULT_CANDIDATE_CACHE_LIMIT = 1024;
+
 	private static final HandlerMethod PREFLIGHT_AMBIGUOUS_MATCH =
 			new HandlerMethod(new EmptyHandler(), ClassUtils.getMethod(EmptyHandler.class, "handle"));
 
@@ -91,6 +105,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 	private HandlerMethodMappingNamingStrategy<T> namingStrategy;
 
+	private volatile int candidateCacheLimit = DEFAULT_CANDIDATE_CACHE_LIMIT;
+
 	private final MappingRegistry mappingRegistry = new MappingRegistry();
 
 
@@ -125,6 +141,26 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		return this.namingStrategy;
 	}
 
+	/**
+	 * Specify the maximum number of cached candidate mapping lists, used for
+	 * lookup paths without a direct match. A list is cached per node of the
+	 * index of literal path prefixes and per standard HTTP method, so lookup
+	 * paths that share the same literal prefix share the same entry. Once the
+	 * limit is reached, further candidate lists are determined per request.
+	 * <p>Default is 1024. A limit of 0 turns the cache off.
+	 */
+	public void setCandidateCacheLimit(int candidateCacheLimit) {
+		this.candidateCacheLimit = candidateCacheLimit;
+		this.mappingRegistry.clearCandidateCache();
+	}
+
+	/**
+	 * Return the maximum number of cached candidate mapping lists.
+	 */
+	public int getCandidateCacheLimit() {
+		return this.candidateCacheLimit;
+	}
+
 	/**
 	 * Return a (read-only) map with all mappings and HandlerMethod's.
 	 */
@@ -310,7 +346,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	 */
 	@Override
 	protected HandlerMethod getHandlerInternal(HttpServletRequest request) throws Exception {
-		String lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
+		String lookupPath = initLookupPath(request);
 		if (logger.isDebugEnabled()) {
 			logger.debug("Looking up handler method for path " + lookupPath);
 		}
@@ -349,8 +385,14 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			addMatchingMappings(directPathMatches, matches, request);
 		}
 		if (matches.isEmpty()) {
-			// No choice but to go through all mappings...
-			addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, request);
+			if (isIndexedLookupSupported()) {
+				// Only mappings with a matching literal path prefix and HTTP method...
+				addMatchingMappings(this.mappingRegistry.getCandidateMappings(lookupPath, request), matches, request);
+			}
+			else {
+				// No choice but to go through all mappings...
+				addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, request);
+			}
 		}
 
 		if (!matches.isEmpty()) {
@@ -381,6 +423,21 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		}
 	}
 
+	/**
+	 * Whether mappings can be narrowed down by the literal leading segments of
+	 * their path patterns, which requires a known {@link #getPathMatcher()}
+	 * that separates path segments with "/".
+	 */
+	private boolean isIndexedLookupSupported() {
+		PathMatcher pathMatcher = getPathMatcher();
+		Class<?> pathMatcherType = pathMatcher.getClass();
+		if (pathMatcherType == ParsingPathMatcher.class) {
+			return true;
+		}
+		// AntPathMatcher does not expose its path separator, but joins two literals with it
+		return (pathMatcherType == AntPathMatcher.class && "a/b".equals(pathMatcher.combine("a", "b")));
+	}
+
 	private void addMatchingMappings(Collection<T> mappings, List<Match> matches, HttpServletRequest request) {
 		for (T mapping : mappings) {
 			T match = getMatchingMapping(mapping, request);
@@ -456,6 +513,18 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	 */
 	protected abstract Set<String> getMappingPathPatterns(T mapping);
 
+	/**
+	 * Extract and return the HTTP methods a mapping is restricted to, used to
+	 * narrow down the mappings to check for a request. An empty set means that
+	 * the mapping may match any HTTP method.
+	 * <p>The default implementation returns an empty set.
+	 * @param mapping the mapping to get the HTTP methods for
+	 * @since 5.0
+	 */
+	protected Set<String> getMappingHttpMethods(T mapping) {
+		return Collections.emptySet();
+	}
+
 	/**
 	 * Check if a mapping matches the current request and return a (potentially
 	 * new) mapping with conditions relevant to the current request.
@@ -493,6 +562,10 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
 
+		private final IndexNode indexRoot = new IndexNode();
+
+		private final AtomicInteger candidateCacheSize = new AtomicInteger();
+
 		private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
 
 		/**
@@ -511,6 +584,77 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.urlLookup.get(urlPath);
 		}
 
+		/**
+		 * Return the mappings that may match the given lookup path and the HTTP
+		 * method of the given request, based on the literal leading segments of
+		 * their path patterns and the HTTP methods they are restricted to.
+		 * Not thread-safe.
+		 * @see #acquireReadLock()
+		 */
+		public Collection<T> getCandidateMappings(String lookupPath, HttpServletRequest request) {
+			String[] segments = getIndexSegments(lookupPath);
+			List<IndexNode> nodes = new ArrayList<>(segments.length + 1);
+			IndexNode node = this.indexRoot;
+			nodes.add(node);
+			for (String segment : segments) {
+				node = node.children.get(segment);
+				if (node == null) {
+					break;
+				}
+				nodes.add(node);
+			}
+
+			// The candidates depend only on the deepest node reached and the HTTP method
+			IndexNode deepest = nodes.get(nodes.size() - 1);
+			String cacheKey = (getCandidateCacheLimit() > 0 && !CorsUtils.isPreFlightRequest(request) &&
+					HttpMethod.resolve(request.getMethod()) != null ? request.getMethod() : null);
+			if (cacheKey != null) {
+				Collection<T> candidates = deepest.candidateCache.get(cacheKey);
+				if (candidates != null) {
+					return candidates;
+				}
+			}
+
+			Set<String> httpMethods = getLookupHttpMethods(request);
+			Set<T> candidates = new LinkedHashSet<>();
+			for (IndexNode current : nodes) {
+				current.addMappings(httpMethods, candidates);
+			}
+
+			if (cacheKey != null && this.candidateCacheSize.get() < getCandidateCacheLimit() &&
+					deepest.candidateCache.putIfAbsent(cacheKey, candidates) == null) {
+				this.candidateCacheSize.incrementAndGet();
+			}
+			return candidates;
+		}
+
+		private Set<String> getLookupHttpMethods(HttpServletRequest request) {
+			Set<String> httpMethods = new LinkedHashSet<>(4);
+			httpMethods.add(IndexNode.ANY_METHOD);
+			httpMethods.add(request.getMethod());
+			if (HttpMethod.HEAD.matches(request.getMethod())) {
+				httpMethods.add(HttpMethod.GET.name());
+			}
+			if (CorsUtils.isPreFlightRequest(request)) {
+				httpMethods.add(request.getHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD));
+			}
+			return httpMethods;
+		}
+
+		/**
+		 * Clear the cache of candidate mappings. Thread-safe for concurrent use.
+		 */
+		public void clearCandidateCache() {
+			this.readWriteLock.writeLock().lock();
+			try {
+				this.indexRoot.clearCandidateCache();
+				this.candidateCacheSize.set(0);
+			}
+			finally {
+				this.readWriteLock.writeLock().unlock();
+			}
+		}
+
 		/**
 		 * Return handler methods by mapping name. Thread-safe for concurrent use.
 		 */
@@ -556,6 +700,11 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					this.urlLookup.add(url, mapping);
 				}
 
+				for (IndexNode node : getIndexNodes(mapping, true)) {
+					node.add(mapping, getMappingHttpMethods(mapping));
+				}
+				clearCandidateCache();
+
 				String name = null;
 				if (getNamingStrategy() != null) {
 					name = getNamingStrategy().getName(handlerMethod, mapping);
@@ -594,6 +743,45 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return urls;
 		}
 
+		/**
+		 * Return the index nodes for the literal path prefixes of the given mapping.
+		 */
+		private Set<IndexNode> getIndexNodes(T mapping, boolean create) {
+			Set<String> patterns = getMappingPathPatterns(mapping);
+			if (patterns.isEmpty()) {
+				return Collections.singleton(this.indexRoot);
+			}
+			Set<IndexNode> nodes = new LinkedHashSet<>(patterns.size());
+			for (String pattern : patterns) {
+				String[] segments = getIndexSegments(pattern);
+				IndexNode node = this.indexRoot;
+				// The last segment may be matched with a suffix or in some other way
+				for (int i = 0; i < segments.length - 1 && node != null; i++) {
+					if (!isLiteral(segments[i])) {
+						break;
+					}
+					node = (create ? node.children.computeIfAbsent(segments[i], key -> new IndexNode()) :
+							node.children.get(segments[i]));
+				}
+				if (node != null) {
+					nodes.add(node);
+				}
+			}
+			return nodes;
+		}
+
+		/**
+		 * Split a path or pattern into lower-cased, trimmed, non-empty segments,
+		 * so that index lookups are lenient towards all supported matcher options.
+		 */
+		private String[] getIndexSegments(String path) {
+			return StringUtils.tokenizeToStringArray(path.toLowerCase(Locale.ROOT), "/");
+		}
+
+		private boolean isLiteral(String segment) {
+			return (segment.indexOf('*') == -1 && segment.indexOf('?') == -1 && segment.indexOf('{') == -1);
+		}
+
 		private void addMappingName(String name, HandlerMethod handlerMethod) {
 			List<HandlerMethod> oldList = this.nameLookup.get(name);
 			if (oldList == null) {
@@ -643,6 +831,11 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					}
 				}
 
+				for (IndexNode node : getIndexNodes(definition.getMapping(), false)) {
+					node.remove(definition.getMapping());
+				}
+				clearCandidateCache();
+
 				removeMappingName(definition);
 
 				this.corsLookup.remove(definition.getHandlerMethod());
@@ -677,6 +870,53 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	}
 
 
+	/**
+	 * A node in the index of mappings by the literal leading segments of their
+	 * path patterns, holding the mappings whose literal prefix ends here.
+	 */
+	private class IndexNode {
+
+		static final String ANY_METHOD = "*";
+
+		final Map<String, IndexNode> children = new HashMap<>();
+
+		final MultiValueMap<String, T> mappingsByMethod = new LinkedMultiValueMap<>();
+
+		final Map<String, Collection<T>> candidateCache = new ConcurrentHashMap<>(4);
+
+		void add(T mapping, Set<String> httpMethods) {
+			if (httpMethods.isEmpty()) {
+				this.mappingsByMethod.add(ANY_METHOD, mapping);
+			}
+			for (String httpMethod : httpMethods) {
+				this.mappingsByMethod.add(httpMethod, mapping);
+			}
+		}
+
+		void remove(T mapping) {
+			for (List<T> mappings : this.mappingsByMethod.values()) {
+				mappings.remove(mapping);
+			}
+		}
+
+		void addMappings(Set<String> httpMethods, Set<T> result) {
+			for (String httpMethod : httpMethods) {
+				List<T> mappings = this.mappingsByMethod.get(httpMethod);
+				if (mappings != null) {
+					result.addAll(mappings);
+				}
+			}
+		}
+
+		void clearCandidateCache() {
+			this.candidateCache.clear();
+			for (IndexNode child : this.children.values()) {
+				child.clearCandidateCache();
+			}
+		}
+	}
+
+
 	private static class MappingRegistration<T> {
 
 		private final T mapping;
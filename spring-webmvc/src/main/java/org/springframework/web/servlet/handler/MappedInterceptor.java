@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package org.springframework.web.servlet.handler;
 
+import java.util.Arrays;
+import java.util.List;
+
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -48,6 +51,12 @@ public final class MappedInterceptor implements HandlerInterceptor {
 
 	private final String[] excludePatterns;
 
+	@Nullable
+	private final List<String> includePatternList;
+
+	@Nullable
+	private final List<String> excludePatternList;
+
 	private final HandlerInterceptor interceptor;
 
 	private PathMatcher pathMatcher;
@@ -71,6 +80,8 @@ public final class MappedInterceptor implements HandlerInterceptor {
 	public MappedInterceptor(@Nullable String[] includePatterns, String[] excludePatterns, HandlerInterceptor interceptor) {
 		this.includePatterns = includePatterns;
 		this.excludePatterns = excludePatterns;
+		this.includePatternList = (includePatterns != null ? Arrays.asList(includePatterns) : null);
+		this.excludePatternList = (excludePatterns != null ? Arrays.asList(excludePatterns) : null);
 		this.interceptor = interceptor;
 	}
 
@@ -151,23 +162,9 @@ public final class MappedInterceptor implements HandlerInterceptor {
 	 */
 	public boolean matches(String lookupPath, PathMatcher pathMatcher) {
 		PathMatcher pathMatcherToUse = (this.pathMatcher != null) ? this.pathMatcher : pathMatcher;
-		if (this.excludePatterns != null) {
-			for (String pattern : this.excludePatterns) {
-				if (pathMatcherToUse.match(pattern, lookupPath)) {
-					return false;
-				}
-			}
-		}
-		if (this.includePatterns == null) {
-			return true;
-		}
-		else {
-			for (String pattern : this.includePatterns) {
-				if (pathMatcherToUse.match(pattern, lookupPath)) {
-					return true;
-				}
-			}
+		if (this.excludePatternList != null && pathMatcherToUse.match(this.excludePatternList, lookupPath)) {
 			return false;
 		}
+		return (this.includePatternList == null || pathMatcherToUse.match(this.includePatternList, lookupPath));
 	}
 }
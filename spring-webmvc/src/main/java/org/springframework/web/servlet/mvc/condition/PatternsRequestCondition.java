@@ -32,6 +32,7 @@ import org.springframework.util.AntPathMatcher;
 import org.springframework.util.PathMatcher;
 import org.springframework.util.StringUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.ParsingPathMatcher;
 
 /**
  * A logical disjunction (' || ') request condition that matches a request
@@ -207,7 +208,10 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 			return this;
 		}
 
-		String lookupPath = this.pathHelper.getLookupPathForRequest(request);
+		String lookupPath = UrlPathHelper.getResolvedLookupPath(request);
+		if (lookupPath == null) {
+			lookupPath = this.pathHelper.getLookupPathForRequest(request);
+		}
 		List<String> matches = getMatchingPatterns(lookupPath);
 
 		return matches.isEmpty() ? null :
@@ -240,7 +244,14 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		if (pattern.equals(lookupPath)) {
 			return pattern;
 		}
-		if (this.useSuffixPatternMatch) {
+		boolean parsedPatterns = (this.pathMatcher instanceof ParsingPathMatcher);
+		if (this.useSuffixPatternMatch && parsedPatterns) {
+			String match = getMatchingSuffixPattern(pattern, lookupPath);
+			if (match != null) {
+				return match;
+			}
+		}
+		else if (this.useSuffixPatternMatch) {
 			if (!this.fileExtensions.isEmpty() && lookupPath.indexOf('.') != -1) {
 				for (String extension : this.fileExtensions) {
 					if (this.pathMatcher.match(pattern + extension, lookupPath)) {
@@ -258,7 +269,7 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		if (this.pathMatcher.match(pattern, lookupPath)) {
 			return pattern;
 		}
-		if (this.useTrailingSlashMatch) {
+		if (this.useTrailingSlashMatch && !(parsedPatterns && isCatchAllPattern(pattern))) {
 			if (!pattern.endsWith("/") && this.pathMatcher.match(pattern + "/", lookupPath)) {
 				return pattern +"/";
 			}
@@ -266,6 +277,37 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		return null;
 	}
 
+	/**
+	 * Suffix pattern matching for a {@link ParsingPathMatcher}: rather than
+	 * appending ".*" to the pattern, which is not valid for every path pattern,
+	 * match the pattern against the lookup path without its file extension.
+	 */
+	private String getMatchingSuffixPattern(String pattern, String lookupPath) {
+		int extensionIndex = lookupPath.lastIndexOf('.');
+		if (extensionIndex <= lookupPath.lastIndexOf('/') || isCatchAllPattern(pattern)) {
+			return null;
+		}
+		String extension = lookupPath.substring(extensionIndex);
+		String pathWithoutExtension = lookupPath.substring(0, extensionIndex);
+		if (!this.fileExtensions.isEmpty()) {
+			if (this.fileExtensions.contains(extension) && this.pathMatcher.match(pattern, pathWithoutExtension)) {
+				return pattern + extension;
+			}
+		}
+		else if (pattern.indexOf('.') == -1 && this.pathMatcher.match(pattern, pathWithoutExtension)) {
+			return pattern + ".*";
+		}
+		return null;
+	}
+
+	/**
+	 * Whether the pattern ends with "**" or a "{*...}" capture and therefore
+	 * already matches any suffix.
+	 */
+	private boolean isCatchAllPattern(String pattern) {
+		return (pattern.endsWith("**") || pattern.contains("{*"));
+	}
+
 	/**
 	 * Compare the two conditions based on the URL patterns they contain.
 	 * Patterns are compared one at a time, from top to bottom via
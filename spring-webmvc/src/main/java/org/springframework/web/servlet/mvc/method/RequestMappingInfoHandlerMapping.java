@@ -83,6 +83,22 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 		return info.getPatternsCondition().getPatterns();
 	}
 
+	/**
+	 * Get the HTTP methods associated with this {@link RequestMappingInfo}.
+	 */
+	@Override
+	protected Set<String> getMappingHttpMethods(RequestMappingInfo info) {
+		Set<RequestMethod> methods = info.getMethodsCondition().getMethods();
+		if (methods.isEmpty()) {
+			return Collections.emptySet();
+		}
+		Set<String> result = new LinkedHashSet<>(methods.size());
+		for (RequestMethod method : methods) {
+			result.add(method.name());
+		}
+		return result;
+	}
+
 	/**
 	 * Check if the given RequestMappingInfo matches the current request and
 	 * return a (potentially new) instance with conditions that match the
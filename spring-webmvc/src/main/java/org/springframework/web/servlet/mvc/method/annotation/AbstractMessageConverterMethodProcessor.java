@@ -42,6 +42,8 @@ import org.springframework.http.server.ServletServerHttpRequest;
 import org.springframework.http.server.ServletServerHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.accept.ContentNegotiationManager;
@@ -78,6 +80,8 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 
 	private static final UrlPathHelper RAW_URL_PATH_HELPER = new UrlPathHelper();
 
+	private static final int NEGOTIATION_CACHE_LIMIT = 256;
+
 	static {
 		RAW_URL_PATH_HELPER.setRemoveSemicolonContent(false);
 		RAW_URL_PATH_HELPER.setUrlDecode(false);
@@ -90,6 +94,12 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 
 	private final Set<String> safeExtensions = new HashSet<>();
 
+	private final ConcurrentLruCache<WriteTypeKey, List<MediaType>> producibleMediaTypesCache =
+			new ConcurrentLruCache<>(NEGOTIATION_CACHE_LIMIT, this::initProducibleMediaTypes);
+
+	private final ConcurrentLruCache<NegotiationKey, NegotiationResult> negotiationCache =
+			new ConcurrentLruCache<>(NEGOTIATION_CACHE_LIMIT, this::negotiate);
+
 
 	/**
 	 * Constructor with list of converters only.
@@ -188,72 +198,36 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 			throw new IllegalArgumentException("No converter found for return value of type: " + valueType);
 		}
 
-		Set<MediaType> compatibleMediaTypes = new LinkedHashSet<>();
-		for (MediaType requestedType : requestedMediaTypes) {
-			for (MediaType producibleType : producibleMediaTypes) {
-				if (requestedType.isCompatibleWith(producibleType)) {
-					compatibleMediaTypes.add(getMostSpecificMediaType(requestedType, producibleType));
-				}
-			}
-		}
-		if (compatibleMediaTypes.isEmpty()) {
+		NegotiationResult result = this.negotiationCache.get(
+				new NegotiationKey(requestedMediaTypes, producibleMediaTypes, valueType, declaredType));
+		if (!result.hasCompatibleMediaTypes()) {
 			if (outputValue != null) {
 				throw new HttpMediaTypeNotAcceptableException(producibleMediaTypes);
 			}
 			return;
 		}
 
-		List<MediaType> mediaTypes = new ArrayList<>(compatibleMediaTypes);
-		MediaType.sortBySpecificityAndQuality(mediaTypes);
-
-		MediaType selectedMediaType = null;
-		for (MediaType mediaType : mediaTypes) {
-			if (mediaType.isConcrete()) {
-				selectedMediaType = mediaType;
-				break;
-			}
-			else if (mediaType.equals(MediaType.ALL) || mediaType.equals(MEDIA_TYPE_APPLICATION)) {
-				selectedMediaType = MediaType.APPLICATION_OCTET_STREAM;
-				break;
-			}
-		}
-
-		if (selectedMediaType != null) {
-			selectedMediaType = selectedMediaType.removeQualityValue();
-			for (HttpMessageConverter<?> messageConverter : this.messageConverters) {
+		MediaType selectedMediaType = result.getSelectedMediaType();
+		HttpMessageConverter<?> messageConverter = result.getMessageConverter();
+		if (selectedMediaType != null && messageConverter != null) {
+			outputValue = (T) getAdvice().beforeBodyWrite(outputValue, returnType, selectedMediaType,
+					(Class<? extends HttpMessageConverter<?>>) messageConverter.getClass(),
+					inputMessage, outputMessage);
+			if (outputValue != null) {
+				addContentDispositionHeader(inputMessage, outputMessage);
 				if (messageConverter instanceof GenericHttpMessageConverter) {
-					if (((GenericHttpMessageConverter) messageConverter).canWrite(
-							declaredType, valueType, selectedMediaType)) {
-						outputValue = (T) getAdvice().beforeBodyWrite(outputValue, returnType, selectedMediaType,
-								(Class<? extends HttpMessageConverter<?>>) messageConverter.getClass(),
-								inputMessage, outputMessage);
-						if (outputValue != null) {
-							addContentDispositionHeader(inputMessage, outputMessage);
-							((GenericHttpMessageConverter) messageConverter).write(
-									outputValue, declaredType, selectedMediaType, outputMessage);
-							if (logger.isDebugEnabled()) {
-								logger.debug("Written [" + outputValue + "] as \"" + selectedMediaType +
-										"\" using [" + messageConverter + "]");
-							}
-						}
-						return;
-					}
+					((GenericHttpMessageConverter) messageConverter).write(
+							outputValue, declaredType, selectedMediaType, outputMessage);
 				}
-				else if (messageConverter.canWrite(valueType, selectedMediaType)) {
-					outputValue = (T) getAdvice().beforeBodyWrite(outputValue, returnType, selectedMediaType,
-							(Class<? extends HttpMessageConverter<?>>) messageConverter.getClass(),
-							inputMessage, outputMessage);
-					if (outputValue != null) {
-						addContentDispositionHeader(inputMessage, outputMessage);
-						((HttpMessageConverter) messageConverter).write(outputValue, selectedMediaType, outputMessage);
-						if (logger.isDebugEnabled()) {
-							logger.debug("Written [" + outputValue + "] as \"" + selectedMediaType +
-									"\" using [" + messageConverter + "]");
-						}
-					}
-					return;
+				else {
+					((HttpMessageConverter) messageConverter).write(outputValue, selectedMediaType, outputMessage);
+				}
+				if (logger.isDebugEnabled()) {
+					logger.debug("Written [" + outputValue + "] as \"" + selectedMediaType +
+							"\" using [" + messageConverter + "]");
 				}
 			}
+			return;
 		}
 
 		if (outputValue != null) {
@@ -308,29 +282,86 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 			return new ArrayList<>(mediaTypes);
 		}
 		else if (!this.allSupportedMediaTypes.isEmpty()) {
-			List<MediaType> result = new ArrayList<>();
-			for (HttpMessageConverter<?> converter : this.messageConverters) {
-				if (converter instanceof GenericHttpMessageConverter && declaredType != null) {
-					if (((GenericHttpMessageConverter<?>) converter).canWrite(declaredType, valueClass, null)) {
-						result.addAll(converter.getSupportedMediaTypes());
-					}
-				}
-				else if (converter.canWrite(valueClass, null)) {
-					result.addAll(converter.getSupportedMediaTypes());
-				}
-			}
-			return result;
+			return new ArrayList<>(this.producibleMediaTypesCache.get(new WriteTypeKey(valueClass, declaredType)));
 		}
 		else {
 			return Collections.singletonList(MediaType.ALL);
 		}
 	}
 
+	private List<MediaType> initProducibleMediaTypes(WriteTypeKey key) {
+		Class<?> valueClass = key.valueClass;
+		Type declaredType = key.declaredType;
+		List<MediaType> result = new ArrayList<>();
+		for (HttpMessageConverter<?> converter : this.messageConverters) {
+			if (converter instanceof GenericHttpMessageConverter && declaredType != null) {
+				if (((GenericHttpMessageConverter<?>) converter).canWrite(declaredType, valueClass, null)) {
+					result.addAll(converter.getSupportedMediaTypes());
+				}
+			}
+			else if (converter.canWrite(valueClass, null)) {
+				result.addAll(converter.getSupportedMediaTypes());
+			}
+		}
+		return Collections.unmodifiableList(result);
+	}
+
 	private List<MediaType> getAcceptableMediaTypes(HttpServletRequest request) throws HttpMediaTypeNotAcceptableException {
 		List<MediaType> mediaTypes = this.contentNegotiationManager.resolveMediaTypes(new ServletWebRequest(request));
 		return (mediaTypes.isEmpty() ? Collections.singletonList(MediaType.ALL) : mediaTypes);
 	}
 
+	/**
+	 * Select the media type to write and the converter to write it with, based
+	 * on the requested and producible media types and on the value type.
+	 * Invoked once per distinct {@link NegotiationKey}, with the outcome cached.
+	 */
+	@SuppressWarnings("unchecked")
+	private NegotiationResult negotiate(NegotiationKey key) {
+		Set<MediaType> compatibleMediaTypes = new LinkedHashSet<>();
+		for (MediaType requestedType : key.requestedMediaTypes) {
+			for (MediaType producibleType : key.producibleMediaTypes) {
+				if (requestedType.isCompatibleWith(producibleType)) {
+					compatibleMediaTypes.add(getMostSpecificMediaType(requestedType, producibleType));
+				}
+			}
+		}
+		if (compatibleMediaTypes.isEmpty()) {
+			return NegotiationResult.NOT_COMPATIBLE;
+		}
+
+		List<MediaType> mediaTypes = new ArrayList<>(compatibleMediaTypes);
+		MediaType.sortBySpecificityAndQuality(mediaTypes);
+
+		MediaType selectedMediaType = null;
+		for (MediaType mediaType : mediaTypes) {
+			if (mediaType.isConcrete()) {
+				selectedMediaType = mediaType;
+				break;
+			}
+			else if (mediaType.equals(MediaType.ALL) || mediaType.equals(MEDIA_TYPE_APPLICATION)) {
+				selectedMediaType = MediaType.APPLICATION_OCTET_STREAM;
+				break;
+			}
+		}
+
+		if (selectedMediaType != null) {
+			selectedMediaType = selectedMediaType.removeQualityValue();
+			for (HttpMessageConverter<?> messageConverter : this.messageConverters) {
+				if (messageConverter instanceof GenericHttpMessageConverter) {
+					if (((GenericHttpMessageConverter) messageConverter).canWrite(
+							key.declaredType, key.valueClass, selectedMediaType)) {
+						return new NegotiationResult(selectedMediaType, messageConverter);
+					}
+				}
+				else if (messageConverter.canWrite(key.valueClass, selectedMediaType)) {
+					return new NegotiationResult(selectedMediaType, messageConverter);
+				}
+			}
+		}
+		return new NegotiationResult(selectedMediaType, null);
+	}
+
 	/**
 	 * Return the more specific of the acceptable and the producible media types
 	 * with the q-value of the former.
@@ -435,4 +466,118 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 				mediaType.getSubtype().endsWith("+xml"));
 	}
 
+
+
+	/**
+	 * Cache key for the media types producible for a given value type.
+	 */
+	private static class WriteTypeKey {
+
+		protected final Class<?> valueClass;
+
+		protected final Type declaredType;
+
+		public WriteTypeKey(Class<?> valueClass, @Nullable Type declaredType) {
+			this.valueClass = valueClass;
+			this.declaredType = declaredType;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (other == null || getClass() != other.getClass()) {
+				return false;
+			}
+			WriteTypeKey otherKey = (WriteTypeKey) other;
+			return (this.valueClass == otherKey.valueClass &&
+					ObjectUtils.nullSafeEquals(this.declaredType, otherKey.declaredType));
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.valueClass.hashCode() * 29 + ObjectUtils.nullSafeHashCode(this.declaredType));
+		}
+	}
+
+
+	/**
+	 * Cache key for content negotiation: the requested and producible media
+	 * types of a request along with the type of the value to write.
+	 */
+	private static final class NegotiationKey extends WriteTypeKey {
+
+		private final List<MediaType> requestedMediaTypes;
+
+		private final List<MediaType> producibleMediaTypes;
+
+		public NegotiationKey(List<MediaType> requestedMediaTypes, List<MediaType> producibleMediaTypes,
+				Class<?> valueClass, @Nullable Type declaredType) {
+
+			super(valueClass, declaredType);
+			this.requestedMediaTypes = requestedMediaTypes;
+			this.producibleMediaTypes = producibleMediaTypes;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!super.equals(other)) {
+				return false;
+			}
+			NegotiationKey otherKey = (NegotiationKey) other;
+			return (this.requestedMediaTypes.equals(otherKey.requestedMediaTypes) &&
+					this.producibleMediaTypes.equals(otherKey.producibleMediaTypes));
+		}
+
+		@Override
+		public int hashCode() {
+			int hashCode = super.hashCode();
+			hashCode = hashCode * 29 + this.requestedMediaTypes.hashCode();
+			hashCode = hashCode * 29 + this.producibleMediaTypes.hashCode();
+			return hashCode;
+		}
+	}
+
+
+	/**
+	 * The outcome of content negotiation for a {@link NegotiationKey}.
+	 */
+	private static final class NegotiationResult {
+
+		public static final NegotiationResult NOT_COMPATIBLE = new NegotiationResult(false, null, null);
+
+		private final boolean compatibleMediaTypes;
+
+		private final MediaType selectedMediaType;
+
+		private final HttpMessageConverter<?> messageConverter;
+
+		public NegotiationResult(@Nullable MediaType selectedMediaType, @Nullable HttpMessageConverter<?> converter) {
+			this(true, selectedMediaType, converter);
+		}
+
+		private NegotiationResult(boolean compatibleMediaTypes, @Nullable MediaType selectedMediaType,
+				@Nullable HttpMessageConverter<?> messageConverter) {
+
+			this.compatibleMediaTypes = compatibleMediaTypes;
+			this.selectedMediaType = selectedMediaType;
+			this.messageConverter = messageConverter;
+		}
+
+		public boolean hasCompatibleMediaTypes() {
+			return this.compatibleMediaTypes;
+		}
+
+		@Nullable
+		public MediaType getSelectedMediaType() {
+			return this.selectedMediaType;
+		}
+
+		@Nullable
+		public HttpMessageConverter<?> getMessageConverter() {
+			return this.messageConverter;
+		}
+	}
+
 }
@@ -158,6 +158,8 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 	private ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
+	private boolean useMethodHandles = false;
+
 	private ConfigurableBeanFactory beanFactory;
 
 
@@ -515,6 +517,18 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		this.parameterNameDiscoverer = parameterNameDiscoverer;
 	}
 
+	/**
+	 * Whether to invoke handler methods, as well as {@code @ModelAttribute} and
+	 * {@code @InitBinder} methods, through method handles rather than through
+	 * reflection, whenever the resolved arguments allow for it.
+	 * <p>Default is "false".
+	 * @since 5.0
+	 * @see InvocableHandlerMethod#setUseMethodHandles
+	 */
+	public void setUseMethodHandles(boolean useMethodHandles) {
+		this.useMethodHandles = useMethodHandles;
+	}
+
 	/**
 	 * A {@link ConfigurableBeanFactory} is expected for resolving expressions
 	 * in method argument default values.
@@ -829,6 +843,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 			invocableMethod.setHandlerMethodReturnValueHandlers(this.returnValueHandlers);
 			invocableMethod.setDataBinderFactory(binderFactory);
 			invocableMethod.setParameterNameDiscoverer(this.parameterNameDiscoverer);
+			invocableMethod.setUseMethodHandles(this.useMethodHandles);
 
 			ModelAndViewContainer mavContainer = new ModelAndViewContainer();
 			mavContainer.addAllAttributes(RequestContextUtils.getInputFlashMap(request));
@@ -906,6 +921,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		attrMethod.setHandlerMethodArgumentResolvers(this.argumentResolvers);
 		attrMethod.setParameterNameDiscoverer(this.parameterNameDiscoverer);
 		attrMethod.setDataBinderFactory(factory);
+		attrMethod.setUseMethodHandles(this.useMethodHandles);
 		return attrMethod;
 	}
 
@@ -938,6 +954,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		binderMethod.setHandlerMethodArgumentResolvers(this.initBinderArgumentResolvers);
 		binderMethod.setDataBinderFactory(new DefaultDataBinderFactory(this.webBindingInitializer));
 		binderMethod.setParameterNameDiscoverer(this.parameterNameDiscoverer);
+		binderMethod.setUseMethodHandles(this.useMethodHandles);
 		return binderMethod;
 	}
 
@@ -17,6 +17,9 @@
 package org.springframework.web.servlet.handler;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -40,7 +43,9 @@ import org.springframework.web.util.UrlPathHelper;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 
 /**
@@ -102,6 +107,95 @@ public class HandlerMethodMappingTests {
 		this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/foo"));
 	}
 
+	@Test
+	public void patternMatchWithLiteralPrefix() throws Exception {
+		this.mapping.registerMapping("/foo/{id}", this.handler, this.method1);
+		this.mapping.registerMapping("/bar/{id}", this.handler, this.method2);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo/1");
+		HandlerMethod result = this.mapping.getHandlerInternal(request);
+		assertEquals(method1, result.getMethod());
+
+		Collection<String> candidates = this.mapping.getMappingRegistry().getCandidateMappings("/foo/1", request);
+		assertEquals(Collections.singletonList("/foo/{id}"), new ArrayList<>(candidates));
+
+		result = this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/bar/1"));
+		assertEquals(method2, result.getMethod());
+	}
+
+	@Test
+	public void patternMatchAfterRegistrationChange() throws Exception {
+		this.mapping.registerMapping("/foo/{id}", this.handler, this.method1);
+		assertNull(this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/bar/1")));
+
+		this.mapping.registerMapping("/bar/{id}", this.handler, this.method2);
+		HandlerMethod result = this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/bar/1"));
+		assertEquals(method2, result.getMethod());
+
+		this.mapping.unregisterMapping("/bar/{id}");
+		assertNull(this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/bar/1")));
+	}
+
+	@Test
+	public void candidateMappingsByHttpMethod() throws Exception {
+		AbstractHandlerMethodMapping<String> mapping = new MyHandlerMethodMapping() {
+			@Override
+			protected Set<String> getMappingHttpMethods(String key) {
+				return (key.startsWith("/post") ? Collections.singleton("POST") : Collections.emptySet());
+			}
+		};
+		mapping.registerMapping("/post/{id}", this.handler, this.method1);
+		mapping.registerMapping("/{id}/{name}", this.handler, this.method2);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/post/1");
+		assertEquals(Collections.singletonList("/{id}/{name}"),
+				new ArrayList<>(mapping.getMappingRegistry().getCandidateMappings("/post/1", request)));
+		assertEquals(method2, mapping.getHandlerInternal(request).getMethod());
+
+		request = new MockHttpServletRequest("POST", "/post/1");
+		assertEquals(2, mapping.getMappingRegistry().getCandidateMappings("/post/1", request).size());
+	}
+
+	@Test
+	public void candidateMappingsCachedPerLiteralPrefix() throws Exception {
+		this.mapping.registerMapping("/foo/{id}", this.handler, this.method1);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo/1");
+		Collection<String> candidates = this.mapping.getMappingRegistry().getCandidateMappings("/foo/1", request);
+		request = new MockHttpServletRequest("GET", "/foo/2");
+		assertSame(candidates, this.mapping.getMappingRegistry().getCandidateMappings("/foo/2", request));
+
+		request = new MockHttpServletRequest("POST", "/foo/1");
+		assertNotSame(candidates, this.mapping.getMappingRegistry().getCandidateMappings("/foo/1", request));
+
+		this.mapping.setCandidateCacheLimit(0);
+		request = new MockHttpServletRequest("GET", "/foo/1");
+		candidates = this.mapping.getMappingRegistry().getCandidateMappings("/foo/1", request);
+		assertNotSame(candidates, this.mapping.getMappingRegistry().getCandidateMappings("/foo/1", request));
+	}
+
+	@Test
+	public void allMappingsCheckedWithCustomPathSeparator() throws Exception {
+		List<String> checked = new ArrayList<>();
+		AbstractHandlerMethodMapping<String> mapping = new MyHandlerMethodMapping() {
+			@Override
+			protected String getMatchingMapping(String pattern, HttpServletRequest request) {
+				checked.add(pattern);
+				return super.getMatchingMapping(pattern, request);
+			}
+		};
+		mapping.registerMapping("/foo/{id}", this.handler, this.method1);
+		mapping.registerMapping("/bar/{id}", this.handler, this.method2);
+
+		mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/foo/1"));
+		assertEquals(Collections.singletonList("/foo/{id}"), checked);
+
+		checked.clear();
+		mapping.setPathMatcher(new AntPathMatcher("."));
+		mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/foo/1"));
+		assertEquals(Arrays.asList("/foo/{id}", "/bar/{id}"), checked);
+	}
+
 	@Test
 	public void detectHandlerMethodsInAncestorContexts() {
 		StaticApplicationContext cxt = new StaticApplicationContext();
@@ -266,7 +360,7 @@ public class HandlerMethodMappingTests {
 
 		@Override
 		protected Set<String> getMappingPathPatterns(String key) {
-			return (this.pathMatcher.isPattern(key) ? Collections.<String>emptySet() : Collections.singleton(key));
+			return Collections.singleton(key);
 		}
 
 		@Override
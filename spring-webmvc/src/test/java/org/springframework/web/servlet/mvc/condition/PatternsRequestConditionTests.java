@@ -23,6 +23,8 @@ import javax.servlet.http.HttpServletRequest;
 import org.junit.Test;
 
 import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.ParsingPathMatcher;
 
 import static org.junit.Assert.*;
 
@@ -175,6 +177,60 @@ public class PatternsRequestConditionTests {
 		assertNull(match);
 	}
 
+	@Test
+	public void matchWithParsingPathMatcher() {
+		PatternsRequestCondition condition = new PatternsRequestCondition(
+				new String[] {"/foo/{id}", "/bar/**", "/baz/{*path}"}, null, new ParsingPathMatcher(), true, true);
+
+		PatternsRequestCondition match = condition.getMatchingCondition(new MockHttpServletRequest("GET", "/foo/1"));
+		assertNotNull(match);
+		assertEquals("/foo/{id}", match.getPatterns().iterator().next());
+
+		match = condition.getMatchingCondition(new MockHttpServletRequest("GET", "/foo/1.json"));
+		assertNotNull(match);
+		assertEquals("/foo/{id}.*", match.getPatterns().iterator().next());
+
+		match = condition.getMatchingCondition(new MockHttpServletRequest("GET", "/foo/1/"));
+		assertNotNull(match);
+		assertEquals("/foo/{id}/", match.getPatterns().iterator().next());
+
+		match = condition.getMatchingCondition(new MockHttpServletRequest("GET", "/bar/a/b.json"));
+		assertNotNull(match);
+		assertEquals("/bar/**", match.getPatterns().iterator().next());
+
+		match = condition.getMatchingCondition(new MockHttpServletRequest("GET", "/baz/a/b.json"));
+		assertNotNull(match);
+		assertEquals("/baz/{*path}", match.getPatterns().iterator().next());
+
+		assertNull(condition.getMatchingCondition(new MockHttpServletRequest("GET", "/qux/1")));
+	}
+
+	@Test
+	public void matchSuffixPatternUsingFileExtensionsWithParsingPathMatcher() {
+		PatternsRequestCondition condition = new PatternsRequestCondition(
+				new String[] {"/jobs/{jobName}"}, null, new ParsingPathMatcher(), true, false, Arrays.asList("json"));
+
+		PatternsRequestCondition match = condition.getMatchingCondition(new MockHttpServletRequest("GET", "/jobs/my.job"));
+		assertNotNull(match);
+		assertEquals("/jobs/{jobName}", match.getPatterns().iterator().next());
+
+		match = condition.getMatchingCondition(new MockHttpServletRequest("GET", "/jobs/my.job.json"));
+		assertNotNull(match);
+		assertEquals("/jobs/{jobName}.json", match.getPatterns().iterator().next());
+	}
+
+	@Test
+	public void matchResolvedLookupPath() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/foo");
+		request.setAttribute(UrlPathHelper.PATH_ATTRIBUTE, "/foo");
+
+		PatternsRequestCondition condition = new PatternsRequestCondition("/foo");
+		PatternsRequestCondition match = condition.getMatchingCondition(request);
+
+		assertNotNull(match);
+		assertEquals("/foo", match.getPatterns().iterator().next());
+	}
+
 	@Test
 	public void matchPatternContainsExtension() {
 		PatternsRequestCondition condition = new PatternsRequestCondition("/foo.jpg");
@@ -293,6 +293,25 @@ public class RequestResponseBodyMethodProcessorTests {
 		assertEquals("application/json;charset=UTF-8", servletResponse.getHeader("Content-Type"));
 	}
 
+	@Test
+	public void handleReturnValueWithDifferentAcceptHeaders() throws Exception {
+		List<HttpMessageConverter<?>> converters = new ArrayList<>();
+		converters.add(new MappingJackson2HttpMessageConverter());
+		converters.add(new StringHttpMessageConverter());
+		RequestResponseBodyMethodProcessor processor = new RequestResponseBodyMethodProcessor(converters);
+
+		for (String accept : new String[] {"application/json", "text/plain", "application/json"}) {
+			MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+			servletRequest.addHeader("Accept", accept);
+			MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+			ServletWebRequest request = new ServletWebRequest(servletRequest, servletResponse);
+
+			processor.writeWithMessageConverters("Foo", returnTypeString, request);
+
+			assertTrue(servletResponse.getHeader("Content-Type").startsWith(accept));
+		}
+	}
+
 	@Test
 	public void handleReturnValueString() throws Exception {
 		List<HttpMessageConverter<?>>converters = new ArrayList<>();